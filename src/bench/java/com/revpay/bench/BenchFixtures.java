@@ -0,0 +1,200 @@
+package com.revpay.bench;
+
+import at.favre.lib.crypto.bcrypt.BCrypt;
+import com.revpay.config.DatabaseConnection;
+import com.revpay.dao.BalanceCache;
+
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+/**
+ * Shared data set for the JMH benchmarks.
+ * <p>
+ * Seeds {@code revpay.bench.users} users (default 100,000) named {@code bench-<n>@revpay.test},
+ * each with a well-funded wallet, and tops the {@code transactions} table up to
+ * {@code revpay.bench.transactions} transfers between those users (default 1,000,000) spread
+ * over the last year. Seeding only inserts what is missing and derives every transfer from
+ * its row number and a fixed seed, so the first run pays for it once, an interrupted seed
+ * is completed with the rows it would have written, and later runs measure against the
+ * same data. Transactions of other users are not counted. Benchmarks that write
+ * call {@link #restore(long)} when their trial ends to get back to the seeded state.
+ * </p>
+ */
+final class BenchFixtures {
+
+    static final int USERS = Integer.getInteger("revpay.bench.users", 100_000);
+    static final long TRANSACTIONS = Long.getLong("revpay.bench.transactions", 1_000_000L);
+    static final String PASSWORD = "bench-password";
+
+    private static final String EMAIL_PREFIX = "bench-";
+    private static final String EMAIL_DOMAIN = "@revpay.test";
+    private static final int BATCH = 5_000;
+    private static final long YEAR_MILLIS = 365L * 24 * 3600 * 1000;
+    private static final String SEEDED_BALANCE = "1000000000.00";
+    private static final long SEED = 42;
+
+    private static int[] userIds;
+    private static String[] emails;
+
+    private BenchFixtures() {}
+
+    /**
+     * Makes sure the data set exists, seeding whatever is missing.
+     *
+     * @throws SQLException If the database cannot be reached or seeded.
+     */
+    static synchronized void ensureSeeded() throws SQLException {
+        if (userIds != null) {
+            return;
+        }
+        try (Connection conn = DatabaseConnection.getConnection()) {
+            conn.setAutoCommit(false);
+            seedUsers(conn);
+            loadUsers(conn);
+            seedTransactions(conn);
+            conn.setAutoCommit(true);
+        }
+    }
+
+    /**
+     * Gets the IDs of the seeded users, in ascending order.
+     * @return The user IDs.
+     */
+    static int[] userIds() {
+        return userIds;
+    }
+
+    /**
+     * Gets the emails of the seeded users, aligned with {@link #userIds()}.
+     * @return The emails.
+     */
+    static String[] emails() {
+        return emails;
+    }
+
+    /**
+     * Gets the highest transaction ID, to hand to {@link #restore(long)} after the trial.
+     *
+     * @return The highest transaction ID, or 0 if there are none.
+     * @throws SQLException If the database cannot be reached.
+     */
+    static long lastTransactionId() throws SQLException {
+        try (Connection conn = DatabaseConnection.getConnection()) {
+            return count(conn, "SELECT COALESCE(MAX(transaction_id), 0) FROM transactions");
+        }
+    }
+
+    /**
+     * Deletes the transactions added after {@code lastTransactionId} and resets the seeded
+     * wallets, so the data set keeps its seeded size from one trial to the next.
+     *
+     * @param lastTransactionId The value of {@link #lastTransactionId()} before the trial.
+     * @throws SQLException If the database cannot be reached.
+     */
+    static void restore(long lastTransactionId) throws SQLException {
+        try (Connection conn = DatabaseConnection.getConnection()) {
+            conn.setAutoCommit(false);
+            try (PreparedStatement ps = conn.prepareStatement("DELETE FROM transactions WHERE transaction_id > ?")) {
+                ps.setLong(1, lastTransactionId);
+                ps.executeUpdate();
+            }
+            try (Statement st = conn.createStatement()) {
+                st.executeUpdate("UPDATE wallets SET balance = " + SEEDED_BALANCE + " WHERE user_id IN "
+                        + "(SELECT user_id FROM users WHERE email LIKE '" + EMAIL_PREFIX + "%')");
+            }
+            conn.commit();
+            conn.setAutoCommit(true);
+        }
+        BalanceCache.getInstance().clear();
+    }
+
+    private static void seedUsers(Connection conn) throws SQLException {
+        int existing = (int) count(conn, "SELECT COUNT(*) FROM users WHERE email LIKE '" + EMAIL_PREFIX + "%'");
+        if (existing >= USERS) {
+            return;
+        }
+        String hash = BCrypt.withDefaults().hashToString(4, PASSWORD.toCharArray());
+        String sql = "INSERT INTO users (email, phone_number, password_hash, transaction_pin, full_name, role) VALUES (?, ?, ?, ?, ?, 'PERSONAL')";
+        try (PreparedStatement ps = conn.prepareStatement(sql)) {
+            for (int i = existing; i < USERS; i++) {
+                ps.setString(1, EMAIL_PREFIX + i + EMAIL_DOMAIN);
+                ps.setString(2, "0000000000");
+                ps.setString(3, hash);
+                ps.setString(4, "0000");
+                ps.setString(5, "Bench User " + i);
+                ps.addBatch();
+                if ((i + 1) % BATCH == 0) {
+                    ps.executeBatch();
+                    conn.commit();
+                }
+            }
+            ps.executeBatch();
+        }
+        try (Statement st = conn.createStatement()) {
+            st.executeUpdate("INSERT INTO wallets (user_id, balance) SELECT u.user_id, " + SEEDED_BALANCE + " FROM users u "
+                    + "WHERE u.email LIKE '" + EMAIL_PREFIX + "%' AND NOT EXISTS (SELECT 1 FROM wallets w WHERE w.user_id = u.user_id)");
+        }
+        conn.commit();
+    }
+
+    private static void loadUsers(Connection conn) throws SQLException {
+        List<Integer> ids = new ArrayList<>(USERS);
+        List<String> mails = new ArrayList<>(USERS);
+        try (PreparedStatement ps = conn.prepareStatement(
+                "SELECT user_id, email FROM users WHERE email LIKE '" + EMAIL_PREFIX + "%' ORDER BY user_id")) {
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    ids.add(rs.getInt(1));
+                    mails.add(rs.getString(2));
+                }
+            }
+        }
+        conn.commit();
+        userIds = ids.stream().mapToInt(Integer::intValue).toArray();
+        emails = mails.toArray(new String[0]);
+    }
+
+    private static void seedTransactions(Connection conn) throws SQLException {
+        long existing = count(conn, "SELECT COUNT(*) FROM transactions t JOIN users u ON u.user_id = t.sender_id "
+                + "WHERE u.email LIKE '" + EMAIL_PREFIX + "%'");
+        if (existing >= TRANSACTIONS) {
+            return;
+        }
+        long now = System.currentTimeMillis();
+        String sql = "INSERT INTO transactions (sender_id, receiver_id, amount, transaction_type, status, timestamp) "
+                + "VALUES (?, ?, ?, 'TRANSFER', 'SUCCESS', ?)";
+        try (PreparedStatement ps = conn.prepareStatement(sql)) {
+            for (long i = existing; i < TRANSACTIONS; i++) {
+                SplittableRandom random = new SplittableRandom(SEED + i); // row i is the same on every run
+                int from = random.nextInt(userIds.length);
+                int to = (from + 1 + random.nextInt(userIds.length - 1)) % userIds.length;
+                ps.setInt(1, userIds[from]);
+                ps.setInt(2, userIds[to]);
+                ps.setBigDecimal(3, BigDecimal.valueOf(1 + random.nextInt(100_000), 2));
+                ps.setTimestamp(4, new Timestamp(now - (long) (random.nextDouble() * YEAR_MILLIS)));
+                ps.addBatch();
+                if ((i + 1) % BATCH == 0) {
+                    ps.executeBatch();
+                    conn.commit();
+                }
+            }
+            ps.executeBatch();
+        }
+        conn.commit();
+    }
+
+    private static long count(Connection conn, String sql) throws SQLException {
+        try (Statement st = conn.createStatement(); ResultSet rs = st.executeQuery(sql)) {
+            rs.next();
+            return rs.getLong(1);
+        }
+    }
+}
@@ -0,0 +1,135 @@
+package com.revpay.bench;
+
+import com.revpay.dao.BalanceCache;
+import com.revpay.dao.TransactionDAO;
+import com.revpay.dao.UserDAO;
+import com.revpay.dao.WalletDAO;
+import com.revpay.model.Transaction;
+import com.revpay.model.TransactionPage;
+import com.revpay.model.User;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.ThreadParams;
+
+import java.math.BigDecimal;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JMH benchmarks for the DAO hot paths against the configured database.
+ * <p>
+ * Every operation picks users at random from the {@link BenchFixtures} data set
+ * (100k users, 1M transactions by default), with a fixed seed per benchmark thread so
+ * runs are repeatable. Results are sampled latencies in microseconds; compare the
+ * {@code target/jmh-result.json} of two builds to spot regressions. Use
+ * {@code -Djmh.args="-t 16 -rf json -rff target/jmh-result.json"} to measure under contention.
+ * </p>
+ * <p>
+ * The write benchmarks add rows and move money; each trial ends by deleting the rows it
+ * added and resetting the seeded wallets, so every run starts from the seeded size.
+ * {@code getBalance} mostly hits the {@link BalanceCache}; {@code getBalanceCold} drops the
+ * entry first, so it measures the miss path (one primary read plus the cache fill).
+ * </p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(2)
+@Threads(1)
+public class DaoBenchmark {
+
+    private static final BigDecimal AMOUNT = new BigDecimal("0.01");
+    private static final int PAGE_SIZE = 20;
+
+    private final TransactionDAO transactionDAO = new TransactionDAO();
+    private final WalletDAO walletDAO = new WalletDAO();
+    private final UserDAO userDAO = new UserDAO();
+    private final BalanceCache balanceCache = BalanceCache.getInstance();
+
+    private int[] userIds;
+    private String[] emails;
+    private long lastSeededTransaction;
+
+    /**
+     * Per-thread random source, seeded by thread index for repeatable runs.
+     */
+    @State(Scope.Thread)
+    public static class Picker {
+        SplittableRandom random;
+
+        @Setup
+        public void setUp(ThreadParams threads) {
+            random = new SplittableRandom(1_000 + threads.getThreadIndex());
+        }
+    }
+
+    @Setup
+    public void setUp() throws SQLException {
+        BenchFixtures.ensureSeeded();
+        userIds = BenchFixtures.userIds();
+        emails = BenchFixtures.emails();
+        lastSeededTransaction = BenchFixtures.lastTransactionId();
+    }
+
+    @TearDown
+    public void tearDown() throws SQLException {
+        BenchFixtures.restore(lastSeededTransaction);
+    }
+
+    private int user(Picker p) {
+        return userIds[p.random.nextInt(userIds.length)];
+    }
+
+    @Benchmark
+    public boolean transferMoney(Picker p) {
+        int from = p.random.nextInt(userIds.length);
+        int to = (from + 1 + p.random.nextInt(userIds.length - 1)) % userIds.length;
+        return transactionDAO.transferMoney(userIds[from], userIds[to], AMOUNT);
+    }
+
+    @Benchmark
+    public boolean depositMoney(Picker p) {
+        return transactionDAO.depositMoney(user(p), AMOUNT);
+    }
+
+    @Benchmark
+    public List<Transaction> getTransactionHistory(Picker p) {
+        return transactionDAO.getTransactionHistory(user(p));
+    }
+
+    @Benchmark
+    public TransactionPage getTransactionHistoryPage(Picker p) {
+        return transactionDAO.getTransactionHistoryPage(user(p), PAGE_SIZE, null);
+    }
+
+    @Benchmark
+    public BigDecimal getBalance(Picker p) {
+        return walletDAO.getBalance(user(p));
+    }
+
+    @Benchmark
+    public BigDecimal getBalanceCold(Picker p) {
+        int userId = user(p);
+        balanceCache.invalidate(userId);
+        return walletDAO.getBalance(userId);
+    }
+
+    @Benchmark
+    public User getUserByEmail(Picker p) {
+        return userDAO.getUserByEmail(emails[p.random.nextInt(emails.length)]);
+    }
+}
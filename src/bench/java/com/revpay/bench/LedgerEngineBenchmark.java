@@ -0,0 +1,86 @@
+package com.revpay.bench;
+
+import com.revpay.ledger.LedgerEngine;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.ThreadParams;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JMH throughput benchmark for {@link LedgerEngine} (no database needed).
+ * <p>
+ * Producers pipeline asynchronous transfers among 10,000 wallets into a sink that discards
+ * batches, so the figure measures the sequencer and journal rather than MySQL. Submitting
+ * blocks while the ring is full, so the steady-state rate is the engine's. The target is
+ * 100,000 transfers per second.
+ * </p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(2)
+@Threads(4)
+public class LedgerEngineBenchmark {
+
+    private static final int ACCOUNTS = 10_000;
+
+    private LedgerEngine engine;
+    private Path journal;
+
+    /**
+     * Per-thread random source, seeded by thread index for repeatable runs.
+     */
+    @State(Scope.Thread)
+    public static class Picker {
+        SplittableRandom random;
+
+        @Setup
+        public void setUp(ThreadParams threads) {
+            random = new SplittableRandom(1_000 + threads.getThreadIndex());
+        }
+    }
+
+    @Setup
+    public void setUp() throws IOException {
+        Map<Integer, BigDecimal> balances = new HashMap<>();
+        for (int id = 1; id <= ACCOUNTS; id++) balances.put(id, new BigDecimal("1000000000.00"));
+        journal = Files.createTempFile("ledger-bench", ".journal");
+        engine = new LedgerEngine(balances, batch -> { }, journal, 65_536, 5_000);
+        engine.start();
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        engine.close();
+        Files.deleteIfExists(journal);
+        Files.deleteIfExists(journal.resolveSibling(journal.getFileName() + ".checkpoint"));
+    }
+
+    @Benchmark
+    public CompletableFuture<Boolean> submitTransfer(Picker p) {
+        int from = 1 + p.random.nextInt(ACCOUNTS);
+        int to = 1 + (from + p.random.nextInt(ACCOUNTS - 1)) % ACCOUNTS;
+        return engine.submitTransfer(from, to, BigDecimal.ONE);
+    }
+}
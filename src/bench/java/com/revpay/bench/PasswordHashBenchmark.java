@@ -0,0 +1,70 @@
+package com.revpay.bench;
+
+import at.favre.lib.crypto.bcrypt.BCrypt;
+import com.revpay.util.SecurityUtil;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JMH login benchmark for {@link SecurityUtil#verifyPassword} under concurrent users (no database needed).
+ * <p>
+ * Sampled latencies include queueing for the hashing pool, which is what the pool size and
+ * the BCrypt cost trade off against each other. The {@code refused} counter shows logins
+ * turned away because the pool was saturated past its timeout. Vary the number of users
+ * with {@code -t 1}, {@code -t 4}, {@code -t 64} and the pool with {@code -jvmArgsAppend -Drevpay.security.hashThreads=N}.
+ * </p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 3)
+@Measurement(iterations = 5, time = 3)
+@Fork(1)
+@Threads(16)
+public class PasswordHashBenchmark {
+
+    @Param({"10", "11", "12"})
+    public int cost;
+
+    private String hash;
+
+    /**
+     * Per-thread login outcomes, reported next to the latency figures.
+     */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class Outcomes {
+        public long refused;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            refused = 0;
+        }
+    }
+
+    @Setup
+    public void setUp() {
+        hash = BCrypt.withDefaults().hashToString(cost, BenchFixtures.PASSWORD.toCharArray());
+    }
+
+    @Benchmark
+    public boolean login(Outcomes outcomes) {
+        boolean ok = SecurityUtil.verifyPassword(BenchFixtures.PASSWORD, hash);
+        if (!ok) outcomes.refused++;
+        return ok;
+    }
+}
@@ -0,0 +1,115 @@
+package com.revpay.bench;
+
+import com.revpay.dao.RequestDAO;
+import com.revpay.dao.TransactionDAO;
+import com.revpay.dao.UserDAO;
+import com.revpay.dao.WalletDAO;
+import com.revpay.model.PaymentRequest;
+import com.revpay.model.Role;
+import com.revpay.model.User;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JMH contention benchmark for accepting and declining money requests against the configured database.
+ * <p>
+ * One payer owes {@value #REQUESTS} pending requests per iteration, and every benchmark thread
+ * attempts all of them, so all but one attempt per request lose the race. The score is the
+ * time to settle the whole batch; the {@code settled} and {@code lost} counters split the
+ * attempts. Vary the contention with {@code -t 1}, {@code -t 16}. The two users (and with them
+ * their requests and transactions) are deleted when the trial ends.
+ * </p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 10)
+@Fork(1)
+@Threads(4)
+public class RequestSettlementBenchmark {
+
+    private static final int REQUESTS = 200;
+
+    @Param({"accept", "decline"})
+    public String action;
+
+    private final TransactionDAO transactionDAO = new TransactionDAO();
+    private final RequestDAO requestDAO = new RequestDAO();
+    private final UserDAO userDAO = new UserDAO();
+
+    private int requesterId;
+    private int payerId;
+    private List<PaymentRequest> pending;
+
+    /**
+     * Per-thread attempt outcomes, reported next to the batch time.
+     */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class Outcomes {
+        public long settled;
+        public long lost;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            settled = 0;
+            lost = 0;
+        }
+    }
+
+    @Setup
+    public void setUp() {
+        long now = System.nanoTime();
+        requesterId = userDAO.registerUserWithWallet(new User("bench_requester_" + now + "@revpay.test", "000", "pass", "0000", "Bench Requester", Role.PERSONAL));
+        payerId = userDAO.registerUserWithWallet(new User("bench_payer_" + now + "@revpay.test", "000", "pass", "0000", "Bench Payer", Role.PERSONAL));
+        new WalletDAO().updateBalance(payerId, new BigDecimal("1000000.00"));
+    }
+
+    @Setup(Level.Iteration)
+    public void createRequests() {
+        for (int i = 0; i < REQUESTS; i++) {
+            requestDAO.createRequest(new PaymentRequest(requesterId, payerId, BigDecimal.ONE));
+        }
+        pending = requestDAO.getIncomingRequests(payerId);
+    }
+
+    @TearDown
+    public void tearDown() {
+        userDAO.deleteUser(payerId);
+        userDAO.deleteUser(requesterId);
+    }
+
+    // Every thread walks the same list, so each request is attempted by all of them
+    @Benchmark
+    public void settleAll(Outcomes outcomes) {
+        boolean accept = "accept".equals(action);
+        for (PaymentRequest r : pending) {
+            boolean won = accept
+                    ? transactionDAO.acceptRequest(r.getRequestId(), payerId)
+                    : requestDAO.compareAndSetStatus(r.getRequestId(), payerId, "PENDING", "DECLINED");
+            if (won) {
+                outcomes.settled++;
+            } else {
+                outcomes.lost++;
+            }
+        }
+    }
+}
@@ -0,0 +1,52 @@
+package com.revpay.bench;
+
+import com.revpay.util.SecurityUtil;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JMH benchmarks for {@link SecurityUtil} password hashing and verification (no database needed).
+ * <p>
+ * Measured through the public API, so the numbers include the hand-off to the hashing pool.
+ * </p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(2)
+public class SecurityBenchmark {
+
+    @Param({"10", "12"})
+    public int cost;
+
+    private String hash;
+
+    @Setup
+    public void setUp() {
+        SecurityUtil.setCost(cost);
+        hash = SecurityUtil.hashPassword(BenchFixtures.PASSWORD);
+    }
+
+    @Benchmark
+    public String hashPassword() {
+        return SecurityUtil.hashPassword(BenchFixtures.PASSWORD);
+    }
+
+    @Benchmark
+    public boolean verifyPassword() {
+        return SecurityUtil.verifyPassword(BenchFixtures.PASSWORD, hash);
+    }
+}
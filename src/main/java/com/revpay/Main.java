@@ -1,26 +1,30 @@
 package com.revpay;
 
-import com.revpay.dao.InvoiceDAO;
-import com.revpay.dao.LoanDAO;
-import com.revpay.dao.PaymentMethodDAO;
-import com.revpay.dao.RequestDAO;
-import com.revpay.model.*;
-import com.revpay.service.TransactionService;
-import com.revpay.service.UserService;
+import com.revpay.api.ApiServer;
+import com.revpay.console.BatchRunner;
+import com.revpay.console.ConsoleServer;
+import com.revpay.console.ConsoleSession;
+import com.revpay.ledger.LedgerEngine;
+import com.revpay.load.LoadConfig;
+import com.revpay.load.LoadGenerator;
 import com.revpay.util.SecurityUtil;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
-import java.math.BigDecimal;
-import java.sql.Date;
-import java.util.List;
-import java.util.Scanner;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.PrintStream;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
 
 /**
  * The Entry Point (Main Class) for the RevPay Application.
  * <p>
- * This class handles the Command Line Interface (CLI) interaction with the user.
- * It routes user inputs to the appropriate Services and DAOs.
+ * This class starts the application in one of its modes. By default it runs one
+ * interactive {@link ConsoleSession} on the terminal; the session routes user inputs
+ * to the appropriate Services and DAOs.
  * </p>
  *
  * @author RevPay Dev Team
@@ -31,424 +35,144 @@ public class Main {
     // Initialize Log4j Logger
     private static final Logger logger = LogManager.getLogger(Main.class);
 
-    // --- SERVICES & DAOS ---
-    private static UserService userService = new UserService();
-    private static TransactionService transactionService = new TransactionService();
-    private static LoanDAO loanDAO = new LoanDAO();
-    private static RequestDAO requestDAO = new RequestDAO();
-    private static PaymentMethodDAO paymentMethodDAO = new PaymentMethodDAO();
-    private static InvoiceDAO invoiceDAO = new InvoiceDAO();
-
-    // --- TOOLS ---
-    private static Scanner scanner = new Scanner(System.in);
-    private static User currentUser = null;
-
     /**
      * The main method that starts the application loop.
+     * <p>
+     * With {@code --http [port]} the interactive menu is replaced by the HTTP/JSON API
+     * (see {@link ApiServer}); with {@code --tcp [port]} the menus are served to many
+     * terminal sessions over local TCP (see {@link ConsoleServer}). Both run until the JVM is stopped.
+     * With {@code --batch [file]} a command script (or stdin) is executed without prompts
+     * (see {@link BatchRunner}); the exit status is 1 if any command failed.
+     * With {@code --load} a synthetic load run is started (see {@link LoadGenerator},
+     * configured through {@code revpay.load.*} properties).
+     * </p>
      *
-     * @param args Command line arguments (not used).
+     * @param args Command line arguments (optional mode switch).
      */
     public static void main(String[] args) {
         logger.info("🚀 RevPay Application Started");
-        System.out.println("\n=========================================");
-        System.out.println("      🚀 Welcome to RevPay System      ");
-        System.out.println("=========================================");
-
-        try {
-            while (true) {
-                System.out.println("\n--- MAIN MENU ---");
-                System.out.println("1. Register");
-                System.out.println("2. Login");
-                System.out.println("3. Exit");
-                System.out.print("Choose an option: ");
-
-                String choice = scanner.nextLine();
-                switch (choice) {
-                    case "1": handleRegister(); break;
-                    case "2": handleLogin(); break;
-                    case "3":
-                        logger.info("🛑 Application Stopped by User");
-                        System.out.println("Goodbye! Thank you for using RevPay.");
-                        return; // Exit the app
-                    default:
-                        System.out.println("❌ Invalid option. Please try again.");
-                }
-            }
-        } catch (Exception e) {
-            logger.fatal("🔥 Critical Application Crash", e);
-            System.out.println("❌ An unexpected error occurred. Please check logs.");
-        }
-    }
-
-    // ==========================================
-    //       AUTHENTICATION HANDLERS
-    // ==========================================
-
-    /**
-     * Handles the User Login flow.
-     */
-    private static void handleLogin() {
-        System.out.println("\n--- 🔐 LOGIN ---");
-        System.out.print("Enter Email: ");
-        String email = scanner.nextLine();
-        System.out.print("Enter Password: ");
-        String password = scanner.nextLine();
-
-        User user = userService.login(email, password);
-        if (user != null) {
-            currentUser = user;
-            System.out.println("✅ Login Successful! Welcome, " + user.getFullName());
-            showUserDashboard();
-        }
-    }
-
-    /**
-     * Handles the User Registration flow.
-     */
-    private static void handleRegister() {
-        System.out.println("\n--- 📝 REGISTER ---");
-        System.out.println("Select Account Type:\n1. Personal\n2. Business");
-        System.out.print("Choice: ");
-        String roleChoice = scanner.nextLine();
-        Role role = roleChoice.equals("2") ? Role.BUSINESS : Role.PERSONAL;
-
-        System.out.print("Enter Email: ");
-        String email = scanner.nextLine();
-        System.out.print("Enter Full Name: ");
-        String name = scanner.nextLine();
-        System.out.print("Enter Password: ");
-        String rawPassword = scanner.nextLine();
-        System.out.print("Enter Phone Number: ");
-        String phone = scanner.nextLine();
-        System.out.print("Enter 4-digit PIN: ");
-        String pin = scanner.nextLine();
-
-        // Hash password before sending to model
-        String hashedPassword = SecurityUtil.hashPassword(rawPassword);
-        User newUser = new User(email, phone, hashedPassword, pin, name, role);
-
-        if (userService.registerUser(newUser)) {
-            System.out.println("✅ Registered Successfully! Please Login.");
-        } else {
-            System.out.println("❌ Registration Failed. Email might already exist.");
-        }
-    }
 
-    // ==========================================
-    //           USER DASHBOARD
-    // ==========================================
+        // Pick the BCrypt cost for this machine (fixed with -Drevpay.security.bcryptCost)
+        SecurityUtil.calibrate();
 
-    /**
-     * Displays the dashboard menu based on the user's Role.
-     */
-    private static void showUserDashboard() {
-        while (currentUser != null) {
-            System.out.println("\n=== 🏦 " + currentUser.getFullName() + "'s Dashboard ===");
-            System.out.println("1. Check Balance");
-            System.out.println("2. Add Money (Deposit)");
-            System.out.println("3. Send Money");
-            System.out.println("4. Request Money");
-            System.out.println("5. Pending Requests & Invoices");
-            System.out.println("6. Manage Cards");
-            System.out.println("7. Transaction History");
-
-            if (currentUser.getRole() == Role.BUSINESS) {
-                System.out.println("--- Business Services ---");
-                System.out.println("8. Create Invoice");
-                System.out.println("9. Apply for Loan");
-                System.out.println("10. View Loans");
-                System.out.println("11. Delete Account");
-                System.out.println("12. Logout");
-            } else {
-                System.out.println("-------------------------");
-                System.out.println("8. Delete Account");
-                System.out.println("9. Logout");
-            }
-
-            System.out.print("Choose an option: ");
-            String choice = scanner.nextLine();
-
-            try {
-                processDashboardChoice(choice);
-            } catch (Exception e) {
-                logger.error("Error processing dashboard choice", e);
-                System.out.println("❌ An error occurred processing your request.");
-            }
+        // Optional single-writer ledger for peak load (-Drevpay.ledger.enabled=true)
+        if (Boolean.getBoolean("revpay.ledger.enabled")) {
+            LedgerEngine.startFromDatabase();
         }
-    }
-
-    private static void processDashboardChoice(String choice) {
-        switch (choice) {
-            case "1": checkBalance(); break;
-            case "2": handleAddMoney(); break;
-            case "3": handleSendMoney(); break;
-            case "4": handleRequestMoney(); break;
-            case "5": handlePendingPayments(); break;
-            case "6": handleManageCards(); break;
-            case "7": handleViewHistory(); break;
-
-            // Business vs Personal Routing
-            case "8":
-                if (currentUser.getRole() == Role.BUSINESS) handleCreateInvoice();
-                else handleDeleteAccount();
-                break;
-            case "9":
-                if (currentUser.getRole() == Role.BUSINESS) handleApplyLoan();
-                else logout();
-                break;
-            case "10":
-                if (currentUser.getRole() == Role.BUSINESS) handleViewLoans();
-                else System.out.println("❌ Invalid option.");
-                break;
-            case "11":
-                if (currentUser.getRole() == Role.BUSINESS) handleDeleteAccount();
-                else System.out.println("❌ Invalid option.");
-                break;
-            case "12":
-                if (currentUser.getRole() == Role.BUSINESS) logout();
-                else System.out.println("❌ Invalid option.");
-                break;
-            default: System.out.println("❌ Invalid option.");
-        }
-    }
-
-    // ==========================================
-    //           CORE MONEY FEATURES
-    // ==========================================
 
-    private static void checkBalance() {
-        System.out.println("\n💰 Balance: $" + userService.getBalance(currentUser.getUserId()));
-    }
-
-    private static void handleAddMoney() {
-        System.out.println("\n--- ➕ ADD MONEY ---");
-        List<PaymentMethod> cards = paymentMethodDAO.getMethodsByUserId(currentUser.getUserId());
-        if (cards.isEmpty()) {
-            System.out.println("⚠️ No saved cards. Go to 'Manage Cards' first.");
+        if (args.length > 0 && args[0].equals("--http")) {
+            startHttpApi(args.length > 1 ? Integer.parseInt(args[1]) : 8080);
             return;
         }
-
-        System.out.println("Select Payment Method:");
-        for (int i = 0; i < cards.size(); i++) {
-            System.out.println((i + 1) + ". " + cards.get(i));
-        }
-        System.out.print("Choice: ");
-
-        try {
-            int idx = Integer.parseInt(scanner.nextLine()) - 1;
-            if (idx < 0 || idx >= cards.size()) {
-                System.out.println("❌ Invalid selection.");
-                return;
-            }
-
-            System.out.print("Enter Amount: ");
-            BigDecimal amount = new BigDecimal(scanner.nextLine());
-
-            System.out.println("Charging card ending in " + cards.get(idx).getCardNumber().substring(12) + "...");
-            if (transactionService.processDeposit(currentUser.getUserId(), amount)) {
-                System.out.println("✅ Deposit Successful!");
-            } else {
-                System.out.println("❌ Deposit Failed.");
-            }
-        } catch (Exception e) {
-            System.out.println("❌ Invalid input.");
+        if (args.length > 0 && args[0].equals("--batch")) {
+            int failed = runBatch(args.length > 1 ? args[1] : "-");
+            LedgerEngine.stopActive();
+            if (failed != 0) System.exit(1);
+            return;
         }
-    }
-
-    private static void handleSendMoney() {
-        System.out.println("\n--- 💸 SEND MONEY ---");
-        System.out.print("To Email: ");
-        String email = scanner.nextLine();
-        System.out.print("Amount: ");
-        try {
-            BigDecimal amount = new BigDecimal(scanner.nextLine());
-            if (transactionService.processTransfer(currentUser.getUserId(), email, amount)) {
-                System.out.println("✅ Sent Successfully!");
-            } else {
-                System.out.println("❌ Transfer Failed (Check Balance or Email).");
-            }
-        } catch (Exception e) {
-            System.out.println("❌ Invalid amount format.");
+        if (args.length > 0 && args[0].equals("--load")) {
+            boolean conserved = runLoad();
+            LedgerEngine.stopActive();
+            if (!conserved) System.exit(1);
+            return;
         }
-    }
-
-    private static void handleRequestMoney() {
-        System.out.println("\n--- 📨 REQUEST MONEY ---");
-        System.out.print("Ask Email: ");
-        String email = scanner.nextLine();
-
-        int payerId = userService.getUserIdByEmail(email);
-        if (payerId == -1 || payerId == currentUser.getUserId()) {
-            System.out.println("❌ User not found or invalid.");
+        if (args.length > 0 && args[0].equals("--tcp")) {
+            startConsoleServer(args.length > 1 ? Integer.parseInt(args[1]) : 7070);
             return;
         }
 
-        System.out.print("Amount: ");
         try {
-            BigDecimal amount = new BigDecimal(scanner.nextLine());
-            PaymentRequest req = new PaymentRequest(currentUser.getUserId(), payerId, amount);
-            if (requestDAO.createRequest(req)) {
-                System.out.println("✅ Request Sent!");
-            } else {
-                System.out.println("❌ Error sending request.");
-            }
-        } catch (Exception e) {
-            System.out.println("❌ Invalid input.");
+            new ConsoleSession(System.in, System.out).run();
+        } finally {
+            LedgerEngine.stopActive();
         }
     }
 
-    // ==========================================
-    //       INBOX (REQUESTS & INVOICES)
-    // ==========================================
-
-    private static void handlePendingPayments() {
-        System.out.println("\n--- 📥 PENDING PAYMENTS ---");
-
-        List<PaymentRequest> requests = requestDAO.getIncomingRequests(currentUser.getUserId());
-        System.out.println("[Money Requests]");
-        if (requests.isEmpty()) System.out.println("  (None)");
-        else for (PaymentRequest r : requests) System.out.println("  ID: " + r.getRequestId() + " | Amount: $" + r.getAmount());
-
-        List<Invoice> invoices = invoiceDAO.getInvoicesForCustomer(currentUser.getEmail());
-        System.out.println("\n[Invoices]");
-        if (invoices.isEmpty()) System.out.println("  (None)");
-        else for (Invoice i : invoices) System.out.println("  INV#" + i.getInvoiceId() + " | " + i.getDescription() + " | $" + i.getAmount());
-
-        System.out.println("\nTo Pay: Type 'P R [ID]' (Request) or 'P I [ID]' (Invoice). Type '0' to Back.");
-        System.out.print("> ");
-        String input = scanner.nextLine().toUpperCase();
-
+    /**
+     * Starts the HTTP API and keeps it running until the JVM shuts down.
+     *
+     * @param port The TCP port to listen on.
+     */
+    private static void startHttpApi(int port) {
         try {
-            if (input.startsWith("P R ")) {
-                int id = Integer.parseInt(input.substring(4));
-                PaymentRequest r = requestDAO.getRequestById(id);
-                if (r != null && transactionService.processTransfer(currentUser.getUserId(), r.getRequesterId(), r.getAmount())) {
-                    requestDAO.updateStatus(id, "ACCEPTED");
-                    System.out.println("✅ Request Paid!");
-                } else System.out.println("❌ Payment Failed.");
-
-            } else if (input.startsWith("P I ")) {
-                int id = Integer.parseInt(input.substring(4));
-                Invoice inv = invoiceDAO.getInvoiceById(id);
-                if (inv != null && transactionService.processTransfer(currentUser.getUserId(), inv.getBusinessId(), inv.getAmount())) {
-                    invoiceDAO.markAsPaid(id);
-                    System.out.println("✅ Invoice Paid!");
-                } else System.out.println("❌ Payment Failed.");
-            }
-        } catch (Exception e) {
-            System.out.println("❌ Invalid Command.");
+            ApiServer server = new ApiServer(port);
+            server.start();
+            Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+                server.stop(2);
+                LedgerEngine.stopActive();
+            }, "revpay-http-shutdown"));
+            System.out.println("🌐 HTTP API listening on port " + server.getPort() + ". Press Ctrl+C to stop.");
+        } catch (IOException e) {
+            logger.fatal("🔥 Could not start HTTP API on port " + port, e);
+            System.out.println("❌ Could not start HTTP API: " + e.getMessage());
+            LedgerEngine.stopActive();
         }
     }
 
-    // ==========================================
-    //           CARDS & HISTORY
-    // ==========================================
-
-    private static void handleManageCards() {
-        System.out.println("\n--- 💳 CARDS ---");
-        System.out.println("1. View Cards");
-        System.out.println("2. Add Card");
-        System.out.print("Choice: ");
-
-        if ("2".equals(scanner.nextLine())) {
-            System.out.print("Card Number (16 digits): ");
-            String num = scanner.nextLine();
-            System.out.print("Type (CREDIT/DEBIT): ");
-            String type = scanner.nextLine().toUpperCase();
-            System.out.print("Expiry (YYYY-MM-DD): ");
-            String date = scanner.nextLine();
-
-            try {
-                PaymentMethod pm = new PaymentMethod(currentUser.getUserId(), num, type, Date.valueOf(date));
-                paymentMethodDAO.addPaymentMethod(pm);
-                System.out.println("✅ Card Added.");
-            } catch (Exception e) {
-                System.out.println("❌ Invalid Date format.");
-            }
-        } else {
-            List<PaymentMethod> list = paymentMethodDAO.getMethodsByUserId(currentUser.getUserId());
-            if (list.isEmpty()) System.out.println("No cards found.");
-            else list.forEach(System.out::println);
-        }
-    }
-
-    private static void handleViewHistory() {
-        System.out.println("\n--- 📜 HISTORY ---");
-        List<Transaction> list = transactionService.getHistory(currentUser.getUserId());
-        if(list.isEmpty()) System.out.println("No transactions found.");
-        else list.forEach(t -> {
-            String sign = (t.getSenderId() == currentUser.getUserId()) ? "-" : "+";
-            System.out.println(t.getType() + " | " + sign + "$" + t.getAmount() + " | " + t.getTimestamp());
-        });
-    }
-
-    // ==========================================
-    //           BUSINESS FEATURES
-    // ==========================================
-
-    private static void handleCreateInvoice() {
-        System.out.println("\n--- 🧾 NEW INVOICE ---");
-        System.out.print("Customer Email: ");
-        String email = scanner.nextLine();
-
-        if (userService.getUserIdByEmail(email) == -1) {
-            System.out.println("❌ Customer not found.");
-            return;
-        }
-
-        System.out.print("Amount: ");
+    /**
+     * Starts the multi-session console server and keeps it running until the JVM shuts down.
+     *
+     * @param port The loopback TCP port to listen on.
+     */
+    private static void startConsoleServer(int port) {
         try {
-            BigDecimal amt = new BigDecimal(scanner.nextLine());
-            System.out.print("Description: ");
-            String desc = scanner.nextLine();
-
-            if (invoiceDAO.createInvoice(new Invoice(currentUser.getUserId(), email, amt, desc))) {
-                System.out.println("✅ Invoice Sent!");
-            } else {
-                System.out.println("❌ Failed to create invoice.");
-            }
-        } catch (Exception e) {
-            System.out.println("❌ Invalid Amount.");
+            ConsoleServer server = new ConsoleServer(port, Integer.getInteger("revpay.console.maxSessions", 500));
+            server.start();
+            Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+                server.close();
+                LedgerEngine.stopActive();
+            }, "revpay-console-shutdown"));
+            System.out.println("🖥️ Console server listening on localhost:" + server.getPort() + ". Press Ctrl+C to stop.");
+        } catch (IOException e) {
+            logger.fatal("🔥 Could not start console server on port " + port, e);
+            System.out.println("❌ Could not start console server: " + e.getMessage());
+            LedgerEngine.stopActive();
         }
     }
 
-    private static void handleApplyLoan() {
-        System.out.println("\n--- 💼 APPLY LOAN ---");
-        System.out.print("Amount: ");
-        try {
-            BigDecimal amt = new BigDecimal(scanner.nextLine());
-            System.out.print("Reason: ");
-            String reason = scanner.nextLine();
-            loanDAO.applyForLoan(new Loan(currentUser.getUserId(), amt, reason));
-            System.out.println("✅ Application Submitted.");
-        } catch (Exception e) {
-            System.out.println("❌ Invalid Input.");
+    /**
+     * Runs a command script, writing one JSON result line per command to stdout.
+     * <p>
+     * While the script runs, anything else printed to stdout (e.g., service warnings) is
+     * sent to stderr so the results stay machine-readable.
+     * </p>
+     *
+     * @param source The script file, or "-" for stdin.
+     * @return The number of failed commands (-1 if the script could not be read).
+     */
+    private static int runBatch(String source) {
+        PrintStream results = System.out;
+        System.setOut(System.err);
+        try (Reader script = source.equals("-")
+                ? new InputStreamReader(System.in, StandardCharsets.UTF_8)
+                : Files.newBufferedReader(Paths.get(source), StandardCharsets.UTF_8)) {
+            return new BatchRunner(results).run(script);
+        } catch (IOException e) {
+            logger.fatal("🔥 Could not read batch script " + source, e);
+            System.err.println("❌ Could not read batch script: " + e.getMessage());
+            return -1;
+        } finally {
+            System.setOut(results);
         }
     }
 
-    private static void handleViewLoans() {
-        System.out.println("\n--- 📜 LOANS ---");
-        List<Loan> loans = loanDAO.getLoansByUserId(currentUser.getUserId());
-        if (loans.isEmpty()) System.out.println("No loans found.");
-        else loans.forEach(System.out::println);
-    }
-
-    // ==========================================
-    //           SYSTEM
-    // ==========================================
-
-    private static void handleDeleteAccount() {
-        System.out.println("\n⚠️ DELETE ACCOUNT ⚠️");
-        System.out.print("Are you sure? Type 'yes' to confirm: ");
-        if (scanner.nextLine().equalsIgnoreCase("yes")) {
-            userService.deleteAccount(currentUser.getUserId());
-            currentUser = null;
-            System.out.println("✅ Account Deleted.");
+    /**
+     * Runs the synthetic load generator and prints its report.
+     *
+     * @return {@code true} if the run completed and balances were conserved.
+     */
+    private static boolean runLoad() {
+        LoadGenerator generator = new LoadGenerator(LoadConfig.fromSystemProperties());
+        logger.info("🏋️ Starting load run: " + generator);
+        try {
+            return generator.run(System.out);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            System.out.println("❌ Load run interrupted.");
+        } catch (IllegalStateException e) {
+            logger.fatal("🔥 Load run failed", e);
+            System.out.println("❌ Load run failed: " + e.getMessage());
         }
+        return false;
     }
-
-    private static void logout() {
-        System.out.println("Logging out...");
-        currentUser = null;
-    }
-}
\ No newline at end of file
+}
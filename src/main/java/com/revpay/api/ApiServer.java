@@ -0,0 +1,491 @@
+package com.revpay.api;
+
+import com.revpay.dao.InvoiceRepository;
+import com.revpay.dao.LoanRepository;
+import com.revpay.dao.Repositories;
+import com.revpay.dao.RequestRepository;
+import com.revpay.model.HistoryCursor;
+import com.revpay.model.Invoice;
+import com.revpay.model.Loan;
+import com.revpay.model.PaymentRequest;
+import com.revpay.model.Role;
+import com.revpay.model.Transaction;
+import com.revpay.model.TransactionPage;
+import com.revpay.model.User;
+import com.revpay.service.TransactionService;
+import com.revpay.service.UserService;
+import com.revpay.util.Json;
+import com.revpay.util.SecurityUtil;
+import com.revpay.util.VirtualThreads;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+
+/**
+ * Embedded HTTP/JSON API exposing the service layer to many concurrent clients.
+ * <p>
+ * Built on the JDK's {@code com.sun.net.httpserver}. Each request runs on its own virtual
+ * thread (see {@link VirtualThreads}), so a request blocked on JDBC parks cheaply instead
+ * of pinning an OS thread. Session state lives in a {@link SessionStore}: clients log in
+ * once and send the returned token as {@code Authorization: Bearer <token>}.
+ * </p>
+ * <p>
+ * The server listens on the loopback interface only, unless {@code revpay.api.host} names
+ * another address to bind (e.g. {@code 0.0.0.0} behind a TLS-terminating proxy).
+ * </p>
+ * <p>
+ * Endpoints (request bodies are flat JSON objects):
+ * </p>
+ * <ul>
+ * <li>{@code POST /api/register} {email, password, fullName, phone, pin, role}</li>
+ * <li>{@code POST /api/login} {email, password} and {@code POST /api/logout}</li>
+ * <li>{@code GET /api/balance}, {@code POST /api/deposit} {amount}</li>
+ * <li>{@code POST /api/transfer} {toEmail or toUserId, amount}; deposits and transfers honour an {@code Idempotency-Key} header</li>
+ * <li>{@code GET /api/history?limit=&cursor=}</li>
+ * <li>{@code GET|POST /api/requests}, {@code POST /api/requests/{id}/accept|decline}</li>
+ * <li>{@code GET|POST /api/invoices}, {@code POST /api/invoices/{id}/pay}</li>
+ * <li>{@code GET|POST /api/loans}</li>
+ * </ul>
+ *
+ * @author RevPay Dev Team
+ * @version 1.0
+ */
+public class ApiServer {
+
+    // Initialize Log4j Logger
+    private static final Logger logger = LogManager.getLogger(ApiServer.class);
+
+    private static final int MAX_BODY_BYTES = 64 * 1024;
+    private static final int DEFAULT_HISTORY_LIMIT = 20;
+    // Matches transactions.idempotency_key
+    private static final int MAX_IDEMPOTENCY_KEY_LENGTH = 64;
+
+    private final UserService userService = new UserService();
+    private final TransactionService transactionService = new TransactionService();
+    private final RequestRepository requestDAO = Repositories.get().requests();
+    private final InvoiceRepository invoiceDAO = Repositories.get().invoices();
+    private final LoanRepository loanDAO = Repositories.get().loans();
+
+    private final SessionStore sessions;
+    private final HttpServer server;
+    private final ExecutorService executor;
+
+    /**
+     * Creates a server bound to the given port (0 picks a free port). Call {@link #start()} to accept requests.
+     * <p>
+     * Binds to {@code revpay.api.host} if set, otherwise to the loopback interface.
+     * </p>
+     *
+     * @param port The TCP port.
+     * @throws IOException If the port cannot be bound.
+     */
+    public ApiServer(int port) throws IOException {
+        this.sessions = new SessionStore(Long.getLong("revpay.api.sessionIdleMillis", 30 * 60_000L));
+        this.server = HttpServer.create(bindAddress(port), Integer.getInteger("revpay.api.backlog", 1024));
+        this.executor = VirtualThreads.newPerTaskExecutor("revpay-http-");
+        server.setExecutor(executor);
+        server.createContext("/api/", this::handle);
+    }
+
+    private static InetSocketAddress bindAddress(int port) {
+        String host = System.getProperty("revpay.api.host");
+        return host == null || host.isBlank()
+                ? new InetSocketAddress(InetAddress.getLoopbackAddress(), port)
+                : new InetSocketAddress(host.trim(), port);
+    }
+
+    /**
+     * Starts accepting requests.
+     */
+    public void start() {
+        server.start();
+        logger.info("🌐 HTTP API listening on " + server.getAddress().getAddress().getHostAddress() + ":" + getPort()
+                + (VirtualThreads.isSupported() ? " (virtual threads)" : " (platform threads)"));
+    }
+
+    /**
+     * Stops the server, giving in-flight requests up to the given time to finish.
+     *
+     * @param delaySeconds The grace period in seconds.
+     */
+    public void stop(int delaySeconds) {
+        server.stop(delaySeconds);
+        executor.shutdown();
+        logger.info("🛑 HTTP API stopped");
+    }
+
+    /**
+     * Gets the port the server is bound to.
+     * @return The TCP port.
+     */
+    public int getPort() {
+        return server.getAddress().getPort();
+    }
+
+    // ==========================================
+    //           REQUEST DISPATCH
+    // ==========================================
+
+    private void handle(HttpExchange ex) {
+        try {
+            String method = ex.getRequestMethod();
+            String[] path = ex.getRequestURI().getPath().substring("/api/".length()).split("/");
+            Object body = route(ex, method, path);
+            send(ex, 200, body);
+        } catch (ApiException e) {
+            send(ex, e.status, Json.object("success", false, "error", e.getMessage()));
+        } catch (Exception e) {
+            logger.error("Error processing API request " + ex.getRequestMethod() + " " + ex.getRequestURI(), e);
+            send(ex, 500, Json.object("success", false, "error", "Internal error"));
+        } finally {
+            ex.close();
+        }
+    }
+
+    private Object route(HttpExchange ex, String method, String[] path) throws IOException {
+        String resource = path[0];
+        switch (resource) {
+            case "register":
+                requireMethod(method, "POST");
+                return register(readBody(ex));
+            case "login":
+                requireMethod(method, "POST");
+                return login(readBody(ex));
+            case "logout":
+                requireMethod(method, "POST");
+                sessions.remove(bearerToken(ex));
+                return ok();
+            default:
+                break;
+        }
+
+        User user = authenticate(ex);
+        switch (resource) {
+            case "balance":
+                requireMethod(method, "GET");
+                return Json.object("balance", userService.getBalance(user.getUserId()));
+            case "deposit":
+                requireMethod(method, "POST");
+                return deposit(ex, user, readBody(ex));
+            case "transfer":
+                requireMethod(method, "POST");
+                return transfer(ex, user, readBody(ex));
+            case "history":
+                requireMethod(method, "GET");
+                return history(user, query(ex));
+            case "requests":
+                return requests(ex, method, path, user);
+            case "invoices":
+                return invoices(ex, method, path, user);
+            case "loans":
+                return loans(ex, method, user);
+            default:
+                throw new ApiException(404, "Unknown endpoint");
+        }
+    }
+
+    // ==========================================
+    //           AUTHENTICATION
+    // ==========================================
+
+    private Object register(Map<String, String> body) {
+        String email = required(body, "email");
+        String hash = SecurityUtil.hashPassword(required(body, "password"));
+        Role role = "BUSINESS".equalsIgnoreCase(body.get("role")) ? Role.BUSINESS : Role.PERSONAL;
+        User user = new User(email, body.getOrDefault("phone", ""), hash, body.getOrDefault("pin", ""),
+                required(body, "fullName"), role);
+        if (!userService.registerUser(user)) {
+            throw new ApiException(409, "Registration failed. Email might already exist.");
+        }
+        return ok();
+    }
+
+    private Object login(Map<String, String> body) {
+        User user = userService.login(required(body, "email"), required(body, "password"));
+        if (user == null) {
+            throw new ApiException(401, "Invalid email or password");
+        }
+        sessions.evictExpired();
+        return Json.object("token", sessions.create(user), "user", userJson(user));
+    }
+
+    private User authenticate(HttpExchange ex) {
+        User user = sessions.get(bearerToken(ex));
+        if (user == null) {
+            throw new ApiException(401, "Login required");
+        }
+        return user;
+    }
+
+    private static String bearerToken(HttpExchange ex) {
+        String header = ex.getRequestHeaders().getFirst("Authorization");
+        if (header == null || !header.regionMatches(true, 0, "Bearer ", 0, 7)) {
+            return null;
+        }
+        return header.substring(7).trim();
+    }
+
+    // ==========================================
+    //           MONEY
+    // ==========================================
+
+    private Object deposit(HttpExchange ex, User user, Map<String, String> body) {
+        BigDecimal amount = amount(body);
+        if (!transactionService.processDeposit(user.getUserId(), amount, idempotencyKey(ex, body))) {
+            throw new ApiException(409, "Deposit failed");
+        }
+        return ok();
+    }
+
+    private Object transfer(HttpExchange ex, User user, Map<String, String> body) {
+        BigDecimal amount = amount(body);
+        int receiverId = body.containsKey("toUserId")
+                ? intValue(body.get("toUserId"), "toUserId")
+                : userService.getUserIdByEmail(required(body, "toEmail"));
+        if (receiverId == -1) {
+            throw new ApiException(404, "Receiver not found");
+        }
+        if (!transactionService.processTransfer(user.getUserId(), receiverId, amount, idempotencyKey(ex, body))) {
+            throw new ApiException(409, "Transfer failed (check balance and receiver)");
+        }
+        return ok();
+    }
+
+    private Object history(User user, Map<String, String> query) {
+        int limit = query.containsKey("limit") ? intValue(query.get("limit"), "limit") : DEFAULT_HISTORY_LIMIT;
+        HistoryCursor cursor;
+        try {
+            cursor = query.containsKey("cursor") ? HistoryCursor.fromToken(query.get("cursor")) : null;
+        } catch (IllegalArgumentException e) {
+            throw new ApiException(400, e.getMessage());
+        }
+        TransactionPage page = transactionService.getHistory(user.getUserId(), limit, cursor);
+        List<Object> items = new ArrayList<>(page.getTransactions().size());
+        for (Transaction t : page.getTransactions()) {
+            items.add(Json.object("transactionId", t.getTransactionId(), "type", t.getType(),
+                    "senderId", t.getSenderId(), "receiverId", t.getReceiverId(), "amount", t.getAmount(),
+                    "status", t.getStatus(), "timestamp", t.getTimestamp(),
+                    "direction", t.getSenderId() == user.getUserId() ? "OUT" : "IN"));
+        }
+        return Json.object("transactions", items,
+                "nextCursor", page.hasMore() ? page.getNextCursor().toToken() : null);
+    }
+
+    // ==========================================
+    //       REQUESTS, INVOICES & LOANS
+    // ==========================================
+
+    private Object requests(HttpExchange ex, String method, String[] path, User user) throws IOException {
+        if (path.length == 1 && method.equals("GET")) {
+            List<Object> items = new ArrayList<>();
+            for (PaymentRequest r : requestDAO.getIncomingRequests(user.getUserId())) {
+                items.add(Json.object("requestId", r.getRequestId(), "requesterId", r.getRequesterId(),
+                        "amount", r.getAmount(), "status", r.getStatus()));
+            }
+            return Json.object("requests", items);
+        }
+        if (path.length == 1 && method.equals("POST")) {
+            Map<String, String> body = readBody(ex);
+            BigDecimal amount = amount(body);
+            int payerId = userService.getUserIdByEmail(required(body, "email"));
+            if (payerId == -1 || payerId == user.getUserId()) {
+                throw new ApiException(404, "User not found or invalid");
+            }
+            if (!requestDAO.createRequest(new PaymentRequest(user.getUserId(), payerId, amount))) {
+                throw new ApiException(409, "Error sending request");
+            }
+            return ok();
+        }
+        if (path.length == 3 && method.equals("POST")) {
+            int id = intValue(path[1], "request ID");
+            boolean done;
+            if (path[2].equals("accept")) done = transactionService.acceptRequest(id, user.getUserId());
+            else if (path[2].equals("decline")) done = transactionService.declineRequest(id, user.getUserId());
+            else throw new ApiException(404, "Unknown endpoint");
+            if (!done) throw new ApiException(409, "Request is not pending for this user or payment failed");
+            return ok();
+        }
+        throw new ApiException(405, "Method not allowed");
+    }
+
+    private Object invoices(HttpExchange ex, String method, String[] path, User user) throws IOException {
+        if (path.length == 1 && method.equals("GET")) {
+            List<Object> items = new ArrayList<>();
+            for (Invoice i : invoiceDAO.getInvoicesForCustomer(user.getEmail())) {
+                items.add(Json.object("invoiceId", i.getInvoiceId(), "businessId", i.getBusinessId(),
+                        "amount", i.getAmount(), "description", i.getDescription(), "status", i.getStatus()));
+            }
+            return Json.object("invoices", items);
+        }
+        if (path.length == 1 && method.equals("POST")) {
+            requireBusiness(user);
+            Map<String, String> body = readBody(ex);
+            BigDecimal amount = amount(body);
+            String email = required(body, "email");
+            if (userService.getUserIdByEmail(email) == -1) {
+                throw new ApiException(404, "Customer not found");
+            }
+            if (!invoiceDAO.createInvoice(new Invoice(user.getUserId(), email, amount, body.getOrDefault("description", "")))) {
+                throw new ApiException(409, "Failed to create invoice");
+            }
+            return ok();
+        }
+        if (path.length == 3 && method.equals("POST") && path[2].equals("pay")) {
+            if (!transactionService.payInvoice(intValue(path[1], "invoice ID"), user.getUserId())) {
+                throw new ApiException(409, "Invoice is not payable by this user or payment failed");
+            }
+            return ok();
+        }
+        throw new ApiException(405, "Method not allowed");
+    }
+
+    private Object loans(HttpExchange ex, String method, User user) throws IOException {
+        requireBusiness(user);
+        if (method.equals("GET")) {
+            List<Object> items = new ArrayList<>();
+            for (Loan l : loanDAO.getLoansByUserId(user.getUserId())) {
+                items.add(Json.object("loanId", l.getLoanId(), "amount", l.getAmount(),
+                        "reason", l.getReason(), "status", l.getStatus(), "appliedAt", l.getAppliedAt()));
+            }
+            return Json.object("loans", items);
+        }
+        requireMethod(method, "POST");
+        Map<String, String> body = readBody(ex);
+        BigDecimal amount = amount(body);
+        if (amount.signum() <= 0) {
+            throw new ApiException(400, "Amount must be positive");
+        }
+        if (!loanDAO.applyForLoan(new Loan(user.getUserId(), amount, body.getOrDefault("reason", "")))) {
+            throw new ApiException(409, "Loan application failed");
+        }
+        return ok();
+    }
+
+    // ==========================================
+    //           HELPERS
+    // ==========================================
+
+    private static Map<String, Object> ok() {
+        return Json.object("success", true);
+    }
+
+    private static Map<String, Object> userJson(User user) {
+        return Json.object("userId", user.getUserId(), "email", user.getEmail(),
+                "fullName", user.getFullName(), "role", user.getRole());
+    }
+
+    private static void requireMethod(String method, String expected) {
+        if (!method.equals(expected)) {
+            throw new ApiException(405, "Method not allowed");
+        }
+    }
+
+    private static void requireBusiness(User user) {
+        if (user.getRole() != Role.BUSINESS) {
+            throw new ApiException(403, "Business account required");
+        }
+    }
+
+    private static String required(Map<String, String> body, String field) {
+        String value = body.get(field);
+        if (value == null || value.isBlank()) {
+            throw new ApiException(400, "Missing field: " + field);
+        }
+        return value;
+    }
+
+    private static BigDecimal amount(Map<String, String> body) {
+        try {
+            return new BigDecimal(required(body, "amount"));
+        } catch (NumberFormatException e) {
+            throw new ApiException(400, "Invalid amount");
+        }
+    }
+
+    private static int intValue(String value, String name) {
+        try {
+            return Integer.parseInt(value);
+        } catch (NumberFormatException e) {
+            throw new ApiException(400, "Invalid " + name);
+        }
+    }
+
+    private static String idempotencyKey(HttpExchange ex, Map<String, String> body) {
+        String header = ex.getRequestHeaders().getFirst("Idempotency-Key");
+        String key = header != null ? header : body.get("idempotencyKey");
+        if (key != null && key.length() > MAX_IDEMPOTENCY_KEY_LENGTH) {
+            throw new ApiException(400, "Idempotency key longer than " + MAX_IDEMPOTENCY_KEY_LENGTH + " characters");
+        }
+        return key;
+    }
+
+    private static Map<String, String> readBody(HttpExchange ex) throws IOException {
+        try (InputStream in = ex.getRequestBody()) {
+            byte[] bytes = in.readNBytes(MAX_BODY_BYTES + 1);
+            if (bytes.length > MAX_BODY_BYTES) {
+                throw new ApiException(413, "Request body too large");
+            }
+            return Json.parseObject(new String(bytes, StandardCharsets.UTF_8));
+        } catch (IllegalArgumentException e) {
+            throw new ApiException(400, e.getMessage());
+        }
+    }
+
+    private static Map<String, String> query(HttpExchange ex) {
+        Map<String, String> params = new HashMap<>();
+        String raw = ex.getRequestURI().getRawQuery();
+        if (raw == null) {
+            return params;
+        }
+        for (String pair : raw.split("&")) {
+            int eq = pair.indexOf('=');
+            if (eq > 0) {
+                params.put(URLDecoder.decode(pair.substring(0, eq), StandardCharsets.UTF_8),
+                        URLDecoder.decode(pair.substring(eq + 1), StandardCharsets.UTF_8));
+            }
+        }
+        return params;
+    }
+
+    private static void send(HttpExchange ex, int status, Object body) {
+        byte[] bytes = Json.write(body).getBytes(StandardCharsets.UTF_8);
+        try {
+            ex.getResponseHeaders().set("Content-Type", "application/json; charset=utf-8");
+            ex.sendResponseHeaders(status, bytes.length);
+            try (OutputStream out = ex.getResponseBody()) {
+                out.write(bytes);
+            }
+        } catch (IOException e) {
+            logger.debug("Client went away before the response was sent", e);
+        }
+    }
+
+    /**
+     * A request that cannot be served, answered with the given HTTP status and message.
+     */
+    private static final class ApiException extends RuntimeException {
+        private static final long serialVersionUID = 1L;
+
+        final int status;
+
+        ApiException(int status, String message) {
+            super(message);
+            this.status = status;
+        }
+    }
+}
@@ -0,0 +1,111 @@
+package com.revpay.api;
+
+import com.revpay.model.User;
+
+import java.security.SecureRandom;
+import java.util.Base64;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Holds the logged-in user of each API client, keyed by an opaque bearer token.
+ * <p>
+ * This replaces the CLI's single static {@code currentUser}: every client gets its own
+ * session, so any number of users can be logged in through one server. Sessions expire
+ * after {@code revpay.api.sessionIdleMillis} (default 30 minutes) without a request.
+ * </p>
+ *
+ * @author RevPay Dev Team
+ * @version 1.0
+ */
+public class SessionStore {
+
+    private static final SecureRandom RANDOM = new SecureRandom();
+
+    private final ConcurrentHashMap<String, Session> sessions = new ConcurrentHashMap<>();
+    private final long idleMillis;
+
+    /**
+     * Creates a store whose sessions expire after the given idle time.
+     *
+     * @param idleMillis The idle timeout in milliseconds.
+     */
+    public SessionStore(long idleMillis) {
+        this.idleMillis = idleMillis;
+    }
+
+    /**
+     * Starts a session for a freshly authenticated user.
+     *
+     * @param user The logged-in user.
+     * @return The bearer token identifying the session.
+     */
+    public String create(User user) {
+        byte[] bytes = new byte[32];
+        RANDOM.nextBytes(bytes);
+        String token = Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+        sessions.put(token, new Session(user));
+        return token;
+    }
+
+    /**
+     * Looks up the user of a session and marks the session as used.
+     *
+     * @param token The bearer token.
+     * @return The session's user, or {@code null} if the token is unknown or expired.
+     */
+    public User get(String token) {
+        if (token == null) {
+            return null;
+        }
+        Session s = sessions.get(token);
+        if (s == null) {
+            return null;
+        }
+        long now = System.currentTimeMillis();
+        if (now - s.lastSeen > idleMillis) {
+            sessions.remove(token, s);
+            return null;
+        }
+        s.lastSeen = now;
+        return s.user;
+    }
+
+    /**
+     * Ends a session.
+     *
+     * @param token The bearer token.
+     * @return {@code true} if the session existed.
+     */
+    public boolean remove(String token) {
+        return token != null && sessions.remove(token) != null;
+    }
+
+    /**
+     * Drops all sessions idle for longer than the timeout.
+     *
+     * @return The number of sessions removed.
+     */
+    public int evictExpired() {
+        long cutoff = System.currentTimeMillis() - idleMillis;
+        int before = sessions.size();
+        sessions.values().removeIf(s -> s.lastSeen < cutoff);
+        return before - sessions.size();
+    }
+
+    /**
+     * Gets the number of open sessions.
+     * @return The session count.
+     */
+    public int size() {
+        return sessions.size();
+    }
+
+    private static final class Session {
+        final User user;
+        volatile long lastSeen = System.currentTimeMillis();
+
+        Session(User user) {
+            this.user = user;
+        }
+    }
+}
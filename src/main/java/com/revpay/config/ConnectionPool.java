@@ -0,0 +1,595 @@
+package com.revpay.config;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.SQLTimeoutException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A bounded pool of pre-opened JDBC connections.
+ * <p>
+ * Opening a MySQL connection costs a TCP handshake plus authentication, which used to
+ * dominate short queries such as a balance check. The pool keeps up to
+ * {@link PoolConfig#getMaxSize()} physical connections open and hands out lightweight
+ * proxies whose {@code close()} returns the physical connection to the pool instead of
+ * closing it, so DAOs keep their usual try-with-resources code.
+ * </p>
+ * <ul>
+ * <li><b>Bounded:</b> Borrowers wait up to the borrow timeout when every connection is in use.</li>
+ * <li><b>Validation:</b> A connection idle for longer than the bypass window is pinged before it is handed out.</li>
+ * <li><b>Eviction:</b> Surplus idle connections and connections past their max lifetime are closed by a housekeeping thread.</li>
+ * <li><b>Leak detection:</b> Connections borrowed for longer than the threshold are logged with the stack trace of the borrower.</li>
+ * <li><b>Statement cache:</b> Each physical connection keeps an LRU {@link StatementCache} of prepared statements keyed by
+ * SQL text, so the fixed SQL strings used by the DAOs are parsed and planned once per connection.</li>
+ * </ul>
+ *
+ * @author RevPay Dev Team
+ * @version 1.0
+ */
+public class ConnectionPool implements AutoCloseable {
+
+    // Initialize Log4j Logger
+    private static final Logger logger = LogManager.getLogger(ConnectionPool.class);
+
+    /**
+     * Opens new physical connections for the pool.
+     */
+    @FunctionalInterface
+    public interface ConnectionFactory {
+        /**
+         * Opens a new physical connection.
+         *
+         * @return A new, open {@link Connection}.
+         * @throws SQLException If the database cannot be reached.
+         */
+        Connection create() throws SQLException;
+    }
+
+    private final ConnectionFactory factory;
+    private final PoolConfig config;
+    private final Semaphore permits;
+    private final LinkedBlockingDeque<PooledEntry> idle = new LinkedBlockingDeque<>();
+    private final Set<PooledEntry> borrowed = ConcurrentHashMap.newKeySet();
+    private final AtomicInteger totalConnections = new AtomicInteger();
+    private final LongAdder statementHits = new LongAdder();
+    private final LongAdder statementMisses = new LongAdder();
+    private final LongAdder statementEvictions = new LongAdder();
+    private final ScheduledExecutorService housekeeper;
+    private volatile boolean shutdown;
+
+    /**
+     * Creates the pool and pre-opens {@link PoolConfig#getMinIdle()} connections.
+     * <p>
+     * A failure to pre-open is logged but not thrown; the pool retries on the next
+     * borrow and on every housekeeping run.
+     * </p>
+     *
+     * @param factory The source of new physical connections.
+     * @param config  The pool tuning parameters.
+     */
+    public ConnectionPool(ConnectionFactory factory, PoolConfig config) {
+        if (config.getMaxSize() < 1) {
+            throw new IllegalArgumentException("Pool maxSize must be at least 1");
+        }
+        this.factory = factory;
+        this.config = config;
+        this.permits = new Semaphore(config.getMaxSize(), true);
+
+        this.housekeeper = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "revpay-pool-housekeeper");
+            t.setDaemon(true);
+            return t;
+        });
+        long interval = config.getHousekeepingIntervalMillis();
+        housekeeper.scheduleWithFixedDelay(this::housekeep, interval, interval, TimeUnit.MILLISECONDS);
+
+        fillToMinIdle();
+        logger.info("✅ Connection pool started (max=" + config.getMaxSize() + ", open=" + totalConnections.get() + ")");
+    }
+
+    /**
+     * Borrows a connection, waiting up to the configured borrow timeout.
+     * <p>
+     * The returned connection must be closed by the caller; closing it returns it to the pool.
+     * </p>
+     *
+     * @return A pooled {@link Connection}.
+     * @throws SQLTimeoutException If no connection became free in time.
+     * @throws SQLException        If the pool is shut down or a new connection could not be opened.
+     */
+    public Connection borrow() throws SQLException {
+        if (shutdown) {
+            throw new SQLException("Connection pool is shut down.");
+        }
+
+        long timeout = config.getBorrowTimeoutMillis();
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeout);
+        try {
+            if (!permits.tryAcquire(timeout, TimeUnit.MILLISECONDS)) {
+                throw new SQLTimeoutException("Timed out after " + timeout + "ms waiting for a database connection (pool size "
+                        + config.getMaxSize() + ", in use " + borrowed.size() + ").");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Interrupted while waiting for a database connection.", e);
+        }
+
+        try {
+            while (true) {
+                PooledEntry entry = idle.pollFirst();
+                if (entry == null) {
+                    if (reserveSlot()) {
+                        return lend(open());
+                    }
+                    // Every slot is briefly held by the housekeeper (top-up or eviction); wait and retry.
+                    long remaining = deadline - System.nanoTime();
+                    if (remaining <= 0) {
+                        throw new SQLTimeoutException("Timed out after " + timeout + "ms waiting for a database connection.");
+                    }
+                    entry = idle.pollFirst(Math.min(remaining, TimeUnit.MILLISECONDS.toNanos(10)), TimeUnit.NANOSECONDS);
+                    if (entry == null) {
+                        continue;
+                    }
+                }
+                if (isUsable(entry)) {
+                    return lend(entry);
+                }
+                destroy(entry);
+            }
+        } catch (SQLException | RuntimeException e) {
+            permits.release();
+            throw e;
+        } catch (InterruptedException e) {
+            permits.release();
+            Thread.currentThread().interrupt();
+            throw new SQLException("Interrupted while waiting for a database connection.", e);
+        }
+    }
+
+    /**
+     * Gets the number of open physical connections (idle and in use).
+     * @return The total connection count.
+     */
+    public int getTotalConnections() { return totalConnections.get(); }
+
+    /**
+     * Gets the number of open connections waiting in the pool.
+     * @return The idle connection count.
+     */
+    public int getIdleConnections() { return idle.size(); }
+
+    /**
+     * Gets the number of connections currently borrowed.
+     * @return The active connection count.
+     */
+    public int getActiveConnections() { return borrowed.size(); }
+
+    /**
+     * Gets how many {@code prepareStatement} calls were served from a statement cache.
+     * @return The statement cache hit count.
+     */
+    public long getStatementCacheHits() { return statementHits.sum(); }
+
+    /**
+     * Gets how many {@code prepareStatement} calls had to prepare a new statement.
+     * @return The statement cache miss count.
+     */
+    public long getStatementCacheMisses() { return statementMisses.sum(); }
+
+    /**
+     * Gets how many cached statements were closed to make room for newer ones.
+     * @return The statement cache eviction count.
+     */
+    public long getStatementCacheEvictions() { return statementEvictions.sum(); }
+
+    /**
+     * Closes every idle connection and stops the housekeeping thread.
+     * <p>
+     * Connections still borrowed are closed as soon as they are returned.
+     * </p>
+     */
+    @Override
+    public void close() {
+        shutdown = true;
+        housekeeper.shutdownNow();
+        PooledEntry entry;
+        while ((entry = idle.pollFirst()) != null) {
+            destroy(entry);
+        }
+        logger.info("🛑 Connection pool shut down.");
+    }
+
+    // ==========================================
+    //           INTERNALS
+    // ==========================================
+
+    private boolean reserveSlot() {
+        while (true) {
+            int current = totalConnections.get();
+            if (current >= config.getMaxSize()) {
+                return false;
+            }
+            if (totalConnections.compareAndSet(current, current + 1)) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Opens a physical connection for a slot already reserved with {@link #reserveSlot()}.
+     */
+    private PooledEntry open() throws SQLException {
+        try {
+            return new PooledEntry(factory.create(), new StatementCache(config.getStatementCacheSize(), statementEvictions::increment));
+        } catch (SQLException | RuntimeException e) {
+            totalConnections.decrementAndGet();
+            throw e;
+        }
+    }
+
+    private boolean isUsable(PooledEntry entry) {
+        long now = System.currentTimeMillis();
+        if (isExpired(entry, now)) {
+            return false;
+        }
+        if (now - entry.lastReturnedAt < config.getAliveBypassMillis()) {
+            return true;
+        }
+        try {
+            return entry.physical.isValid(config.getValidationTimeoutSeconds());
+        } catch (SQLException e) {
+            logger.warn("⚠️ Pooled connection failed validation, discarding it.", e);
+            return false;
+        }
+    }
+
+    private boolean isExpired(PooledEntry entry, long now) {
+        return config.getMaxLifetimeMillis() > 0 && now - entry.createdAt >= config.getMaxLifetimeMillis();
+    }
+
+    private Connection lend(PooledEntry entry) {
+        entry.borrowedAt = System.currentTimeMillis();
+        entry.leakReported = false;
+        entry.borrowSite = config.getLeakDetectionThresholdMillis() > 0
+                ? new Exception("Connection borrowed here") : null;
+        borrowed.add(entry);
+        return (Connection) Proxy.newProxyInstance(ConnectionPool.class.getClassLoader(),
+                new Class<?>[]{Connection.class}, new ConnectionHandler(entry));
+    }
+
+    /**
+     * Returns a connection to the idle list after resetting any transaction left open by the borrower.
+     */
+    private void release(PooledEntry entry) {
+        borrowed.remove(entry);
+        try {
+            boolean reusable = !shutdown && !entry.broken && !isExpired(entry, System.currentTimeMillis());
+            if (reusable) {
+                try {
+                    if (!entry.physical.getAutoCommit()) {
+                        entry.physical.rollback();
+                        entry.physical.setAutoCommit(true);
+                    }
+                    reusable = !entry.physical.isClosed();
+                } catch (SQLException e) {
+                    logger.warn("⚠️ Could not reset pooled connection, discarding it.", e);
+                    reusable = false;
+                }
+            }
+
+            if (reusable) {
+                entry.lastReturnedAt = System.currentTimeMillis();
+                idle.offerFirst(entry); // LIFO keeps the hottest connections in use
+            } else {
+                destroy(entry);
+            }
+        } finally {
+            permits.release();
+        }
+    }
+
+    private void destroy(PooledEntry entry) {
+        totalConnections.decrementAndGet();
+        entry.statements.closeAll();
+        try {
+            entry.physical.close();
+        } catch (SQLException e) {
+            logger.debug("Error closing physical connection", e);
+        }
+    }
+
+    private void fillToMinIdle() {
+        while (!shutdown && idle.size() < config.getMinIdle() && reserveSlot()) {
+            try {
+                PooledEntry entry = open();
+                if (shutdown) {
+                    destroy(entry);
+                    return;
+                }
+                idle.offerLast(entry);
+            } catch (SQLException e) {
+                logger.error("❌ Could not pre-open pooled connection.", e);
+                return;
+            }
+        }
+    }
+
+    /**
+     * Periodic maintenance: retire old and surplus idle connections, report leaks, top up to min idle.
+     */
+    private void housekeep() {
+        try {
+            long now = System.currentTimeMillis();
+
+            for (PooledEntry entry : idle) {
+                boolean surplus = totalConnections.get() > config.getMinIdle()
+                        && now - entry.lastReturnedAt > config.getIdleTimeoutMillis();
+                if ((isExpired(entry, now) || surplus) && idle.remove(entry)) {
+                    destroy(entry);
+                }
+            }
+
+            long threshold = config.getLeakDetectionThresholdMillis();
+            if (threshold > 0) {
+                for (PooledEntry entry : borrowed) {
+                    if (!entry.leakReported && now - entry.borrowedAt > threshold) {
+                        entry.leakReported = true;
+                        logger.warn("⚠️ Possible connection leak: connection borrowed " + (now - entry.borrowedAt)
+                                + "ms ago has not been closed.", entry.borrowSite);
+                    }
+                }
+            }
+
+            fillToMinIdle();
+        } catch (RuntimeException e) {
+            logger.error("❌ Connection pool housekeeping failed", e);
+        }
+    }
+
+    /**
+     * Bookkeeping for one physical connection.
+     */
+    private static final class PooledEntry {
+        final Connection physical;
+        final StatementCache statements;
+        final long createdAt;
+        volatile long lastReturnedAt;
+        volatile long borrowedAt;
+        volatile Exception borrowSite;
+        volatile boolean leakReported;
+        volatile boolean broken;
+
+        PooledEntry(Connection physical, StatementCache statements) {
+            this.physical = physical;
+            this.statements = statements;
+            this.createdAt = System.currentTimeMillis();
+            this.lastReturnedAt = createdAt;
+        }
+    }
+
+    /**
+     * Dynamic proxy behind each borrowed connection: delegates everything except
+     * {@code close()}, which hands the physical connection back to the pool, and
+     * {@code prepareStatement}, which is served from the connection's statement cache.
+     */
+    private final class ConnectionHandler implements InvocationHandler {
+        private final PooledEntry entry;
+        private final List<StatementHandler> openStatements = new ArrayList<>();
+        private volatile boolean closed;
+
+        ConnectionHandler(PooledEntry entry) {
+            this.entry = entry;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "close":
+                    if (!closed) {
+                        // Statements the caller forgot to close go back to the cache with the connection;
+                        // giveBack() only caches while the owner is open, so mark it closed afterwards
+                        for (StatementHandler statement : new ArrayList<>(openStatements)) {
+                            statement.giveBack();
+                        }
+                        closed = true;
+                        release(entry);
+                    }
+                    return null;
+                case "isClosed":
+                    return closed || entry.physical.isClosed();
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "toString":
+                    return "PooledConnection[" + entry.physical + "]";
+                default:
+                    break;
+            }
+
+            if (closed) {
+                throw new SQLException("Connection has already been returned to the pool.");
+            }
+            String cacheKey = statementCacheKey(method, args);
+            if (cacheKey != null) {
+                return prepareCached((Connection) proxy, cacheKey, method, args);
+            }
+            return delegate(entry, entry.physical, method, args);
+        }
+
+        /**
+         * Returns the cache key for the {@code prepareStatement} overloads we cache, or {@code null}.
+         */
+        private String statementCacheKey(Method method, Object[] args) {
+            if (config.getStatementCacheSize() <= 0 || !"prepareStatement".equals(method.getName())) {
+                return null;
+            }
+            Class<?>[] types = method.getParameterTypes();
+            if (types.length == 1) {
+                return (String) args[0];
+            }
+            if (types.length == 2 && types[1] == int.class) {
+                // prepareStatement(sql, autoGeneratedKeys)
+                return args[0] + "#keys=" + args[1];
+            }
+            return null;
+        }
+
+        private PreparedStatement prepareCached(Connection logical, String key, Method method, Object[] args) throws Throwable {
+            PreparedStatement physical = entry.statements.take(key);
+            if (physical != null) {
+                statementHits.increment();
+            } else {
+                statementMisses.increment();
+                physical = (PreparedStatement) delegate(entry, entry.physical, method, args);
+            }
+            StatementHandler handler = new StatementHandler(this, logical, physical, key);
+            openStatements.add(handler);
+            return (PreparedStatement) Proxy.newProxyInstance(ConnectionPool.class.getClassLoader(),
+                    new Class<?>[]{PreparedStatement.class}, handler);
+        }
+    }
+
+    /**
+     * Dynamic proxy behind each cached statement: {@code close()} clears the statement and
+     * puts it back into the connection's {@link StatementCache} instead of closing it.
+     * Executions inside a {@link QueryCancellation} scope are registered with it while they run.
+     */
+    private final class StatementHandler implements InvocationHandler {
+        private final ConnectionHandler owner;
+        private final Connection logicalConnection;
+        private final PreparedStatement physical;
+        private final String key;
+        private ResultSet lastResult;
+        private boolean reusable = true;
+        private boolean closed;
+
+        StatementHandler(ConnectionHandler owner, Connection logicalConnection, PreparedStatement physical, String key) {
+            this.owner = owner;
+            this.logicalConnection = logicalConnection;
+            this.physical = physical;
+            this.key = key;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "close":
+                    giveBack();
+                    return null;
+                case "isClosed":
+                    return closed;
+                case "getConnection":
+                    return logicalConnection;
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "toString":
+                    return "CachedStatement[" + key + "]";
+                case "setFetchSize":
+                case "setMaxRows":
+                case "setQueryTimeout":
+                case "setFetchDirection":
+                case "setEscapeProcessing":
+                case "setPoolable":
+                case "closeOnCompletion":
+                    // Per-statement settings would leak into the next borrower, so don't cache this one
+                    reusable = false;
+                    break;
+                default:
+                    break;
+            }
+
+            if (closed) {
+                throw new SQLException("Statement has already been closed.");
+            }
+            Object result;
+            QueryCancellation scope = QueryCancellation.current();
+            if (scope != null && method.getName().startsWith("execute")) {
+                // Make the running query reachable from the scope's cancel()
+                scope.begin(physical);
+                try {
+                    result = delegate(owner.entry, physical, method, args);
+                } finally {
+                    scope.end(physical);
+                }
+            } else {
+                result = delegate(owner.entry, physical, method, args);
+            }
+            if (result instanceof ResultSet && "executeQuery".equals(method.getName())) {
+                lastResult = (ResultSet) result;
+            }
+            return result;
+        }
+
+        /**
+         * Logically closes the statement, returning it to the cache when it is still clean.
+         */
+        void giveBack() {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            owner.openStatements.remove(this);
+            try {
+                if (lastResult != null) {
+                    lastResult.close();
+                }
+                if (reusable && !owner.closed && !owner.entry.broken) {
+                    physical.clearParameters();
+                    physical.clearBatch();
+                    owner.entry.statements.offer(key, physical);
+                } else {
+                    physical.close();
+                }
+            } catch (SQLException e) {
+                logger.debug("Error returning statement to cache", e);
+                try {
+                    physical.close();
+                } catch (SQLException ignored) {
+                    // Already failing; the connection itself will be validated on next borrow
+                }
+            }
+        }
+    }
+
+    /**
+     * Invokes a JDBC method on the physical object, unwrapping reflection errors and flagging
+     * connections that reported a connection-level failure.
+     */
+    private static Object delegate(PooledEntry entry, Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof SQLException) {
+                String state = ((SQLException) cause).getSQLState();
+                // SQLState class 08 = connection exception; never hand this connection out again
+                if (state != null && state.startsWith("08")) {
+                    entry.broken = true;
+                }
+            }
+            throw cause;
+        }
+    }
+}
@@ -1,10 +1,11 @@
 package com.revpay.config;
 
+import com.mysql.cj.jdbc.MysqlDataSource;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
+import javax.sql.DataSource;
 import java.sql.Connection;
-import java.sql.DriverManager;
 import java.sql.SQLException;
 
 /**
@@ -14,6 +15,30 @@ import java.sql.SQLException;
  * static point of access to the database connection. It utilizes JDBC
  * to establish communication with the MySQL database.
  * </p>
+ * <p>
+ * Connections are served from a shared {@link ConnectionPool}, created on first use,
+ * so callers pay the MySQL handshake only when the pool grows rather than on every query.
+ * Pool sizing is tuned through the {@code revpay.db.pool.*} system properties (see {@link PoolConfig}).
+ * </p>
+ * <p>
+ * The pool draws its physical connections from a {@link DataSource} chosen by configuration:
+ * </p>
+ * <ul>
+ * <li>{@code -Drevpay.db.backend=mysql} (default): MySQL at {@code revpay.db.url}, {@code revpay.db.user}
+ * and {@code revpay.db.password} (defaulting to the constants below).</li>
+ * <li>{@code -Drevpay.db.backend=embedded}: an in-process {@link EmbeddedDatabase} with the same schema.</li>
+ * <li>Any other {@link DataSource}, installed with {@link #setDataSource(DataSource)}.</li>
+ * </ul>
+ * <p>
+ * Reads that tolerate replication lag (history, request, invoice, loan and card lists)
+ * can use {@link #getReadConnection(int)}, which serves them from a separate read
+ * replica pool when one is configured with {@code revpay.db.read.url} (plus optional
+ * {@code revpay.db.read.user} / {@code revpay.db.read.password}) or
+ * {@link #setReadDataSource(DataSource)}. A user who just moved money reads from the
+ * primary for a short window (see {@link ReadYourWrites}). Balances are not among them:
+ * they are cached until the next write, so they are always loaded from the primary.
+ * Without a replica every connection comes from the primary pool.
+ * </p>
  *
  * @author RevPay Dev Team
  * @version 1.0
@@ -23,37 +48,266 @@ public class DatabaseConnection {
     // Initialize Log4j Logger
     private static final Logger logger = LogManager.getLogger(DatabaseConnection.class);
 
-    // Database Configuration Constants
-    private static final String URL = "jdbc:mysql://localhost:3306/revpay_db";
+    // Database Configuration Constants (defaults for the MySQL backend)
+    // Server-side prepared statements let the pool's statement cache skip re-parsing on the server too;
+    // rewriteBatchedStatements sends a JDBC batch (e.g., a bulk payout) as a few multi-row statements
+    private static final String URL = "jdbc:mysql://localhost:3306/revpay_db?useServerPrepStmts=true&rewriteBatchedStatements=true";
     private static final String USER = "root";
     // ⚠️ SECURITY NOTE: In a production environment, fetch this from an environment variable or secret vault.
     private static final String PASSWORD = "Nami1224@@@@";
 
+    /** Name of the in-memory database used by the embedded backend. */
+    public static final String EMBEDDED_NAME = "revpay_db";
+
+    // Shared pool, created lazily on the first getConnection() call
+    private static volatile ConnectionPool pool;
+    private static DataSource dataSource;
+    private static boolean shutdownHookRegistered = false;
+
+    // Read replica pool; readResolved is set once revpay.db.read.url has been looked at
+    private static volatile ConnectionPool readPool;
+    private static DataSource readDataSource;
+    private static volatile boolean readResolved = false;
+
     /**
-     * Establishes and returns a connection to the MySQL database.
+     * Borrows a connection to the configured database from the shared pool.
      * <p>
-     * This method loads the MySQL JDBC driver and attempts to create a connection
-     * using the configured credentials. If the connection fails, a FATAL log is recorded.
+     * Closing the returned connection hands it back to the pool; callers should keep
+     * using try-with-resources exactly as with a plain JDBC connection.
+     * If no connection can be obtained, a FATAL log is recorded and the failure is thrown,
+     * so the caller's own {@code SQLException} handling reports it.
      * </p>
      *
-     * @return A valid {@link Connection} object if successful, or {@code null} if an error occurs.
+     * @return A valid {@link Connection}; never {@code null}.
+     * @throws SQLException If the database is unreachable or the pool timed out.
      */
-    public static Connection getConnection() {
-        Connection connection = null;
+    public static Connection getConnection() throws SQLException {
         try {
-            // Load the MySQL Driver
-            Class.forName("com.mysql.cj.jdbc.Driver");
-
-            // Attempt to connect
-            connection = DriverManager.getConnection(URL, USER, PASSWORD);
-
-        } catch (ClassNotFoundException e) {
-            // Fatal error: Missing dependency indicates a broken build
-            logger.fatal("❌ MySQL JDBC Driver not found. Ensure the dependency is in pom.xml.", e);
+            return getPool().borrow();
         } catch (SQLException e) {
             // Fatal error: Database connectivity is required for the app to function
             logger.fatal("❌ Database Connection Failed. Verify URL, User, and Password.", e);
+            throw e;
+        } catch (IllegalStateException e) {
+            logger.fatal("❌ Database Connection Failed.", e);
+            throw new SQLException("Database connection pool unavailable", e);
+        }
+    }
+
+    /**
+     * Borrows a connection for a read that may lag slightly behind the latest commit.
+     * <p>
+     * Comes from the read replica if one is configured, otherwise from the primary pool.
+     * Use {@link #getReadConnection(int)} when the read belongs to a user, so that user
+     * sees their own recent writes.
+     * </p>
+     *
+     * @return A {@link Connection}; never {@code null}.
+     * @throws SQLException If neither the replica nor the primary can serve a connection.
+     */
+    public static Connection getReadConnection() throws SQLException {
+        ConnectionPool replica;
+        try {
+            replica = getReadPool();
+        } catch (IllegalStateException e) {
+            logger.error("❌ Read replica unavailable, reading from the primary.", e);
+            replica = null;
+        }
+        if (replica == null) {
+            return getConnection();
+        }
+        try {
+            return replica.borrow();
+        } catch (SQLException e) {
+            logger.error("❌ Read replica connection failed, reading from the primary.", e);
+            return getConnection();
+        }
+    }
+
+    /**
+     * Borrows a connection for a read of one user's data, honouring read-your-writes.
+     * <p>
+     * If the user committed a money movement within the {@link ReadYourWrites} window the
+     * read goes to the primary, otherwise it behaves like {@link #getReadConnection()}.
+     * </p>
+     *
+     * @param userId The user whose data is read.
+     * @return A {@link Connection}; never {@code null}.
+     * @throws SQLException If no connection can be obtained.
+     */
+    public static Connection getReadConnection(int userId) throws SQLException {
+        if (ReadYourWrites.getInstance().isRecent(userId)) {
+            return getConnection();
+        }
+        return getReadConnection();
+    }
+
+    /**
+     * Returns the read replica pool, creating it on first use.
+     *
+     * @return The replica pool, or {@code null} if no replica is configured.
+     * @throws IllegalStateException If the replica pool cannot be created.
+     */
+    public static ConnectionPool getReadPool() {
+        ConnectionPool p = readPool;
+        if (p != null || readResolved) {
+            return p;
+        }
+        synchronized (DatabaseConnection.class) {
+            if (!readResolved) {
+                DataSource ds = getReadDataSource();
+                if (ds != null) {
+                    readPool = new ConnectionPool(ds::getConnection, PoolConfig.fromSystemProperties());
+                    logger.info("✅ Read replica pool started; read-your-writes window "
+                            + Long.getLong("revpay.db.read.rywWindowMillis", 2_000L) + "ms");
+                }
+                readResolved = true;
+            }
+            return readPool;
+        }
+    }
+
+    /**
+     * Checks whether reads are split off to a replica.
+     *
+     * @return {@code true} if a read replica is configured.
+     */
+    public static boolean hasReadReplica() {
+        try {
+            return getReadPool() != null;
+        } catch (IllegalStateException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Returns the read replica's {@link DataSource}, creating it from {@code revpay.db.read.url} on first use.
+     *
+     * @return The replica, or {@code null} if none is configured.
+     */
+    public static synchronized DataSource getReadDataSource() {
+        if (readDataSource == null && !readResolved) {
+            String url = System.getProperty("revpay.db.read.url");
+            if (url != null && !url.isEmpty()) {
+                MysqlDataSource ds = new MysqlDataSource();
+                ds.setURL(url);
+                ds.setUser(System.getProperty("revpay.db.read.user", System.getProperty("revpay.db.user", USER)));
+                ds.setPassword(System.getProperty("revpay.db.read.password", System.getProperty("revpay.db.password", PASSWORD)));
+                logger.info("Using MySQL read replica at " + url);
+                readDataSource = ds;
+            }
+        }
+        return readDataSource;
+    }
+
+    /**
+     * Installs a read replica (or removes it with {@code null}, sending all reads to the primary).
+     * <p>
+     * The current replica pool is closed; the next read starts a fresh one.
+     * </p>
+     *
+     * @param ds The replica's {@link DataSource}, or {@code null}.
+     */
+    public static synchronized void setReadDataSource(DataSource ds) {
+        closeReadPool();
+        readDataSource = ds;
+        readResolved = ds == null;
+    }
+
+    private static synchronized void closeReadPool() {
+        ConnectionPool p = readPool;
+        readPool = null;
+        readResolved = false;
+        if (p != null) {
+            p.close();
+        }
+    }
+
+    /**
+     * Returns the shared connection pool, creating it on first use.
+     *
+     * @return The application-wide {@link ConnectionPool}.
+     * @throws IllegalStateException If the configured backend cannot be created.
+     */
+    public static ConnectionPool getPool() {
+        ConnectionPool p = pool;
+        if (p == null) {
+            synchronized (DatabaseConnection.class) {
+                p = pool;
+                if (p == null) {
+                    DataSource ds = getDataSource();
+                    p = new ConnectionPool(ds::getConnection, PoolConfig.fromSystemProperties());
+                    if (!shutdownHookRegistered) {
+                        Runtime.getRuntime().addShutdownHook(new Thread(DatabaseConnection::shutdown, "revpay-pool-shutdown"));
+                        shutdownHookRegistered = true;
+                    }
+                    pool = p;
+                }
+            }
+        }
+        return p;
+    }
+
+    /**
+     * Returns the source of physical connections, creating the configured one on first use.
+     *
+     * @return The {@link DataSource} behind the pool.
+     * @throws IllegalStateException If the configured backend cannot be created.
+     */
+    public static synchronized DataSource getDataSource() {
+        if (dataSource == null) {
+            dataSource = createDataSource(System.getProperty("revpay.db.backend", "mysql"));
+        }
+        return dataSource;
+    }
+
+    /**
+     * Installs a different source of physical connections (e.g., a test or replica database).
+     * <p>
+     * The current pool is closed; the next {@link #getConnection()} call starts a fresh pool
+     * on the new source.
+     * </p>
+     *
+     * @param ds The new {@link DataSource}, or {@code null} to return to the configured backend.
+     */
+    public static synchronized void setDataSource(DataSource ds) {
+        shutdown();
+        dataSource = ds;
+    }
+
+    private static DataSource createDataSource(String backend) {
+        switch (backend.toLowerCase()) {
+            case "embedded":
+                try {
+                    return EmbeddedDatabase.create(EMBEDDED_NAME);
+                } catch (SQLException e) {
+                    logger.fatal("❌ Embedded database could not be created.", e);
+                    throw new IllegalStateException("Embedded database could not be created", e);
+                }
+            case "mysql":
+                MysqlDataSource ds = new MysqlDataSource();
+                ds.setURL(System.getProperty("revpay.db.url", URL));
+                ds.setUser(System.getProperty("revpay.db.user", USER));
+                ds.setPassword(System.getProperty("revpay.db.password", PASSWORD));
+                logger.info("Using MySQL backend at " + ds.getURL());
+                return ds;
+            default:
+                throw new IllegalStateException("Unknown database backend '" + backend + "' (expected mysql or embedded)");
+        }
+    }
+
+    /**
+     * Closes the shared pool (and the read replica pool) and all of their idle connections.
+     * <p>
+     * A later {@link #getConnection()} call starts a fresh pool.
+     * </p>
+     */
+    public static synchronized void shutdown() {
+        ConnectionPool p = pool;
+        pool = null;
+        if (p != null) {
+            p.close();
         }
-        return connection;
+        closeReadPool();
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,111 @@
+package com.revpay.config;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.h2.jdbcx.JdbcDataSource;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Embedded, in-memory SQL backend (H2 in MySQL compatibility mode).
+ * <p>
+ * Lets the whole service stack run in-process with no MySQL server: tests, benchmarks
+ * and simulations start in milliseconds and measure application overhead without the
+ * network and disk. The database is created on first use from the same versioned
+ * schema scripts as MySQL ({@code src/main/resources/db}) and lives until the JVM exits.
+ * </p>
+ *
+ * @author RevPay Dev Team
+ * @version 1.0
+ */
+public class EmbeddedDatabase {
+
+    // Initialize Log4j Logger
+    private static final Logger logger = LogManager.getLogger(EmbeddedDatabase.class);
+
+    /** The schema scripts, applied in order to a new database. */
+    static final String[] SCHEMA_SCRIPTS = {
+            "db/V1__baseline_schema.sql",
+            "db/V2__transaction_idempotency_key.sql",
+            "db/V3__hot_query_indexes.sql",
+            "db/V4__ledger_checkpoint.sql",
+            "db/V5__idempotency_key_per_sender.sql"
+    };
+
+    // MVCC row locks with a short lock timeout, reported like an InnoDB lock wait (retried by the DAOs).
+    // IGNORECASE makes VARCHAR columns compare like MySQL's default collation, so email lookups
+    // and the unique email constraint ignore case on both backends.
+    private static final String URL_OPTIONS = ";MODE=MySQL;DATABASE_TO_LOWER=TRUE;IGNORECASE=TRUE;DB_CLOSE_DELAY=-1;LOCK_TIMEOUT=5000";
+
+    private EmbeddedDatabase() {}
+
+    /**
+     * Creates a new in-memory database with the RevPay schema.
+     *
+     * @param name The database name; each name is a separate database within this JVM.
+     * @return A {@link DataSource} for the new database.
+     * @throws SQLException If the schema cannot be applied (e.g., the name is already in use).
+     */
+    public static DataSource create(String name) throws SQLException {
+        JdbcDataSource ds = new JdbcDataSource();
+        ds.setURL("jdbc:h2:mem:" + name + URL_OPTIONS);
+        ds.setUser("sa");
+        ds.setPassword("");
+
+        long start = System.nanoTime();
+        try (Connection conn = ds.getConnection(); Statement st = conn.createStatement()) {
+            for (String script : SCHEMA_SCRIPTS) {
+                for (String sql : statements(script)) {
+                    st.execute(sql);
+                }
+            }
+        }
+        logger.info("✅ Embedded database '" + name + "' ready in " + (System.nanoTime() - start) / 1_000_000 + "ms");
+        return ds;
+    }
+
+    /**
+     * Reads a schema script from the classpath and splits it into statements.
+     * <p>
+     * Comment lines ({@code --}) are dropped and statements end with a {@code ;} at the end of a line.
+     * </p>
+     */
+    static List<String> statements(String resource) throws SQLException {
+        String text;
+        try (InputStream in = EmbeddedDatabase.class.getClassLoader().getResourceAsStream(resource)) {
+            if (in == null) {
+                throw new SQLException("Schema script not found on classpath: " + resource);
+            }
+            text = new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            throw new SQLException("Could not read schema script " + resource, e);
+        }
+
+        List<String> result = new ArrayList<>();
+        StringBuilder current = new StringBuilder();
+        for (String line : text.split("\\R")) {
+            String trimmed = line.trim();
+            if (trimmed.isEmpty() || trimmed.startsWith("--")) {
+                continue;
+            }
+            current.append(line).append('\n');
+            if (trimmed.endsWith(";")) {
+                String sql = current.toString().trim();
+                result.add(sql.substring(0, sql.length() - 1));
+                current.setLength(0);
+            }
+        }
+        if (current.toString().trim().length() > 0) {
+            result.add(current.toString().trim());
+        }
+        return result;
+    }
+}
@@ -0,0 +1,174 @@
+package com.revpay.config;
+
+/**
+ * Tuning parameters for the {@link ConnectionPool}.
+ * <p>
+ * Every value can be overridden with a JVM system property (for example
+ * {@code -Drevpay.db.pool.maxSize=20}) so the pool can be resized per
+ * environment without touching the code.
+ * </p>
+ *
+ * @author RevPay Dev Team
+ * @version 1.0
+ */
+public class PoolConfig {
+
+    private int maxSize = 10;
+    private int minIdle = 2;
+    private long borrowTimeoutMillis = 5_000;
+    private int validationTimeoutSeconds = 2;
+    private long aliveBypassMillis = 500;
+    private long idleTimeoutMillis = 10 * 60_000L;
+    private long maxLifetimeMillis = 30 * 60_000L;
+    private long leakDetectionThresholdMillis = 60_000;
+    private long housekeepingIntervalMillis = 30_000;
+    private int statementCacheSize = 64;
+
+    /**
+     * Default constructor with the built-in defaults.
+     */
+    public PoolConfig() {}
+
+    /**
+     * Builds a configuration from the built-in defaults overridden by any
+     * {@code revpay.db.pool.*} system properties that are set.
+     *
+     * @return A new {@link PoolConfig}.
+     */
+    public static PoolConfig fromSystemProperties() {
+        PoolConfig c = new PoolConfig();
+        c.maxSize = Integer.getInteger("revpay.db.pool.maxSize", c.maxSize);
+        c.minIdle = Integer.getInteger("revpay.db.pool.minIdle", c.minIdle);
+        c.borrowTimeoutMillis = Long.getLong("revpay.db.pool.borrowTimeoutMillis", c.borrowTimeoutMillis);
+        c.validationTimeoutSeconds = Integer.getInteger("revpay.db.pool.validationTimeoutSeconds", c.validationTimeoutSeconds);
+        c.aliveBypassMillis = Long.getLong("revpay.db.pool.aliveBypassMillis", c.aliveBypassMillis);
+        c.idleTimeoutMillis = Long.getLong("revpay.db.pool.idleTimeoutMillis", c.idleTimeoutMillis);
+        c.maxLifetimeMillis = Long.getLong("revpay.db.pool.maxLifetimeMillis", c.maxLifetimeMillis);
+        c.leakDetectionThresholdMillis = Long.getLong("revpay.db.pool.leakDetectionThresholdMillis", c.leakDetectionThresholdMillis);
+        c.housekeepingIntervalMillis = Long.getLong("revpay.db.pool.housekeepingIntervalMillis", c.housekeepingIntervalMillis);
+        c.statementCacheSize = Integer.getInteger("revpay.db.pool.statementCacheSize", c.statementCacheSize);
+        return c;
+    }
+
+    // --- Getters and Setters ---
+
+    /**
+     * Gets the maximum number of physical connections (idle + in use).
+     * @return The pool size bound.
+     */
+    public int getMaxSize() { return maxSize; }
+
+    /**
+     * Sets the maximum number of physical connections.
+     * @param maxSize The pool size bound (at least 1).
+     */
+    public void setMaxSize(int maxSize) { this.maxSize = maxSize; }
+
+    /**
+     * Gets the number of idle connections kept open and pre-opened at startup.
+     * @return The minimum idle count.
+     */
+    public int getMinIdle() { return minIdle; }
+
+    /**
+     * Sets the number of idle connections kept open.
+     * @param minIdle The minimum idle count.
+     */
+    public void setMinIdle(int minIdle) { this.minIdle = minIdle; }
+
+    /**
+     * Gets how long a caller waits for a free connection before giving up.
+     * @return The borrow timeout in milliseconds.
+     */
+    public long getBorrowTimeoutMillis() { return borrowTimeoutMillis; }
+
+    /**
+     * Sets how long a caller waits for a free connection.
+     * @param borrowTimeoutMillis The borrow timeout in milliseconds.
+     */
+    public void setBorrowTimeoutMillis(long borrowTimeoutMillis) { this.borrowTimeoutMillis = borrowTimeoutMillis; }
+
+    /**
+     * Gets the timeout passed to {@code Connection.isValid} when validating on borrow.
+     * @return The validation timeout in seconds.
+     */
+    public int getValidationTimeoutSeconds() { return validationTimeoutSeconds; }
+
+    /**
+     * Sets the validation timeout.
+     * @param validationTimeoutSeconds The validation timeout in seconds.
+     */
+    public void setValidationTimeoutSeconds(int validationTimeoutSeconds) { this.validationTimeoutSeconds = validationTimeoutSeconds; }
+
+    /**
+     * Gets the window after a return in which a connection is trusted without a validation ping.
+     * @return The bypass window in milliseconds.
+     */
+    public long getAliveBypassMillis() { return aliveBypassMillis; }
+
+    /**
+     * Sets the validation bypass window.
+     * @param aliveBypassMillis The bypass window in milliseconds (0 validates every borrow).
+     */
+    public void setAliveBypassMillis(long aliveBypassMillis) { this.aliveBypassMillis = aliveBypassMillis; }
+
+    /**
+     * Gets how long a surplus connection may sit idle before it is closed.
+     * @return The idle timeout in milliseconds.
+     */
+    public long getIdleTimeoutMillis() { return idleTimeoutMillis; }
+
+    /**
+     * Sets the idle timeout.
+     * @param idleTimeoutMillis The idle timeout in milliseconds.
+     */
+    public void setIdleTimeoutMillis(long idleTimeoutMillis) { this.idleTimeoutMillis = idleTimeoutMillis; }
+
+    /**
+     * Gets the maximum age of a physical connection before it is retired.
+     * @return The max lifetime in milliseconds.
+     */
+    public long getMaxLifetimeMillis() { return maxLifetimeMillis; }
+
+    /**
+     * Sets the maximum age of a physical connection.
+     * @param maxLifetimeMillis The max lifetime in milliseconds.
+     */
+    public void setMaxLifetimeMillis(long maxLifetimeMillis) { this.maxLifetimeMillis = maxLifetimeMillis; }
+
+    /**
+     * Gets how long a connection may be borrowed before it is reported as a possible leak.
+     * @return The leak threshold in milliseconds (0 disables detection).
+     */
+    public long getLeakDetectionThresholdMillis() { return leakDetectionThresholdMillis; }
+
+    /**
+     * Sets the leak detection threshold.
+     * @param leakDetectionThresholdMillis The leak threshold in milliseconds (0 disables detection).
+     */
+    public void setLeakDetectionThresholdMillis(long leakDetectionThresholdMillis) { this.leakDetectionThresholdMillis = leakDetectionThresholdMillis; }
+
+    /**
+     * Gets the interval of the background eviction and leak scan.
+     * @return The housekeeping interval in milliseconds.
+     */
+    public long getHousekeepingIntervalMillis() { return housekeepingIntervalMillis; }
+
+    /**
+     * Sets the housekeeping interval.
+     * @param housekeepingIntervalMillis The housekeeping interval in milliseconds.
+     */
+    public void setHousekeepingIntervalMillis(long housekeepingIntervalMillis) { this.housekeepingIntervalMillis = housekeepingIntervalMillis; }
+
+    /**
+     * Gets how many prepared statements each pooled connection keeps open for reuse.
+     * @return The per-connection statement cache size (0 disables caching).
+     */
+    public int getStatementCacheSize() { return statementCacheSize; }
+
+    /**
+     * Sets the per-connection statement cache size.
+     * @param statementCacheSize The number of statements to cache (0 disables caching).
+     */
+    public void setStatementCacheSize(int statementCacheSize) { this.statementCacheSize = statementCacheSize; }
+}
@@ -0,0 +1,120 @@
+package com.revpay.config;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.function.Supplier;
+
+/**
+ * A cancellable unit of database work, such as one asynchronous service call.
+ * <p>
+ * Work run through {@link #call(Supplier)} is bound to this scope on its thread. While it
+ * runs, every statement the {@link ConnectionPool} executes for it is registered here, so
+ * {@link #cancel()} can stop the query that is in flight with {@link Statement#cancel()}
+ * (MySQL kills the query, the connection stays usable). Once cancelled, any further
+ * statement in the scope fails at once with SQLState {@value #SQLSTATE_CANCELLED}, so a
+ * DAO rolls back instead of carrying on.
+ * </p>
+ * <p>
+ * Only statements prepared through the pool's statement cache are tracked (all DAO
+ * statements when the cache is enabled, which is the default).
+ * </p>
+ *
+ * @author RevPay Dev Team
+ * @version 1.0
+ */
+public final class QueryCancellation {
+
+    // Initialize Log4j Logger
+    private static final Logger logger = LogManager.getLogger(QueryCancellation.class);
+
+    /** SQLState reported for statements refused after {@link #cancel()} (SQL standard "query canceled"). */
+    public static final String SQLSTATE_CANCELLED = "57014";
+
+    private static final ThreadLocal<QueryCancellation> CURRENT = new ThreadLocal<>();
+
+    // Guarded by this: cancel() must not hit a statement that has already been handed back to the pool
+    private final Set<Statement> running = new HashSet<>();
+    private volatile boolean cancelled;
+
+    /**
+     * Gets the scope bound to the calling thread.
+     *
+     * @return The current scope, or {@code null} outside of {@link #call(Supplier)}.
+     */
+    public static QueryCancellation current() {
+        return CURRENT.get();
+    }
+
+    /**
+     * Runs work on the calling thread with this scope bound to it.
+     *
+     * @param work The work, typically a service or DAO call.
+     * @param <T>  The result type.
+     * @return The work's result.
+     */
+    public <T> T call(Supplier<T> work) {
+        QueryCancellation outer = CURRENT.get();
+        CURRENT.set(this);
+        try {
+            return work.get();
+        } finally {
+            if (outer == null) {
+                CURRENT.remove();
+            } else {
+                CURRENT.set(outer);
+            }
+        }
+    }
+
+    /**
+     * Cancels the scope: the running statements are cancelled and no new one may start.
+     */
+    public synchronized void cancel() {
+        if (cancelled) {
+            return;
+        }
+        cancelled = true;
+        for (Statement statement : running) {
+            try {
+                statement.cancel();
+            } catch (SQLException e) {
+                logger.debug("Could not cancel statement", e);
+            }
+        }
+        if (!running.isEmpty()) {
+            logger.info("🛑 Cancelled " + running.size() + " running statement(s)");
+        }
+    }
+
+    /**
+     * Checks whether the scope was cancelled.
+     * @return {@code true} after {@link #cancel()}.
+     */
+    public boolean isCancelled() {
+        return cancelled;
+    }
+
+    /**
+     * Registers a statement that is about to execute.
+     *
+     * @throws SQLException If the scope has already been cancelled.
+     */
+    synchronized void begin(Statement statement) throws SQLException {
+        if (cancelled) {
+            throw new SQLException("Query cancelled", SQLSTATE_CANCELLED);
+        }
+        running.add(statement);
+    }
+
+    /**
+     * Unregisters a statement once it has finished executing.
+     */
+    synchronized void end(Statement statement) {
+        running.remove(statement);
+    }
+}
@@ -0,0 +1,100 @@
+package com.revpay.config;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Remembers which users committed a money movement in the last few moments.
+ * <p>
+ * A read replica trails the primary by the replication lag, so a user who has just sent
+ * money could still see their old balance or miss the transfer in their history. After a
+ * commit the DAOs {@link #record(int) record} every user whose wallet changed, and for the
+ * next {@code revpay.db.read.rywWindowMillis} (default 2000ms)
+ * {@link DatabaseConnection#getReadConnection(int)} sends that user's reads to the primary.
+ * Everyone else keeps reading from the replica. The window must be longer than the
+ * replica's normal lag.
+ * </p>
+ *
+ * @author RevPay Dev Team
+ * @version 1.0
+ */
+public final class ReadYourWrites {
+
+    private static final ReadYourWrites INSTANCE =
+            new ReadYourWrites(Long.getLong("revpay.db.read.rywWindowMillis", 2_000L));
+
+    // Expired entries are swept once the map grows past this size, at most once per window
+    private static final int SWEEP_THRESHOLD = 10_000;
+
+    private final long windowNanos;
+    private final ConcurrentMap<Integer, Long> deadlines = new ConcurrentHashMap<>();
+    private final AtomicLong nextSweep = new AtomicLong(System.nanoTime());
+
+    /**
+     * Creates a tracker.
+     *
+     * @param windowMillis How long after a write a user's reads stay on the primary (0 disables).
+     */
+    public ReadYourWrites(long windowMillis) {
+        this.windowNanos = windowMillis * 1_000_000L;
+    }
+
+    /**
+     * Gets the tracker used by the DAOs.
+     * @return The shared instance.
+     */
+    public static ReadYourWrites getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Records that a user's data just changed on the primary.
+     *
+     * @param userId The User ID.
+     */
+    public void record(int userId) {
+        if (windowNanos <= 0) {
+            return;
+        }
+        long now = System.nanoTime();
+        deadlines.put(userId, now + windowNanos);
+        if (deadlines.size() > SWEEP_THRESHOLD) {
+            sweep(now);
+        }
+    }
+
+    // One full scan per window, claimed by a single thread; in between, a large map only costs memory
+    private void sweep(long now) {
+        long due = nextSweep.get();
+        if (now - due < 0 || !nextSweep.compareAndSet(due, now + windowNanos)) {
+            return;
+        }
+        deadlines.values().removeIf(deadline -> deadline - now < 0);
+    }
+
+    /**
+     * Checks whether a user wrote recently enough that the replica may not have caught up.
+     *
+     * @param userId The User ID.
+     * @return {@code true} if the user's reads should go to the primary.
+     */
+    public boolean isRecent(int userId) {
+        Long deadline = deadlines.get(userId);
+        if (deadline == null) {
+            return false;
+        }
+        if (deadline - System.nanoTime() > 0) {
+            return true;
+        }
+        deadlines.remove(userId, deadline);
+        return false;
+    }
+
+    /**
+     * Forgets every recorded write.
+     */
+    public void clear() {
+        deadlines.clear();
+    }
+}
@@ -0,0 +1,99 @@
+package com.revpay.config;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * LRU cache of prepared statements belonging to one physical connection.
+ * <p>
+ * Statements are checked out with {@link #take(String)} while a DAO uses them and put back
+ * with {@link #offer(String, PreparedStatement)} when the DAO closes them, so a statement is
+ * never shared by two callers. When the cache grows past its bound the least recently used
+ * statement is closed, which also releases its server-side handle.
+ * </p>
+ *
+ * @author RevPay Dev Team
+ * @version 1.0
+ */
+final class StatementCache {
+
+    // Initialize Log4j Logger
+    private static final Logger logger = LogManager.getLogger(StatementCache.class);
+
+    private final int maxSize;
+    private final Runnable onEvict;
+    private final LinkedHashMap<String, PreparedStatement> statements = new LinkedHashMap<>(16, 0.75f, true);
+
+    /**
+     * Creates an empty cache.
+     *
+     * @param maxSize The maximum number of idle statements kept open.
+     * @param onEvict Callback invoked each time a statement is evicted (used for pool metrics).
+     */
+    StatementCache(int maxSize, Runnable onEvict) {
+        this.maxSize = maxSize;
+        this.onEvict = onEvict;
+    }
+
+    /**
+     * Removes and returns the cached statement for the given key.
+     *
+     * @param key The SQL text (plus any prepare options) identifying the statement.
+     * @return The cached statement, or {@code null} on a miss.
+     */
+    synchronized PreparedStatement take(String key) {
+        return statements.remove(key);
+    }
+
+    /**
+     * Returns a statement to the cache, evicting the least recently used one if the cache is full.
+     *
+     * @param key       The SQL key the statement was prepared for.
+     * @param statement The open statement, already cleared of parameters.
+     */
+    synchronized void offer(String key, PreparedStatement statement) {
+        PreparedStatement replaced = statements.put(key, statement);
+        if (replaced != null && replaced != statement) {
+            closeQuietly(replaced);
+        }
+        Iterator<Map.Entry<String, PreparedStatement>> it = statements.entrySet().iterator();
+        while (statements.size() > maxSize && it.hasNext()) {
+            PreparedStatement eldest = it.next().getValue();
+            it.remove();
+            closeQuietly(eldest);
+            onEvict.run();
+        }
+    }
+
+    /**
+     * Gets the number of idle statements currently cached.
+     * @return The cache size.
+     */
+    synchronized int size() {
+        return statements.size();
+    }
+
+    /**
+     * Closes every cached statement; called before the physical connection is closed.
+     */
+    synchronized void closeAll() {
+        for (PreparedStatement statement : statements.values()) {
+            closeQuietly(statement);
+        }
+        statements.clear();
+    }
+
+    private static void closeQuietly(PreparedStatement statement) {
+        try {
+            statement.close();
+        } catch (SQLException e) {
+            logger.debug("Error closing cached statement", e);
+        }
+    }
+}
@@ -0,0 +1,311 @@
+package com.revpay.console;
+
+import com.revpay.dao.Repositories;
+import com.revpay.dao.RequestRepository;
+import com.revpay.model.PaymentRequest;
+import com.revpay.model.Role;
+import com.revpay.model.Transaction;
+import com.revpay.model.TransactionPage;
+import com.revpay.model.User;
+import com.revpay.service.TransactionService;
+import com.revpay.service.UserService;
+import com.revpay.util.Json;
+import com.revpay.util.SecurityUtil;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.io.Reader;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Runs a RevPay command script without the interactive prompts (nightly jobs, load tests).
+ * <p>
+ * The script has one command per line; blank lines and lines starting with {@code #} are
+ * ignored, and arguments containing spaces can be double-quoted:
+ * </p>
+ * <pre>
+ * register &lt;email&gt; &lt;password&gt; "&lt;full name&gt;" [PERSONAL|BUSINESS] [phone] [pin]
+ * login &lt;email&gt; &lt;password&gt;
+ * logout
+ * balance
+ * deposit &lt;amount&gt; [idempotencyKey]
+ * send &lt;toEmail&gt; &lt;amount&gt; [idempotencyKey]
+ * request &lt;fromEmail&gt; &lt;amount&gt;
+ * pay request &lt;id&gt; | pay invoice &lt;id&gt;
+ * decline &lt;requestId&gt;
+ * history [limit]
+ * </pre>
+ * <p>
+ * Every command goes through the same services as the menus, so {@link TransactionService}
+ * validation applies unchanged. For each command one JSON line is written with the line
+ * number, the command, {@code ok}, the elapsed {@code micros}, and a {@code result} or
+ * {@code error}; a final summary line reports the totals. A failed command does not stop
+ * the script.
+ * </p>
+ *
+ * @author RevPay Dev Team
+ * @version 1.0
+ */
+public class BatchRunner {
+
+    // Initialize Log4j Logger
+    private static final Logger logger = LogManager.getLogger(BatchRunner.class);
+
+    private static final int DEFAULT_HISTORY_LIMIT = 10;
+
+    private final UserService userService = new UserService();
+    private final TransactionService transactionService = new TransactionService();
+    private final RequestRepository requestDAO = Repositories.get().requests();
+
+    private final PrintStream out;
+    private User currentUser = null;
+
+    /**
+     * Creates a runner that writes its JSON result lines to {@code out}.
+     *
+     * @param out The result stream.
+     */
+    public BatchRunner(PrintStream out) {
+        this.out = out;
+    }
+
+    /**
+     * Executes every command of a script in order.
+     *
+     * @param script The script text.
+     * @return The number of commands that failed.
+     * @throws IOException If the script cannot be read.
+     */
+    public int run(Reader script) throws IOException {
+        BufferedReader reader = new BufferedReader(script);
+        int lineNo = 0, commands = 0, failed = 0;
+        long started = System.nanoTime();
+
+        String line;
+        while ((line = reader.readLine()) != null) {
+            lineNo++;
+            String trimmed = line.trim();
+            if (trimmed.isEmpty() || trimmed.startsWith("#")) {
+                continue;
+            }
+            commands++;
+
+            Map<String, Object> record = Json.object("line", lineNo);
+            long t0 = System.nanoTime();
+            try {
+                List<String> args = tokenize(trimmed);
+                record.put("command", args.get(0).toLowerCase());
+                Object result = execute(args);
+                record.put("ok", true);
+                record.put("micros", (System.nanoTime() - t0) / 1_000);
+                record.put("result", result);
+            } catch (BatchException e) {
+                failed++;
+                record.put("ok", false);
+                record.put("micros", (System.nanoTime() - t0) / 1_000);
+                record.put("error", e.getMessage());
+            } catch (Exception e) {
+                failed++;
+                logger.error("Batch command failed at line " + lineNo + ": " + trimmed, e);
+                record.put("ok", false);
+                record.put("micros", (System.nanoTime() - t0) / 1_000);
+                record.put("error", "Unexpected error: " + e);
+            }
+            out.println(Json.write(record));
+        }
+
+        out.println(Json.write(Json.object("summary", true, "commands", commands, "failed", failed,
+                "micros", (System.nanoTime() - started) / 1_000)));
+        out.flush();
+        logger.info("📄 Batch finished: " + commands + " commands, " + failed + " failed");
+        return failed;
+    }
+
+    /**
+     * Splits a script line into arguments, honouring double quotes.
+     *
+     * @param line The script line.
+     * @return The arguments (at least one).
+     * @throws IllegalArgumentException If a quote is not closed or the line is empty.
+     */
+    public static List<String> tokenize(String line) {
+        List<String> args = new ArrayList<>();
+        StringBuilder current = null;
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (c == '"') {
+                quoted = !quoted;
+                if (current == null) current = new StringBuilder();
+            } else if (Character.isWhitespace(c) && !quoted) {
+                if (current != null) args.add(current.toString());
+                current = null;
+            } else {
+                if (current == null) current = new StringBuilder();
+                current.append(c);
+            }
+        }
+        if (quoted) {
+            throw new BatchException("Unterminated quote");
+        }
+        if (current != null) args.add(current.toString());
+        if (args.isEmpty()) {
+            throw new BatchException("Empty command");
+        }
+        return args;
+    }
+
+    // ==========================================
+    //           COMMANDS
+    // ==========================================
+
+    private Object execute(List<String> args) {
+        String command = args.get(0).toLowerCase();
+        switch (command) {
+            case "register": {
+                arity(args, 4, 7, "register <email> <password> <fullName> [PERSONAL|BUSINESS] [phone] [pin]");
+                Role role = args.size() > 4 && args.get(4).equalsIgnoreCase("BUSINESS") ? Role.BUSINESS : Role.PERSONAL;
+                String phone = args.size() > 5 ? args.get(5) : "";
+                String pin = args.size() > 6 ? args.get(6) : "";
+                User user = new User(args.get(1), phone, SecurityUtil.hashPassword(args.get(2)), pin, args.get(3), role);
+                check(userService.registerUser(user), "Registration failed. Email might already exist.");
+                return null;
+            }
+            case "login": {
+                arity(args, 3, 3, "login <email> <password>");
+                User user = userService.login(args.get(1), args.get(2));
+                check(user != null, "Invalid email or password");
+                currentUser = user;
+                return Json.object("userId", user.getUserId(), "role", user.getRole());
+            }
+            case "logout":
+                arity(args, 1, 1, "logout");
+                currentUser = null;
+                return null;
+            case "balance":
+                arity(args, 1, 1, "balance");
+                return Json.object("balance", userService.getBalance(requireLogin().getUserId()));
+            case "deposit": {
+                arity(args, 2, 3, "deposit <amount> [idempotencyKey]");
+                User user = requireLogin();
+                check(transactionService.processDeposit(user.getUserId(), amount(args.get(1)), optional(args, 2)),
+                        "Deposit failed");
+                return null;
+            }
+            case "send": {
+                arity(args, 3, 4, "send <toEmail> <amount> [idempotencyKey]");
+                User user = requireLogin();
+                BigDecimal amount = amount(args.get(2));
+                int receiverId = userService.getUserIdByEmail(args.get(1));
+                check(receiverId != -1, "Receiver email not found");
+                check(transactionService.processTransfer(user.getUserId(), receiverId, amount, optional(args, 3)),
+                        "Transfer failed (check balance or receiver)");
+                return null;
+            }
+            case "request": {
+                arity(args, 3, 3, "request <fromEmail> <amount>");
+                User user = requireLogin();
+                BigDecimal amount = amount(args.get(2));
+                int payerId = userService.getUserIdByEmail(args.get(1));
+                check(payerId != -1 && payerId != user.getUserId(), "User not found or invalid");
+                check(requestDAO.createRequest(new PaymentRequest(user.getUserId(), payerId, amount)), "Error sending request");
+                return null;
+            }
+            case "pay": {
+                arity(args, 3, 3, "pay request|invoice <id>");
+                User user = requireLogin();
+                int id = intValue(args.get(2));
+                String kind = args.get(1).toLowerCase();
+                if (kind.equals("request")) {
+                    check(transactionService.acceptRequest(id, user.getUserId()), "Payment failed");
+                } else if (kind.equals("invoice")) {
+                    check(transactionService.payInvoice(id, user.getUserId()), "Payment failed");
+                } else {
+                    throw new BatchException("Usage: pay request|invoice <id>");
+                }
+                return null;
+            }
+            case "decline": {
+                arity(args, 2, 2, "decline <requestId>");
+                check(transactionService.declineRequest(intValue(args.get(1)), requireLogin().getUserId()),
+                        "Could not decline request");
+                return null;
+            }
+            case "history": {
+                arity(args, 1, 2, "history [limit]");
+                User user = requireLogin();
+                int limit = args.size() > 1 ? intValue(args.get(1)) : DEFAULT_HISTORY_LIMIT;
+                TransactionPage page = transactionService.getHistory(user.getUserId(), limit, null);
+                List<Object> items = new ArrayList<>();
+                for (Transaction t : page.getTransactions()) {
+                    items.add(Json.object("transactionId", t.getTransactionId(), "type", t.getType(),
+                            "amount", t.getAmount(), "direction", t.getSenderId() == user.getUserId() ? "OUT" : "IN",
+                            "timestamp", t.getTimestamp()));
+                }
+                return Json.object("count", items.size(), "more", page.hasMore(), "transactions", items);
+            }
+            default:
+                throw new BatchException("Unknown command: " + command);
+        }
+    }
+
+    // ==========================================
+    //           HELPERS
+    // ==========================================
+
+    private User requireLogin() {
+        if (currentUser == null) {
+            throw new BatchException("Login required");
+        }
+        return currentUser;
+    }
+
+    private static void check(boolean success, String message) {
+        if (!success) {
+            throw new BatchException(message);
+        }
+    }
+
+    private static void arity(List<String> args, int min, int max, String usage) {
+        if (args.size() < min || args.size() > max) {
+            throw new BatchException("Usage: " + usage);
+        }
+    }
+
+    private static String optional(List<String> args, int index) {
+        return args.size() > index ? args.get(index) : null;
+    }
+
+    private static BigDecimal amount(String text) {
+        try {
+            return new BigDecimal(text);
+        } catch (NumberFormatException e) {
+            throw new BatchException("Invalid amount: " + text);
+        }
+    }
+
+    private static int intValue(String text) {
+        try {
+            return Integer.parseInt(text);
+        } catch (NumberFormatException e) {
+            throw new BatchException("Invalid number: " + text);
+        }
+    }
+
+    /**
+     * A command that failed; the message is reported in the result line.
+     */
+    private static final class BatchException extends IllegalArgumentException {
+        private static final long serialVersionUID = 1L;
+
+        BatchException(String message) {
+            super(message);
+        }
+    }
+}
@@ -0,0 +1,151 @@
+package com.revpay.console;
+
+import com.revpay.util.VirtualThreads;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketException;
+import java.nio.charset.StandardCharsets;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Serves the RevPay console menus to many operators at once over local TCP.
+ * <p>
+ * Every accepted connection gets its own {@link ConsoleSession} (own input, output and
+ * logged-in user) running on a virtual thread where supported (see {@link VirtualThreads}),
+ * so one process can host hundreds of terminal sessions; connect with e.g.
+ * {@code telnet localhost 7070} or {@code nc localhost 7070}. The server binds to the
+ * loopback interface only, and at most {@code revpay.console.maxSessions} (default 500)
+ * sessions run at once; further connections are told to retry later and closed.
+ * </p>
+ *
+ * @author RevPay Dev Team
+ * @version 1.0
+ */
+public class ConsoleServer implements AutoCloseable {
+
+    // Initialize Log4j Logger
+    private static final Logger logger = LogManager.getLogger(ConsoleServer.class);
+
+    private final ServerSocket serverSocket;
+    private final Semaphore slots;
+    private final Set<Socket> open = ConcurrentHashMap.newKeySet();
+    private final AtomicInteger sessionCount = new AtomicInteger();
+    private Thread acceptor;
+    private volatile boolean closed;
+
+    /**
+     * Binds the server to a loopback port (0 picks a free port). Call {@link #start()} to accept sessions.
+     *
+     * @param port        The TCP port.
+     * @param maxSessions The maximum number of concurrent sessions.
+     * @throws IOException If the port cannot be bound.
+     */
+    public ConsoleServer(int port, int maxSessions) throws IOException {
+        this.serverSocket = new ServerSocket(port, 128, InetAddress.getLoopbackAddress());
+        this.slots = new Semaphore(maxSessions);
+    }
+
+    /**
+     * Starts accepting connections on a background thread.
+     */
+    public synchronized void start() {
+        if (acceptor != null) {
+            return;
+        }
+        acceptor = new Thread(this::acceptLoop, "revpay-console-acceptor");
+        acceptor.start();
+        logger.info("🖥️ Console server listening on port " + getPort()
+                + (VirtualThreads.isSupported() ? " (virtual threads)" : " (platform threads)"));
+    }
+
+    /**
+     * Gets the port the server is bound to.
+     * @return The TCP port.
+     */
+    public int getPort() {
+        return serverSocket.getLocalPort();
+    }
+
+    /**
+     * Gets the number of sessions currently connected.
+     * @return The active session count.
+     */
+    public int getActiveSessions() {
+        return open.size();
+    }
+
+    private void acceptLoop() {
+        while (!closed) {
+            Socket socket;
+            try {
+                socket = serverSocket.accept();
+            } catch (IOException e) {
+                if (!closed) logger.error("Console server accept failed", e);
+                continue;
+            }
+            if (!slots.tryAcquire()) {
+                refuse(socket);
+                continue;
+            }
+            open.add(socket);
+            int id = sessionCount.incrementAndGet();
+            VirtualThreads.start("revpay-console-" + id, () -> serve(socket, id));
+        }
+    }
+
+    private void serve(Socket socket, int id) {
+        logger.info("Console session #" + id + " opened from " + socket.getRemoteSocketAddress());
+        try (socket) {
+            PrintStream out = new PrintStream(socket.getOutputStream(), true, StandardCharsets.UTF_8);
+            new ConsoleSession(socket.getInputStream(), out).run();
+        } catch (SocketException e) {
+            logger.info("Console session #" + id + " disconnected: " + e.getMessage());
+        } catch (IOException e) {
+            logger.error("Console session #" + id + " failed", e);
+        } finally {
+            open.remove(socket);
+            slots.release();
+            logger.info("Console session #" + id + " closed");
+        }
+    }
+
+    private static void refuse(Socket socket) {
+        try (socket) {
+            PrintStream out = new PrintStream(socket.getOutputStream(), true, StandardCharsets.UTF_8);
+            out.println("❌ All console sessions are in use. Please try again later.");
+        } catch (IOException e) {
+            logger.debug("Could not notify refused console client", e);
+        }
+        logger.warn("⚠️ Console connection refused: session limit reached");
+    }
+
+    /**
+     * Stops accepting connections and disconnects every open session.
+     */
+    @Override
+    public void close() {
+        closed = true;
+        try {
+            serverSocket.close();
+        } catch (IOException e) {
+            logger.debug("Error closing console server socket", e);
+        }
+        for (Socket s : open) {
+            try {
+                s.close();
+            } catch (IOException e) {
+                logger.debug("Error closing console session socket", e);
+            }
+        }
+        logger.info("🛑 Console server stopped");
+    }
+}
@@ -0,0 +1,549 @@
+package com.revpay.console;
+
+import com.revpay.dao.InvoiceRepository;
+import com.revpay.dao.LoanRepository;
+import com.revpay.dao.PaymentMethodRepository;
+import com.revpay.dao.Repositories;
+import com.revpay.dao.RequestRepository;
+import com.revpay.model.*;
+import com.revpay.model.DashboardSnapshot.Section;
+import com.revpay.service.DashboardService;
+import com.revpay.service.TransactionService;
+import com.revpay.service.UserService;
+import com.revpay.util.SecurityUtil;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.InputStream;
+import java.io.PrintStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.sql.Date;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Scanner;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+/**
+ * One interactive console session: the RevPay menus bound to one input and one output stream.
+ * <p>
+ * Each session keeps its own {@link Scanner} and logged-in user, so many sessions can run
+ * side by side in one JVM: {@code Main} runs a single session on the terminal, and
+ * {@link ConsoleServer} runs one per TCP connection. The services and DAOs hold no
+ * per-user state and are shared by all sessions.
+ * </p>
+ *
+ * @author RevPay Dev Team
+ * @version 1.0
+ */
+public class ConsoleSession implements Runnable {
+
+    // Initialize Log4j Logger
+    private static final Logger logger = LogManager.getLogger(ConsoleSession.class);
+
+    // --- SERVICES & DAOS (shared, stateless) ---
+    private static final UserService userService = new UserService();
+    private static final TransactionService transactionService = new TransactionService();
+    private static final LoanRepository loanDAO = Repositories.get().loans();
+    private static final RequestRepository requestDAO = Repositories.get().requests();
+    private static final PaymentMethodRepository paymentMethodDAO = Repositories.get().paymentMethods();
+    private static final InvoiceRepository invoiceDAO = Repositories.get().invoices();
+
+    private static final int HISTORY_PAGE_SIZE = 10;
+    private static final DashboardService dashboardService = new DashboardService(HISTORY_PAGE_SIZE);
+
+    // --- SESSION STATE ---
+    private final Scanner scanner;
+    private final PrintStream out;
+    private User currentUser = null;
+    private CompletableFuture<DashboardSnapshot> dashboard = null; // preloaded on login, refreshed after own commits
+
+    /**
+     * Creates a session reading commands from {@code in} and writing screens to {@code out}.
+     *
+     * @param in  The session's input (e.g., {@code System.in} or a socket stream).
+     * @param out The session's output.
+     */
+    public ConsoleSession(InputStream in, PrintStream out) {
+        this.scanner = new Scanner(in, StandardCharsets.UTF_8);
+        this.out = out;
+    }
+
+    /**
+     * Runs the main menu until the user exits or the input ends.
+     */
+    @Override
+    public void run() {
+        out.println("\n=========================================");
+        out.println("      🚀 Welcome to RevPay System      ");
+        out.println("=========================================");
+
+        try {
+            while (true) {
+                out.println("\n--- MAIN MENU ---");
+                out.println("1. Register");
+                out.println("2. Login");
+                out.println("3. Exit");
+                out.print("Choose an option: ");
+
+                String choice = readLine();
+                switch (choice) {
+                    case "1": handleRegister(); break;
+                    case "2": handleLogin(); break;
+                    case "3":
+                        logger.info("🛑 Session ended by user");
+                        out.println("Goodbye! Thank you for using RevPay.");
+                        return; // Exit the session
+                    default:
+                        out.println("❌ Invalid option. Please try again.");
+                }
+            }
+        } catch (NoSuchElementException e) {
+            logger.info("Session input closed");
+        } catch (Exception e) {
+            logger.fatal("🔥 Critical Session Crash", e);
+            out.println("❌ An unexpected error occurred. Please check logs.");
+        }
+    }
+
+    private String readLine() {
+        out.flush();
+        return scanner.nextLine();
+    }
+
+    // ==========================================
+    //       AUTHENTICATION HANDLERS
+    // ==========================================
+
+    /**
+     * Handles the User Login flow.
+     */
+    private void handleLogin() {
+        out.println("\n--- 🔐 LOGIN ---");
+        out.print("Enter Email: ");
+        String email = readLine();
+        out.print("Enter Password: ");
+        String password = readLine();
+
+        User user = userService.login(email, password);
+        if (user != null) {
+            currentUser = user;
+            dashboard = dashboardService.load(user); // every section at once
+            out.println("✅ Login Successful! Welcome, " + user.getFullName());
+            DashboardSnapshot snapshot = snapshot();
+            out.println("💰 Balance: $" + snapshot.getBalance() + " | 📥 Pending: " + snapshot.getIncomingRequests().size()
+                    + " request(s), " + snapshot.getPendingInvoices().size() + " invoice(s)");
+            showUserDashboard();
+        }
+    }
+
+    /**
+     * Handles the User Registration flow.
+     */
+    private void handleRegister() {
+        out.println("\n--- 📝 REGISTER ---");
+        out.println("Select Account Type:\n1. Personal\n2. Business");
+        out.print("Choice: ");
+        String roleChoice = readLine();
+        Role role = roleChoice.equals("2") ? Role.BUSINESS : Role.PERSONAL;
+
+        out.print("Enter Email: ");
+        String email = readLine();
+        out.print("Enter Full Name: ");
+        String name = readLine();
+        out.print("Enter Password: ");
+        String rawPassword = readLine();
+        out.print("Enter Phone Number: ");
+        String phone = readLine();
+        out.print("Enter 4-digit PIN: ");
+        String pin = readLine();
+
+        // Hash password before sending to model
+        String hashedPassword = SecurityUtil.hashPassword(rawPassword);
+        User newUser = new User(email, phone, hashedPassword, pin, name, role);
+
+        if (userService.registerUser(newUser)) {
+            out.println("✅ Registered Successfully! Please Login.");
+        } else {
+            out.println("❌ Registration Failed. Email might already exist.");
+        }
+    }
+
+    // ==========================================
+    //           USER DASHBOARD
+    // ==========================================
+
+    /**
+     * Displays the dashboard menu based on the user's Role.
+     */
+    private void showUserDashboard() {
+        while (currentUser != null) {
+            out.println("\n=== 🏦 " + currentUser.getFullName() + "'s Dashboard ===");
+            out.println("1. Check Balance");
+            out.println("2. Add Money (Deposit)");
+            out.println("3. Send Money");
+            out.println("4. Request Money");
+            out.println("5. Pending Requests & Invoices");
+            out.println("6. Manage Cards");
+            out.println("7. Transaction History");
+
+            if (currentUser.getRole() == Role.BUSINESS) {
+                out.println("--- Business Services ---");
+                out.println("8. Create Invoice");
+                out.println("9. Apply for Loan");
+                out.println("10. View Loans");
+                out.println("11. Delete Account");
+                out.println("12. Logout");
+            } else {
+                out.println("-------------------------");
+                out.println("8. Delete Account");
+                out.println("9. Logout");
+            }
+
+            out.print("Choose an option: ");
+            String choice = readLine();
+
+            try {
+                processDashboardChoice(choice);
+            } catch (Exception e) {
+                logger.error("Error processing dashboard choice", e);
+                out.println("❌ An error occurred processing your request.");
+            }
+        }
+    }
+
+    private void processDashboardChoice(String choice) {
+        switch (choice) {
+            case "1": checkBalance(); break;
+            case "2": handleAddMoney(); break;
+            case "3": handleSendMoney(); break;
+            case "4": handleRequestMoney(); break;
+            case "5": handlePendingPayments(); break;
+            case "6": handleManageCards(); break;
+            case "7": handleViewHistory(); break;
+
+            // Business vs Personal Routing
+            case "8":
+                if (currentUser.getRole() == Role.BUSINESS) handleCreateInvoice();
+                else handleDeleteAccount();
+                break;
+            case "9":
+                if (currentUser.getRole() == Role.BUSINESS) handleApplyLoan();
+                else logout();
+                break;
+            case "10":
+                if (currentUser.getRole() == Role.BUSINESS) handleViewLoans();
+                else out.println("❌ Invalid option.");
+                break;
+            case "11":
+                if (currentUser.getRole() == Role.BUSINESS) handleDeleteAccount();
+                else out.println("❌ Invalid option.");
+                break;
+            case "12":
+                if (currentUser.getRole() == Role.BUSINESS) logout();
+                else out.println("❌ Invalid option.");
+                break;
+            default: out.println("❌ Invalid option.");
+        }
+    }
+
+    // ==========================================
+    //           CORE MONEY FEATURES
+    // ==========================================
+
+    private void checkBalance() {
+        // Always reloaded: incoming transfers are not pushed, and this screen is how users look for them
+        refreshDashboard(Section.BALANCE);
+        out.println("\n💰 Balance: $" + snapshot().getBalance());
+    }
+
+    private void handleAddMoney() {
+        out.println("\n--- ➕ ADD MONEY ---");
+        List<PaymentMethod> cards = snapshot(Section.CARDS).getCards();
+        if (cards.isEmpty()) {
+            out.println("⚠️ No saved cards. Go to 'Manage Cards' first.");
+            return;
+        }
+
+        out.println("Select Payment Method:");
+        for (int i = 0; i < cards.size(); i++) {
+            out.println((i + 1) + ". " + cards.get(i));
+        }
+        out.print("Choice: ");
+
+        try {
+            int idx = Integer.parseInt(readLine()) - 1;
+            if (idx < 0 || idx >= cards.size()) {
+                out.println("❌ Invalid selection.");
+                return;
+            }
+
+            out.print("Enter Amount: ");
+            BigDecimal amount = new BigDecimal(readLine());
+
+            out.println("Charging card ending in " + cards.get(idx).getCardNumber().substring(12) + "...");
+            if (transactionService.processDeposit(currentUser.getUserId(), amount)) {
+                refreshDashboard(Section.BALANCE, Section.HISTORY);
+                out.println("✅ Deposit Successful!");
+            } else {
+                out.println("❌ Deposit Failed.");
+            }
+        } catch (Exception e) {
+            out.println("❌ Invalid input.");
+        }
+    }
+
+    private void handleSendMoney() {
+        out.println("\n--- 💸 SEND MONEY ---");
+        out.print("To Email: ");
+        String email = readLine();
+        out.print("Amount: ");
+        try {
+            BigDecimal amount = new BigDecimal(readLine());
+            if (transactionService.processTransfer(currentUser.getUserId(), email, amount)) {
+                refreshDashboard(Section.BALANCE, Section.HISTORY);
+                out.println("✅ Sent Successfully!");
+            } else {
+                out.println("❌ Transfer Failed (Check Balance or Email).");
+            }
+        } catch (Exception e) {
+            out.println("❌ Invalid amount format.");
+        }
+    }
+
+    private void handleRequestMoney() {
+        out.println("\n--- 📨 REQUEST MONEY ---");
+        out.print("Ask Email: ");
+        String email = readLine();
+
+        int payerId = userService.getUserIdByEmail(email);
+        if (payerId == -1 || payerId == currentUser.getUserId()) {
+            out.println("❌ User not found or invalid.");
+            return;
+        }
+
+        out.print("Amount: ");
+        try {
+            BigDecimal amount = new BigDecimal(readLine());
+            PaymentRequest req = new PaymentRequest(currentUser.getUserId(), payerId, amount);
+            if (requestDAO.createRequest(req)) {
+                out.println("✅ Request Sent!");
+            } else {
+                out.println("❌ Error sending request.");
+            }
+        } catch (Exception e) {
+            out.println("❌ Invalid input.");
+        }
+    }
+
+    // ==========================================
+    //       INBOX (REQUESTS & INVOICES)
+    // ==========================================
+
+    private void handlePendingPayments() {
+        out.println("\n--- 📥 PENDING PAYMENTS ---");
+
+        // Always reloaded, like the balance: other users' requests and invoices are not pushed
+        refreshDashboard(Section.REQUESTS, Section.INVOICES);
+        DashboardSnapshot snapshot = snapshot();
+        List<PaymentRequest> requests = snapshot.getIncomingRequests();
+        out.println("[Money Requests]");
+        if (requests.isEmpty()) out.println("  (None)");
+        else for (PaymentRequest r : requests) out.println("  ID: " + r.getRequestId() + " | Amount: $" + r.getAmount());
+
+        List<Invoice> invoices = snapshot.getPendingInvoices();
+        out.println("\n[Invoices]");
+        if (invoices.isEmpty()) out.println("  (None)");
+        else for (Invoice i : invoices) out.println("  INV#" + i.getInvoiceId() + " | " + i.getDescription() + " | $" + i.getAmount());
+
+        out.println("\nTo Pay: Type 'P R [ID]' (Request) or 'P I [ID]' (Invoice). To Decline: 'D R [ID]'. Type '0' to Back.");
+        out.print("> ");
+        String input = readLine().toUpperCase();
+
+        try {
+            if (input.startsWith("P R ")) {
+                int id = Integer.parseInt(input.substring(4));
+                if (transactionService.acceptRequest(id, currentUser.getUserId())) {
+                    refreshDashboard(Section.BALANCE, Section.HISTORY, Section.REQUESTS);
+                    out.println("✅ Request Paid!");
+                } else out.println("❌ Payment Failed.");
+
+            } else if (input.startsWith("D R ")) {
+                int id = Integer.parseInt(input.substring(4));
+                if (transactionService.declineRequest(id, currentUser.getUserId())) {
+                    refreshDashboard(Section.REQUESTS);
+                    out.println("✅ Request Declined.");
+                } else out.println("❌ Could not decline request.");
+
+            } else if (input.startsWith("P I ")) {
+                int id = Integer.parseInt(input.substring(4));
+                if (transactionService.payInvoice(id, currentUser.getUserId())) {
+                    refreshDashboard(Section.BALANCE, Section.HISTORY, Section.INVOICES);
+                    out.println("✅ Invoice Paid!");
+                } else out.println("❌ Payment Failed.");
+            }
+        } catch (Exception e) {
+            out.println("❌ Invalid Command.");
+        }
+    }
+
+    // ==========================================
+    //           CARDS & HISTORY
+    // ==========================================
+
+    private void handleManageCards() {
+        out.println("\n--- 💳 CARDS ---");
+        out.println("1. View Cards");
+        out.println("2. Add Card");
+        out.print("Choice: ");
+
+        if ("2".equals(readLine())) {
+            out.print("Card Number (16 digits): ");
+            String num = readLine();
+            out.print("Type (CREDIT/DEBIT): ");
+            String type = readLine().toUpperCase();
+            out.print("Expiry (YYYY-MM-DD): ");
+            String date = readLine();
+
+            try {
+                PaymentMethod pm = new PaymentMethod(currentUser.getUserId(), num, type, Date.valueOf(date));
+                if (paymentMethodDAO.addPaymentMethod(pm)) {
+                    refreshDashboard(Section.CARDS);
+                }
+                out.println("✅ Card Added.");
+            } catch (Exception e) {
+                out.println("❌ Invalid Date format.");
+            }
+        } else {
+            List<PaymentMethod> list = snapshot(Section.CARDS).getCards();
+            if (list.isEmpty()) out.println("No cards found.");
+            else list.forEach(out::println);
+        }
+    }
+
+    private void handleViewHistory() {
+        out.println("\n--- 📜 HISTORY ---");
+        // The first page is always reloaded, so incoming transfers show up like on the balance screen
+        refreshDashboard(Section.HISTORY);
+        HistoryCursor cursor = null;
+        while (true) {
+            TransactionPage page = cursor == null ? snapshot().getRecentHistory()
+                    : transactionService.getHistory(currentUser.getUserId(), HISTORY_PAGE_SIZE, cursor);
+            if (cursor == null && page.getTransactions().isEmpty()) {
+                out.println("No transactions found.");
+                return;
+            }
+            page.getTransactions().forEach(t -> {
+                String sign = (t.getSenderId() == currentUser.getUserId()) ? "-" : "+";
+                out.println(t.getType() + " | " + sign + "$" + t.getAmount() + " | " + t.getTimestamp());
+            });
+            if (!page.hasMore()) return;
+
+            out.print("N = Next page, Enter = Back: ");
+            if (!readLine().trim().equalsIgnoreCase("N")) return;
+            cursor = page.getNextCursor();
+        }
+    }
+
+    // ==========================================
+    //           BUSINESS FEATURES
+    // ==========================================
+
+    private void handleCreateInvoice() {
+        out.println("\n--- 🧾 NEW INVOICE ---");
+        out.print("Customer Email: ");
+        String email = readLine();
+
+        if (userService.getUserIdByEmail(email) == -1) {
+            out.println("❌ Customer not found.");
+            return;
+        }
+
+        out.print("Amount: ");
+        try {
+            BigDecimal amt = new BigDecimal(readLine());
+            out.print("Description: ");
+            String desc = readLine();
+
+            if (invoiceDAO.createInvoice(new Invoice(currentUser.getUserId(), email, amt, desc))) {
+                out.println("✅ Invoice Sent!");
+            } else {
+                out.println("❌ Failed to create invoice.");
+            }
+        } catch (Exception e) {
+            out.println("❌ Invalid Amount.");
+        }
+    }
+
+    private void handleApplyLoan() {
+        out.println("\n--- 💼 APPLY LOAN ---");
+        out.print("Amount: ");
+        try {
+            BigDecimal amt = new BigDecimal(readLine());
+            out.print("Reason: ");
+            String reason = readLine();
+            loanDAO.applyForLoan(new Loan(currentUser.getUserId(), amt, reason));
+            out.println("✅ Application Submitted.");
+        } catch (Exception e) {
+            out.println("❌ Invalid Input.");
+        }
+    }
+
+    private void handleViewLoans() {
+        out.println("\n--- 📜 LOANS ---");
+        List<Loan> loans = loanDAO.getLoansByUserId(currentUser.getUserId());
+        if (loans.isEmpty()) out.println("No loans found.");
+        else loans.forEach(out::println);
+    }
+
+    // ==========================================
+    //           SYSTEM
+    // ==========================================
+
+    private void handleDeleteAccount() {
+        out.println("\n⚠️ DELETE ACCOUNT ⚠️");
+        out.print("Are you sure? Type 'yes' to confirm: ");
+        if (readLine().equalsIgnoreCase("yes")) {
+            userService.deleteAccount(currentUser.getUserId());
+            currentUser = null;
+            dashboard = null;
+            out.println("✅ Account Deleted.");
+        }
+    }
+
+    private void logout() {
+        out.println("Logging out...");
+        currentUser = null;
+        dashboard = null;
+    }
+
+    // ==========================================
+    //           DASHBOARD SNAPSHOT
+    // ==========================================
+
+    /**
+     * Waits for the dashboard snapshot, first reloading any of the given sections that are stale.
+     * <p>
+     * If loading failed, the whole dashboard is loaded again.
+     * </p>
+     */
+    private DashboardSnapshot snapshot(Section... sections) {
+        try {
+            dashboard = dashboard.thenCompose(s -> dashboardService.refreshStale(s, sections));
+            return dashboard.join();
+        } catch (CompletionException e) {
+            logger.error("Dashboard refresh failed, reloading", e);
+            dashboard = dashboardService.load(currentUser);
+            return dashboard.join();
+        }
+    }
+
+    /**
+     * Starts reloading the sections changed by one of the user's own operations.
+     * The next screen that needs the snapshot waits for it.
+     */
+    private void refreshDashboard(Section... sections) {
+        dashboard = dashboard.thenCompose(s -> dashboardService.refresh(s, sections));
+    }
+}
@@ -0,0 +1,370 @@
+package com.revpay.dao;
+
+import java.math.BigDecimal;
+import java.sql.SQLException;
+import java.util.Arrays;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Bounded read-through cache of wallet balances, shared by every DAO instance.
+ * <p>
+ * {@code WalletDAO.getBalance} is the most frequent query in the app, but a balance only
+ * changes when {@link TransactionDAO}, {@link WalletDAO#updateBalance}, {@link LedgerDAO} or
+ * {@link UserDAO#deleteUser} commits. Those paths call {@link #invalidate(int)} after their
+ * commit, so readers never see a balance older than the last committed write of this JVM.
+ * </p>
+ * <p>
+ * Implementation notes:
+ * <ul>
+ * <li>Keys are primitive {@code int} user IDs in open-addressing arrays (no boxing).</li>
+ * <li>The cache is split into independently locked segments to limit contention.</li>
+ * <li>When a segment is full, the CLOCK algorithm evicts an entry not read since the last sweep.</li>
+ * <li>Concurrent misses for the same user share one database query.</li>
+ * <li>A load that raced with an invalidation is returned to its callers but not cached.</li>
+ * </ul>
+ * Size it with {@code -Drevpay.cache.balance.size} (0 disables caching).
+ * </p>
+ *
+ * @author RevPay Dev Team
+ * @version 1.0
+ */
+public final class BalanceCache {
+
+    /**
+     * Loads a balance from the database on a cache miss.
+     */
+    @FunctionalInterface
+    public interface Loader {
+        /**
+         * Reads the current balance.
+         *
+         * @param userId The User ID.
+         * @return The balance, or {@code null} if the user has no wallet (not cached).
+         * @throws SQLException If the query fails (not cached).
+         */
+        BigDecimal load(int userId) throws SQLException;
+    }
+
+    private static final int SEGMENTS = 16;
+    private static final BalanceCache INSTANCE = new BalanceCache(Integer.getInteger("revpay.cache.balance.size", 10_000));
+
+    private final Segment[] segments;
+    private final boolean enabled;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder coalesced = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    /**
+     * Creates a cache holding at most {@code maxEntries} balances.
+     *
+     * @param maxEntries The capacity (0 disables caching).
+     */
+    public BalanceCache(int maxEntries) {
+        this.enabled = maxEntries > 0;
+        int perSegment = Math.max(1, (maxEntries + SEGMENTS - 1) / SEGMENTS);
+        this.segments = new Segment[SEGMENTS];
+        for (int i = 0; i < SEGMENTS; i++) {
+            segments[i] = new Segment(perSegment);
+        }
+    }
+
+    /**
+     * Gets the cache used by the DAOs.
+     * @return The shared instance.
+     */
+    public static BalanceCache getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Returns the cached balance, loading it (once, however many callers miss together) if absent.
+     *
+     * @param userId The User ID.
+     * @param loader The database query to run on a miss.
+     * @return The balance, or {@code null} if the user has no wallet.
+     * @throws SQLException If the load failed.
+     */
+    public BigDecimal get(int userId, Loader loader) throws SQLException {
+        if (!enabled) {
+            misses.increment();
+            return loader.load(userId);
+        }
+        Segment seg = segmentFor(userId);
+        Loading loading;
+        boolean owner;
+        long version;
+        synchronized (seg) {
+            Object cached = seg.lookup(userId);
+            if (cached instanceof BigDecimal) {
+                hits.increment();
+                return (BigDecimal) cached;
+            }
+            if (cached != null) {
+                coalesced.increment();
+                loading = (Loading) cached;
+                owner = false;
+            } else {
+                misses.increment();
+                loading = new Loading();
+                if (!seg.insert(userId, loading, evictions)) {
+                    // Every slot is busy loading; run this query uncached
+                    loading = null;
+                }
+                owner = true;
+            }
+            version = seg.version;
+        }
+
+        if (loading == null) {
+            return loader.load(userId);
+        }
+        if (!owner) {
+            return loading.await();
+        }
+
+        // This caller owns the load
+        BigDecimal value;
+        try {
+            value = loader.load(userId);
+        } catch (SQLException | RuntimeException e) {
+            synchronized (seg) {
+                seg.removeIf(userId, loading);
+            }
+            loading.result.completeExceptionally(e);
+            throw e;
+        }
+        synchronized (seg) {
+            if (seg.lookup(userId) == loading) {
+                if (value != null && seg.version == version) {
+                    seg.replace(userId, value);
+                } else {
+                    seg.removeIf(userId, loading);
+                }
+            }
+        }
+        loading.result.complete(value);
+        return value;
+    }
+
+    /**
+     * Drops a user's cached balance; call after committing any change to their wallet.
+     *
+     * @param userId The User ID.
+     */
+    public void invalidate(int userId) {
+        if (!enabled) {
+            return;
+        }
+        Segment seg = segmentFor(userId);
+        synchronized (seg) {
+            seg.version++;
+            seg.remove(userId);
+        }
+    }
+
+    /**
+     * Drops every cached balance.
+     */
+    public void clear() {
+        for (Segment seg : segments) {
+            synchronized (seg) {
+                seg.version++;
+                seg.clear();
+            }
+        }
+    }
+
+    // --- Metrics ---
+
+    /**
+     * Gets the number of reads answered from the cache.
+     * @return The hit count.
+     */
+    public long getHitCount() { return hits.sum(); }
+
+    /**
+     * Gets the number of reads that queried the database.
+     * @return The miss count.
+     */
+    public long getMissCount() { return misses.sum(); }
+
+    /**
+     * Gets the number of misses that waited for another caller's query instead of running their own.
+     * @return The coalesced miss count.
+     */
+    public long getCoalescedCount() { return coalesced.sum(); }
+
+    /**
+     * Gets the number of balances evicted to make room.
+     * @return The eviction count.
+     */
+    public long getEvictionCount() { return evictions.sum(); }
+
+    /**
+     * Gets the share of reads that did not query the database (coalesced misses count as hits).
+     * @return The hit ratio between 0 and 1 (0 before the first read).
+     */
+    public double getHitRatio() {
+        long served = hits.sum() + coalesced.sum();
+        long total = served + misses.sum();
+        return total == 0 ? 0 : (double) served / total;
+    }
+
+    /**
+     * Gets the number of cached balances (including loads in progress).
+     * @return The current size.
+     */
+    public int size() {
+        int size = 0;
+        for (Segment seg : segments) {
+            synchronized (seg) {
+                size += seg.size;
+            }
+        }
+        return size;
+    }
+
+    private Segment segmentFor(int userId) {
+        int h = userId * 0x9E3779B9;
+        return segments[(h >>> 28) & (SEGMENTS - 1)];
+    }
+
+    /**
+     * A load in progress that later callers can wait on.
+     */
+    private static final class Loading {
+        final CompletableFuture<BigDecimal> result = new CompletableFuture<>();
+
+        BigDecimal await() throws SQLException {
+            try {
+                return result.get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new SQLException("Interrupted while waiting for balance", e);
+            } catch (ExecutionException e) {
+                if (e.getCause() instanceof SQLException) throw (SQLException) e.getCause();
+                throw new SQLException("Balance load failed", e.getCause());
+            }
+        }
+    }
+
+    /**
+     * One lock-protected open-addressing table (linear probing, CLOCK eviction).
+     */
+    private static final class Segment {
+        private static final int EMPTY = Integer.MIN_VALUE;
+
+        final int capacity;
+        final int[] keys;
+        final Object[] values;
+        final boolean[] referenced;
+        final int mask;
+        int size;
+        int hand;
+        long version;
+
+        Segment(int capacity) {
+            this.capacity = capacity;
+            int length = Integer.highestOneBit(Math.max(4, capacity * 2 - 1)) << 1;
+            keys = new int[length];
+            values = new Object[length];
+            referenced = new boolean[length];
+            mask = length - 1;
+            Arrays.fill(keys, EMPTY);
+        }
+
+        Object lookup(int key) {
+            int i = indexOf(key);
+            if (keys[i] != key) return null;
+            referenced[i] = true;
+            return values[i];
+        }
+
+        // Inserts a new key, evicting if full; false if nothing could be evicted
+        boolean insert(int key, Object value, LongAdder evictions) {
+            if (size >= capacity) {
+                if (!evictOne()) return false;
+                evictions.increment();
+            }
+            int i = indexOf(key);
+            keys[i] = key;
+            values[i] = value;
+            referenced[i] = false;
+            size++;
+            return true;
+        }
+
+        void replace(int key, Object value) {
+            int i = indexOf(key);
+            if (keys[i] == key) values[i] = value;
+        }
+
+        void removeIf(int key, Object expected) {
+            int i = indexOf(key);
+            if (keys[i] == key && values[i] == expected) deleteAt(i);
+        }
+
+        void remove(int key) {
+            int i = indexOf(key);
+            if (keys[i] == key) deleteAt(i);
+        }
+
+        void clear() {
+            Arrays.fill(keys, EMPTY);
+            Arrays.fill(values, null);
+            size = 0;
+        }
+
+        // CLOCK: sweep at most two rounds, skipping loads in progress
+        private boolean evictOne() {
+            for (int n = 0; n < keys.length * 2; n++) {
+                int i = hand;
+                hand = (hand + 1) & mask;
+                if (keys[i] == EMPTY || !(values[i] instanceof BigDecimal)) continue;
+                if (referenced[i]) {
+                    referenced[i] = false;
+                } else {
+                    deleteAt(i);
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        private int indexOf(int key) {
+            int h = key * 0x9E3779B9;
+            int i = (h ^ (h >>> 16)) & mask;
+            while (keys[i] != EMPTY && keys[i] != key) {
+                i = (i + 1) & mask;
+            }
+            return i;
+        }
+
+        // Backward-shift deletion keeps probe chains intact without tombstones
+        private void deleteAt(int i) {
+            size--;
+            int hole = i;
+            int j = i;
+            while (true) {
+                j = (j + 1) & mask;
+                if (keys[j] == EMPTY) break;
+                int h = keys[j] * 0x9E3779B9;
+                int home = (h ^ (h >>> 16)) & mask;
+                // Move j into the hole if its home slot is not in (hole, j]
+                boolean movable = hole <= j ? (home <= hole || home > j) : (home <= hole && home > j);
+                if (movable) {
+                    keys[hole] = keys[j];
+                    values[hole] = values[j];
+                    referenced[hole] = referenced[j];
+                    hole = j;
+                }
+            }
+            keys[hole] = EMPTY;
+            values[hole] = null;
+            referenced[hole] = false;
+        }
+    }
+}
@@ -20,11 +20,19 @@ import java.util.List;
  * @author RevPay Dev Team
  * @version 1.0
  */
-public class InvoiceDAO {
+public class InvoiceDAO implements InvoiceRepository {
 
     // Initialize Log4j Logger
     private static final Logger logger = LogManager.getLogger(InvoiceDAO.class);
 
+    // Hot queries, package-visible so QueryPlanTest EXPLAINs exactly what runs
+    static final String SELECT_BY_BUSINESS_SQL =
+            "SELECT * FROM invoices WHERE business_id = ?";
+    static final String SELECT_FOR_CUSTOMER_SQL =
+            "SELECT * FROM invoices WHERE customer_email = ? AND status = 'PENDING'";
+
+    private final UserDAO userDAO = new UserDAO();
+
     /**
      * Creates a new invoice in the database.
      * <p>
@@ -34,8 +42,13 @@ public class InvoiceDAO {
      * @param inv The {@link Invoice} object containing details (Business ID, Customer Email, Amount, etc.).
      * @return {@code true} if the invoice was successfully created, {@code false} otherwise.
      */
+    @Override
     public boolean createInvoice(Invoice inv) {
         String sql = "INSERT INTO invoices (business_id, customer_email, amount, description, status) VALUES (?, ?, ?, ?, 'PENDING')";
+        if (inv.getAmount() == null || inv.getAmount().signum() <= 0) {
+            logger.warn("⚠️ Invoice rejected: Amount must be positive (" + inv.getAmount() + ")");
+            return false;
+        }
 
         try (Connection conn = DatabaseConnection.getConnection();
              PreparedStatement stmt = conn.prepareStatement(sql)) {
@@ -63,11 +76,12 @@ public class InvoiceDAO {
      * @param businessId The unique ID of the business user.
      * @return A {@link List} of invoices created by the business. Returns an empty list if none found.
      */
+    @Override
     public List<Invoice> getInvoicesByBusiness(int businessId) {
         List<Invoice> list = new ArrayList<>();
-        String sql = "SELECT * FROM invoices WHERE business_id = ?";
+        String sql = SELECT_BY_BUSINESS_SQL;
 
-        try (Connection conn = DatabaseConnection.getConnection();
+        try (Connection conn = DatabaseConnection.getReadConnection(businessId);
              PreparedStatement stmt = conn.prepareStatement(sql)) {
 
             stmt.setInt(1, businessId);
@@ -91,11 +105,12 @@ public class InvoiceDAO {
      * @param email The email address of the customer.
      * @return A {@link List} of pending invoices.
      */
+    @Override
     public List<Invoice> getInvoicesForCustomer(String email) {
         List<Invoice> list = new ArrayList<>();
-        String sql = "SELECT * FROM invoices WHERE customer_email = ? AND status = 'PENDING'";
+        String sql = SELECT_FOR_CUSTOMER_SQL;
 
-        try (Connection conn = DatabaseConnection.getConnection();
+        try (Connection conn = readConnectionFor(email);
              PreparedStatement stmt = conn.prepareStatement(sql)) {
 
             stmt.setString(1, email);
@@ -116,6 +131,7 @@ public class InvoiceDAO {
      * @param invoiceId The unique ID of the invoice to update.
      * @return {@code true} if the update was successful, {@code false} otherwise.
      */
+    @Override
     public boolean markAsPaid(int invoiceId) {
         String sql = "UPDATE invoices SET status = 'PAID' WHERE invoice_id = ?";
 
@@ -135,12 +151,42 @@ public class InvoiceDAO {
         return false;
     }
 
+    /**
+     * Changes an invoice's status only if it still has the expected status.
+     * <p>
+     * A single conditional update, so of several concurrent callers exactly one succeeds.
+     * </p>
+     *
+     * @param invoiceId The unique ID of the invoice.
+     * @param expected  The status the invoice must have (e.g., "PENDING").
+     * @param next      The new status (e.g., "PAID").
+     * @return {@code true} if this call changed the status.
+     */
+    @Override
+    public boolean compareAndSetStatus(int invoiceId, String expected, String next) {
+        String sql = "UPDATE invoices SET status = ? WHERE invoice_id = ? AND status = ?";
+
+        try (Connection conn = DatabaseConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+
+            stmt.setString(1, next);
+            stmt.setInt(2, invoiceId);
+            stmt.setString(3, expected);
+            return stmt.executeUpdate() > 0;
+
+        } catch (SQLException e) {
+            logger.error("❌ Failed to update invoice #" + invoiceId + " from " + expected + " to " + next, e);
+        }
+        return false;
+    }
+
     /**
      * Retrieves a single invoice by its ID.
      *
      * @param id The unique ID of the invoice.
      * @return The {@link Invoice} object if found, or {@code null} if not found.
      */
+    @Override
     public Invoice getInvoiceById(int id) {
         String sql = "SELECT * FROM invoices WHERE invoice_id = ?";
 
@@ -159,6 +205,15 @@ public class InvoiceDAO {
         return null;
     }
 
+    // Invoices are keyed by email; with a replica, resolve the user (cached) so read-your-writes applies
+    private Connection readConnectionFor(String email) throws SQLException {
+        if (!DatabaseConnection.hasReadReplica()) {
+            return DatabaseConnection.getConnection();
+        }
+        int userId = userDAO.getUserIdByEmail(email);
+        return userId > 0 ? DatabaseConnection.getReadConnection(userId) : DatabaseConnection.getReadConnection();
+    }
+
     /**
      * Helper method to map a ResultSet row to an Invoice object.
      *
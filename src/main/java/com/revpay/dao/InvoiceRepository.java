@@ -0,0 +1,67 @@
+package com.revpay.dao;
+
+import com.revpay.model.Invoice;
+
+import java.util.List;
+
+/**
+ * Storage of business {@link Invoice}s.
+ * <p>
+ * Implemented by {@link InvoiceDAO} and {@link com.revpay.dao.memory.InMemoryInvoiceRepository}.
+ * </p>
+ *
+ * @author RevPay Dev Team
+ * @version 1.0
+ */
+public interface InvoiceRepository {
+
+    /**
+     * Creates a new invoice with status 'PENDING'.
+     *
+     * @param inv The invoice details.
+     * @return {@code true} if the invoice was created; {@code false} for a non-positive amount.
+     */
+    boolean createInvoice(Invoice inv);
+
+    /**
+     * Retrieves all invoices issued by a business.
+     *
+     * @param businessId The unique ID of the business user.
+     * @return The invoices (empty if none).
+     */
+    List<Invoice> getInvoicesByBusiness(int businessId);
+
+    /**
+     * Retrieves the PENDING invoices addressed to a customer.
+     *
+     * @param email The email address of the customer.
+     * @return The pending invoices.
+     */
+    List<Invoice> getInvoicesForCustomer(String email);
+
+    /**
+     * Sets an invoice's status to 'PAID' unconditionally.
+     *
+     * @param invoiceId The unique ID of the invoice.
+     * @return {@code true} if the invoice exists and was updated.
+     */
+    boolean markAsPaid(int invoiceId);
+
+    /**
+     * Changes an invoice's status only if it still has the expected status.
+     *
+     * @param invoiceId The unique ID of the invoice.
+     * @param expected  The status the invoice must have.
+     * @param next      The new status.
+     * @return {@code true} if this call changed the status.
+     */
+    boolean compareAndSetStatus(int invoiceId, String expected, String next);
+
+    /**
+     * Retrieves a single invoice.
+     *
+     * @param id The unique ID of the invoice.
+     * @return The invoice, or {@code null} if not found.
+     */
+    Invoice getInvoiceById(int id);
+}
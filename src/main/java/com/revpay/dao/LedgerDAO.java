@@ -0,0 +1,207 @@
+package com.revpay.dao;
+
+import com.revpay.config.DatabaseConnection;
+import com.revpay.config.ReadYourWrites;
+import com.revpay.ledger.LedgerEntry;
+import com.revpay.model.TransactionStatus;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Data Access Object (DAO) used by the in-memory ledger to persist its accepted operations.
+ * <p>
+ * The ledger has already validated every entry, so this class does not check funds. It
+ * nets each batch down to one balance change per wallet and writes the wallet updates and
+ * the {@code transactions} rows as JDBC batches in a single database transaction.
+ * </p>
+ * <p>
+ * The same transaction advances the {@code ledger_checkpoint} row to the batch's last
+ * sequence, and entries at or below the checkpoint are skipped. Flushing a batch twice
+ * (a journal replay after a crash, or a retry after a commit whose reply was lost)
+ * therefore applies it once.
+ * </p>
+ *
+ * @author RevPay Dev Team
+ * @version 1.0
+ */
+public class LedgerDAO {
+
+    // Initialize Log4j Logger
+    private static final Logger logger = LogManager.getLogger(LedgerDAO.class);
+
+    /**
+     * Gets the sequence of the last ledger entry committed to the database.
+     *
+     * @return The last flushed sequence, or -1 if nothing was ever flushed.
+     * @throws SQLException If the checkpoint cannot be read (e.g., the V4 schema script was not run).
+     */
+    public long getLastFlushedSequence() throws SQLException {
+        try (Connection conn = DatabaseConnection.getConnection()) {
+            return readCheckpoint(conn, false);
+        }
+    }
+
+    /**
+     * Applies a batch of ledger entries to the {@code wallets} and {@code transactions} tables.
+     * <p>
+     * Wallets are updated in ascending User ID order so concurrent writers cannot deadlock,
+     * and the transaction is retried on lock conflicts like {@link TransactionDAO} does.
+     * Entries already covered by the checkpoint are skipped.
+     * </p>
+     *
+     * @param batch The entries to apply, in ascending sequence order.
+     * @throws SQLException If the batch could not be committed (nothing is applied).
+     */
+    public void flushBatch(List<LedgerEntry> batch) throws SQLException {
+        String deltaSQL = "UPDATE wallets SET balance = balance + ? WHERE user_id = ?";
+        String logSQL = "INSERT INTO transactions (sender_id, receiver_id, amount, transaction_type, status, timestamp, idempotency_key) VALUES (?, ?, ?, ?, ?, ?, ?)";
+        String checkpointSQL = "UPDATE ledger_checkpoint SET last_sequence = ? WHERE id = 1";
+        String invoicePaidSQL = "UPDATE invoices SET status = 'PAID' WHERE invoice_id = ? AND status = 'PENDING'";
+        String requestAcceptedSQL = "UPDATE payment_requests SET status = 'ACCEPTED' WHERE request_id = ? AND status = 'PENDING'";
+
+        for (int attempt = 1; ; attempt++) {
+            Connection conn = DatabaseConnection.getConnection();
+            try {
+                conn.setAutoCommit(false);
+
+                // 1. Skip what an earlier flush already committed (the row lock serializes flushers)
+                long checkpoint = readCheckpoint(conn, true);
+                List<LedgerEntry> fresh = new ArrayList<>(batch.size());
+                for (LedgerEntry e : batch) {
+                    if (e.getSequence() > checkpoint) fresh.add(e);
+                }
+                if (fresh.isEmpty()) {
+                    conn.commit();
+                    logger.info("🔁 Ledger batch up to #" + checkpoint + " was already flushed; skipped");
+                    return;
+                }
+                if (fresh.size() < batch.size()) {
+                    logger.warn("⚠️ Skipping " + (batch.size() - fresh.size()) + " ledger entries already flushed (checkpoint #" + checkpoint + ")");
+                }
+
+                // 2. Net the batch down to one delta per wallet (sorted = lock order)
+                Map<Integer, Long> deltas = new TreeMap<>();
+                for (LedgerEntry e : fresh) {
+                    if (e.getSenderId() != e.getReceiverId()) {
+                        deltas.merge(e.getSenderId(), -e.getAmountCents(), Long::sum);
+                    }
+                    deltas.merge(e.getReceiverId(), e.getAmountCents(), Long::sum);
+                }
+
+                // 3. Wallet balances
+                try (PreparedStatement stmt = conn.prepareStatement(deltaSQL)) {
+                    for (Map.Entry<Integer, Long> d : deltas.entrySet()) {
+                        if (d.getValue() == 0) continue;
+                        stmt.setBigDecimal(1, BigDecimal.valueOf(d.getValue(), 2));
+                        stmt.setInt(2, d.getKey());
+                        stmt.addBatch();
+                    }
+                    requireOneRowEach(stmt.executeBatch(), "wallet update");
+                }
+
+                // 3b. Documents the payments settle, in the same transaction as their money
+                settleDocuments(conn, fresh, LedgerEntry.Settles.INVOICE, invoicePaidSQL, "invoice status update");
+                settleDocuments(conn, fresh, LedgerEntry.Settles.REQUEST, requestAcceptedSQL, "request status update");
+
+                // 4. Transaction history
+                try (PreparedStatement stmt = conn.prepareStatement(logSQL)) {
+                    for (LedgerEntry e : fresh) {
+                        stmt.setInt(1, e.getSenderId());
+                        stmt.setInt(2, e.getReceiverId());
+                        stmt.setBigDecimal(3, e.getAmount());
+                        stmt.setString(4, e.getType().name());
+                        stmt.setString(5, TransactionStatus.SUCCESS.name());
+                        stmt.setTimestamp(6, new Timestamp(e.getTimestampMillis()));
+                        stmt.setString(7, e.getIdempotencyKey());
+                        stmt.addBatch();
+                    }
+                    stmt.executeBatch();
+                }
+
+                // 5. Checkpoint, committed together with the entries it covers
+                try (PreparedStatement stmt = conn.prepareStatement(checkpointSQL)) {
+                    stmt.setLong(1, fresh.get(fresh.size() - 1).getSequence());
+                    requireOneRowEach(new int[]{stmt.executeUpdate()}, "checkpoint update");
+                }
+
+                conn.commit();
+                for (int userId : deltas.keySet()) {
+                    ReadYourWrites.getInstance().record(userId);
+                    BalanceCache.getInstance().invalidate(userId);
+                }
+                logger.debug("💾 Ledger flushed " + fresh.size() + " entries (" + deltas.size() + " wallets)");
+                return;
+
+            } catch (SQLException e) {
+                try {
+                    conn.rollback();
+                } catch (SQLException ex) {
+                    logger.error("Critical: Rollback failed!", ex);
+                }
+                if (TransactionRetry.isRetryable(e) && attempt < TransactionRetry.MAX_ATTEMPTS) {
+                    logger.warn("⚠️ Ledger flush hit a lock conflict (attempt " + attempt + "), retrying...");
+                    if (TransactionRetry.backoff(attempt)) {
+                        continue;
+                    }
+                }
+                throw e;
+            } finally {
+                try {
+                    conn.setAutoCommit(true);
+                    conn.close();
+                } catch (SQLException e) {
+                    logger.error("Error closing ledger connection", e);
+                }
+            }
+        }
+    }
+
+    // Changes the status of every document of one kind that the batch pays for
+    private static void settleDocuments(Connection conn, List<LedgerEntry> entries, LedgerEntry.Settles kind,
+                                        String sql, String what) throws SQLException {
+        try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+            boolean any = false;
+            for (LedgerEntry e : entries) {
+                if (e.getSettles() != kind) continue;
+                stmt.setInt(1, e.getSettlesId());
+                stmt.addBatch();
+                any = true;
+            }
+            if (any) {
+                requireOneRowEach(stmt.executeBatch(), what);
+            }
+        }
+    }
+
+    // A wallet missing from the table would swallow its credit while the debit commits; fail the batch instead
+    private static void requireOneRowEach(int[] counts, String what) throws SQLException {
+        for (int i = 0; i < counts.length; i++) {
+            if (counts[i] != 1) {
+                throw new SQLException("Ledger flush aborted: " + what + " #" + (i + 1) + " affected " + counts[i] + " rows");
+            }
+        }
+    }
+
+    // Reads the checkpoint row, optionally locking it until the transaction ends
+    private static long readCheckpoint(Connection conn, boolean forUpdate) throws SQLException {
+        String sql = "SELECT last_sequence FROM ledger_checkpoint WHERE id = 1" + (forUpdate ? " FOR UPDATE" : "");
+        try (PreparedStatement stmt = conn.prepareStatement(sql);
+             ResultSet rs = stmt.executeQuery()) {
+            if (!rs.next()) {
+                throw new SQLException("ledger_checkpoint row is missing (run db/V4__ledger_checkpoint.sql)");
+            }
+            return rs.getLong(1);
+        }
+    }
+}
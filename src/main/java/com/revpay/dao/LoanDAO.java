@@ -24,11 +24,15 @@ import java.util.List;
  * @author RevPay Dev Team
  * @version 1.0
  */
-public class LoanDAO {
+public class LoanDAO implements LoanRepository {
 
     // Initialize Log4j Logger
     private static final Logger logger = LogManager.getLogger(LoanDAO.class);
 
+    // Hot queries, package-visible so QueryPlanTest EXPLAINs exactly what runs
+    static final String SELECT_BY_USER_SQL =
+            "SELECT * FROM loans WHERE user_id = ?";
+
     /**
      * Submits a new loan application for a user.
      * <p>
@@ -38,6 +42,7 @@ public class LoanDAO {
      * @param loan The {@link Loan} object containing the user ID, amount, and reason.
      * @return {@code true} if the application was successfully saved, {@code false} otherwise.
      */
+    @Override
     public boolean applyForLoan(Loan loan) {
         String sql = "INSERT INTO loans (user_id, amount, reason, status) VALUES (?, ?, ?, 'PENDING')";
 
@@ -66,11 +71,12 @@ public class LoanDAO {
      * @param userId The unique ID of the user.
      * @return A {@link List} of {@link Loan} objects. Returns an empty list if no loans are found.
      */
+    @Override
     public List<Loan> getLoansByUserId(int userId) {
         List<Loan> loans = new ArrayList<>();
-        String sql = "SELECT * FROM loans WHERE user_id = ?";
+        String sql = SELECT_BY_USER_SQL;
 
-        try (Connection conn = DatabaseConnection.getConnection();
+        try (Connection conn = DatabaseConnection.getReadConnection(userId);
              PreparedStatement stmt = conn.prepareStatement(sql)) {
 
             stmt.setInt(1, userId);
@@ -0,0 +1,33 @@
+package com.revpay.dao;
+
+import com.revpay.model.Loan;
+
+import java.util.List;
+
+/**
+ * Storage of {@link Loan} applications.
+ * <p>
+ * Implemented by {@link LoanDAO} and {@link com.revpay.dao.memory.InMemoryLoanRepository}.
+ * </p>
+ *
+ * @author RevPay Dev Team
+ * @version 1.0
+ */
+public interface LoanRepository {
+
+    /**
+     * Submits a new loan application with status 'PENDING'.
+     *
+     * @param loan The user ID, amount and reason.
+     * @return {@code true} if the application was saved.
+     */
+    boolean applyForLoan(Loan loan);
+
+    /**
+     * Retrieves all loan applications of a user.
+     *
+     * @param userId The unique ID of the user.
+     * @return The loans (empty if none).
+     */
+    List<Loan> getLoansByUserId(int userId);
+}
@@ -21,17 +21,22 @@ import java.util.List;
  * @author RevPay Dev Team
  * @version 1.0
  */
-public class PaymentMethodDAO {
+public class PaymentMethodDAO implements PaymentMethodRepository {
 
     // Initialize Log4j Logger
     private static final Logger logger = LogManager.getLogger(PaymentMethodDAO.class);
 
+    // Hot queries, package-visible so QueryPlanTest EXPLAINs exactly what runs
+    static final String SELECT_BY_USER_SQL =
+            "SELECT * FROM payment_methods WHERE user_id = ?";
+
     /**
      * Adds a new payment method (Card) to the user's account.
      *
      * @param pm The {@link PaymentMethod} object containing card details.
      * @return {@code true} if the card was successfully saved, {@code false} otherwise.
      */
+    @Override
     public boolean addPaymentMethod(PaymentMethod pm) {
         String sql = "INSERT INTO payment_methods (user_id, card_number_encrypted, card_type, expiry_date) VALUES (?, ?, ?, ?)";
 
@@ -64,11 +69,12 @@ public class PaymentMethodDAO {
      * @param userId The unique ID of the user.
      * @return A {@link List} of {@link PaymentMethod} objects. Returns an empty list if none found.
      */
+    @Override
     public List<PaymentMethod> getMethodsByUserId(int userId) {
         List<PaymentMethod> list = new ArrayList<>();
-        String sql = "SELECT * FROM payment_methods WHERE user_id = ?";
+        String sql = SELECT_BY_USER_SQL;
 
-        try (Connection conn = DatabaseConnection.getConnection();
+        try (Connection conn = DatabaseConnection.getReadConnection(userId);
              PreparedStatement stmt = conn.prepareStatement(sql)) {
 
             stmt.setInt(1, userId);
@@ -0,0 +1,33 @@
+package com.revpay.dao;
+
+import com.revpay.model.PaymentMethod;
+
+import java.util.List;
+
+/**
+ * Storage of saved cards ({@link PaymentMethod}s).
+ * <p>
+ * Implemented by {@link PaymentMethodDAO} and {@link com.revpay.dao.memory.InMemoryPaymentMethodRepository}.
+ * </p>
+ *
+ * @author RevPay Dev Team
+ * @version 1.0
+ */
+public interface PaymentMethodRepository {
+
+    /**
+     * Adds a card to a user's account.
+     *
+     * @param pm The card details.
+     * @return {@code true} if the card was saved.
+     */
+    boolean addPaymentMethod(PaymentMethod pm);
+
+    /**
+     * Retrieves all cards saved by a user.
+     *
+     * @param userId The unique ID of the user.
+     * @return The cards (empty if none).
+     */
+    List<PaymentMethod> getMethodsByUserId(int userId);
+}
@@ -0,0 +1,166 @@
+package com.revpay.dao;
+
+import com.revpay.dao.memory.InMemoryInvoiceRepository;
+import com.revpay.dao.memory.InMemoryLoanRepository;
+import com.revpay.dao.memory.InMemoryPaymentMethodRepository;
+import com.revpay.dao.memory.InMemoryRequestRepository;
+import com.revpay.dao.memory.InMemoryStore;
+import com.revpay.dao.memory.InMemoryTransactionRepository;
+import com.revpay.dao.memory.InMemoryUserRepository;
+import com.revpay.dao.memory.InMemoryWalletRepository;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+/**
+ * The set of repositories the services and menus use.
+ * <p>
+ * Chosen once per JVM with {@code -Drevpay.repository}:
+ * </p>
+ * <ul>
+ * <li>{@code sql} (default): the JDBC DAOs on the configured {@link com.revpay.config.DatabaseConnection}.</li>
+ * <li>{@code memory}: lock-free in-memory tables ({@link InMemoryStore}) with no I/O at all, for
+ * simulations and for measuring how much of a request's latency is the database.
+ * Nothing survives a restart.</li>
+ * </ul>
+ * <p>
+ * Tests can {@link #install(Repositories)} a set of their own; components pick up the active set
+ * when they are created.
+ * </p>
+ *
+ * @author RevPay Dev Team
+ * @version 1.0
+ */
+public final class Repositories {
+
+    // Initialize Log4j Logger
+    private static final Logger logger = LogManager.getLogger(Repositories.class);
+
+    private static volatile Repositories active;
+
+    private final UserRepository users;
+    private final WalletRepository wallets;
+    private final TransactionRepository transactions;
+    private final InvoiceRepository invoices;
+    private final RequestRepository requests;
+    private final LoanRepository loans;
+    private final PaymentMethodRepository paymentMethods;
+
+    private Repositories(UserRepository users, WalletRepository wallets, TransactionRepository transactions,
+                         InvoiceRepository invoices, RequestRepository requests, LoanRepository loans,
+                         PaymentMethodRepository paymentMethods) {
+        this.users = users;
+        this.wallets = wallets;
+        this.transactions = transactions;
+        this.invoices = invoices;
+        this.requests = requests;
+        this.loans = loans;
+        this.paymentMethods = paymentMethods;
+    }
+
+    /**
+     * Creates the SQL-backed set.
+     *
+     * @return New DAOs.
+     */
+    public static Repositories sql() {
+        return new Repositories(new UserDAO(), new WalletDAO(), new TransactionDAO(), new InvoiceDAO(),
+                new RequestDAO(), new LoanDAO(), new PaymentMethodDAO());
+    }
+
+    /**
+     * Creates an in-memory set over a new, empty {@link InMemoryStore}.
+     *
+     * @return New repositories sharing one store.
+     */
+    public static Repositories inMemory() {
+        InMemoryStore store = new InMemoryStore();
+        return new Repositories(new InMemoryUserRepository(store), new InMemoryWalletRepository(store),
+                new InMemoryTransactionRepository(store), new InMemoryInvoiceRepository(store),
+                new InMemoryRequestRepository(store), new InMemoryLoanRepository(store),
+                new InMemoryPaymentMethodRepository(store));
+    }
+
+    /**
+     * Gets the active set, creating the configured one on first use.
+     *
+     * @return The repositories in use.
+     * @throws IllegalStateException If {@code revpay.repository} names an unknown backend.
+     */
+    public static Repositories get() {
+        Repositories r = active;
+        if (r == null) {
+            synchronized (Repositories.class) {
+                r = active;
+                if (r == null) {
+                    String backend = System.getProperty("revpay.repository", "sql");
+                    switch (backend.toLowerCase()) {
+                        case "sql":
+                            r = sql();
+                            break;
+                        case "memory":
+                            r = inMemory();
+                            logger.info("Using in-memory repositories (nothing is persisted)");
+                            break;
+                        default:
+                            throw new IllegalStateException("Unknown repository backend '" + backend + "' (expected sql or memory)");
+                    }
+                    active = r;
+                }
+            }
+        }
+        return r;
+    }
+
+    /**
+     * Replaces the active set. Components created afterwards use the new one.
+     *
+     * @param repositories The set to use, or {@code null} to go back to the configured backend.
+     */
+    public static synchronized void install(Repositories repositories) {
+        active = repositories;
+    }
+
+    // --- Getters ---
+
+    /**
+     * Gets the user repository.
+     * @return The {@link UserRepository}.
+     */
+    public UserRepository users() { return users; }
+
+    /**
+     * Gets the wallet repository.
+     * @return The {@link WalletRepository}.
+     */
+    public WalletRepository wallets() { return wallets; }
+
+    /**
+     * Gets the transaction repository.
+     * @return The {@link TransactionRepository}.
+     */
+    public TransactionRepository transactions() { return transactions; }
+
+    /**
+     * Gets the invoice repository.
+     * @return The {@link InvoiceRepository}.
+     */
+    public InvoiceRepository invoices() { return invoices; }
+
+    /**
+     * Gets the payment request repository.
+     * @return The {@link RequestRepository}.
+     */
+    public RequestRepository requests() { return requests; }
+
+    /**
+     * Gets the loan repository.
+     * @return The {@link LoanRepository}.
+     */
+    public LoanRepository loans() { return loans; }
+
+    /**
+     * Gets the saved card repository.
+     * @return The {@link PaymentMethodRepository}.
+     */
+    public PaymentMethodRepository paymentMethods() { return paymentMethods; }
+}
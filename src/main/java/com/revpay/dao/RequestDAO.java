@@ -20,19 +20,28 @@ import java.util.List;
  * @author RevPay Dev Team
  * @version 1.0
  */
-public class RequestDAO {
+public class RequestDAO implements RequestRepository {
 
     // Initialize Log4j Logger
     private static final Logger logger = LogManager.getLogger(RequestDAO.class);
 
+    // Hot queries, package-visible so QueryPlanTest EXPLAINs exactly what runs
+    static final String SELECT_INCOMING_SQL =
+            "SELECT * FROM payment_requests WHERE payer_id = ? AND status = 'PENDING'";
+
     /**
      * Creates a new payment request in the database.
      *
      * @param req The {@link PaymentRequest} object containing requester and payer IDs and amount.
      * @return {@code true} if the request was successfully created, {@code false} otherwise.
      */
+    @Override
     public boolean createRequest(PaymentRequest req) {
         String sql = "INSERT INTO payment_requests (requester_id, payer_id, amount, status) VALUES (?, ?, ?, 'PENDING')";
+        if (req.getAmount() == null || req.getAmount().signum() <= 0) {
+            logger.warn("⚠️ Request rejected: Amount must be positive (" + req.getAmount() + ")");
+            return false;
+        }
 
         try (Connection conn = DatabaseConnection.getConnection();
              PreparedStatement stmt = conn.prepareStatement(sql)) {
@@ -62,11 +71,12 @@ public class RequestDAO {
      * @param userId The ID of the user who received the requests (the payer).
      * @return A {@link List} of pending {@link PaymentRequest} objects.
      */
+    @Override
     public List<PaymentRequest> getIncomingRequests(int userId) {
         List<PaymentRequest> list = new ArrayList<>();
-        String sql = "SELECT * FROM payment_requests WHERE payer_id = ? AND status = 'PENDING'";
+        String sql = SELECT_INCOMING_SQL;
 
-        try (Connection conn = DatabaseConnection.getConnection();
+        try (Connection conn = DatabaseConnection.getReadConnection(userId);
              PreparedStatement stmt = conn.prepareStatement(sql)) {
 
             stmt.setInt(1, userId);
@@ -94,6 +104,7 @@ public class RequestDAO {
      * @param status The new status string.
      * @return {@code true} if the update was successful, {@code false} otherwise.
      */
+    @Override
     public boolean updateStatus(int requestId, String status) {
         String sql = "UPDATE payment_requests SET status = ? WHERE request_id = ?";
 
@@ -115,12 +126,48 @@ public class RequestDAO {
         return false;
     }
 
+    /**
+     * Changes a request's status only if the caller is its payer and it still has the expected status.
+     * <p>
+     * A single conditional update, so of several concurrent callers exactly one succeeds.
+     * Used to decline requests.
+     * </p>
+     *
+     * @param requestId The unique ID of the request.
+     * @param payerId   The User ID who must be the request's payer.
+     * @param expected  The status the request must have (e.g., "PENDING").
+     * @param next      The new status (e.g., "DECLINED").
+     * @return {@code true} if this call changed the status.
+     */
+    @Override
+    public boolean compareAndSetStatus(int requestId, int payerId, String expected, String next) {
+        String sql = "UPDATE payment_requests SET status = ? WHERE request_id = ? AND payer_id = ? AND status = ?";
+
+        try (Connection conn = DatabaseConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+
+            stmt.setString(1, next);
+            stmt.setInt(2, requestId);
+            stmt.setInt(3, payerId);
+            stmt.setString(4, expected);
+
+            if (stmt.executeUpdate() > 0) {
+                logger.info("✅ Request ID " + requestId + " updated from " + expected + " to " + next);
+                return true;
+            }
+        } catch (SQLException e) {
+            logger.error("❌ Failed to update status for Request ID " + requestId, e);
+        }
+        return false;
+    }
+
     /**
      * Retrieves a single payment request by its ID.
      *
      * @param requestId The unique ID of the request.
      * @return The {@link PaymentRequest} object if found, or {@code null} if not found.
      */
+    @Override
     public PaymentRequest getRequestById(int requestId) {
         String sql = "SELECT * FROM payment_requests WHERE request_id = ?";
 
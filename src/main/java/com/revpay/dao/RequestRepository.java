@@ -0,0 +1,61 @@
+package com.revpay.dao;
+
+import com.revpay.model.PaymentRequest;
+
+import java.util.List;
+
+/**
+ * Storage of money {@link PaymentRequest}s.
+ * <p>
+ * Implemented by {@link RequestDAO} and {@link com.revpay.dao.memory.InMemoryRequestRepository}.
+ * </p>
+ *
+ * @author RevPay Dev Team
+ * @version 1.0
+ */
+public interface RequestRepository {
+
+    /**
+     * Creates a new request with status 'PENDING'.
+     *
+     * @param req The requester, payer and amount.
+     * @return {@code true} if the request was created; {@code false} for a non-positive amount.
+     */
+    boolean createRequest(PaymentRequest req);
+
+    /**
+     * Retrieves the PENDING requests a user has been asked to pay.
+     *
+     * @param userId The ID of the payer.
+     * @return The pending requests.
+     */
+    List<PaymentRequest> getIncomingRequests(int userId);
+
+    /**
+     * Sets a request's status unconditionally.
+     *
+     * @param requestId The unique ID of the request.
+     * @param status    The new status.
+     * @return {@code true} if the request exists and was updated.
+     */
+    boolean updateStatus(int requestId, String status);
+
+    /**
+     * Changes a request's status only if the caller is its payer and it still has the expected status.
+     *
+     * @param requestId The unique ID of the request.
+     * @param payerId   The User ID who must be the request's payer.
+     * @param expected  The status the request must have.
+     * @param next      The new status.
+     * @return {@code true} if this call changed the status.
+     */
+    boolean compareAndSetStatus(int requestId, int payerId, String expected, String next);
+
+    /**
+     * Retrieves a single request.
+     *
+     * @param requestId The unique ID of the request.
+     * @return The request, or {@code null} if not found.
+     */
+    PaymentRequest getRequestById(int requestId);
+}
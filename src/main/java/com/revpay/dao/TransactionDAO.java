@@ -1,7 +1,12 @@
 package com.revpay.dao;
 
 import com.revpay.config.DatabaseConnection;
+import com.revpay.config.ReadYourWrites;
+import com.revpay.model.HistoryCursor;
+import com.revpay.model.Payout;
+import com.revpay.model.PayoutResult;
 import com.revpay.model.Transaction;
+import com.revpay.model.TransactionPage;
 import com.revpay.model.TransactionStatus;
 import com.revpay.model.TransactionType;
 import org.apache.logging.log4j.LogManager;
@@ -13,7 +18,16 @@ import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.TreeSet;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 /**
  * Data Access Object (DAO) for handling Financial Transactions.
@@ -27,130 +41,526 @@ import java.util.List;
  * @author RevPay Dev Team
  * @version 1.0
  */
-public class TransactionDAO {
+public class TransactionDAO implements TransactionRepository {
 
     // Initialize Log4j Logger
     private static final Logger logger = LogManager.getLogger(TransactionDAO.class);
 
+    // Max placeholders per "IN (...)" lock query when locking wallets for a bulk payout
+    private static final int LOCK_CHUNK_SIZE = 500;
+
+    // Rows per round trip when streaming history from drivers without row-by-row streaming
+    private static final int STREAM_FETCH_SIZE = 500;
+
+    // The unique index on (sender_id, idempotency_key), see db/V5__idempotency_key_per_sender.sql
+    private static final String IDEMPOTENCY_INDEX = "uk_transactions_sender_idempotency";
+
+    // Hot queries, package-visible so QueryPlanTest EXPLAINs exactly what runs (history: historySql)
+    static final String FIND_BY_IDEMPOTENCY_KEY_SQL =
+            "SELECT receiver_id, amount FROM transactions WHERE sender_id = ? AND idempotency_key = ?";
+    static final String LOCK_WALLETS_SQL =
+            "SELECT user_id, balance FROM wallets WHERE user_id IN (?, ?) ORDER BY user_id FOR UPDATE";
+    static final String CLAIM_INVOICE_SQL =
+            "UPDATE invoices SET status = 'PAID' WHERE invoice_id = ? AND status = 'PENDING' "
+                    + "AND customer_email = (SELECT email FROM users WHERE user_id = ?)";
+    static final String READ_INVOICE_SQL =
+            "SELECT business_id AS payee_id, amount FROM invoices WHERE invoice_id = ?";
+    static final String CLAIM_REQUEST_SQL =
+            "UPDATE payment_requests SET status = 'ACCEPTED' WHERE request_id = ? AND status = 'PENDING' "
+                    + "AND payer_id = ?";
+    static final String READ_REQUEST_SQL =
+            "SELECT requester_id AS payee_id, amount FROM payment_requests WHERE request_id = ?";
+
+    private final BalanceCache balanceCache = BalanceCache.getInstance();
+    private final ReadYourWrites readYourWrites = ReadYourWrites.getInstance();
+
     /**
      * Transfers money from one user to another securely.
      * <p>
-     * This method performs three atomic steps:
+     * This method performs the following steps in a single database transaction:
      * <ol>
+     * <li>Lock both wallets, always in ascending {@code user_id} order.</li>
      * <li>Withdraw amount from Sender (validating sufficient funds).</li>
      * <li>Deposit amount to Receiver.</li>
      * <li>Log the transaction record.</li>
      * </ol>
      * If any step fails, the entire operation is rolled back.
      * </p>
+     * <p>
+     * Taking the row locks in a fixed order means two users paying each other at the same
+     * moment queue behind each other instead of deadlocking. Should MySQL still abort the
+     * transaction with a deadlock or lock-wait timeout, the whole transfer is retried up to
+     * {@link TransactionRetry#MAX_ATTEMPTS} times with jittered backoff.
+     * </p>
      *
      * @param senderId   The User ID sending the money.
      * @param receiverId The User ID receiving the money.
      * @param amount     The amount to transfer.
      * @return {@code true} if the transfer is successful, {@code false} if failed (e.g., low balance).
      */
+    @Override
+    public boolean transferMoney(int senderId, int receiverId, BigDecimal amount) {
+        return transferMoney(senderId, receiverId, amount, null);
+    }
+
     /**
-     * Transfers money from one user to another securely.
+     * Transfers money, at most once per idempotency key.
+     * <p>
+     * The key is stored on the {@code transactions} row under a unique index on
+     * {@code (sender_id, idempotency_key)}. If the sender already has a row with the key for
+     * the same receiver and amount, the transfer was already made, so {@code true} is returned
+     * without locking or touching any wallet; a row for a different payment means the key was
+     * reused, and the transfer is refused. Two concurrent calls with the same key collide on
+     * the unique index; the loser rolls back and checks the winner's row the same way.
+     * </p>
+     *
+     * @param senderId       The User ID sending the money.
+     * @param receiverId     The User ID receiving the money.
+     * @param amount         The amount to transfer.
+     * @param idempotencyKey The client's request identity, or {@code null} for none.
+     * @return {@code true} if the transfer is (or already was) successful, {@code false} otherwise.
      */
-    public boolean transferMoney(int senderId, int receiverId, BigDecimal amount) {
-        Connection conn = null;
-        PreparedStatement withdrawStmt = null;
-        PreparedStatement depositStmt = null;
-        PreparedStatement logStmt = null;
+    @Override
+    public boolean transferMoney(int senderId, int receiverId, BigDecimal amount, String idempotencyKey) {
+        for (int attempt = 1; ; attempt++) {
+            Connection conn = null;
+            try {
+                conn = DatabaseConnection.getConnection();
+                conn.setAutoCommit(false); // 🛑 Start Transaction
+
+                Boolean earlier = priorUse(conn, senderId, receiverId, amount, idempotencyKey);
+                if (earlier != null) {
+                    conn.rollback();
+                    return earlier;
+                }
+
+                if (!moveFunds(conn, senderId, receiverId, amount, TransactionType.TRANSFER, idempotencyKey)) {
+                    conn.rollback(); // Undo any locks
+                    return false;    // Return false nicely
+                }
+
+                // ✅ Commit Success
+                conn.commit();
+                wrote(senderId);
+                wrote(receiverId);
+                logger.info("✅ Transfer Successful: $" + amount + " from ID " + senderId + " to ID " + receiverId);
+                return true;
+
+            } catch (SQLException e) {
+                rollbackQuietly(conn);
+                if (idempotencyKey != null && isDuplicateKey(e)) {
+                    logger.info("🔁 Concurrent duplicate transfer (idempotency key " + idempotencyKey + ")");
+                    return Boolean.TRUE.equals(checkIdempotencyKey(senderId, receiverId, amount, idempotencyKey));
+                }
+                if (TransactionRetry.isRetryable(e) && attempt < TransactionRetry.MAX_ATTEMPTS) {
+                    logger.warn("⚠️ Transfer " + senderId + " -> " + receiverId + " hit a lock conflict (attempt "
+                            + attempt + "), retrying...");
+                    if (TransactionRetry.backoff(attempt)) {
+                        continue;
+                    }
+                }
+                // ❌ Only REAL errors (like DB crash) land here now
+                logger.error("🔥 System Error. Transfer " + senderId + " -> " + receiverId + " rolled back.", e);
+                return false;
+            } finally {
+                closeResources(null, null, null, conn);
+            }
+        }
+    }
+
+    /**
+     * Pays a pending invoice from the customer's wallet in a single database transaction.
+     * <p>
+     * The invoice is flipped to {@code PAID} first with a conditional update
+     * ({@code WHERE status = 'PENDING'} and the payer's email is the invoice's customer
+     * email), which also row-locks it. Concurrent attempts queue on that lock, then find it
+     * already paid and fail cleanly. The funds are then moved to the business and logged on
+     * the same connection, so either the invoice is paid and the money moved, or neither.
+     * Deadlocks and lock-wait timeouts are retried like transfers.
+     * </p>
+     *
+     * @param invoiceId The invoice to pay.
+     * @param payerId   The User ID paying (must be the invoice's customer).
+     * @return {@code true} if this call paid the invoice; {@code false} if it is not pending, not
+     *         addressed to the payer, or the payer cannot cover it.
+     */
+    @Override
+    public boolean payInvoice(int invoiceId, int payerId) {
+        return claimAndPay("Invoice #" + invoiceId, CLAIM_INVOICE_SQL, READ_INVOICE_SQL, invoiceId, payerId);
+    }
+
+    /**
+     * Accepts a pending money request and pays the requester in a single database transaction.
+     * <p>
+     * Works like {@link #payInvoice}: the request is moved from {@code PENDING} to
+     * {@code ACCEPTED} only if the caller is its payer, which row-locks it, and the transfer
+     * to the requester runs on the same connection. Concurrent accepts of one request pay once.
+     * </p>
+     *
+     * @param requestId The request to accept.
+     * @param payerId   The User ID accepting (must be the request's payer).
+     * @return {@code true} if this call accepted and paid the request; {@code false} if it is not
+     *         pending, not addressed to the payer, or the payer cannot cover it.
+     */
+    @Override
+    public boolean acceptRequest(int requestId, int payerId) {
+        return claimAndPay("Request #" + requestId, CLAIM_REQUEST_SQL, READ_REQUEST_SQL, requestId, payerId);
+    }
+
+    /**
+     * Claims a pending bill with a conditional status update, then pays it, in one transaction.
+     *
+     * @param label    The bill's name for logging.
+     * @param claimSQL Conditional update binding (bill ID, payer ID); must match no row unless the payer may pay it now.
+     * @param readSQL  Query binding (bill ID) that returns {@code payee_id} and {@code amount}.
+     */
+    private boolean claimAndPay(String label, String claimSQL, String readSQL, int billId, int payerId) {
+        for (int attempt = 1; ; attempt++) {
+            Connection conn = null;
+            try {
+                conn = DatabaseConnection.getConnection();
+                conn.setAutoCommit(false); // 🛑 Start Transaction
+
+                // 1. Claim the bill (locks the row until commit)
+                try (PreparedStatement claimStmt = conn.prepareStatement(claimSQL)) {
+                    claimStmt.setInt(1, billId);
+                    claimStmt.setInt(2, payerId);
+                    if (claimStmt.executeUpdate() == 0) {
+                        conn.rollback();
+                        logger.warn("⚠️ " + label + " is not pending for User ID " + payerId);
+                        return false;
+                    }
+                }
+
+                // 2. Read who gets paid and how much
+                int payeeId;
+                BigDecimal amount;
+                try (PreparedStatement readStmt = conn.prepareStatement(readSQL)) {
+                    readStmt.setInt(1, billId);
+                    try (ResultSet rs = readStmt.executeQuery()) {
+                        rs.next();
+                        payeeId = rs.getInt("payee_id");
+                        amount = rs.getBigDecimal("amount");
+                    }
+                }
+
+                // 3. Move the funds and log the payment
+                if (!moveFunds(conn, payerId, payeeId, amount, TransactionType.TRANSFER, null)) {
+                    conn.rollback(); // Bill goes back to PENDING
+                    return false;
+                }
+
+                conn.commit();
+                wrote(payerId);
+                wrote(payeeId);
+                logger.info("✅ " + label + " Paid: $" + amount + " from ID " + payerId + " to ID " + payeeId);
+                return true;
+
+            } catch (SQLException e) {
+                rollbackQuietly(conn);
+                if (TransactionRetry.isRetryable(e) && attempt < TransactionRetry.MAX_ATTEMPTS) {
+                    logger.warn("⚠️ " + label + " payment hit a lock conflict (attempt " + attempt + "), retrying...");
+                    if (TransactionRetry.backoff(attempt)) {
+                        continue;
+                    }
+                }
+                logger.error("🔥 System Error. " + label + " payment rolled back.", e);
+                return false;
+            } finally {
+                closeResources(null, null, null, conn);
+            }
+        }
+    }
 
+    /**
+     * Moves funds between two wallets inside the caller's open transaction.
+     * <p>
+     * Both wallet rows are locked with a single {@code SELECT ... FOR UPDATE} over the
+     * primary key. InnoDB scans an {@code IN} list on the key in ascending order, so the lower
+     * {@code user_id} is always locked first no matter which side is paying. Funds are then
+     * checked, moved and logged. The caller commits or rolls back.
+     * </p>
+     *
+     * @param conn       The connection with auto-commit disabled.
+     * @param senderId   The User ID sending the money.
+     * @param receiverId The User ID receiving the money.
+     * @param amount     The amount to move.
+     * @param type       The ledger type to record (e.g., TRANSFER).
+     * @param idempotencyKey The key to store on the ledger row, or {@code null}.
+     * @return {@code true} if the funds were moved, {@code false} on a non-positive amount,
+     *         insufficient funds or a missing wallet.
+     * @throws SQLException If a database error (including a lock conflict or duplicate key) occurs.
+     */
+    private boolean moveFunds(Connection conn, int senderId, int receiverId, BigDecimal amount, TransactionType type,
+                              String idempotencyKey) throws SQLException {
+        // A negative amount would pass the withdraw check and debit the receiver unchecked
+        if (amount == null || amount.signum() <= 0) {
+            logger.warn("⚠️ Transfer Failed: Amount must be positive (" + amount + ") for User ID " + senderId);
+            return false;
+        }
+
+        String lockSQL = LOCK_WALLETS_SQL;
         String withdrawSQL = "UPDATE wallets SET balance = balance - ? WHERE user_id = ? AND balance >= ?";
         String depositSQL = "UPDATE wallets SET balance = balance + ? WHERE user_id = ?";
-        String logSQL = "INSERT INTO transactions (sender_id, receiver_id, amount, transaction_type, status) VALUES (?, ?, ?, ?, ?)";
 
-        try {
-            conn = DatabaseConnection.getConnection();
-            conn.setAutoCommit(false); // 🛑 Start Transaction
+        // 1. Lock both wallets (lowest user_id first)
+        BigDecimal senderBalance = null;
+        boolean receiverFound = false;
+        try (PreparedStatement lockStmt = conn.prepareStatement(lockSQL)) {
+            lockStmt.setInt(1, Math.min(senderId, receiverId));
+            lockStmt.setInt(2, Math.max(senderId, receiverId));
+            try (ResultSet rs = lockStmt.executeQuery()) {
+                while (rs.next()) {
+                    int userId = rs.getInt("user_id");
+                    if (userId == senderId) senderBalance = rs.getBigDecimal("balance");
+                    if (userId == receiverId) receiverFound = true;
+                }
+            }
+        }
+
+        if (!receiverFound) {
+            logger.warn("⚠️ Transfer Failed: Invalid receiver ID " + receiverId);
+            return false;
+        }
+        if (senderBalance == null || senderBalance.compareTo(amount) < 0) {
+            // 🛑 USER FRIENDLY FIX: Don't throw exception. Just log warning and exit.
+            logger.warn("⚠️ Transfer Failed: Insufficient funds for User ID " + senderId);
+            return false;
+        }
 
-            // 1. Withdraw from Sender
-            withdrawStmt = conn.prepareStatement(withdrawSQL);
+        // 2. Withdraw from Sender
+        try (PreparedStatement withdrawStmt = conn.prepareStatement(withdrawSQL)) {
             withdrawStmt.setBigDecimal(1, amount);
             withdrawStmt.setInt(2, senderId);
             withdrawStmt.setBigDecimal(3, amount); // Ensure balance >= amount
-            int rowsAffected1 = withdrawStmt.executeUpdate();
-
-            if (rowsAffected1 == 0) {
-                // 🛑 USER FRIENDLY FIX: Don't throw exception. Just log warning and exit.
+            if (withdrawStmt.executeUpdate() == 0) {
                 logger.warn("⚠️ Transfer Failed: Insufficient funds for User ID " + senderId);
-                conn.rollback(); // Undo any locks
-                return false;    // Return false nicely
+                return false;
             }
+        }
 
-            // 2. Deposit to Receiver
-            depositStmt = conn.prepareStatement(depositSQL);
+        // 3. Deposit to Receiver
+        try (PreparedStatement depositStmt = conn.prepareStatement(depositSQL)) {
             depositStmt.setBigDecimal(1, amount);
             depositStmt.setInt(2, receiverId);
-            int rowsAffected2 = depositStmt.executeUpdate();
+            depositStmt.executeUpdate();
+        }
 
-            if (rowsAffected2 == 0) {
-                logger.warn("⚠️ Transfer Failed: Invalid receiver ID " + receiverId);
-                conn.rollback();
-                return false;
-            }
+        // 4. Log the Transaction
+        logTransaction(conn, senderId, receiverId, amount, type, idempotencyKey);
+        return true;
+    }
 
-            // 3. Log the Transaction
-            logStmt = conn.prepareStatement(logSQL);
-            logStmt.setInt(1, senderId);
-            logStmt.setInt(2, receiverId);
-            logStmt.setBigDecimal(3, amount);
-            logStmt.setString(4, TransactionType.TRANSFER.name());
-            logStmt.setString(5, TransactionStatus.SUCCESS.name());
-            logStmt.executeUpdate();
+    /**
+     * Pays many receivers from one sender in a single database transaction.
+     * <p>
+     * Instead of one transaction (and one sender lock) per receiver, this method:
+     * <ol>
+     * <li>Locks the sender and every receiver wallet in ascending {@code user_id} order, a few hundred per query.</li>
+     * <li>Rejects lines whose receiver has no wallet.</li>
+     * <li>Debits the sender once for the total of the remaining lines (all-or-nothing on insufficient funds).</li>
+     * <li>Credits receivers and writes the ledger rows with JDBC batches.</li>
+     * </ol>
+     * The lines must already be validated by the service layer (positive amount, resolved receiver,
+     * not the sender). Deadlocks and lock-wait timeouts are retried like single transfers.
+     * </p>
+     *
+     * @param senderId The User ID paying out.
+     * @param payouts  The validated payout lines, each with a resolved receiver ID.
+     * @return One {@link PayoutResult} per line, in input order.
+     */
+    @Override
+    public List<PayoutResult> bulkTransfer(int senderId, List<Payout> payouts) {
+        if (payouts.isEmpty()) {
+            return new ArrayList<>();
+        }
 
-            // ✅ Commit Success
-            conn.commit();
-            logger.info("✅ Transfer Successful: $" + amount + " from ID " + senderId + " to ID " + receiverId);
-            return true;
+        for (int attempt = 1; ; attempt++) {
+            Connection conn = null;
+            try {
+                conn = DatabaseConnection.getConnection();
+                conn.setAutoCommit(false); // 🛑 Start Transaction
 
-        } catch (SQLException e) {
-            // ❌ Only REAL errors (like DB crash) land here now
-            if (conn != null) {
-                try {
-                    logger.error("🔥 System Error. Rolling back...", e);
+                List<PayoutResult> results = executeBulkTransfer(conn, senderId, payouts);
+                int paid = 0;
+                BigDecimal total = BigDecimal.ZERO;
+                for (PayoutResult r : results) {
+                    if (r.isSuccess()) {
+                        paid++;
+                        total = total.add(r.getAmount());
+                    }
+                }
+
+                if (paid > 0) {
+                    conn.commit();
+                    wrote(senderId);
+                    for (PayoutResult r : results) {
+                        if (r.isSuccess()) wrote(r.getReceiverId());
+                    }
+                    logger.info("✅ Bulk Payout Successful: $" + total + " from ID " + senderId + " to "
+                            + paid + "/" + payouts.size() + " receivers");
+                } else {
                     conn.rollback();
-                } catch (SQLException ex) {
-                    logger.error("Critical: Rollback failed!", ex);
                 }
+                return results;
+
+            } catch (SQLException e) {
+                rollbackQuietly(conn);
+                if (TransactionRetry.isRetryable(e) && attempt < TransactionRetry.MAX_ATTEMPTS) {
+                    logger.warn("⚠️ Bulk payout from ID " + senderId + " hit a lock conflict (attempt " + attempt + "), retrying...");
+                    if (TransactionRetry.backoff(attempt)) {
+                        continue;
+                    }
+                }
+                logger.error("🔥 System Error. Bulk payout from ID " + senderId + " rolled back.", e);
+                return failAll(payouts, "System error, nothing was paid");
+            } finally {
+                closeResources(null, null, null, conn);
             }
-            return false;
-        } finally {
-            closeResources(withdrawStmt, depositStmt, logStmt, conn);
         }
     }
 
+    /**
+     * Runs one attempt of a bulk payout inside the caller's open transaction.
+     */
+    private List<PayoutResult> executeBulkTransfer(Connection conn, int senderId, List<Payout> payouts) throws SQLException {
+        String withdrawSQL = "UPDATE wallets SET balance = balance - ? WHERE user_id = ? AND balance >= ?";
+        String depositSQL = "UPDATE wallets SET balance = balance + ? WHERE user_id = ?";
+        String logSQL = "INSERT INTO transactions (sender_id, receiver_id, amount, transaction_type, status) VALUES (?, ?, ?, ?, ?)";
+
+        // 1. Lock every wallet involved, lowest user_id first
+        TreeSet<Integer> ids = new TreeSet<>();
+        ids.add(senderId);
+        for (Payout p : payouts) ids.add(p.getReceiverId());
+        Map<Integer, BigDecimal> balances = lockWallets(conn, ids);
+
+        if (!balances.containsKey(senderId)) {
+            logger.warn("⚠️ Bulk Payout Failed: Wallet not found for sender ID " + senderId);
+            return failAll(payouts, "Sender wallet not found");
+        }
+
+        // 2. Reject lines without a receiver wallet, total the rest
+        List<PayoutResult> results = new ArrayList<>(payouts.size());
+        BigDecimal total = BigDecimal.ZERO;
+        for (int i = 0; i < payouts.size(); i++) {
+            Payout p = payouts.get(i);
+            if (p.getAmount() == null || p.getAmount().signum() <= 0) {
+                results.add(new PayoutResult(i + 1, p.getReceiverId(), p.getAmount(), TransactionStatus.FAILED, "Amount must be greater than 0"));
+            } else if (balances.containsKey(p.getReceiverId())) {
+                results.add(new PayoutResult(i + 1, p.getReceiverId(), p.getAmount(), TransactionStatus.SUCCESS, null));
+                total = total.add(p.getAmount());
+            } else {
+                results.add(new PayoutResult(i + 1, p.getReceiverId(), p.getAmount(), TransactionStatus.FAILED, "Invalid receiver"));
+            }
+        }
+        if (total.signum() == 0) {
+            return results;
+        }
+
+        // 3. Debit the sender once for the whole payout
+        if (balances.get(senderId).compareTo(total) < 0) {
+            logger.warn("⚠️ Bulk Payout Failed: Insufficient funds for User ID " + senderId + " (needs $" + total + ")");
+            return failPaid(results, "Insufficient funds for payout total $" + total);
+        }
+        try (PreparedStatement withdrawStmt = conn.prepareStatement(withdrawSQL)) {
+            withdrawStmt.setBigDecimal(1, total);
+            withdrawStmt.setInt(2, senderId);
+            withdrawStmt.setBigDecimal(3, total);
+            if (withdrawStmt.executeUpdate() == 0) {
+                return failPaid(results, "Insufficient funds for payout total $" + total);
+            }
+        }
+
+        // 4. Credit receivers and write ledger rows in batches
+        try (PreparedStatement depositStmt = conn.prepareStatement(depositSQL);
+             PreparedStatement logStmt = conn.prepareStatement(logSQL)) {
+            for (PayoutResult r : results) {
+                if (!r.isSuccess()) continue;
+
+                depositStmt.setBigDecimal(1, r.getAmount());
+                depositStmt.setInt(2, r.getReceiverId());
+                depositStmt.addBatch();
+
+                logStmt.setInt(1, senderId);
+                logStmt.setInt(2, r.getReceiverId());
+                logStmt.setBigDecimal(3, r.getAmount());
+                logStmt.setString(4, TransactionType.TRANSFER.name());
+                logStmt.setString(5, TransactionStatus.SUCCESS.name());
+                logStmt.addBatch();
+            }
+            depositStmt.executeBatch();
+            logStmt.executeBatch();
+        }
+        return results;
+    }
+
+    /**
+     * Locks the given wallets with {@code SELECT ... FOR UPDATE} in ascending ID order.
+     *
+     * @return The locked balances by User ID (missing wallets are absent).
+     */
+    private Map<Integer, BigDecimal> lockWallets(Connection conn, TreeSet<Integer> sortedIds) throws SQLException {
+        Map<Integer, BigDecimal> balances = new HashMap<>();
+        List<Integer> ids = new ArrayList<>(sortedIds);
+        for (int from = 0; from < ids.size(); from += LOCK_CHUNK_SIZE) {
+            List<Integer> chunk = ids.subList(from, Math.min(from + LOCK_CHUNK_SIZE, ids.size()));
+            String sql = "SELECT user_id, balance FROM wallets WHERE user_id IN ("
+                    + String.join(", ", Collections.nCopies(chunk.size(), "?")) + ") ORDER BY user_id FOR UPDATE";
+            try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+                for (int i = 0; i < chunk.size(); i++) {
+                    stmt.setInt(i + 1, chunk.get(i));
+                }
+                try (ResultSet rs = stmt.executeQuery()) {
+                    while (rs.next()) {
+                        balances.put(rs.getInt("user_id"), rs.getBigDecimal("balance"));
+                    }
+                }
+            }
+        }
+        return balances;
+    }
+
+    // Helper: mark every line failed with the same reason
+    private List<PayoutResult> failAll(List<Payout> payouts, String reason) {
+        List<PayoutResult> results = new ArrayList<>(payouts.size());
+        for (int i = 0; i < payouts.size(); i++) {
+            Payout p = payouts.get(i);
+            results.add(new PayoutResult(i + 1, p.getReceiverId(), p.getAmount(), TransactionStatus.FAILED, reason));
+        }
+        return results;
+    }
+
+    // Helper: flip the lines that would have been paid to failed
+    private List<PayoutResult> failPaid(List<PayoutResult> results, String reason) {
+        for (PayoutResult r : results) {
+            if (r.isSuccess()) {
+                r.setStatus(TransactionStatus.FAILED);
+                r.setMessage(reason);
+            }
+        }
+        return results;
+    }
+
     /**
      * Retrieves the transaction history for a specific user.
      *
      * @param userId The User ID to fetch history for.
      * @return A {@link List} of {@link Transaction} objects ordered by date (newest first).
      */
+    @Override
     public List<Transaction> getTransactionHistory(int userId) {
         List<Transaction> history = new ArrayList<>();
-        String sql = "SELECT * FROM transactions WHERE sender_id = ? OR receiver_id = ? ORDER BY timestamp DESC";
+        String sql = historySql(false, false);
 
-        try (Connection conn = DatabaseConnection.getConnection();
+        try (Connection conn = DatabaseConnection.getReadConnection(userId);
              PreparedStatement stmt = conn.prepareStatement(sql)) {
 
-            stmt.setInt(1, userId);
-            stmt.setInt(2, userId);
+            bindHistory(stmt, userId, null, 0);
 
             ResultSet rs = stmt.executeQuery();
 
             while (rs.next()) {
-                Transaction t = new Transaction();
-                t.setTransactionId(rs.getInt("transaction_id"));
-                t.setSenderId(rs.getInt("sender_id"));
-                t.setReceiverId(rs.getInt("receiver_id"));
-                t.setAmount(rs.getBigDecimal("amount"));
-                t.setType(TransactionType.valueOf(rs.getString("transaction_type")));
-                t.setStatus(TransactionStatus.valueOf(rs.getString("status")));
-                t.setTimestamp(rs.getTimestamp("timestamp"));
-
-                history.add(t);
+                history.add(mapTransaction(rs));
             }
         } catch (SQLException e) {
             logger.error("❌ Error fetching transaction history for User ID " + userId, e);
@@ -158,6 +568,177 @@ public class TransactionDAO {
         return history;
     }
 
+    /**
+     * Retrieves one page of a user's transaction history using keyset pagination.
+     * <p>
+     * Rows are ordered by {@code (timestamp, transaction_id)} descending. The next page is
+     * selected with a seek predicate on that pair ("older than the cursor") rather than
+     * {@code OFFSET}, so page 1,000 costs the same as page 1. One extra row is fetched to
+     * tell whether another page follows.
+     * </p>
+     *
+     * @param userId   The User ID to fetch history for.
+     * @param pageSize The maximum number of transactions to return.
+     * @param cursor   The cursor from the previous page, or {@code null} for the newest page.
+     * @return The page (empty on error).
+     */
+    @Override
+    public TransactionPage getTransactionHistoryPage(int userId, int pageSize, HistoryCursor cursor) {
+        String sql = historySql(cursor != null, true);
+        List<Transaction> page = new ArrayList<>(pageSize + 1);
+
+        try (Connection conn = DatabaseConnection.getReadConnection(userId);
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+
+            bindHistory(stmt, userId, cursor, pageSize + 1);
+
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    page.add(mapTransaction(rs));
+                }
+            }
+        } catch (SQLException e) {
+            logger.error("❌ Error fetching transaction history page for User ID " + userId, e);
+            return new TransactionPage(new ArrayList<>(), null);
+        }
+
+        // The extra row only signals that another page exists
+        HistoryCursor next = null;
+        if (page.size() > pageSize) {
+            page.remove(pageSize);
+            next = HistoryCursor.after(page.get(pageSize - 1));
+        }
+        return new TransactionPage(page, next);
+    }
+
+    /**
+     * Streams a user's entire transaction history (newest first) without loading it into memory.
+     * <p>
+     * The rows come from a forward-only, read-only {@link ResultSet}. On MySQL the fetch size is
+     * set to {@link Integer#MIN_VALUE}, which makes Connector/J stream rows from the server one at
+     * a time instead of buffering the whole result, so heap use stays flat however long the
+     * history is. The stream holds a pooled connection until it is closed, so always use it in a
+     * try-with-resources block:
+     * </p>
+     * <pre>
+     * try (Stream&lt;Transaction&gt; history = transactionDAO.streamTransactionHistory(userId)) {
+     *     history.forEach(exporter::write);
+     * }
+     * </pre>
+     *
+     * @param userId The User ID to fetch history for.
+     * @return A lazily populated stream (empty if the query could not be started).
+     * @throws IllegalStateException From the stream's terminal operation if reading fails midway.
+     */
+    @Override
+    public Stream<Transaction> streamTransactionHistory(int userId) {
+        String sql = historySql(false, false);
+
+        Connection conn = null;
+        PreparedStatement stmt = null;
+        ResultSet rs = null;
+        try {
+            conn = DatabaseConnection.getReadConnection(userId);
+            stmt = conn.prepareStatement(sql, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            // MIN_VALUE = row-by-row streaming in Connector/J; other drivers reject it, so give them a batch size
+            boolean mysql = "MySQL".equalsIgnoreCase(conn.getMetaData().getDatabaseProductName());
+            stmt.setFetchSize(mysql ? Integer.MIN_VALUE : STREAM_FETCH_SIZE);
+            bindHistory(stmt, userId, null, 0);
+            rs = stmt.executeQuery();
+        } catch (SQLException e) {
+            logger.error("❌ Error streaming transaction history for User ID " + userId, e);
+            closeStream(rs, stmt, conn);
+            return Stream.empty();
+        }
+
+        ResultSet cursor = rs;
+        Spliterator<Transaction> rows = new Spliterators.AbstractSpliterator<Transaction>(
+                Long.MAX_VALUE, Spliterator.ORDERED | Spliterator.NONNULL) {
+            @Override
+            public boolean tryAdvance(Consumer<? super Transaction> action) {
+                try {
+                    if (!cursor.next()) {
+                        return false;
+                    }
+                    action.accept(mapTransaction(cursor));
+                    return true;
+                } catch (SQLException e) {
+                    logger.error("❌ Error reading streamed history for User ID " + userId, e);
+                    throw new IllegalStateException("Transaction history stream failed", e);
+                }
+            }
+        };
+        PreparedStatement openStmt = stmt;
+        Connection openConn = conn;
+        return StreamSupport.stream(rows, false).onClose(() -> closeStream(cursor, openStmt, openConn));
+    }
+
+    // Releases a history stream's cursor and returns its connection to the pool
+    private void closeStream(ResultSet rs, PreparedStatement stmt, Connection conn) {
+        try {
+            if (rs != null) rs.close();
+        } catch (SQLException e) {
+            logger.error("Error closing history cursor", e);
+        }
+        closeResources(stmt, null, null, conn);
+    }
+
+    /**
+     * Builds the history query as a {@code UNION ALL} of two index range scans.
+     * <p>
+     * {@code WHERE sender_id = ? OR receiver_id = ? ORDER BY timestamp} cannot be served by one
+     * index, so MySQL falls back to a scan or an index merge followed by a filesort. Instead,
+     * the first branch reads the user's sent rows from {@code (sender_id, timestamp)} and the
+     * second reads received rows from {@code (receiver_id, timestamp)}. Deposits have the user on
+     * both sides, so the second branch skips {@code sender_id = user} to avoid listing them twice.
+     * With a limit, each branch is cut to the page size before the merge, so only
+     * {@code 2 * limit} rows are sorted however long the history is.
+     * </p>
+     *
+     * @param seek  Whether to add the keyset predicate ("older than the cursor").
+     * @param limit Whether to limit each branch and the result.
+     * @return The SQL; bind it with {@link #bindHistory}.
+     */
+    static String historySql(boolean seek, boolean limit) {
+        String seekSQL = seek ? " AND (timestamp < ? OR (timestamp = ? AND transaction_id < ?))" : "";
+        String order = " ORDER BY timestamp DESC, transaction_id DESC";
+        String sent = "SELECT * FROM transactions WHERE sender_id = ?" + seekSQL;
+        String received = "SELECT * FROM transactions WHERE receiver_id = ? AND sender_id <> ?" + seekSQL;
+        if (!limit) {
+            return sent + " UNION ALL " + received + order;
+        }
+        return "(" + sent + order + " LIMIT ?) UNION ALL (" + received + order + " LIMIT ?)" + order + " LIMIT ?";
+    }
+
+    // Binds the parameters of historySql in order (limit <= 0 means the query has no LIMIT)
+    private static void bindHistory(PreparedStatement stmt, int userId, HistoryCursor cursor, int limit) throws SQLException {
+        int i = 1;
+        for (int branch = 0; branch < 2; branch++) {
+            stmt.setInt(i++, userId);
+            if (branch == 1) stmt.setInt(i++, userId);
+            if (cursor != null) {
+                stmt.setTimestamp(i++, cursor.getTimestamp());
+                stmt.setTimestamp(i++, cursor.getTimestamp());
+                stmt.setInt(i++, cursor.getTransactionId());
+            }
+            if (limit > 0) stmt.setInt(i++, limit);
+        }
+        if (limit > 0) stmt.setInt(i, limit);
+    }
+
+    // Maps the current row of a transactions query
+    private Transaction mapTransaction(ResultSet rs) throws SQLException {
+        Transaction t = new Transaction();
+        t.setTransactionId(rs.getInt("transaction_id"));
+        t.setSenderId(rs.getInt("sender_id"));
+        t.setReceiverId(rs.getInt("receiver_id"));
+        t.setAmount(rs.getBigDecimal("amount"));
+        t.setType(TransactionType.valueOf(rs.getString("transaction_type")));
+        t.setStatus(TransactionStatus.valueOf(rs.getString("status")));
+        t.setTimestamp(rs.getTimestamp("timestamp"));
+        return t;
+    }
+
     /**
      * Deposits money into a user's wallet.
      *
@@ -165,48 +746,168 @@ public class TransactionDAO {
      * @param amount The amount to add.
      * @return {@code true} if successful, {@code false} otherwise.
      */
+    @Override
     public boolean depositMoney(int userId, BigDecimal amount) {
-        Connection conn = null;
-        PreparedStatement depositStmt = null;
-        PreparedStatement logStmt = null;
+        return depositMoney(userId, amount, null);
+    }
 
+    /**
+     * Deposits money, at most once per idempotency key (see {@link #transferMoney(int, int, BigDecimal, String)}).
+     *
+     * @param userId         The User ID to deposit into.
+     * @param amount         The amount to add.
+     * @param idempotencyKey The client's request identity, or {@code null} for none.
+     * @return {@code true} if the deposit is (or already was) successful, {@code false} otherwise.
+     */
+    @Override
+    public boolean depositMoney(int userId, BigDecimal amount, String idempotencyKey) {
         String depositSQL = "UPDATE wallets SET balance = balance + ? WHERE user_id = ?";
-        String logSQL = "INSERT INTO transactions (sender_id, receiver_id, amount, transaction_type, status) VALUES (?, ?, ?, ?, ?)";
 
-        try {
-            conn = DatabaseConnection.getConnection();
-            conn.setAutoCommit(false); // Start Transaction
+        for (int attempt = 1; ; attempt++) {
+            Connection conn = null;
+            PreparedStatement depositStmt = null;
+            try {
+                conn = DatabaseConnection.getConnection();
+                conn.setAutoCommit(false); // Start Transaction
 
-            // 1. Add Money to Wallet
-            depositStmt = conn.prepareStatement(depositSQL);
-            depositStmt.setBigDecimal(1, amount);
-            depositStmt.setInt(2, userId);
-            int rows = depositStmt.executeUpdate();
+                Boolean earlier = priorUse(conn, userId, userId, amount, idempotencyKey);
+                if (earlier != null) {
+                    conn.rollback();
+                    return earlier;
+                }
+
+                // 1. Add Money to Wallet
+                depositStmt = conn.prepareStatement(depositSQL);
+                depositStmt.setBigDecimal(1, amount);
+                depositStmt.setInt(2, userId);
+                int rows = depositStmt.executeUpdate();
+
+                if (rows == 0) {
+                    logger.warn("Deposit Failed: Wallet not found for User ID " + userId);
+                    throw new SQLException("Wallet not found.");
+                }
+
+                // 2. Log it (Sender is self, Receiver is self for Deposit)
+                logTransaction(conn, userId, userId, amount, TransactionType.DEPOSIT, idempotencyKey);
 
-            if (rows == 0) {
-                logger.warn("Deposit Failed: Wallet not found for User ID " + userId);
-                throw new SQLException("Wallet not found.");
+                conn.commit(); // Save changes
+                wrote(userId);
+                logger.info("✅ Deposit Successful: $" + amount + " for User ID " + userId);
+                return true;
+
+            } catch (SQLException e) {
+                rollbackQuietly(conn);
+                if (idempotencyKey != null && isDuplicateKey(e)) {
+                    logger.info("🔁 Concurrent duplicate deposit (idempotency key " + idempotencyKey + ")");
+                    return Boolean.TRUE.equals(checkIdempotencyKey(userId, userId, amount, idempotencyKey));
+                }
+                if (TransactionRetry.isRetryable(e) && attempt < TransactionRetry.MAX_ATTEMPTS) {
+                    logger.warn("⚠️ Deposit for User ID " + userId + " hit a lock conflict (attempt " + attempt + "), retrying...");
+                    if (TransactionRetry.backoff(attempt)) {
+                        continue;
+                    }
+                }
+                logger.error("❌ Deposit Error for User ID " + userId, e);
+                return false;
+            } finally {
+                closeResources(depositStmt, null, null, conn);
             }
+        }
+    }
 
-            // 2. Log it (Sender is self, Receiver is self for Deposit)
-            logStmt = conn.prepareStatement(logSQL);
-            logStmt.setInt(1, userId);
-            logStmt.setInt(2, userId);
+    /**
+     * Inserts a successful ledger row inside the caller's transaction.
+     */
+    private void logTransaction(Connection conn, int senderId, int receiverId, BigDecimal amount, TransactionType type,
+                                String idempotencyKey) throws SQLException {
+        String logSQL = "INSERT INTO transactions (sender_id, receiver_id, amount, transaction_type, status, idempotency_key) VALUES (?, ?, ?, ?, ?, ?)";
+        try (PreparedStatement logStmt = conn.prepareStatement(logSQL)) {
+            logStmt.setInt(1, senderId);
+            logStmt.setInt(2, receiverId);
             logStmt.setBigDecimal(3, amount);
-            logStmt.setString(4, TransactionType.DEPOSIT.name());
+            logStmt.setString(4, type.name());
             logStmt.setString(5, TransactionStatus.SUCCESS.name());
+            logStmt.setString(6, idempotencyKey); // NULLs never collide in the unique index
             logStmt.executeUpdate();
+        }
+    }
 
-            conn.commit(); // Save changes
-            logger.info("✅ Deposit Successful: $" + amount + " for User ID " + userId);
-            return true;
-
+    /**
+     * Looks up a movement a sender already made with an idempotency key.
+     * <p>
+     * Keys are scoped to the sender. A stored row counts as the same request only if its
+     * receiver and amount match too; a key reused for a different payment is refused.
+     * </p>
+     *
+     * @param senderId       The User ID that sent (or deposited) the money.
+     * @param receiverId     The User ID the request credits.
+     * @param amount         The amount of the request.
+     * @param idempotencyKey The client's request identity.
+     * @return {@code null} if the sender never used the key; {@code true} if it was used for this
+     *         same movement; {@code false} if it was used for a different one or the lookup failed.
+     */
+    @Override
+    public Boolean checkIdempotencyKey(int senderId, int receiverId, BigDecimal amount, String idempotencyKey) {
+        try (Connection conn = DatabaseConnection.getConnection()) {
+            return priorUse(conn, senderId, receiverId, amount, idempotencyKey);
         } catch (SQLException e) {
-            if (conn != null) try { conn.rollback(); } catch (SQLException ex) { ex.printStackTrace(); }
-            logger.error("❌ Deposit Error for User ID " + userId, e);
+            logger.error("❌ Could not look up idempotency key " + idempotencyKey + " for User ID " + senderId, e);
             return false;
-        } finally {
-            closeResources(depositStmt, logStmt, null, conn);
+        }
+    }
+
+    // null: key unused by this sender; TRUE: same movement already committed; FALSE: key taken by another movement
+    private Boolean priorUse(Connection conn, int senderId, int receiverId, BigDecimal amount,
+                             String idempotencyKey) throws SQLException {
+        if (idempotencyKey == null) {
+            return null;
+        }
+        try (PreparedStatement stmt = conn.prepareStatement(FIND_BY_IDEMPOTENCY_KEY_SQL)) {
+            stmt.setInt(1, senderId);
+            stmt.setString(2, idempotencyKey);
+            try (ResultSet rs = stmt.executeQuery()) {
+                if (!rs.next()) {
+                    return null;
+                }
+                if (rs.getInt("receiver_id") == receiverId && rs.getBigDecimal("amount").compareTo(amount) == 0) {
+                    logger.info("🔁 Request already processed (idempotency key " + idempotencyKey + ")");
+                    return true;
+                }
+                logger.warn("⚠️ Idempotency key " + idempotencyKey + " of User ID " + senderId
+                        + " was already used for a different payment");
+                return false;
+            }
+        }
+    }
+
+    // A concurrent duplicate on the idempotency index only (MySQL error 1062, H2 error 23505); other
+    // constraint violations (foreign keys, NOT NULL) are real failures
+    private static boolean isDuplicateKey(SQLException e) {
+        for (SQLException ex = e; ex != null; ex = ex.getNextException()) {
+            boolean duplicate = ex.getErrorCode() == 1062 || ex.getErrorCode() == 23505;
+            if (duplicate && ex.getMessage() != null
+                    && ex.getMessage().toLowerCase().contains(IDEMPOTENCY_INDEX)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // After a commit: keep the user's reads on the primary for a moment, then drop the cached balance.
+    // Recording first means a read that misses the cache can no longer be routed to a lagging replica.
+    private void wrote(int userId) {
+        readYourWrites.record(userId);
+        balanceCache.invalidate(userId);
+    }
+
+    // Helper to roll back after a failure without masking the original error
+    private void rollbackQuietly(Connection conn) {
+        if (conn != null) {
+            try {
+                conn.rollback();
+            } catch (SQLException ex) {
+                logger.error("Critical: Rollback failed!", ex);
+            }
         }
     }
 
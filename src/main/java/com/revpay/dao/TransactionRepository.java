@@ -0,0 +1,133 @@
+package com.revpay.dao;
+
+import com.revpay.model.HistoryCursor;
+import com.revpay.model.Payout;
+import com.revpay.model.PayoutResult;
+import com.revpay.model.Transaction;
+import com.revpay.model.TransactionPage;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Money movements and the transaction ledger.
+ * <p>
+ * Every implementation guarantees that a movement either happens completely or not at all, a
+ * wallet never goes negative, concurrent payments of one invoice or request pay it exactly
+ * once, and an idempotency key is honoured at most once per sender. Only {@link TransactionDAO}
+ * makes a movement atomic to readers as well: in
+ * {@link com.revpay.dao.memory.InMemoryTransactionRepository} the money is briefly in neither
+ * wallet while a transfer runs.
+ * </p>
+ *
+ * @author RevPay Dev Team
+ * @version 1.0
+ */
+public interface TransactionRepository {
+
+    /**
+     * Transfers money from one user to another.
+     *
+     * @param senderId   The User ID sending the money.
+     * @param receiverId The User ID receiving the money.
+     * @param amount     The amount to transfer.
+     * @return {@code true} if the transfer succeeded, {@code false} otherwise (e.g., low balance).
+     */
+    boolean transferMoney(int senderId, int receiverId, BigDecimal amount);
+
+    /**
+     * Transfers money, at most once per idempotency key.
+     *
+     * @param senderId       The User ID sending the money.
+     * @param receiverId     The User ID receiving the money.
+     * @param amount         The amount to transfer.
+     * @param idempotencyKey The client's request identity, or {@code null} for none.
+     * @return {@code true} if the transfer is (or already was) successful.
+     */
+    boolean transferMoney(int senderId, int receiverId, BigDecimal amount, String idempotencyKey);
+
+    /**
+     * Pays a pending invoice from its customer's wallet to the issuing business.
+     *
+     * @param invoiceId The invoice to pay.
+     * @param payerId   The User ID paying (must be the invoice's customer).
+     * @return {@code true} if this call paid the invoice.
+     */
+    boolean payInvoice(int invoiceId, int payerId);
+
+    /**
+     * Accepts a pending money request and pays the requester.
+     *
+     * @param requestId The request to accept.
+     * @param payerId   The User ID accepting (must be the request's payer).
+     * @return {@code true} if this call accepted and paid the request.
+     */
+    boolean acceptRequest(int requestId, int payerId);
+
+    /**
+     * Pays many receivers from one sender, debiting the sender once for the total.
+     *
+     * @param senderId The User ID paying out.
+     * @param payouts  The validated payout lines, each with a resolved receiver ID.
+     * @return One {@link PayoutResult} per line, in input order.
+     */
+    List<PayoutResult> bulkTransfer(int senderId, List<Payout> payouts);
+
+    /**
+     * Retrieves a user's whole transaction history, newest first.
+     *
+     * @param userId The User ID to fetch history for.
+     * @return The transactions.
+     */
+    List<Transaction> getTransactionHistory(int userId);
+
+    /**
+     * Retrieves one page of a user's history, ordered by {@code (timestamp, transaction_id)} descending.
+     *
+     * @param userId   The User ID to fetch history for.
+     * @param pageSize The maximum number of transactions to return.
+     * @param cursor   The cursor from the previous page, or {@code null} for the newest page.
+     * @return The page.
+     */
+    TransactionPage getTransactionHistoryPage(int userId, int pageSize, HistoryCursor cursor);
+
+    /**
+     * Streams a user's whole history, newest first. The stream must be closed after use.
+     *
+     * @param userId The User ID to fetch history for.
+     * @return A stream of transactions.
+     */
+    Stream<Transaction> streamTransactionHistory(int userId);
+
+    /**
+     * Deposits money into a user's wallet.
+     *
+     * @param userId The User ID to deposit into.
+     * @param amount The amount to add.
+     * @return {@code true} if successful.
+     */
+    boolean depositMoney(int userId, BigDecimal amount);
+
+    /**
+     * Deposits money, at most once per idempotency key.
+     *
+     * @param userId         The User ID to deposit into.
+     * @param amount         The amount to add.
+     * @param idempotencyKey The client's request identity, or {@code null} for none.
+     * @return {@code true} if the deposit is (or already was) successful.
+     */
+    boolean depositMoney(int userId, BigDecimal amount, String idempotencyKey);
+
+    /**
+     * Looks up a movement a sender already made with an idempotency key (keys are scoped to the sender).
+     *
+     * @param senderId       The User ID that sent the money (the depositor for a deposit).
+     * @param receiverId     The User ID the request credits.
+     * @param amount         The amount of the request.
+     * @param idempotencyKey The client's request identity.
+     * @return {@code null} if the sender never used the key; {@code true} if it was used for this
+     *         same movement; {@code false} if it was used for a different one.
+     */
+    Boolean checkIdempotencyKey(int senderId, int receiverId, BigDecimal amount, String idempotencyKey);
+}
@@ -0,0 +1,82 @@
+package com.revpay.dao;
+
+import java.sql.SQLException;
+import java.sql.SQLTransactionRollbackException;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Retry policy for database transactions that lost a lock conflict.
+ * <p>
+ * InnoDB resolves a deadlock by rolling back one of the transactions (error 1213,
+ * SQLState 40001) and gives up on a row lock after {@code innodb_lock_wait_timeout}
+ * (error 1205). Both are transient: the same transaction usually succeeds when it is
+ * re-run a few milliseconds later. This helper classifies those errors and sleeps with
+ * exponential backoff plus random jitter so that competing retries do not collide again.
+ * </p>
+ *
+ * @author RevPay Dev Team
+ * @version 1.0
+ */
+final class TransactionRetry {
+
+    /** Total attempts (first try included) before a lock conflict is reported as a failure. */
+    static final int MAX_ATTEMPTS = 5;
+
+    private static final long BASE_BACKOFF_MILLIS = 5;
+    private static final long MAX_BACKOFF_MILLIS = 200;
+
+    // MySQL vendor error codes
+    private static final int ER_LOCK_WAIT_TIMEOUT = 1205;
+    private static final int ER_LOCK_DEADLOCK = 1213;
+
+    private TransactionRetry() {}
+
+    /**
+     * Checks whether an exception (or any exception chained to it) is a deadlock or lock-wait timeout.
+     *
+     * @param e The exception raised by the failed transaction.
+     * @return {@code true} if re-running the whole transaction may succeed.
+     */
+    static boolean isRetryable(SQLException e) {
+        for (Throwable t = e; t != null; t = t.getCause()) {
+            if (t instanceof SQLTransactionRollbackException) {
+                return true;
+            }
+            if (t instanceof SQLException) {
+                SQLException sql = (SQLException) t;
+                String state = sql.getSQLState();
+                // SQLState class 40 = transaction rollback (40001 = deadlock / serialization failure)
+                if (state != null && state.startsWith("40")) {
+                    return true;
+                }
+                if (sql.getErrorCode() == ER_LOCK_DEADLOCK || sql.getErrorCode() == ER_LOCK_WAIT_TIMEOUT) {
+                    return true;
+                }
+                SQLException next = sql.getNextException();
+                if (next != null && next != t && isRetryable(next)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Sleeps before the next attempt using exponential backoff with jitter.
+     *
+     * @param attempt The attempt that just failed (1-based).
+     * @return {@code false} if the thread was interrupted and the caller should stop retrying.
+     */
+    static boolean backoff(int attempt) {
+        long ceiling = Math.min(MAX_BACKOFF_MILLIS, BASE_BACKOFF_MILLIS << Math.min(attempt - 1, 10));
+        // "Equal jitter": half fixed, half random, so retries spread out but still back off
+        long sleep = ceiling / 2 + ThreadLocalRandom.current().nextLong(ceiling / 2 + 1);
+        try {
+            Thread.sleep(sleep);
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+}
@@ -1,6 +1,7 @@
 package com.revpay.dao;
 
 import com.revpay.config.DatabaseConnection;
+import com.revpay.config.ReadYourWrites;
 import com.revpay.model.User;
 import com.revpay.model.Role;
 import org.apache.logging.log4j.LogManager;
@@ -10,6 +11,16 @@ import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 /**
  * Data Access Object (DAO) for managing User entities.
@@ -21,11 +32,20 @@ import java.sql.SQLException;
  * @author RevPay Dev Team
  * @version 1.0
  */
-public class UserDAO {
+public class UserDAO implements UserRepository {
 
     // Initialize Log4j Logger
     private static final Logger logger = LogManager.getLogger(UserDAO.class);
 
+    // Hot queries, package-visible so QueryPlanTest EXPLAINs exactly what runs
+    static final String SELECT_BY_EMAIL_SQL =
+            "SELECT * FROM users WHERE email = ?";
+    static final String SELECT_ID_BY_EMAIL_SQL =
+            "SELECT user_id FROM users WHERE email = ?";
+
+    // Users (and wallets) per transaction in bulk registration
+    private static final int BULK_CHUNK_SIZE = 500;
+
     /**
      * Registers a new user in the database.
      *
@@ -35,29 +55,27 @@ public class UserDAO {
     /**
      * Registers a new user in the database.
      */
+    @Override
     public boolean registerUser(User user) {
         String sql = "INSERT INTO users (email, phone_number, password_hash, transaction_pin, full_name, role) VALUES (?, ?, ?, ?, ?, ?)";
 
         try (Connection conn = DatabaseConnection.getConnection();
              PreparedStatement stmt = conn.prepareStatement(sql)) {
 
-            stmt.setString(1, user.getEmail());
-            stmt.setString(2, user.getPhoneNumber());
-            stmt.setString(3, user.getPasswordHash());
-            stmt.setString(4, user.getTransactionPin());
-            stmt.setString(5, user.getFullName());
-            stmt.setString(6, user.getRole().name());
+            bindUser(stmt, user);
 
             int rowsInserted = stmt.executeUpdate();
 
             if (rowsInserted > 0) {
+                // Forget a cached "not found" for this email
+                UserIdCache.getInstance().invalidate(user.getEmail());
                 logger.info("✅ New User Registered: " + user.getEmail());
                 return true;
             }
 
         } catch (SQLException e) {
-            // 🔍 CHECK: Is this a "Duplicate Entry" error? (SQLState 23000 is for integrity violations)
-            if ("23000".equals(e.getSQLState())) {
+            // 🔍 CHECK: Is this a "Duplicate Entry" error? (SQLState class 23 is for integrity violations)
+            if (isDuplicate(e)) {
                 // Log a clean warning WITHOUT the stack trace
                 logger.warn("⚠️ Registration attempt failed: Email '" + user.getEmail() + "' already exists.");
             } else {
@@ -68,6 +86,181 @@ public class UserDAO {
         return false;
     }
 
+    /**
+     * Registers a new user and opens their empty wallet in a single transaction.
+     * <p>
+     * The new ID comes back from the {@code INSERT} itself ({@code getGeneratedKeys}), so
+     * registration costs one connection and no follow-up lookup, and a failure can never
+     * leave a user without a wallet.
+     * </p>
+     *
+     * @param user The {@link User} object containing registration details (password already hashed).
+     *             Its ID is set on success.
+     * @return The new User ID, or -1 if registration failed (e.g., the email already exists).
+     */
+    @Override
+    public int registerUserWithWallet(User user) {
+        String userSql = "INSERT INTO users (email, phone_number, password_hash, transaction_pin, full_name, role) VALUES (?, ?, ?, ?, ?, ?)";
+        String walletSql = "INSERT INTO wallets (user_id, balance) VALUES (?, 0.00)";
+        Connection conn = null;
+
+        try {
+            conn = DatabaseConnection.getConnection();
+            conn.setAutoCommit(false); // Start Transaction
+
+            int userId;
+            try (PreparedStatement stmt = conn.prepareStatement(userSql, Statement.RETURN_GENERATED_KEYS)) {
+                bindUser(stmt, user);
+                stmt.executeUpdate();
+                try (ResultSet keys = stmt.getGeneratedKeys()) {
+                    if (!keys.next()) throw new SQLException("No generated key returned for new user");
+                    userId = keys.getInt(1);
+                }
+            }
+            try (PreparedStatement stmt = conn.prepareStatement(walletSql)) {
+                stmt.setInt(1, userId);
+                stmt.executeUpdate();
+            }
+
+            conn.commit();
+            UserIdCache.getInstance().invalidate(user.getEmail());
+            ReadYourWrites.getInstance().record(userId);
+            user.setUserId(userId);
+            logger.info("✅ New User Registered with Wallet: " + user.getEmail());
+            return userId;
+
+        } catch (SQLException e) {
+            rollback(conn);
+            if (isDuplicate(e)) {
+                logger.warn("⚠️ Registration attempt failed: Email '" + user.getEmail() + "' already exists.");
+            } else {
+                logger.error("❌ Unexpected DB Error for " + user.getEmail(), e);
+            }
+            return -1;
+        } finally {
+            close(conn);
+        }
+    }
+
+    /**
+     * Registers many users with their wallets for onboarding imports.
+     * <p>
+     * Emails that already have an account, or that repeat earlier in the list, are skipped.
+     * The rest are inserted with batched statements, {@value #BULK_CHUNK_SIZE} users (and their
+     * wallets) per transaction. If a chunk fails (e.g., an email was registered concurrently),
+     * only that chunk is rolled back.
+     * </p>
+     *
+     * @param users The users to register (passwords already hashed).
+     * @return The new User ID for each user, in the same order; -1 for skipped or failed users.
+     */
+    @Override
+    public int[] registerUsersWithWallets(List<User> users) {
+        int[] ids = new int[users.size()];
+        Arrays.fill(ids, -1);
+
+        // 1. Skip emails that are taken or duplicated within the import
+        List<String> emails = new ArrayList<>();
+        for (User u : users) emails.add(u.getEmail());
+        Set<String> seen = new HashSet<>();
+        for (String existing : getUserIdsByEmails(emails).keySet()) {
+            seen.add(UserIdCache.normalize(existing));
+        }
+        List<Integer> pending = new ArrayList<>();
+        for (int i = 0; i < users.size(); i++) {
+            if (seen.add(UserIdCache.normalize(users.get(i).getEmail()))) {
+                pending.add(i);
+            } else {
+                logger.warn("⚠️ Bulk registration skipped existing email: " + users.get(i).getEmail());
+            }
+        }
+
+        // 2. Insert the rest chunk by chunk
+        for (int from = 0; from < pending.size(); from += BULK_CHUNK_SIZE) {
+            List<Integer> chunk = pending.subList(from, Math.min(from + BULK_CHUNK_SIZE, pending.size()));
+            insertChunk(users, chunk, ids);
+        }
+        logger.info("✅ Bulk Registration: " + Arrays.stream(ids).filter(id -> id > 0).count() + "/" + users.size() + " users created");
+        return ids;
+    }
+
+    private void insertChunk(List<User> users, List<Integer> chunk, int[] ids) {
+        String userSql = "INSERT INTO users (email, phone_number, password_hash, transaction_pin, full_name, role) VALUES (?, ?, ?, ?, ?, ?)";
+        String walletSql = "INSERT INTO wallets (user_id, balance) VALUES (?, 0.00)";
+        Connection conn = null;
+
+        try {
+            conn = DatabaseConnection.getConnection();
+            conn.setAutoCommit(false); // Start Transaction
+
+            int[] newIds = new int[chunk.size()];
+            try (PreparedStatement stmt = conn.prepareStatement(userSql, Statement.RETURN_GENERATED_KEYS)) {
+                for (int index : chunk) {
+                    bindUser(stmt, users.get(index));
+                    stmt.addBatch();
+                }
+                stmt.executeBatch();
+                try (ResultSet keys = stmt.getGeneratedKeys()) {
+                    for (int i = 0; i < newIds.length; i++) {
+                        if (!keys.next()) throw new SQLException("Missing generated key for bulk user " + (i + 1));
+                        newIds[i] = keys.getInt(1);
+                    }
+                }
+            }
+            try (PreparedStatement stmt = conn.prepareStatement(walletSql)) {
+                for (int id : newIds) {
+                    stmt.setInt(1, id);
+                    stmt.addBatch();
+                }
+                stmt.executeBatch();
+            }
+
+            conn.commit();
+            for (int i = 0; i < newIds.length; i++) {
+                User user = users.get(chunk.get(i));
+                user.setUserId(newIds[i]);
+                ids[chunk.get(i)] = newIds[i];
+                UserIdCache.getInstance().invalidate(user.getEmail());
+                ReadYourWrites.getInstance().record(newIds[i]);
+            }
+
+        } catch (SQLException e) {
+            rollback(conn);
+            logger.error("❌ Bulk registration chunk of " + chunk.size() + " users failed. Rolled back.", e);
+        } finally {
+            close(conn);
+        }
+    }
+
+    private static void bindUser(PreparedStatement stmt, User user) throws SQLException {
+        stmt.setString(1, user.getEmail());
+        stmt.setString(2, user.getPhoneNumber());
+        stmt.setString(3, user.getPasswordHash());
+        stmt.setString(4, user.getTransactionPin());
+        stmt.setString(5, user.getFullName());
+        stmt.setString(6, user.getRole().name());
+    }
+
+    // SQLState class 23 = integrity constraint violation (MySQL reports 23000 for duplicate keys)
+    private static boolean isDuplicate(SQLException e) {
+        return e.getSQLState() != null && e.getSQLState().startsWith("23");
+    }
+
+    private void rollback(Connection conn) {
+        if (conn != null) {
+            try { conn.rollback(); } catch (SQLException ex) { logger.error("Rollback failed", ex); }
+        }
+    }
+
+    private void close(Connection conn) {
+        if (conn != null) {
+            try {
+                conn.setAutoCommit(true);
+                conn.close();
+            } catch (SQLException e) { logger.error("Error closing connection", e); }
+        }
+    }
+
     /**
      * Retrieves a user by their email address.
      * <p>
@@ -77,8 +270,9 @@ public class UserDAO {
      * @param email The email address to search for.
      * @return The {@link User} object if found, or {@code null} if not found.
      */
+    @Override
     public User getUserByEmail(String email) {
-        String sql = "SELECT * FROM users WHERE email = ?";
+        String sql = SELECT_BY_EMAIL_SQL;
 
         try (Connection conn = DatabaseConnection.getConnection();
              PreparedStatement stmt = conn.prepareStatement(sql)) {
@@ -109,6 +303,101 @@ public class UserDAO {
         return null;
     }
 
+    /**
+     * Resolves an email address to a User ID without loading the rest of the row.
+     * <p>
+     * Served from {@link UserIdCache} when possible; on a miss only {@code user_id} is
+     * selected, so the password hash and PIN never leave the database for a lookup.
+     * </p>
+     *
+     * @param email The email address to search for.
+     * @return The User ID, or -1 if no user has this email (or the query failed).
+     */
+    @Override
+    public int getUserIdByEmail(String email) {
+        try {
+            return UserIdCache.getInstance().get(email, this::queryUserId);
+        } catch (SQLException e) {
+            logger.error("❌ Error looking up user ID for email: " + email, e);
+        }
+        return UserIdCache.NOT_FOUND;
+    }
+
+    private int queryUserId(String email) throws SQLException {
+        String sql = SELECT_ID_BY_EMAIL_SQL;
+
+        try (Connection conn = DatabaseConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+
+            stmt.setString(1, email);
+            try (ResultSet rs = stmt.executeQuery()) {
+                return rs.next() ? rs.getInt("user_id") : UserIdCache.NOT_FOUND;
+            }
+        }
+    }
+
+    /**
+     * Replaces a user's stored password hash (e.g., after upgrading its BCrypt cost at login).
+     *
+     * @param userId       The unique User ID.
+     * @param passwordHash The new BCrypt hash.
+     * @return {@code true} if the hash was updated.
+     */
+    @Override
+    public boolean updatePasswordHash(int userId, String passwordHash) {
+        String sql = "UPDATE users SET password_hash = ? WHERE user_id = ?";
+
+        try (Connection conn = DatabaseConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+
+            stmt.setString(1, passwordHash);
+            stmt.setInt(2, userId);
+            return stmt.executeUpdate() > 0;
+
+        } catch (SQLException e) {
+            logger.error("❌ Error updating password hash for user " + userId, e);
+        }
+        return false;
+    }
+
+    /**
+     * Resolves many email addresses to User IDs with a few {@code IN (...)} queries.
+     * <p>
+     * Used by bulk operations (e.g., payouts) so that thousands of receivers cost a handful
+     * of round trips instead of one lookup each.
+     * </p>
+     *
+     * @param emails The email addresses to look up.
+     * @return A map of email to User ID; emails without an account are absent.
+     */
+    @Override
+    public Map<String, Integer> getUserIdsByEmails(Collection<String> emails) {
+        Map<String, Integer> ids = new HashMap<>();
+        List<String> list = new ArrayList<>(emails);
+        int chunkSize = 500;
+
+        for (int from = 0; from < list.size(); from += chunkSize) {
+            List<String> chunk = list.subList(from, Math.min(from + chunkSize, list.size()));
+            String sql = "SELECT user_id, email FROM users WHERE email IN ("
+                    + String.join(", ", Collections.nCopies(chunk.size(), "?")) + ")";
+
+            try (Connection conn = DatabaseConnection.getConnection();
+                 PreparedStatement stmt = conn.prepareStatement(sql)) {
+
+                for (int i = 0; i < chunk.size(); i++) {
+                    stmt.setString(i + 1, chunk.get(i));
+                }
+                ResultSet rs = stmt.executeQuery();
+                while (rs.next()) {
+                    ids.put(rs.getString("email"), rs.getInt("user_id"));
+                }
+            } catch (SQLException e) {
+                logger.error("❌ Error resolving " + chunk.size() + " emails to user IDs", e);
+            }
+        }
+        return ids;
+    }
+
     /**
      * Deletes a user and ALL associated data (Cascade Delete).
      * <p>
@@ -120,6 +409,7 @@ public class UserDAO {
      * @param userId The unique ID of the user to delete.
      * @return {@code true} if deletion was successful, {@code false} if rolled back.
      */
+    @Override
     public boolean deleteUser(int userId) {
         logger.warn("⚠️ Attempting to delete User ID: " + userId);
 
@@ -151,6 +441,8 @@ public class UserDAO {
             }
 
             conn.commit();
+            BalanceCache.getInstance().invalidate(userId);
+            UserIdCache.getInstance().invalidateUser(userId);
             logger.info("✅ User ID " + userId + " Deleted Successfully.");
             return true;
 
@@ -0,0 +1,209 @@
+package com.revpay.dao;
+
+import java.sql.SQLException;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Bounded LRU cache of email address to User ID, shared by every {@link UserDAO}.
+ * <p>
+ * Every email-addressed transfer, payment request and invoice resolves the counterparty's
+ * email first, and the same few addresses come up again and again. Keys are normalized
+ * (trimmed, lower-case) to match MySQL's case-insensitive collation. Unknown emails are
+ * cached too, but only for {@code revpay.cache.userId.negativeTtlMillis} (default 5s) so
+ * a typo cannot hammer the database while a new registration still shows up quickly.
+ * </p>
+ * <p>
+ * {@link UserDAO#registerUser} and {@link UserDAO#deleteUser} invalidate after they commit.
+ * Size it with {@code -Drevpay.cache.userId.size} (0 disables caching).
+ * </p>
+ *
+ * @author RevPay Dev Team
+ * @version 1.0
+ */
+public final class UserIdCache {
+
+    /**
+     * Looks up a User ID in the database on a cache miss.
+     */
+    @FunctionalInterface
+    public interface Loader {
+        /**
+         * Reads the User ID for a normalized email.
+         *
+         * @param email The normalized email address.
+         * @return The User ID, or -1 if no user has this email.
+         * @throws SQLException If the query fails (not cached).
+         */
+        int load(String email) throws SQLException;
+    }
+
+    /** Returned for emails that belong to no user. */
+    public static final int NOT_FOUND = -1;
+
+    private static final UserIdCache INSTANCE = new UserIdCache(
+            Integer.getInteger("revpay.cache.userId.size", 10_000),
+            Long.getLong("revpay.cache.userId.negativeTtlMillis", 5_000L));
+
+    private final int maxEntries;
+    private final long negativeTtlNanos;
+    private final Map<String, Entry> entries;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    // Bumped by every invalidation (guarded by entries) so a racing load is not cached
+    private long invalidations;
+
+    /**
+     * Creates a cache holding at most {@code maxEntries} emails.
+     *
+     * @param maxEntries        The capacity (0 disables caching).
+     * @param negativeTtlMillis How long an unknown email is remembered.
+     */
+    public UserIdCache(int maxEntries, long negativeTtlMillis) {
+        this.maxEntries = maxEntries;
+        this.negativeTtlNanos = negativeTtlMillis * 1_000_000L;
+        this.entries = new LinkedHashMap<String, Entry>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+                return size() > UserIdCache.this.maxEntries;
+            }
+        };
+    }
+
+    /**
+     * Gets the cache used by the DAOs.
+     * @return The shared instance.
+     */
+    public static UserIdCache getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Normalizes an email address the way the cache keys it.
+     *
+     * @param email The email as typed.
+     * @return The trimmed, lower-case email, or {@code null} for {@code null}.
+     */
+    public static String normalize(String email) {
+        return email == null ? null : email.trim().toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Returns the cached User ID, loading it if absent or if a negative entry expired.
+     *
+     * @param email  The email address (normalized here).
+     * @param loader The database query to run on a miss.
+     * @return The User ID, or {@link #NOT_FOUND}.
+     * @throws SQLException If the load failed.
+     */
+    public int get(String email, Loader loader) throws SQLException {
+        String key = normalize(email);
+        if (key == null || key.isEmpty()) {
+            return NOT_FOUND;
+        }
+        if (maxEntries <= 0) {
+            misses.increment();
+            return loader.load(key);
+        }
+        long seen;
+        synchronized (entries) {
+            Entry cached = entries.get(key);
+            if (cached != null && (cached.userId != NOT_FOUND || cached.expiresAt - System.nanoTime() > 0)) {
+                hits.increment();
+                return cached.userId;
+            }
+            misses.increment();
+            seen = invalidations;
+        }
+
+        int userId = loader.load(key);
+
+        synchronized (entries) {
+            // Skip the store if an invalidation ran while we were querying
+            if (invalidations == seen) {
+                entries.put(key, new Entry(userId, System.nanoTime() + negativeTtlNanos));
+            }
+        }
+        return userId;
+    }
+
+    /**
+     * Drops an email's entry; call after registering a user with it.
+     *
+     * @param email The email address (normalized here).
+     */
+    public void invalidate(String email) {
+        String key = normalize(email);
+        if (key == null) {
+            return;
+        }
+        synchronized (entries) {
+            invalidations++;
+            entries.remove(key);
+        }
+    }
+
+    /**
+     * Drops every entry pointing at a user; call after deleting them. Deletes are rare,
+     * so a scan is cheaper than keeping a reverse index on every lookup.
+     *
+     * @param userId The User ID.
+     */
+    public void invalidateUser(int userId) {
+        synchronized (entries) {
+            invalidations++;
+            for (Iterator<Entry> it = entries.values().iterator(); it.hasNext(); ) {
+                if (it.next().userId == userId) {
+                    it.remove();
+                }
+            }
+        }
+    }
+
+    /**
+     * Drops every entry.
+     */
+    public void clear() {
+        synchronized (entries) {
+            invalidations++;
+            entries.clear();
+        }
+    }
+
+    // --- Metrics ---
+
+    /**
+     * Gets the number of lookups answered from the cache.
+     * @return The hit count.
+     */
+    public long getHitCount() { return hits.sum(); }
+
+    /**
+     * Gets the number of lookups that queried the database.
+     * @return The miss count.
+     */
+    public long getMissCount() { return misses.sum(); }
+
+    /**
+     * Gets the number of cached emails (including negative entries).
+     * @return The current size.
+     */
+    public int size() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+
+    private static final class Entry {
+        final int userId;
+        final long expiresAt;
+
+        Entry(int userId, long expiresAt) {
+            this.userId = userId;
+            this.expiresAt = expiresAt;
+        }
+    }
+}
@@ -0,0 +1,86 @@
+package com.revpay.dao;
+
+import com.revpay.model.User;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Storage of {@link User} accounts.
+ * <p>
+ * Implemented by {@link UserDAO} (SQL) and by an in-memory engine
+ * ({@link com.revpay.dao.memory.InMemoryUserRepository}); obtain the active one from
+ * {@link Repositories}.
+ * </p>
+ *
+ * @author RevPay Dev Team
+ * @version 1.0
+ */
+public interface UserRepository {
+
+    /**
+     * Registers a new user without a wallet.
+     *
+     * @param user The user to store (password already hashed).
+     * @return {@code true} if the user was registered, {@code false} otherwise (e.g., the email exists).
+     */
+    boolean registerUser(User user);
+
+    /**
+     * Registers a new user and opens their empty wallet atomically.
+     *
+     * @param user The user to store (password already hashed). Its ID is set on success.
+     * @return The new User ID, or -1 if registration failed (e.g., the email already exists).
+     */
+    int registerUserWithWallet(User user);
+
+    /**
+     * Registers many users with their wallets, skipping emails that already have an account.
+     *
+     * @param users The users to register (passwords already hashed).
+     * @return The new User ID for each user, in the same order; -1 for skipped or failed users.
+     */
+    int[] registerUsersWithWallets(List<User> users);
+
+    /**
+     * Retrieves a user by email address.
+     *
+     * @param email The email address to search for.
+     * @return The {@link User}, or {@code null} if not found.
+     */
+    User getUserByEmail(String email);
+
+    /**
+     * Resolves an email address to a User ID.
+     *
+     * @param email The email address to search for.
+     * @return The User ID, or -1 if no user has this email.
+     */
+    int getUserIdByEmail(String email);
+
+    /**
+     * Replaces a user's stored password hash.
+     *
+     * @param userId       The unique User ID.
+     * @param passwordHash The new BCrypt hash.
+     * @return {@code true} if the hash was updated.
+     */
+    boolean updatePasswordHash(int userId, String passwordHash);
+
+    /**
+     * Resolves many email addresses to User IDs.
+     *
+     * @param emails The email addresses to look up.
+     * @return A map of email to User ID; emails without an account are absent.
+     */
+    Map<String, Integer> getUserIdsByEmails(Collection<String> emails);
+
+    /**
+     * Deletes a user and all associated data.
+     *
+     * @param userId The unique ID of the user to delete.
+     * @return {@code true} if deletion was successful.
+     */
+    boolean deleteUser(int userId);
+}
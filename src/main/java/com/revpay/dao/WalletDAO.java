@@ -1,6 +1,7 @@
 package com.revpay.dao;
 
 import com.revpay.config.DatabaseConnection;
+import com.revpay.config.ReadYourWrites;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
@@ -9,6 +10,8 @@ import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.util.HashMap;
+import java.util.Map;
 
 /**
  * Data Access Object (DAO) for managing User Wallets.
@@ -23,11 +26,17 @@ import java.sql.SQLException;
  * @author RevPay Dev Team
  * @version 1.0
  */
-public class WalletDAO {
+public class WalletDAO implements WalletRepository {
 
     // Initialize Log4j Logger
     private static final Logger logger = LogManager.getLogger(WalletDAO.class);
 
+    // Hot queries, package-visible so QueryPlanTest EXPLAINs exactly what runs
+    static final String SELECT_BALANCE_SQL =
+            "SELECT balance FROM wallets WHERE user_id = ?";
+
+    private final BalanceCache balanceCache = BalanceCache.getInstance();
+
     /**
      * Creates a new wallet for a newly registered user.
      * <p>
@@ -36,6 +45,7 @@ public class WalletDAO {
      *
      * @param userId The unique ID of the user.
      */
+    @Override
     public void createWallet(int userId) {
         String sql = "INSERT INTO wallets (user_id, balance) VALUES (?, 0.00)";
 
@@ -54,26 +64,40 @@ public class WalletDAO {
 
     /**
      * Retrieves the current balance for a specific user.
+     * <p>
+     * Served from the shared {@link BalanceCache}; the database is only queried on a miss.
+     * Misses always read the primary: a cached balance lives until the next invalidation,
+     * so a stale replica value would otherwise be served for as long as nobody writes.
+     * </p>
      *
      * @param userId The unique ID of the user.
      * @return The current balance as a {@link BigDecimal}. Returns {@link BigDecimal#ZERO} if not found or on error.
      */
+    @Override
     public BigDecimal getBalance(int userId) {
-        String sql = "SELECT balance FROM wallets WHERE user_id = ?";
+        try {
+            BigDecimal balance = balanceCache.get(userId, this::queryBalance);
+            if (balance != null) {
+                return balance;
+            }
+        } catch (SQLException e) {
+            logger.error("❌ Error fetching balance for User ID: " + userId, e);
+        }
+        return BigDecimal.ZERO; // Default safe fallback
+    }
+
+    // Cache loader: the committed balance on the primary, or null if the user has no wallet
+    private BigDecimal queryBalance(int userId) throws SQLException {
+        String sql = SELECT_BALANCE_SQL;
 
         try (Connection conn = DatabaseConnection.getConnection();
              PreparedStatement stmt = conn.prepareStatement(sql)) {
 
             stmt.setInt(1, userId);
-            ResultSet rs = stmt.executeQuery();
-
-            if (rs.next()) {
-                return rs.getBigDecimal("balance");
+            try (ResultSet rs = stmt.executeQuery()) {
+                return rs.next() ? rs.getBigDecimal("balance") : null;
             }
-        } catch (SQLException e) {
-            logger.error("❌ Error fetching balance for User ID: " + userId, e);
         }
-        return BigDecimal.ZERO; // Default safe fallback
     }
 
     /**
@@ -86,6 +110,7 @@ public class WalletDAO {
      * @param newBalance The new total balance to set.
      * @return {@code true} if the update was successful, {@code false} otherwise.
      */
+    @Override
     public boolean updateBalance(int userId, BigDecimal newBalance) {
         String sql = "UPDATE wallets SET balance = ? WHERE user_id = ?";
 
@@ -98,6 +123,8 @@ public class WalletDAO {
             int rows = stmt.executeUpdate();
 
             if (rows > 0) {
+                ReadYourWrites.getInstance().record(userId);
+                balanceCache.invalidate(userId);
                 logger.debug("💰 Balance updated for User ID " + userId + ": $" + newBalance);
                 return true;
             }
@@ -106,4 +133,25 @@ public class WalletDAO {
         }
         return false;
     }
-}
\ No newline at end of file
+
+    /**
+     * Retrieves every wallet balance (used to seed the in-memory ledger at startup).
+     *
+     * @return A map of User ID to balance.
+     * @throws SQLException If the balances cannot be read (the ledger must not start without them).
+     */
+    @Override
+    public Map<Integer, BigDecimal> getAllBalances() throws SQLException {
+        String sql = "SELECT user_id, balance FROM wallets";
+        Map<Integer, BigDecimal> balances = new HashMap<>();
+
+        try (Connection conn = DatabaseConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql);
+             ResultSet rs = stmt.executeQuery()) {
+            while (rs.next()) {
+                balances.put(rs.getInt("user_id"), rs.getBigDecimal("balance"));
+            }
+        }
+        return balances;
+    }
+}
@@ -0,0 +1,51 @@
+package com.revpay.dao;
+
+import java.math.BigDecimal;
+import java.sql.SQLException;
+import java.util.Map;
+
+/**
+ * Storage of wallet balances.
+ * <p>
+ * Implemented by {@link WalletDAO} (SQL) and {@link com.revpay.dao.memory.InMemoryWalletRepository}.
+ * Money movements belong in {@link TransactionRepository}; {@link #updateBalance} is for
+ * administration and test setup only.
+ * </p>
+ *
+ * @author RevPay Dev Team
+ * @version 1.0
+ */
+public interface WalletRepository {
+
+    /**
+     * Creates an empty wallet for a user.
+     *
+     * @param userId The unique ID of the user.
+     */
+    void createWallet(int userId);
+
+    /**
+     * Retrieves the current balance of a user.
+     *
+     * @param userId The unique ID of the user.
+     * @return The balance, or {@link BigDecimal#ZERO} if the user has no wallet.
+     */
+    BigDecimal getBalance(int userId);
+
+    /**
+     * Sets a wallet balance directly.
+     *
+     * @param userId     The unique ID of the user.
+     * @param newBalance The new total balance.
+     * @return {@code true} if the wallet exists and was updated.
+     */
+    boolean updateBalance(int userId, BigDecimal newBalance);
+
+    /**
+     * Retrieves every wallet balance.
+     *
+     * @return A map of User ID to balance.
+     * @throws SQLException If the balances cannot be read; an empty map always means no wallets.
+     */
+    Map<Integer, BigDecimal> getAllBalances() throws SQLException;
+}
@@ -0,0 +1,132 @@
+package com.revpay.dao.memory;
+
+import com.revpay.dao.InvoiceRepository;
+import com.revpay.dao.UserIdCache;
+import com.revpay.model.Invoice;
+
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * In-memory {@link InvoiceRepository}.
+ * <p>
+ * Like {@link InMemoryRequestRepository}, status changes are compare-and-set on the stored row.
+ * Customer emails are matched case-insensitively, as with MySQL's default collation.
+ * </p>
+ *
+ * @author RevPay Dev Team
+ * @version 1.0
+ */
+public class InMemoryInvoiceRepository implements InvoiceRepository {
+
+    private final InMemoryStore store;
+
+    /**
+     * Creates a repository over the given tables.
+     *
+     * @param store The shared in-memory tables.
+     */
+    public InMemoryInvoiceRepository(InMemoryStore store) {
+        this.store = store;
+    }
+
+    @Override
+    public boolean createInvoice(Invoice inv) {
+        if (inv.getAmount() == null || inv.getAmount().signum() <= 0) {
+            return false;
+        }
+        Invoice row = copy(inv);
+        row.setInvoiceId(store.invoiceSeq.incrementAndGet());
+        row.setStatus("PENDING");
+        row.setCreatedAt(new Timestamp(System.currentTimeMillis()));
+        store.invoices.put(row.getInvoiceId(), row);
+        return true;
+    }
+
+    @Override
+    public List<Invoice> getInvoicesByBusiness(int businessId) {
+        List<Invoice> list = new ArrayList<>();
+        for (Invoice inv : store.invoices.values()) {
+            if (inv.getBusinessId() == businessId) list.add(copy(inv));
+        }
+        list.sort(Comparator.comparingInt(Invoice::getInvoiceId));
+        return list;
+    }
+
+    @Override
+    public List<Invoice> getInvoicesForCustomer(String email) {
+        List<Invoice> list = new ArrayList<>();
+        for (Invoice inv : store.invoices.values()) {
+            if ("PENDING".equals(inv.getStatus()) && inv.getCustomerEmail() != null
+                    && inv.getCustomerEmail().equalsIgnoreCase(email)) {
+                list.add(copy(inv));
+            }
+        }
+        list.sort(Comparator.comparingInt(Invoice::getInvoiceId));
+        return list;
+    }
+
+    @Override
+    public boolean markAsPaid(int invoiceId) {
+        for (;;) {
+            Invoice current = store.invoices.get(invoiceId);
+            if (current == null) {
+                return false;
+            }
+            if (store.invoices.replace(invoiceId, current, withStatus(current, "PAID"))) {
+                return true;
+            }
+        }
+    }
+
+    @Override
+    public boolean compareAndSetStatus(int invoiceId, String expected, String next) {
+        return claim(store, invoiceId, -1, expected, next) != null;
+    }
+
+    @Override
+    public Invoice getInvoiceById(int id) {
+        Invoice inv = store.invoices.get(id);
+        return inv == null ? null : copy(inv);
+    }
+
+    /**
+     * Moves an invoice from {@code expected} to {@code next}, optionally only if it is addressed to {@code payerId}.
+     *
+     * @param payerId The paying user, or -1 to skip the customer check.
+     * @return The invoice as it was before the change, or {@code null} if nothing changed.
+     */
+    static Invoice claim(InMemoryStore store, int invoiceId, int payerId, String expected, String next) {
+        for (;;) {
+            Invoice current = store.invoices.get(invoiceId);
+            if (current == null || !expected.equals(current.getStatus())) {
+                return null;
+            }
+            if (payerId > 0) {
+                Integer customerId = store.userIdsByEmail.get(UserIdCache.normalize(current.getCustomerEmail()));
+                if (customerId == null || customerId != payerId) {
+                    return null;
+                }
+            }
+            if (store.invoices.replace(invoiceId, current, withStatus(current, next))) {
+                return current;
+            }
+        }
+    }
+
+    private static Invoice withStatus(Invoice inv, String status) {
+        Invoice c = copy(inv);
+        c.setStatus(status);
+        return c;
+    }
+
+    private static Invoice copy(Invoice inv) {
+        Invoice c = new Invoice(inv.getBusinessId(), inv.getCustomerEmail(), inv.getAmount(), inv.getDescription());
+        c.setInvoiceId(inv.getInvoiceId());
+        c.setStatus(inv.getStatus());
+        c.setCreatedAt(inv.getCreatedAt());
+        return c;
+    }
+}
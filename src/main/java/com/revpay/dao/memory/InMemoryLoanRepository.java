@@ -0,0 +1,56 @@
+package com.revpay.dao.memory;
+
+import com.revpay.dao.LoanRepository;
+import com.revpay.model.Loan;
+import com.revpay.model.LoanStatus;
+
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * In-memory {@link LoanRepository}.
+ *
+ * @author RevPay Dev Team
+ * @version 1.0
+ */
+public class InMemoryLoanRepository implements LoanRepository {
+
+    private final InMemoryStore store;
+
+    /**
+     * Creates a repository over the given tables.
+     *
+     * @param store The shared in-memory tables.
+     */
+    public InMemoryLoanRepository(InMemoryStore store) {
+        this.store = store;
+    }
+
+    @Override
+    public boolean applyForLoan(Loan loan) {
+        Loan row = new Loan(loan.getUserId(), loan.getAmount(), loan.getReason());
+        row.setLoanId(store.loanSeq.incrementAndGet());
+        row.setStatus(LoanStatus.PENDING);
+        row.setAppliedAt(new Timestamp(System.currentTimeMillis()));
+        store.loans.put(row.getLoanId(), row);
+        return true;
+    }
+
+    @Override
+    public List<Loan> getLoansByUserId(int userId) {
+        List<Loan> loans = new ArrayList<>();
+        for (Loan l : store.loans.values()) {
+            if (l.getUserId() == userId) {
+                Loan c = new Loan(l.getUserId(), l.getAmount(), l.getReason());
+                c.setLoanId(l.getLoanId());
+                c.setStatus(l.getStatus());
+                c.setAppliedAt(l.getAppliedAt());
+                loans.add(c);
+            }
+        }
+        loans.sort(Comparator.comparingInt(Loan::getLoanId));
+        return loans;
+    }
+}
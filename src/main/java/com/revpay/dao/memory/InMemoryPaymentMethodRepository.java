@@ -0,0 +1,52 @@
+package com.revpay.dao.memory;
+
+import com.revpay.dao.PaymentMethodRepository;
+import com.revpay.model.PaymentMethod;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * In-memory {@link PaymentMethodRepository}.
+ *
+ * @author RevPay Dev Team
+ * @version 1.0
+ */
+public class InMemoryPaymentMethodRepository implements PaymentMethodRepository {
+
+    private final InMemoryStore store;
+
+    /**
+     * Creates a repository over the given tables.
+     *
+     * @param store The shared in-memory tables.
+     */
+    public InMemoryPaymentMethodRepository(InMemoryStore store) {
+        this.store = store;
+    }
+
+    @Override
+    public boolean addPaymentMethod(PaymentMethod pm) {
+        PaymentMethod row = copy(pm);
+        row.setMethodId(store.methodSeq.incrementAndGet());
+        store.paymentMethods.put(row.getMethodId(), row);
+        return true;
+    }
+
+    @Override
+    public List<PaymentMethod> getMethodsByUserId(int userId) {
+        List<PaymentMethod> list = new ArrayList<>();
+        for (PaymentMethod pm : store.paymentMethods.values()) {
+            if (pm.getUserId() == userId) list.add(copy(pm));
+        }
+        list.sort(Comparator.comparingInt(PaymentMethod::getMethodId));
+        return list;
+    }
+
+    private static PaymentMethod copy(PaymentMethod pm) {
+        PaymentMethod c = new PaymentMethod(pm.getUserId(), pm.getCardNumber(), pm.getCardType(), pm.getExpiryDate());
+        c.setMethodId(pm.getMethodId());
+        return c;
+    }
+}
@@ -0,0 +1,108 @@
+package com.revpay.dao.memory;
+
+import com.revpay.dao.RequestRepository;
+import com.revpay.model.PaymentRequest;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * In-memory {@link RequestRepository}.
+ * <p>
+ * Status changes replace the stored row only if it is still the one that was read, so of
+ * several concurrent {@link #compareAndSetStatus} calls exactly one succeeds.
+ * </p>
+ *
+ * @author RevPay Dev Team
+ * @version 1.0
+ */
+public class InMemoryRequestRepository implements RequestRepository {
+
+    private final InMemoryStore store;
+
+    /**
+     * Creates a repository over the given tables.
+     *
+     * @param store The shared in-memory tables.
+     */
+    public InMemoryRequestRepository(InMemoryStore store) {
+        this.store = store;
+    }
+
+    @Override
+    public boolean createRequest(PaymentRequest req) {
+        if (req.getAmount() == null || req.getAmount().signum() <= 0) {
+            return false;
+        }
+        PaymentRequest row = new PaymentRequest(req.getRequesterId(), req.getPayerId(), req.getAmount());
+        row.setRequestId(store.requestSeq.incrementAndGet());
+        row.setStatus("PENDING");
+        store.requests.put(row.getRequestId(), row);
+        return true;
+    }
+
+    @Override
+    public List<PaymentRequest> getIncomingRequests(int userId) {
+        List<PaymentRequest> list = new ArrayList<>();
+        for (PaymentRequest r : store.requests.values()) {
+            if (r.getPayerId() == userId && "PENDING".equals(r.getStatus())) list.add(copy(r));
+        }
+        list.sort(Comparator.comparingInt(PaymentRequest::getRequestId));
+        return list;
+    }
+
+    @Override
+    public boolean updateStatus(int requestId, String status) {
+        for (;;) {
+            PaymentRequest current = store.requests.get(requestId);
+            if (current == null) {
+                return false;
+            }
+            if (store.requests.replace(requestId, current, withStatus(current, status))) {
+                return true;
+            }
+        }
+    }
+
+    @Override
+    public boolean compareAndSetStatus(int requestId, int payerId, String expected, String next) {
+        return claim(store, requestId, payerId, expected, next) != null;
+    }
+
+    @Override
+    public PaymentRequest getRequestById(int requestId) {
+        PaymentRequest r = store.requests.get(requestId);
+        return r == null ? null : copy(r);
+    }
+
+    /**
+     * Moves a request from {@code expected} to {@code next} if {@code payerId} is its payer.
+     *
+     * @return The request as it was before the change, or {@code null} if nothing changed.
+     */
+    static PaymentRequest claim(InMemoryStore store, int requestId, int payerId, String expected, String next) {
+        for (;;) {
+            PaymentRequest current = store.requests.get(requestId);
+            if (current == null || current.getPayerId() != payerId || !expected.equals(current.getStatus())) {
+                return null;
+            }
+            if (store.requests.replace(requestId, current, withStatus(current, next))) {
+                return current;
+            }
+        }
+    }
+
+    private static PaymentRequest withStatus(PaymentRequest r, String status) {
+        PaymentRequest c = copy(r);
+        c.setStatus(status);
+        return c;
+    }
+
+    private static PaymentRequest copy(PaymentRequest r) {
+        PaymentRequest c = new PaymentRequest(r.getRequesterId(), r.getPayerId(), r.getAmount());
+        c.setRequestId(r.getRequestId());
+        c.setStatus(r.getStatus());
+        return c;
+    }
+}
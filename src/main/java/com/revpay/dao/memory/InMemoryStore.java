@@ -0,0 +1,137 @@
+package com.revpay.dao.memory;
+
+import com.revpay.model.Invoice;
+import com.revpay.model.Loan;
+import com.revpay.model.PaymentMethod;
+import com.revpay.model.PaymentRequest;
+import com.revpay.model.Transaction;
+import com.revpay.model.User;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.Comparator;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * The tables of the in-memory engine, shared by its repositories.
+ * <p>
+ * Every table is a {@link ConcurrentHashMap} keyed by ID, and IDs come from atomic
+ * sequences, like {@code AUTO_INCREMENT}. Rows are never changed after they are published:
+ * an update stores a new copy with {@code replace(id, old, new)}, which succeeds only if
+ * no other thread got there first, the in-memory form of {@code UPDATE ... WHERE status = ?}.
+ * Balances are {@link AtomicLong} cents per wallet, updated with compare-and-set, so no
+ * operation ever takes a lock.
+ * </p>
+ *
+ * @author RevPay Dev Team
+ * @version 1.0
+ */
+public final class InMemoryStore {
+
+    /** History order: {@code (timestamp, transaction_id)} descending, as in the SQL queries. */
+    static final Comparator<Transaction> NEWEST_FIRST = Comparator
+            .comparing(Transaction::getTimestamp, Comparator.reverseOrder())
+            .thenComparing(Transaction::getTransactionId, Comparator.reverseOrder());
+
+    final ConcurrentMap<Integer, User> users = new ConcurrentHashMap<>();
+    final ConcurrentMap<String, Integer> userIdsByEmail = new ConcurrentHashMap<>();
+    final ConcurrentMap<Integer, AtomicLong> wallets = new ConcurrentHashMap<>();
+    final ConcurrentMap<Integer, Transaction> transactions = new ConcurrentHashMap<>();
+    final ConcurrentMap<Integer, ConcurrentSkipListSet<Transaction>> historyByUser = new ConcurrentHashMap<>();
+    final ConcurrentMap<String, KeyClaim> idempotencyKeys = new ConcurrentHashMap<>();
+    final ConcurrentMap<Integer, Invoice> invoices = new ConcurrentHashMap<>();
+    final ConcurrentMap<Integer, PaymentRequest> requests = new ConcurrentHashMap<>();
+    final ConcurrentMap<Integer, Loan> loans = new ConcurrentHashMap<>();
+    final ConcurrentMap<Integer, PaymentMethod> paymentMethods = new ConcurrentHashMap<>();
+
+    final AtomicInteger userSeq = new AtomicInteger();
+    final AtomicInteger transactionSeq = new AtomicInteger();
+    final AtomicInteger invoiceSeq = new AtomicInteger();
+    final AtomicInteger requestSeq = new AtomicInteger();
+    final AtomicInteger loanSeq = new AtomicInteger();
+    final AtomicInteger methodSeq = new AtomicInteger();
+
+    /**
+     * The movement that claimed an idempotency key, and its (possibly pending) outcome.
+     */
+    static final class KeyClaim {
+        final int receiverId;
+        final long cents;
+        final CompletableFuture<Boolean> outcome = new CompletableFuture<>();
+
+        KeyClaim(int receiverId, long cents) {
+            this.receiverId = receiverId;
+            this.cents = cents;
+        }
+
+        boolean matches(int otherReceiverId, long otherCents) {
+            return receiverId == otherReceiverId && cents == otherCents;
+        }
+    }
+
+    /**
+     * Creates an empty store.
+     */
+    public InMemoryStore() {}
+
+    /**
+     * Gets the history index of a user, creating it on first use.
+     */
+    ConcurrentSkipListSet<Transaction> history(int userId) {
+        return historyByUser.computeIfAbsent(userId, id -> new ConcurrentSkipListSet<>(NEWEST_FIRST));
+    }
+
+    /**
+     * Withdraws from a wallet if it holds enough, retrying the compare-and-set on contention.
+     *
+     * @return {@code true} if the cents were withdrawn; {@code false} if the wallet is missing or short.
+     */
+    boolean debit(int userId, long cents) {
+        AtomicLong balance = wallets.get(userId);
+        if (balance == null) {
+            return false;
+        }
+        for (;;) {
+            long current = balance.get();
+            if (current < cents) {
+                return false;
+            }
+            if (balance.compareAndSet(current, current - cents)) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Adds to a wallet.
+     *
+     * @return {@code true} if the wallet exists.
+     */
+    boolean credit(int userId, long cents) {
+        AtomicLong balance = wallets.get(userId);
+        if (balance == null) {
+            return false;
+        }
+        balance.addAndGet(cents);
+        return true;
+    }
+
+    /**
+     * Converts an amount to cents, rounding like a {@code DECIMAL(15, 2)} column.
+     */
+    static long toCents(BigDecimal amount) {
+        return amount.setScale(2, RoundingMode.HALF_UP).unscaledValue().longValueExact();
+    }
+
+    /**
+     * Converts cents back to an amount with two decimals.
+     */
+    static BigDecimal fromCents(long cents) {
+        return BigDecimal.valueOf(cents, 2);
+    }
+}
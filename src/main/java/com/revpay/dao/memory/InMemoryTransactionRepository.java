@@ -0,0 +1,323 @@
+package com.revpay.dao.memory;
+
+import com.revpay.dao.TransactionRepository;
+import com.revpay.model.HistoryCursor;
+import com.revpay.model.Invoice;
+import com.revpay.model.PaymentRequest;
+import com.revpay.model.Payout;
+import com.revpay.model.PayoutResult;
+import com.revpay.model.Transaction;
+import com.revpay.model.TransactionPage;
+import com.revpay.model.TransactionStatus;
+import com.revpay.model.TransactionType;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.NavigableSet;
+import java.util.function.BooleanSupplier;
+import java.util.stream.Stream;
+
+/**
+ * In-memory {@link TransactionRepository} with no locks and no I/O.
+ * <p>
+ * A movement first withdraws from the sender with a compare-and-set that refuses to go
+ * below zero, then credits the receiver and appends the ledger row. The withdrawal is the
+ * single point where a movement can fail, so it is all-or-nothing just like the SQL
+ * transaction, and no interleaving can overdraw a wallet or lose an update. Between the
+ * two steps the money is briefly in neither wallet, which only a reader summing every
+ * balance at that instant could notice.
+ * </p>
+ * <p>
+ * Invoices and requests are claimed with a compare-and-set on their status before paying,
+ * and released again if the payer cannot cover them, so concurrent payments pay once.
+ * Idempotency keys are claimed per sender with {@code putIfAbsent}; a concurrent retry waits
+ * for the first attempt and reports its success (if it was the same movement), or takes over
+ * the key if it failed.
+ * </p>
+ *
+ * @author RevPay Dev Team
+ * @version 1.0
+ */
+public class InMemoryTransactionRepository implements TransactionRepository {
+
+    // Initialize Log4j Logger
+    private static final Logger logger = LogManager.getLogger(InMemoryTransactionRepository.class);
+
+    private final InMemoryStore store;
+
+    /**
+     * Creates a repository over the given tables.
+     *
+     * @param store The shared in-memory tables.
+     */
+    public InMemoryTransactionRepository(InMemoryStore store) {
+        this.store = store;
+    }
+
+    @Override
+    public boolean transferMoney(int senderId, int receiverId, BigDecimal amount) {
+        return transferMoney(senderId, receiverId, amount, null);
+    }
+
+    @Override
+    public boolean transferMoney(int senderId, int receiverId, BigDecimal amount, String idempotencyKey) {
+        return once(senderId, receiverId, amount, idempotencyKey, () -> {
+            boolean success = moveFunds(senderId, receiverId, amount, TransactionType.TRANSFER);
+            if (success) {
+                logger.debug("Transfer Successful: $" + amount + " from ID " + senderId + " to ID " + receiverId);
+            }
+            return success;
+        });
+    }
+
+    @Override
+    public boolean depositMoney(int userId, BigDecimal amount) {
+        return depositMoney(userId, amount, null);
+    }
+
+    @Override
+    public boolean depositMoney(int userId, BigDecimal amount, String idempotencyKey) {
+        return once(userId, userId, amount, idempotencyKey, () -> {
+            boolean success = store.credit(userId, InMemoryStore.toCents(amount));
+            if (success) {
+                logTransaction(userId, userId, amount, TransactionType.DEPOSIT);
+            } else {
+                logger.warn("Deposit Failed: Wallet not found for User ID " + userId);
+            }
+            return success;
+        });
+    }
+
+    @Override
+    public Boolean checkIdempotencyKey(int senderId, int receiverId, BigDecimal amount, String idempotencyKey) {
+        InMemoryStore.KeyClaim claim = store.idempotencyKeys.get(scoped(senderId, idempotencyKey));
+        if (claim == null || !claim.outcome.join()) {
+            return null;
+        }
+        return claim.matches(receiverId, InMemoryStore.toCents(amount));
+    }
+
+    @Override
+    public boolean payInvoice(int invoiceId, int payerId) {
+        Invoice inv = InMemoryInvoiceRepository.claim(store, invoiceId, payerId, "PENDING", "PAID");
+        if (inv == null) {
+            logger.warn("⚠️ Invoice #" + invoiceId + " is not pending for User ID " + payerId);
+            return false;
+        }
+        if (moveFunds(payerId, inv.getBusinessId(), inv.getAmount(), TransactionType.TRANSFER)) {
+            return true;
+        }
+        InMemoryInvoiceRepository.claim(store, invoiceId, -1, "PAID", "PENDING");
+        return false;
+    }
+
+    @Override
+    public boolean acceptRequest(int requestId, int payerId) {
+        PaymentRequest req = InMemoryRequestRepository.claim(store, requestId, payerId, "PENDING", "ACCEPTED");
+        if (req == null) {
+            logger.warn("⚠️ Request #" + requestId + " is not pending for User ID " + payerId);
+            return false;
+        }
+        if (moveFunds(payerId, req.getRequesterId(), req.getAmount(), TransactionType.TRANSFER)) {
+            return true;
+        }
+        InMemoryRequestRepository.claim(store, requestId, payerId, "ACCEPTED", "PENDING");
+        return false;
+    }
+
+    /**
+     * Pays the lines with a wallet in one withdrawal of their total, like {@code TransactionDAO.bulkTransfer}.
+     * <p>
+     * A receiver deleted between the withdrawal and its credit gets its line refunded to the sender.
+     * </p>
+     */
+    @Override
+    public List<PayoutResult> bulkTransfer(int senderId, List<Payout> payouts) {
+        List<PayoutResult> results = new ArrayList<>(payouts.size());
+        if (!store.wallets.containsKey(senderId)) {
+            for (int i = 0; i < payouts.size(); i++) {
+                Payout p = payouts.get(i);
+                results.add(new PayoutResult(i + 1, p.getReceiverId(), p.getAmount(), TransactionStatus.FAILED, "Sender wallet not found"));
+            }
+            return results;
+        }
+
+        long total = 0;
+        for (int i = 0; i < payouts.size(); i++) {
+            Payout p = payouts.get(i);
+            if (p.getAmount() == null || p.getAmount().signum() <= 0) {
+                results.add(new PayoutResult(i + 1, p.getReceiverId(), p.getAmount(), TransactionStatus.FAILED, "Amount must be greater than 0"));
+            } else if (store.wallets.containsKey(p.getReceiverId())) {
+                results.add(new PayoutResult(i + 1, p.getReceiverId(), p.getAmount(), TransactionStatus.SUCCESS, null));
+                total += InMemoryStore.toCents(p.getAmount());
+            } else {
+                results.add(new PayoutResult(i + 1, p.getReceiverId(), p.getAmount(), TransactionStatus.FAILED, "Invalid receiver"));
+            }
+        }
+        if (total == 0) {
+            return results;
+        }
+
+        if (!store.debit(senderId, total)) {
+            logger.warn("⚠️ Bulk Payout Failed: Insufficient funds for User ID " + senderId + " (needs $" + InMemoryStore.fromCents(total) + ")");
+            for (PayoutResult r : results) {
+                if (r.isSuccess()) {
+                    r.setStatus(TransactionStatus.FAILED);
+                    r.setMessage("Insufficient funds for payout total $" + InMemoryStore.fromCents(total));
+                }
+            }
+            return results;
+        }
+
+        for (PayoutResult r : results) {
+            if (!r.isSuccess()) continue;
+            long cents = InMemoryStore.toCents(r.getAmount());
+            if (store.credit(r.getReceiverId(), cents)) {
+                logTransaction(senderId, r.getReceiverId(), r.getAmount(), TransactionType.TRANSFER);
+            } else {
+                store.credit(senderId, cents);
+                r.setStatus(TransactionStatus.FAILED);
+                r.setMessage("Invalid receiver");
+            }
+        }
+        return results;
+    }
+
+    @Override
+    public List<Transaction> getTransactionHistory(int userId) {
+        List<Transaction> history = new ArrayList<>();
+        NavigableSet<Transaction> rows = store.historyByUser.get(userId);
+        if (rows != null) {
+            for (Transaction t : rows) history.add(copy(t));
+        }
+        return history;
+    }
+
+    @Override
+    public TransactionPage getTransactionHistoryPage(int userId, int pageSize, HistoryCursor cursor) {
+        List<Transaction> page = new ArrayList<>(pageSize + 1);
+        NavigableSet<Transaction> rows = store.historyByUser.get(userId);
+        if (rows != null) {
+            if (cursor != null) {
+                Transaction seek = new Transaction();
+                seek.setTimestamp(cursor.getTimestamp());
+                seek.setTransactionId(cursor.getTransactionId());
+                rows = rows.tailSet(seek, false);
+            }
+            for (Transaction t : rows) {
+                page.add(copy(t));
+                if (page.size() > pageSize) break;
+            }
+        }
+
+        HistoryCursor next = null;
+        if (page.size() > pageSize) {
+            page.remove(pageSize);
+            next = HistoryCursor.after(page.get(pageSize - 1));
+        }
+        return new TransactionPage(page, next);
+    }
+
+    @Override
+    public Stream<Transaction> streamTransactionHistory(int userId) {
+        NavigableSet<Transaction> rows = store.historyByUser.get(userId);
+        return rows == null ? Stream.empty() : rows.stream().map(InMemoryTransactionRepository::copy);
+    }
+
+    // Withdraw, credit, log; false (with nothing changed) on a missing wallet or insufficient funds
+    private boolean moveFunds(int senderId, int receiverId, BigDecimal amount, TransactionType type) {
+        if (amount == null || amount.signum() <= 0) {
+            logger.warn("⚠️ Transfer Failed: Amount must be positive (" + amount + ") for User ID " + senderId);
+            return false;
+        }
+        if (!store.wallets.containsKey(receiverId)) {
+            logger.warn("⚠️ Transfer Failed: Invalid receiver ID " + receiverId);
+            return false;
+        }
+        long cents = InMemoryStore.toCents(amount);
+        if (!store.debit(senderId, cents)) {
+            logger.warn("⚠️ Transfer Failed: Insufficient funds for User ID " + senderId);
+            return false;
+        }
+        if (!store.credit(receiverId, cents)) {
+            store.credit(senderId, cents); // receiver deleted meanwhile: give the money back
+            logger.warn("⚠️ Transfer Failed: Invalid receiver ID " + receiverId);
+            return false;
+        }
+        logTransaction(senderId, receiverId, amount, type);
+        return true;
+    }
+
+    private void logTransaction(int senderId, int receiverId, BigDecimal amount, TransactionType type) {
+        Transaction t = new Transaction(senderId, receiverId, InMemoryStore.fromCents(InMemoryStore.toCents(amount)),
+                type, TransactionStatus.SUCCESS);
+        t.setTransactionId(store.transactionSeq.incrementAndGet());
+        t.setTimestamp(new Timestamp(System.currentTimeMillis()));
+        store.transactions.put(t.getTransactionId(), t);
+        store.history(senderId).add(t);
+        if (receiverId != senderId) {
+            store.history(receiverId).add(t);
+        }
+    }
+
+    /**
+     * Runs a movement at most once per (sender, idempotency key).
+     * <p>
+     * The first call claims the key; a concurrent retry waits for it. A retry of the same
+     * movement then gets the earlier success, a different movement under the same key is
+     * refused, and a failed attempt gives the key up so it can be retried.
+     * </p>
+     */
+    private boolean once(int senderId, int receiverId, BigDecimal amount, String idempotencyKey, BooleanSupplier movement) {
+        if (idempotencyKey == null) {
+            return movement.getAsBoolean();
+        }
+        String key = scoped(senderId, idempotencyKey);
+        InMemoryStore.KeyClaim mine = new InMemoryStore.KeyClaim(receiverId, InMemoryStore.toCents(amount));
+        for (;;) {
+            InMemoryStore.KeyClaim earlier = store.idempotencyKeys.putIfAbsent(key, mine);
+            if (earlier == null) {
+                break;
+            }
+            if (!earlier.outcome.join()) {
+                continue; // The earlier attempt failed and gave the key up; try to claim it again
+            }
+            if (!earlier.matches(mine.receiverId, mine.cents)) {
+                logger.warn("⚠️ Idempotency key " + idempotencyKey + " of User ID " + senderId
+                        + " was already used for a different payment");
+                return false;
+            }
+            logger.info("🔁 Request already processed (idempotency key " + idempotencyKey + ")");
+            return true;
+        }
+
+        // Always settle the claim: a movement that throws (e.g., an amount too large for cents)
+        // must free the key and wake waiting retries, not leave them blocked on it forever
+        boolean success = false;
+        try {
+            success = movement.getAsBoolean();
+            return success;
+        } finally {
+            if (!success) {
+                store.idempotencyKeys.remove(key, mine);
+            }
+            mine.outcome.complete(success);
+        }
+    }
+
+    // Keys are scoped to the sender, like the (sender_id, idempotency_key) index
+    private static String scoped(int senderId, String idempotencyKey) {
+        return senderId + ":" + idempotencyKey;
+    }
+
+    private static Transaction copy(Transaction t) {
+        Transaction c = new Transaction(t.getSenderId(), t.getReceiverId(), t.getAmount(), t.getType(), t.getStatus());
+        c.setTransactionId(t.getTransactionId());
+        c.setTimestamp(t.getTimestamp());
+        return c;
+    }
+}
@@ -0,0 +1,168 @@
+package com.revpay.dao.memory;
+
+import com.revpay.dao.UserIdCache;
+import com.revpay.dao.UserRepository;
+import com.revpay.model.Transaction;
+import com.revpay.model.User;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * In-memory {@link UserRepository}.
+ * <p>
+ * Email uniqueness (the {@code UNIQUE} index in SQL) is enforced by claiming the normalized
+ * email with {@code putIfAbsent}; the user and wallet are stored before the claim, so a
+ * registration that loses the race is simply discarded and a visible user always has a wallet.
+ * </p>
+ *
+ * @author RevPay Dev Team
+ * @version 1.0
+ */
+public class InMemoryUserRepository implements UserRepository {
+
+    // Initialize Log4j Logger
+    private static final Logger logger = LogManager.getLogger(InMemoryUserRepository.class);
+
+    private final InMemoryStore store;
+
+    /**
+     * Creates a repository over the given tables.
+     *
+     * @param store The shared in-memory tables.
+     */
+    public InMemoryUserRepository(InMemoryStore store) {
+        this.store = store;
+    }
+
+    @Override
+    public boolean registerUser(User user) {
+        return register(user, false) > 0;
+    }
+
+    @Override
+    public int registerUserWithWallet(User user) {
+        return register(user, true);
+    }
+
+    @Override
+    public int[] registerUsersWithWallets(List<User> users) {
+        int[] ids = new int[users.size()];
+        Arrays.fill(ids, -1);
+        for (int i = 0; i < users.size(); i++) {
+            ids[i] = register(users.get(i), true);
+        }
+        logger.info("✅ Bulk Registration: " + Arrays.stream(ids).filter(id -> id > 0).count() + "/" + users.size() + " users created");
+        return ids;
+    }
+
+    private int register(User user, boolean withWallet) {
+        int userId = store.userSeq.incrementAndGet();
+        User row = copy(user);
+        row.setUserId(userId);
+        store.users.put(userId, row);
+        if (withWallet) {
+            store.wallets.put(userId, new AtomicLong());
+        }
+
+        if (store.userIdsByEmail.putIfAbsent(UserIdCache.normalize(user.getEmail()), userId) != null) {
+            store.wallets.remove(userId);
+            store.users.remove(userId);
+            logger.warn("⚠️ Registration attempt failed: Email '" + user.getEmail() + "' already exists.");
+            return -1;
+        }
+        user.setUserId(userId);
+        logger.debug("New in-memory user registered: " + user.getEmail());
+        return userId;
+    }
+
+    @Override
+    public User getUserByEmail(String email) {
+        int userId = getUserIdByEmail(email);
+        User row = userId > 0 ? store.users.get(userId) : null;
+        return row == null ? null : copy(row);
+    }
+
+    @Override
+    public int getUserIdByEmail(String email) {
+        Integer userId = email == null ? null : store.userIdsByEmail.get(UserIdCache.normalize(email));
+        return userId == null ? UserIdCache.NOT_FOUND : userId;
+    }
+
+    @Override
+    public boolean updatePasswordHash(int userId, String passwordHash) {
+        for (;;) {
+            User current = store.users.get(userId);
+            if (current == null) {
+                return false;
+            }
+            User updated = copy(current);
+            updated.setPasswordHash(passwordHash);
+            if (store.users.replace(userId, current, updated)) {
+                return true;
+            }
+        }
+    }
+
+    @Override
+    public Map<String, Integer> getUserIdsByEmails(Collection<String> emails) {
+        Map<String, Integer> ids = new HashMap<>();
+        for (String email : emails) {
+            int userId = getUserIdByEmail(email);
+            if (userId > 0) ids.put(email, userId);
+        }
+        return ids;
+    }
+
+    /**
+     * Deletes a user and all associated data, like {@code UserDAO.deleteUser}.
+     * <p>
+     * The user's email is released last, after the wallet and every row that references the
+     * user are gone. Each removal is atomic on its own; the cascade as a whole is not, so
+     * deleting a user while their own payments are still running may leave those payments'
+     * ledger rows behind.
+     * </p>
+     */
+    @Override
+    public boolean deleteUser(int userId) {
+        logger.warn("⚠️ Attempting to delete User ID: " + userId);
+        User user = store.users.get(userId);
+        if (user == null) {
+            return true; // same as the SQL cascade: deleting nothing succeeds
+        }
+
+        store.paymentMethods.values().removeIf(pm -> pm.getUserId() == userId);
+        store.requests.values().removeIf(r -> r.getRequesterId() == userId || r.getPayerId() == userId);
+        store.invoices.values().removeIf(inv -> inv.getBusinessId() == userId);
+        store.loans.values().removeIf(l -> l.getUserId() == userId);
+
+        ConcurrentSkipListSet<Transaction> history = store.historyByUser.remove(userId);
+        if (history != null) {
+            for (Transaction t : history) {
+                store.transactions.remove(t.getTransactionId());
+                int other = t.getSenderId() == userId ? t.getReceiverId() : t.getSenderId();
+                ConcurrentSkipListSet<Transaction> otherHistory = store.historyByUser.get(other);
+                if (otherHistory != null) otherHistory.remove(t);
+            }
+        }
+
+        store.wallets.remove(userId);
+        store.users.remove(userId);
+        store.userIdsByEmail.remove(UserIdCache.normalize(user.getEmail()), userId);
+        logger.info("✅ User ID " + userId + " Deleted Successfully.");
+        return true;
+    }
+
+    private static User copy(User u) {
+        User c = new User(u.getEmail(), u.getPhoneNumber(), u.getPasswordHash(), u.getTransactionPin(), u.getFullName(), u.getRole());
+        c.setUserId(u.getUserId());
+        return c;
+    }
+}
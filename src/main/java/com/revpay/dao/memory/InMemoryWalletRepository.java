@@ -0,0 +1,56 @@
+package com.revpay.dao.memory;
+
+import com.revpay.dao.WalletRepository;
+
+import java.math.BigDecimal;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * In-memory {@link WalletRepository}: one {@link AtomicLong} of cents per wallet.
+ *
+ * @author RevPay Dev Team
+ * @version 1.0
+ */
+public class InMemoryWalletRepository implements WalletRepository {
+
+    private final InMemoryStore store;
+
+    /**
+     * Creates a repository over the given tables.
+     *
+     * @param store The shared in-memory tables.
+     */
+    public InMemoryWalletRepository(InMemoryStore store) {
+        this.store = store;
+    }
+
+    @Override
+    public void createWallet(int userId) {
+        store.wallets.putIfAbsent(userId, new AtomicLong());
+    }
+
+    @Override
+    public BigDecimal getBalance(int userId) {
+        AtomicLong balance = store.wallets.get(userId);
+        return balance == null ? BigDecimal.ZERO : InMemoryStore.fromCents(balance.get());
+    }
+
+    @Override
+    public boolean updateBalance(int userId, BigDecimal newBalance) {
+        AtomicLong balance = store.wallets.get(userId);
+        if (balance == null) {
+            return false;
+        }
+        balance.set(InMemoryStore.toCents(newBalance));
+        return true;
+    }
+
+    @Override
+    public Map<Integer, BigDecimal> getAllBalances() {
+        Map<Integer, BigDecimal> balances = new HashMap<>();
+        store.wallets.forEach((userId, cents) -> balances.put(userId, InMemoryStore.fromCents(cents.get())));
+        return balances;
+    }
+}
@@ -0,0 +1,157 @@
+package com.revpay.ledger;
+
+import java.util.Arrays;
+
+/**
+ * Open-addressing hash map from primitive {@code int} keys to primitive {@code long} values.
+ * <p>
+ * The ledger keeps every wallet balance in memory as cents keyed by User ID. A
+ * {@code HashMap<Integer, Long>} would box both sides on every transfer; this map stores
+ * them in two flat arrays with linear probing, so lookups and updates allocate nothing.
+ * It is <b>not</b> thread-safe: only the ledger's sequencer thread touches it.
+ * </p>
+ *
+ * @author RevPay Dev Team
+ * @version 1.0
+ */
+final class IntLongMap {
+
+    // User IDs are positive, so this value can never be a real key
+    private static final int EMPTY = Integer.MIN_VALUE;
+
+    private int[] keys;
+    private long[] values;
+    private int mask;
+    private int size;
+
+    /**
+     * Creates a map sized for the expected number of entries.
+     *
+     * @param expectedSize The number of entries expected (the map still grows beyond it).
+     */
+    IntLongMap(int expectedSize) {
+        int capacity = Integer.highestOneBit(Math.max(16, expectedSize * 2 - 1)) << 1;
+        allocate(capacity);
+    }
+
+    /**
+     * Checks whether a key is present.
+     * @param key The key.
+     * @return {@code true} if the key has a value.
+     */
+    boolean containsKey(int key) {
+        return keys[indexOf(key)] == key;
+    }
+
+    /**
+     * Gets the value for a key.
+     * @param key          The key.
+     * @param defaultValue The value returned when the key is absent.
+     * @return The stored value, or {@code defaultValue}.
+     */
+    long get(int key, long defaultValue) {
+        int i = indexOf(key);
+        return keys[i] == key ? values[i] : defaultValue;
+    }
+
+    /**
+     * Stores a value, replacing any previous one.
+     * @param key   The key (must not be {@link Integer#MIN_VALUE}).
+     * @param value The value.
+     */
+    void put(int key, long value) {
+        if (key == EMPTY) {
+            throw new IllegalArgumentException("Key " + key + " is reserved");
+        }
+        int i = indexOf(key);
+        if (keys[i] != key) {
+            keys[i] = key;
+            if (++size * 2 > keys.length) {
+                values[i] = value;
+                rehash(keys.length << 1);
+                return;
+            }
+        }
+        values[i] = value;
+    }
+
+    /**
+     * Removes a key, shifting later entries of its probe run back so lookups still find them.
+     * @param key          The key.
+     * @param defaultValue The value returned when the key is absent.
+     * @return The removed value, or {@code defaultValue}.
+     */
+    long remove(int key, long defaultValue) {
+        int i = indexOf(key);
+        if (keys[i] != key) {
+            return defaultValue;
+        }
+        long removed = values[i];
+        for (int j = (i + 1) & mask; keys[j] != EMPTY; j = (j + 1) & mask) {
+            // Move the entry at j into the hole unless its home slot lies after the hole
+            int home = mix(keys[j]) & mask;
+            if (((j - home) & mask) >= ((j - i) & mask)) {
+                keys[i] = keys[j];
+                values[i] = values[j];
+                i = j;
+            }
+        }
+        keys[i] = EMPTY;
+        size--;
+        return removed;
+    }
+
+    /**
+     * Gets the number of entries.
+     * @return The size.
+     */
+    int size() {
+        return size;
+    }
+
+    /**
+     * Sums all values (used to check that money is conserved).
+     * @return The total of every stored value.
+     */
+    long sum() {
+        long total = 0;
+        for (int i = 0; i < keys.length; i++) {
+            if (keys[i] != EMPTY) total += values[i];
+        }
+        return total;
+    }
+
+    // Slot holding the key, or the empty slot where it would go
+    private int indexOf(int key) {
+        int i = mix(key) & mask;
+        while (keys[i] != EMPTY && keys[i] != key) {
+            i = (i + 1) & mask;
+        }
+        return i;
+    }
+
+    private static int mix(int key) {
+        int h = key * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+
+    private void allocate(int capacity) {
+        keys = new int[capacity];
+        values = new long[capacity];
+        Arrays.fill(keys, EMPTY);
+        mask = capacity - 1;
+    }
+
+    private void rehash(int capacity) {
+        int[] oldKeys = keys;
+        long[] oldValues = values;
+        allocate(capacity);
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] != EMPTY) {
+                int j = indexOf(oldKeys[i]);
+                keys[j] = oldKeys[i];
+                values[j] = oldValues[i];
+            }
+        }
+    }
+}
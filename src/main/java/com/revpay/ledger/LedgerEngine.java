@@ -0,0 +1,752 @@
+package com.revpay.ledger;
+
+import com.revpay.dao.LedgerDAO;
+import com.revpay.dao.WalletDAO;
+import com.revpay.model.TransactionType;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Single-writer, in-memory ledger for peak-load periods.
+ * <p>
+ * All transfers and deposits are funnelled through a {@link RingBuffer} to one sequencer
+ * thread, which owns every wallet balance (as cents) and therefore needs no locks: funds
+ * checks and balance updates are plain memory operations applied in submission order.
+ * Each batch of accepted operations is appended to a {@link LedgerJournal} and flushed
+ * before callers are acknowledged, then handed to a {@link WriteBehindWriter} that applies
+ * them to MySQL in large batches.
+ * </p>
+ * <p>
+ * The ledger is optional: it is started by {@code Main} when {@code -Drevpay.ledger.enabled=true}
+ * is set, and {@link com.revpay.service.TransactionService} routes money movements to it
+ * whenever {@link #getActive()} returns an engine. While it runs it must be the only writer
+ * of wallet balances.
+ * </p>
+ * <p>
+ * A movement may carry the client's idempotency key. The key is journaled with the entry
+ * and stored on its {@code transactions} row, and until that row is committed the sequencer
+ * remembers it, so a retry with the same key is answered without moving money again.
+ * </p>
+ * <p>
+ * A payment may also settle a document such as an invoice ({@link #settle}). The sequencer
+ * accepts at most one payment per document while it runs, and the document's status change
+ * is flushed in the same database transaction as the money.
+ * </p>
+ *
+ * @author RevPay Dev Team
+ * @version 1.0
+ */
+public class LedgerEngine implements AutoCloseable {
+
+    // Initialize Log4j Logger
+    private static final Logger logger = LogManager.getLogger(LedgerEngine.class);
+
+    private static final long CLOSE_TIMEOUT_MILLIS = Long.getLong("revpay.ledger.closeTimeoutMillis", 10_000L);
+
+    private static volatile LedgerEngine active;
+
+    private final RingBuffer ring;
+    private final IntLongMap balances;
+    private final LedgerJournal journal;
+    private final WriteBehindWriter writer;
+    private final int maxBatch;
+    private final Thread sequencerThread;
+    private final Thread writerThread;
+
+    // Producers register here before checking 'closed', so close() never strands a claimed slot
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicLong accepted = new AtomicLong();
+    private final AtomicLong rejected = new AtomicLong();
+    // Keyed entries accepted but not yet committed by the sink, by "senderId:key"
+    private final ConcurrentMap<String, LedgerEntry> unflushedKeys = new ConcurrentHashMap<>();
+    // Documents paid or reserved since start (sequencer thread only); kept after the flush so a
+    // caller that saw the document still pending just before it was flushed cannot pay it again
+    private final Set<Long> settled = new HashSet<>();
+    private volatile boolean closed;
+    private volatile boolean failed;
+    private long nextEntrySequence;
+    // Written by the sequencer and the writer; closeAccount() waits for the second to catch up with the first
+    private volatile long lastAcceptedSequence;
+    private volatile long lastFlushedSequence;
+
+    /**
+     * Creates a ledger seeded with opening balances.
+     *
+     * @param openingBalances The balance of every existing wallet, keyed by User ID.
+     * @param sink            Where accepted entries are written behind (e.g. {@link LedgerDAO#flushBatch}).
+     * @param journalPath     The append-only journal file.
+     * @param ringSize        The number of in-flight commands before producers block.
+     * @param flushBatchSize  The maximum number of entries per journal flush and per sink batch.
+     * @throws IOException If the journal cannot be opened.
+     */
+    public LedgerEngine(Map<Integer, BigDecimal> openingBalances, LedgerSink sink, Path journalPath,
+                        int ringSize, int flushBatchSize) throws IOException {
+        this(openingBalances, sink, journalPath, ringSize, flushBatchSize, 0);
+    }
+
+    /**
+     * Creates a ledger whose entries are numbered from {@code firstSequence}.
+     * <p>
+     * Sequences must keep increasing across restarts, because the sink skips entries at or
+     * below the sequence it last committed.
+     * </p>
+     *
+     * @param openingBalances The balance of every existing wallet, keyed by User ID.
+     * @param sink            Where accepted entries are written behind.
+     * @param journalPath     The append-only journal file.
+     * @param ringSize        The number of in-flight commands before producers block.
+     * @param flushBatchSize  The maximum number of entries per journal flush and per sink batch.
+     * @param firstSequence   The sequence of the first accepted entry.
+     * @throws IOException If the journal cannot be opened.
+     */
+    public LedgerEngine(Map<Integer, BigDecimal> openingBalances, LedgerSink sink, Path journalPath,
+                        int ringSize, int flushBatchSize, long firstSequence) throws IOException {
+        this.nextEntrySequence = firstSequence;
+        this.lastAcceptedSequence = firstSequence - 1;
+        this.lastFlushedSequence = firstSequence - 1;
+        this.ring = new RingBuffer(ringSize);
+        this.balances = new IntLongMap(Math.max(16, openingBalances.size()));
+        for (Map.Entry<Integer, BigDecimal> e : openingBalances.entrySet()) {
+            balances.put(e.getKey(), e.getValue().movePointRight(2).longValueExact());
+        }
+        this.maxBatch = flushBatchSize;
+        this.journal = new LedgerJournal(journalPath, Boolean.getBoolean("revpay.ledger.fsync"));
+        LedgerSink forgetting = batch -> {
+            sink.write(batch);
+            lastFlushedSequence = batch.get(batch.size() - 1).getSequence();
+            forgetKeys(batch);
+        };
+        this.writer = new WriteBehindWriter(forgetting, journal, Math.max(ringSize, flushBatchSize) * 4, flushBatchSize,
+                Long.getLong("revpay.ledger.flushIntervalMillis", 50));
+        this.sequencerThread = new Thread(this::runSequencer, "revpay-ledger-sequencer");
+        this.writerThread = new Thread(writer, "revpay-ledger-writer");
+    }
+
+    /**
+     * Gets the running ledger, if ledger mode is enabled.
+     * @return The active engine, or {@code null} when money movements go straight to MySQL.
+     */
+    public static LedgerEngine getActive() {
+        return active;
+    }
+
+    /**
+     * Starts the ledger against MySQL and makes it the active engine.
+     * <p>
+     * Entries from a previous run that were journaled but not yet flushed are replayed into
+     * MySQL first; only then are the wallet balances loaded, so the in-memory state starts
+     * exactly equal to the database. The replay skips entries the database checkpoint already
+     * covers, so a crash between a flush and its checkpoint file does not apply them twice.
+     * </p>
+     *
+     * @return The active engine.
+     * @throws IllegalStateException If the journal could not be replayed or the wallet balances could not be
+     *                               read; the engine is not started, since without balances it would refuse every payment.
+     */
+    public static synchronized LedgerEngine startFromDatabase() {
+        if (active != null) {
+            return active;
+        }
+        Path journalPath = Paths.get(System.getProperty("revpay.ledger.journal", "logs/ledger.journal"));
+        LedgerDAO ledgerDAO = new LedgerDAO();
+        try {
+            // 1. Recover operations acknowledged by a previous run but never written to MySQL
+            List<LedgerEntry> pending = LedgerJournal.readUnflushed(journalPath);
+            if (!pending.isEmpty()) {
+                logger.warn("⚠️ Replaying " + pending.size() + " unflushed ledger entries from " + journalPath);
+                ledgerDAO.flushBatch(pending);
+            }
+            LedgerJournal.reset(journalPath);
+
+            // 2. Seed balances and start, numbering entries after everything already flushed
+            LedgerEngine engine = new LedgerEngine(new WalletDAO().getAllBalances(), ledgerDAO::flushBatch, journalPath,
+                    Integer.getInteger("revpay.ledger.ringSize", 65_536),
+                    Integer.getInteger("revpay.ledger.flushBatchSize", 5_000),
+                    ledgerDAO.getLastFlushedSequence() + 1);
+            engine.start();
+            active = engine;
+            logger.info("✅ Ledger mode started with " + engine.balances.size() + " wallets");
+            return engine;
+        } catch (IOException | SQLException e) {
+            logger.fatal("🔥 Could not start ledger mode", e);
+            throw new IllegalStateException("Ledger recovery failed", e);
+        }
+    }
+
+    /**
+     * Stops the active engine (if any), flushing everything to MySQL first.
+     */
+    public static synchronized void stopActive() {
+        if (active != null) {
+            active.close();
+            active = null;
+        }
+    }
+
+    /**
+     * Starts the sequencer and write-behind threads.
+     */
+    public void start() {
+        writerThread.setDaemon(true);
+        writerThread.start();
+        sequencerThread.setDaemon(true);
+        sequencerThread.start();
+    }
+
+    /**
+     * Submits a transfer without waiting for it.
+     *
+     * @param senderId   The paying User ID.
+     * @param receiverId The receiving User ID.
+     * @param amount     The amount (at most 2 decimal places).
+     * @return A future completing with {@code true} once the transfer is journaled, or {@code false}
+     *         if it was rejected (insufficient funds, unknown wallet, invalid amount, engine stopped).
+     */
+    public CompletableFuture<Boolean> submitTransfer(int senderId, int receiverId, BigDecimal amount) {
+        return submitTransfer(senderId, receiverId, amount, null);
+    }
+
+    /**
+     * Submits a transfer, at most once per sender and idempotency key, without waiting for it.
+     *
+     * @param senderId       The paying User ID.
+     * @param receiverId     The receiving User ID.
+     * @param amount         The amount (at most 2 decimal places).
+     * @param idempotencyKey The client's request identity (at most 64 characters, no line breaks), or {@code null}.
+     * @return A future completing with {@code true} once the transfer is journaled (or an unflushed
+     *         transfer with the same key and terms is pending), {@code false} if it was rejected.
+     */
+    public CompletableFuture<Boolean> submitTransfer(int senderId, int receiverId, BigDecimal amount, String idempotencyKey) {
+        return submitMovement(RingBuffer.Kind.TRANSFER, senderId, receiverId, amount, idempotencyKey);
+    }
+
+    /**
+     * Submits a deposit without waiting for it.
+     *
+     * @param userId The User ID to credit.
+     * @param amount The amount (at most 2 decimal places).
+     * @return A future completing with {@code true} once the deposit is journaled.
+     */
+    public CompletableFuture<Boolean> submitDeposit(int userId, BigDecimal amount) {
+        return submitDeposit(userId, amount, null);
+    }
+
+    /**
+     * Submits a deposit, at most once per user and idempotency key, without waiting for it.
+     *
+     * @param userId         The User ID to credit.
+     * @param amount         The amount (at most 2 decimal places).
+     * @param idempotencyKey The client's request identity, or {@code null}.
+     * @return A future completing with {@code true} once the deposit is journaled.
+     */
+    public CompletableFuture<Boolean> submitDeposit(int userId, BigDecimal amount, String idempotencyKey) {
+        return submitMovement(RingBuffer.Kind.DEPOSIT, userId, userId, amount, idempotencyKey);
+    }
+
+    /**
+     * Transfers money and waits for the outcome.
+     *
+     * @param senderId   The paying User ID.
+     * @param receiverId The receiving User ID.
+     * @param amount     The amount.
+     * @return {@code true} if the transfer was accepted.
+     */
+    public boolean transfer(int senderId, int receiverId, BigDecimal amount) {
+        return await(submitTransfer(senderId, receiverId, amount));
+    }
+
+    /**
+     * Transfers money at most once per idempotency key and waits for the outcome.
+     *
+     * @param senderId       The paying User ID.
+     * @param receiverId     The receiving User ID.
+     * @param amount         The amount.
+     * @param idempotencyKey The client's request identity, or {@code null}.
+     * @return {@code true} if the transfer was accepted now or is already pending.
+     */
+    public boolean transfer(int senderId, int receiverId, BigDecimal amount, String idempotencyKey) {
+        return await(submitTransfer(senderId, receiverId, amount, idempotencyKey));
+    }
+
+    /**
+     * Deposits money and waits for the outcome.
+     *
+     * @param userId The User ID to credit.
+     * @param amount The amount.
+     * @return {@code true} if the deposit was accepted.
+     */
+    public boolean deposit(int userId, BigDecimal amount) {
+        return await(submitDeposit(userId, amount));
+    }
+
+    /**
+     * Deposits money at most once per idempotency key and waits for the outcome.
+     *
+     * @param userId         The User ID to credit.
+     * @param amount         The amount.
+     * @param idempotencyKey The client's request identity, or {@code null}.
+     * @return {@code true} if the deposit was accepted now or is already pending.
+     */
+    public boolean deposit(int userId, BigDecimal amount, String idempotencyKey) {
+        return await(submitDeposit(userId, amount, idempotencyKey));
+    }
+
+    /**
+     * Pays for a document, at most once per document, and waits for the outcome.
+     * <p>
+     * The caller checks that the document is pending and addressed to the payer; the entry then
+     * changes its status in the same database transaction that moves the money.
+     * </p>
+     *
+     * @param settles   The kind of document.
+     * @param settlesId The document's ID.
+     * @param payerId   The paying User ID.
+     * @param payeeId   The receiving User ID.
+     * @param amount    The amount.
+     * @return {@code true} if this call paid the document; {@code false} if it was already paid
+     *         (by an earlier call) or the transfer was rejected.
+     */
+    public boolean settle(LedgerEntry.Settles settles, int settlesId, int payerId, int payeeId, BigDecimal amount) {
+        long cents = toCents(amount);
+        CompletableFuture<Boolean> ack = new CompletableFuture<>();
+        if (cents <= 0 || !enqueue(RingBuffer.Kind.TRANSFER, payerId, payeeId, cents, null, settles, settlesId, ack, null)) {
+            rejected.incrementAndGet();
+            return false;
+        }
+        return await(ack);
+    }
+
+    /**
+     * Reserves a document so no payment can settle it, e.g. while the caller declines it in the database.
+     * <p>
+     * Release the reservation with {@link #releaseSettlement} if the caller's own change fails.
+     * </p>
+     *
+     * @param settles   The kind of document.
+     * @param settlesId The document's ID.
+     * @return {@code true} if the document was reserved; {@code false} if it is already paid or
+     *         reserved, or the engine is stopped.
+     */
+    public boolean claimSettlement(LedgerEntry.Settles settles, int settlesId) {
+        CompletableFuture<Boolean> done = new CompletableFuture<>();
+        return enqueue(RingBuffer.Kind.CLAIM_SETTLEMENT, 0, 0, 0, null, settles, settlesId, done, null) && await(done);
+    }
+
+    /**
+     * Gives back a reservation made by {@link #claimSettlement}.
+     *
+     * @param settles   The kind of document.
+     * @param settlesId The document's ID.
+     */
+    public void releaseSettlement(LedgerEntry.Settles settles, int settlesId) {
+        CompletableFuture<Boolean> done = new CompletableFuture<>();
+        if (enqueue(RingBuffer.Kind.RELEASE_SETTLEMENT, 0, 0, 0, null, settles, settlesId, done, null)) {
+            await(done);
+        }
+    }
+
+    /**
+     * Looks up a keyed movement that was accepted but is not yet in the database.
+     * <p>
+     * Check this before the database: an entry leaves this view only after its row is committed.
+     * </p>
+     *
+     * @param senderId       The paying User ID (the depositor for a deposit).
+     * @param receiverId     The credited User ID.
+     * @param amount         The amount of the request.
+     * @param idempotencyKey The client's request identity.
+     * @return {@code null} if no unflushed entry has the key; otherwise whether it is this same movement.
+     */
+    public Boolean checkIdempotencyKey(int senderId, int receiverId, BigDecimal amount, String idempotencyKey) {
+        LedgerEntry earlier = unflushedKeys.get(scoped(senderId, idempotencyKey));
+        return earlier == null ? null : earlier.getReceiverId() == receiverId && earlier.getAmountCents() == toCents(amount);
+    }
+
+    /**
+     * Reads a balance as of every operation submitted before this call.
+     *
+     * @param userId The User ID.
+     * @return The balance, or {@link BigDecimal#ZERO} if the wallet is unknown or the engine is stopped.
+     */
+    public BigDecimal getBalance(int userId) {
+        CompletableFuture<BigDecimal> result = new CompletableFuture<>();
+        if (!enqueue(RingBuffer.Kind.BALANCE, userId, userId, 0, null, null, result)) {
+            return BigDecimal.ZERO;
+        }
+        return result.join();
+    }
+
+    /**
+     * Registers a new, empty wallet (called after a user registers while the ledger runs).
+     *
+     * @param userId The new User ID.
+     */
+    public void openAccount(int userId) {
+        CompletableFuture<Boolean> done = new CompletableFuture<>();
+        if (enqueue(RingBuffer.Kind.OPEN_ACCOUNT, userId, userId, 0, null, done, null)) {
+            done.join();
+        }
+    }
+
+    /**
+     * Removes a wallet before its user is deleted from the database.
+     * <p>
+     * Goes through the sequencer, so every later operation naming the account is rejected,
+     * then waits until the entries accepted so far are committed by the sink: once this
+     * returns, no pending write-behind entry can hit the wallet row the caller is about to delete.
+     * </p>
+     *
+     * @param userId The User ID whose wallet is closed.
+     * @return {@code true} if the wallet is closed and flushed; {@code false} if the engine is
+     *         stopped or the flush did not catch up within {@code revpay.ledger.closeTimeoutMillis}.
+     */
+    public boolean closeAccount(int userId) {
+        CompletableFuture<Boolean> done = new CompletableFuture<>();
+        if (!enqueue(RingBuffer.Kind.CLOSE_ACCOUNT, userId, userId, 0, null, done, null) || !await(done)) {
+            return false;
+        }
+        long barrier = lastAcceptedSequence;
+        long deadline = System.nanoTime() + CLOSE_TIMEOUT_MILLIS * 1_000_000;
+        while (lastFlushedSequence < barrier) {
+            if (deadline - System.nanoTime() <= 0) {
+                logger.error("❌ Ledger flush did not reach #" + barrier + " while closing User ID " + userId);
+                return false;
+            }
+            LockSupport.parkNanos(1_000_000);
+        }
+        return true;
+    }
+
+    /**
+     * Gets the number of operations accepted since start.
+     * @return The accepted count.
+     */
+    public long getAcceptedCount() {
+        return accepted.get();
+    }
+
+    /**
+     * Gets the number of operations rejected since start.
+     * @return The rejected count.
+     */
+    public long getRejectedCount() {
+        return rejected.get();
+    }
+
+    /**
+     * Stops accepting operations, drains the ring and flushes every accepted entry to the sink.
+     */
+    @Override
+    public void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        try {
+            sequencerThread.join();
+            writer.stop();
+            writerThread.join();
+            journal.close();
+            logger.info("✅ Ledger stopped (" + accepted.get() + " accepted, " + rejected.get() + " rejected)");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            logger.error("❌ Interrupted while stopping the ledger; unflushed entries remain in the journal");
+        } catch (IOException e) {
+            logger.error("❌ Error closing ledger journal", e);
+        }
+    }
+
+    // --- Producer side ---
+
+    private CompletableFuture<Boolean> submitMovement(RingBuffer.Kind kind, int senderId, int receiverId, BigDecimal amount,
+                                                      String idempotencyKey) {
+        long cents = toCents(amount);
+        CompletableFuture<Boolean> ack = new CompletableFuture<>();
+        if (cents <= 0 || !isStorableKey(idempotencyKey)
+                || !enqueue(kind, senderId, receiverId, cents, idempotencyKey, ack, null)) {
+            rejected.incrementAndGet();
+            ack.complete(false);
+        }
+        return ack;
+    }
+
+    private boolean enqueue(RingBuffer.Kind kind, int senderId, int receiverId, long cents, String idempotencyKey,
+                            CompletableFuture<Boolean> ack, CompletableFuture<BigDecimal> balance) {
+        return enqueue(kind, senderId, receiverId, cents, idempotencyKey, null, 0, ack, balance);
+    }
+
+    private boolean enqueue(RingBuffer.Kind kind, int senderId, int receiverId, long cents, String idempotencyKey,
+                            LedgerEntry.Settles settles, int settlesId,
+                            CompletableFuture<Boolean> ack, CompletableFuture<BigDecimal> balance) {
+        inFlight.incrementAndGet();
+        try {
+            if (closed || failed) {
+                return false;
+            }
+            long seq = ring.claim();
+            RingBuffer.Command cmd = ring.get(seq);
+            cmd.kind = kind;
+            cmd.senderId = senderId;
+            cmd.receiverId = receiverId;
+            cmd.amountCents = cents;
+            cmd.idempotencyKey = idempotencyKey;
+            cmd.settles = settles;
+            cmd.settlesId = settlesId;
+            cmd.ack = ack;
+            cmd.balance = balance;
+            ring.publish(seq);
+            return true;
+        } finally {
+            inFlight.decrementAndGet();
+        }
+    }
+
+    // Exact cents, or -1 for amounts that are not positive or have sub-cent precision
+    private static long toCents(BigDecimal amount) {
+        if (amount == null || amount.signum() <= 0) {
+            return -1;
+        }
+        try {
+            return amount.movePointRight(2).longValueExact();
+        } catch (ArithmeticException e) {
+            return -1;
+        }
+    }
+
+    // A key the journal line and the VARCHAR(64) column can hold; anything else would fail the flush forever
+    private static boolean isStorableKey(String idempotencyKey) {
+        return idempotencyKey == null || (idempotencyKey.length() <= 64
+                && idempotencyKey.indexOf('\n') < 0 && idempotencyKey.indexOf('\r') < 0);
+    }
+
+    private static String scoped(int senderId, String idempotencyKey) {
+        return senderId + ":" + idempotencyKey;
+    }
+
+    private static long settlementKey(LedgerEntry.Settles settles, int settlesId) {
+        return ((long) settles.ordinal() << 32) | (settlesId & 0xFFFF_FFFFL);
+    }
+
+    private static boolean await(CompletableFuture<Boolean> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            logger.error("❌ Ledger operation failed", e.getCause());
+            return false;
+        }
+    }
+
+    // --- Sequencer side (single thread) ---
+
+    private void runSequencer() {
+        long next = 0;
+        int idle = 0;
+        boolean[] results = new boolean[maxBatch];
+        List<LedgerEntry> batch = new ArrayList<>(maxBatch);
+
+        while (true) {
+            if (!ring.isPublished(next)) {
+                if (closed && inFlight.get() == 0 && ring.lastClaimed() < next) {
+                    return;
+                }
+                // Spin briefly for low latency, then back off so an idle ledger does not burn a core
+                if (++idle < 1_000) {
+                    Thread.onSpinWait();
+                } else {
+                    LockSupport.parkNanos(50_000);
+                }
+                continue;
+            }
+            idle = 0;
+
+            // 1. Apply every published command up to the batch limit
+            long end = next;
+            while (end - next < maxBatch && ring.isPublished(end)) {
+                RingBuffer.Command cmd = ring.get(end);
+                results[(int) (end - next)] = apply(cmd, batch);
+                end++;
+            }
+
+            // 2. Group commit: one journal flush covers the whole batch
+            boolean durable = true;
+            if (!batch.isEmpty()) {
+                try {
+                    journal.flush();
+                } catch (IOException e) {
+                    durable = false;
+                    failed = true;
+                    logger.fatal("🔥 Ledger journal write failed; rejecting further operations", e);
+                    // Callers are told these failed, so they must not reach the balances or MySQL
+                    undo(batch);
+                    batch.clear();
+                }
+            }
+
+            // 3. Acknowledge callers and release the slots
+            for (long s = next; s < end; s++) {
+                RingBuffer.Command cmd = ring.get(s);
+                if (cmd.ack != null) {
+                    if (durable) {
+                        cmd.ack.complete(results[(int) (s - next)]);
+                    } else {
+                        cmd.ack.completeExceptionally(new IllegalStateException("Ledger journal unavailable"));
+                    }
+                }
+                cmd.clear();
+            }
+            ring.markConsumed(end - 1);
+            next = end;
+
+            // 4. Hand accepted entries to the write-behind flusher (blocks if MySQL is far behind)
+            for (LedgerEntry entry : batch) {
+                try {
+                    writer.enqueue(entry);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    logger.error("❌ Ledger sequencer interrupted; entry remains in the journal: " + entry);
+                }
+            }
+            batch.clear();
+        }
+    }
+
+    // Applies one command to the in-memory balances; returns the acknowledgement value
+    private boolean apply(RingBuffer.Command cmd, List<LedgerEntry> batch) {
+        if (cmd.idempotencyKey != null) {
+            // Only movements carry a key
+            LedgerEntry earlier = unflushedKeys.get(scoped(cmd.senderId, cmd.idempotencyKey));
+            if (earlier != null) {
+                return replay(cmd, earlier);
+            }
+        }
+        switch (cmd.kind) {
+            case BALANCE:
+                cmd.balance.complete(BigDecimal.valueOf(balances.get(cmd.senderId, 0), 2));
+                return true;
+
+            case OPEN_ACCOUNT:
+                if (!balances.containsKey(cmd.senderId)) {
+                    balances.put(cmd.senderId, 0);
+                }
+                return true;
+
+            case CLOSE_ACCOUNT:
+                balances.remove(cmd.senderId, 0);
+                return true;
+
+            case CLAIM_SETTLEMENT:
+                return settled.add(settlementKey(cmd.settles, cmd.settlesId));
+
+            case RELEASE_SETTLEMENT:
+                settled.remove(settlementKey(cmd.settles, cmd.settlesId));
+                return true;
+
+            case DEPOSIT:
+                if (!balances.containsKey(cmd.receiverId)) {
+                    return reject("⚠️ Deposit Failed: Wallet not found for User ID " + cmd.receiverId);
+                }
+                balances.put(cmd.receiverId, balances.get(cmd.receiverId, 0) + cmd.amountCents);
+                return accept(TransactionType.DEPOSIT, cmd, batch);
+
+            case TRANSFER:
+            default:
+                if (!balances.containsKey(cmd.senderId) || !balances.containsKey(cmd.receiverId)) {
+                    return reject("⚠️ Transfer Failed: Wallet not found (" + cmd.senderId + " -> " + cmd.receiverId + ")");
+                }
+                if (cmd.settles != null && settled.contains(settlementKey(cmd.settles, cmd.settlesId))) {
+                    return reject("⚠️ Payment Failed: " + cmd.settles + " #" + cmd.settlesId + " is already paid");
+                }
+                long senderBalance = balances.get(cmd.senderId, 0);
+                if (senderBalance < cmd.amountCents) {
+                    return reject("⚠️ Transfer Failed: Insufficient funds for User ID " + cmd.senderId);
+                }
+                balances.put(cmd.senderId, senderBalance - cmd.amountCents);
+                balances.put(cmd.receiverId, balances.get(cmd.receiverId, 0) + cmd.amountCents);
+                return accept(TransactionType.TRANSFER, cmd, batch);
+        }
+    }
+
+    // Reverts a batch that never became durable, newest entry first
+    private void undo(List<LedgerEntry> batch) {
+        for (int i = batch.size() - 1; i >= 0; i--) {
+            LedgerEntry e = batch.get(i);
+            balances.put(e.getReceiverId(), balances.get(e.getReceiverId(), 0) - e.getAmountCents());
+            if (e.getType() == TransactionType.TRANSFER) {
+                balances.put(e.getSenderId(), balances.get(e.getSenderId(), 0) + e.getAmountCents());
+            }
+            if (e.getIdempotencyKey() != null) {
+                unflushedKeys.remove(scoped(e.getSenderId(), e.getIdempotencyKey()), e);
+            }
+            if (e.getSettles() != null) {
+                settled.remove(settlementKey(e.getSettles(), e.getSettlesId()));
+            }
+        }
+        accepted.addAndGet(-batch.size());
+        rejected.addAndGet(batch.size());
+        journal.discardUnflushed();
+    }
+
+    private boolean accept(TransactionType type, RingBuffer.Command cmd, List<LedgerEntry> batch) {
+        LedgerEntry entry = new LedgerEntry(nextEntrySequence++, type, cmd.senderId, cmd.receiverId,
+                cmd.amountCents, System.currentTimeMillis(), cmd.idempotencyKey, cmd.settles, cmd.settlesId);
+        if (cmd.idempotencyKey != null) {
+            unflushedKeys.put(scoped(cmd.senderId, cmd.idempotencyKey), entry);
+        }
+        if (cmd.settles != null) {
+            settled.add(settlementKey(cmd.settles, cmd.settlesId));
+        }
+        try {
+            journal.append(entry);
+        } catch (IOException e) {
+            // Surfaces again on the batch flush, which fails the whole batch
+            logger.error("❌ Ledger journal append failed for " + entry, e);
+        }
+        batch.add(entry);
+        lastAcceptedSequence = entry.getSequence();
+        accepted.incrementAndGet();
+        return true;
+    }
+
+    // A retry of a pending keyed entry: the same terms succeed without a second entry, others are refused
+    private boolean replay(RingBuffer.Command cmd, LedgerEntry earlier) {
+        if (earlier.getReceiverId() == cmd.receiverId && earlier.getAmountCents() == cmd.amountCents) {
+            logger.debug("🔁 Ledger entry #" + earlier.getSequence() + " already holds idempotency key " + cmd.idempotencyKey);
+            return true;
+        }
+        return reject("⚠️ Idempotency key " + cmd.idempotencyKey + " of User ID " + cmd.senderId + " was used for a different payment");
+    }
+
+    // Runs on the writer thread once the sink has committed a batch
+    private void forgetKeys(List<LedgerEntry> batch) {
+        for (LedgerEntry e : batch) {
+            if (e.getIdempotencyKey() != null) {
+                unflushedKeys.remove(scoped(e.getSenderId(), e.getIdempotencyKey()), e);
+            }
+        }
+    }
+
+    // Debug level: a synchronous WARN per rejection would throttle the sequencer under load
+    private boolean reject(String reason) {
+        logger.debug(reason);
+        rejected.incrementAndGet();
+        return false;
+    }
+}
@@ -0,0 +1,192 @@
+package com.revpay.ledger;
+
+import com.revpay.model.TransactionType;
+
+import java.math.BigDecimal;
+
+/**
+ * An accepted ledger operation, as written to the journal and flushed to MySQL.
+ * <p>
+ * Entries are immutable and numbered by the sequencer in the order they were applied,
+ * so the write-behind flusher and journal replay can apply them in exactly that order.
+ * </p>
+ * <p>
+ * A payment may settle a document (see {@link Settles}); the document's status change is
+ * flushed in the same database transaction as the money, so neither is ever committed alone.
+ * </p>
+ *
+ * @author RevPay Dev Team
+ * @version 1.0
+ */
+public final class LedgerEntry {
+
+    /**
+     * Documents a payment entry can settle.
+     */
+    public enum Settles {
+        /** Marks a pending invoice PAID. */
+        INVOICE,
+        /** Marks a pending money request ACCEPTED. */
+        REQUEST
+    }
+
+    private final long sequence;
+    private final TransactionType type;
+    private final int senderId;
+    private final int receiverId;
+    private final long amountCents;
+    private final long timestampMillis;
+    private final String idempotencyKey;
+    private final Settles settles;
+    private final int settlesId;
+
+    /**
+     * Creates a ledger entry without an idempotency key.
+     *
+     * @param sequence        The sequencer order of the operation.
+     * @param type            TRANSFER or DEPOSIT.
+     * @param senderId        The paying User ID (the depositor for a deposit).
+     * @param receiverId      The credited User ID.
+     * @param amountCents     The amount in cents.
+     * @param timestampMillis When the operation was accepted.
+     */
+    public LedgerEntry(long sequence, TransactionType type, int senderId, int receiverId, long amountCents, long timestampMillis) {
+        this(sequence, type, senderId, receiverId, amountCents, timestampMillis, null);
+    }
+
+    /**
+     * Creates a ledger entry.
+     *
+     * @param sequence        The sequencer order of the operation.
+     * @param type            TRANSFER or DEPOSIT.
+     * @param senderId        The paying User ID (the depositor for a deposit).
+     * @param receiverId      The credited User ID.
+     * @param amountCents     The amount in cents.
+     * @param timestampMillis When the operation was accepted.
+     * @param idempotencyKey  The client's request identity (stored on the {@code transactions} row), or {@code null}.
+     */
+    public LedgerEntry(long sequence, TransactionType type, int senderId, int receiverId, long amountCents, long timestampMillis,
+                       String idempotencyKey) {
+        this(sequence, type, senderId, receiverId, amountCents, timestampMillis, idempotencyKey, null, 0);
+    }
+
+    /**
+     * Creates a ledger entry that settles a document.
+     *
+     * @param sequence        The sequencer order of the operation.
+     * @param type            TRANSFER or DEPOSIT.
+     * @param senderId        The paying User ID.
+     * @param receiverId      The credited User ID.
+     * @param amountCents     The amount in cents.
+     * @param timestampMillis When the operation was accepted.
+     * @param idempotencyKey  The client's request identity, or {@code null}.
+     * @param settles         The kind of document paid, or {@code null}.
+     * @param settlesId       The ID of that document.
+     */
+    public LedgerEntry(long sequence, TransactionType type, int senderId, int receiverId, long amountCents, long timestampMillis,
+                       String idempotencyKey, Settles settles, int settlesId) {
+        this.sequence = sequence;
+        this.type = type;
+        this.senderId = senderId;
+        this.receiverId = receiverId;
+        this.amountCents = amountCents;
+        this.timestampMillis = timestampMillis;
+        this.idempotencyKey = idempotencyKey;
+        this.settles = settles;
+        this.settlesId = settles == null ? 0 : settlesId;
+    }
+
+    /**
+     * Gets the sequencer order of the operation.
+     * @return The sequence number.
+     */
+    public long getSequence() { return sequence; }
+
+    /**
+     * Gets the operation type.
+     * @return The {@link TransactionType}.
+     */
+    public TransactionType getType() { return type; }
+
+    /**
+     * Gets the paying User ID.
+     * @return The sender ID.
+     */
+    public int getSenderId() { return senderId; }
+
+    /**
+     * Gets the credited User ID.
+     * @return The receiver ID.
+     */
+    public int getReceiverId() { return receiverId; }
+
+    /**
+     * Gets the amount in cents.
+     * @return The amount in cents.
+     */
+    public long getAmountCents() { return amountCents; }
+
+    /**
+     * Gets the amount as a 2-decimal {@link BigDecimal}.
+     * @return The amount.
+     */
+    public BigDecimal getAmount() { return BigDecimal.valueOf(amountCents, 2); }
+
+    /**
+     * Gets when the operation was accepted.
+     * @return Epoch milliseconds.
+     */
+    public long getTimestampMillis() { return timestampMillis; }
+
+    /**
+     * Gets the client's request identity.
+     * @return The idempotency key, or {@code null} if the caller sent none.
+     */
+    public String getIdempotencyKey() { return idempotencyKey; }
+
+    /**
+     * Gets the kind of document this payment settles.
+     * @return The kind, or {@code null} for a plain movement.
+     */
+    public Settles getSettles() { return settles; }
+
+    /**
+     * Gets the ID of the settled document.
+     * @return The invoice or request ID (0 for a plain movement).
+     */
+    public int getSettlesId() { return settlesId; }
+
+    /**
+     * Encodes the entry as one journal line.
+     * @return A pipe-separated line without the trailing newline; the key (if any) is the last field.
+     *         A settled document rides on the type field ({@code TRANSFER:INVOICE:42}), so older lines still parse.
+     */
+    String toJournalLine() {
+        String typeField = settles == null ? type.name() : type.name() + ":" + settles.name() + ":" + settlesId;
+        String line = sequence + "|" + typeField + "|" + senderId + "|" + receiverId + "|" + amountCents + "|" + timestampMillis;
+        return idempotencyKey == null ? line : line + "|" + idempotencyKey;
+    }
+
+    /**
+     * Decodes a journal line written by {@link #toJournalLine()}.
+     * @param line The journal line.
+     * @return The decoded entry.
+     */
+    static LedgerEntry fromJournalLine(String line) {
+        String[] f = line.split("\\|", 7); // the key may itself contain '|'
+        String[] t = f[1].split(":");
+        return new LedgerEntry(Long.parseLong(f[0]), TransactionType.valueOf(t[0]), Integer.parseInt(f[2]),
+                Integer.parseInt(f[3]), Long.parseLong(f[4]), Long.parseLong(f[5]), f.length > 6 ? f[6] : null,
+                t.length == 3 ? Settles.valueOf(t[1]) : null, t.length == 3 ? Integer.parseInt(t[2]) : 0);
+    }
+
+    /**
+     * Returns a string representation of the entry.
+     * @return A formatted string.
+     */
+    @Override
+    public String toString() {
+        return "LedgerEntry [#" + sequence + " " + type + " " + senderId + " -> " + receiverId + " $" + getAmount()
+                + (settles == null ? "" : " settles " + settles + " #" + settlesId) + "]";
+    }
+}
@@ -0,0 +1,170 @@
+package com.revpay.ledger;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.BufferedWriter;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Append-only journal of accepted ledger entries.
+ * <p>
+ * The sequencer appends every accepted entry and flushes once per processed batch
+ * (group commit) before acknowledging callers. After the write-behind flusher commits a
+ * batch to MySQL it records the last applied sequence in a checkpoint file next to the
+ * journal. On the next start, entries after the checkpoint are replayed into MySQL.
+ * The file only shortens the replay: the authoritative checkpoint is committed with each
+ * batch by {@code LedgerDAO}, which skips entries it already holds.
+ * </p>
+ *
+ * @author RevPay Dev Team
+ * @version 1.0
+ */
+final class LedgerJournal implements AutoCloseable {
+
+    // Initialize Log4j Logger
+    private static final Logger logger = LogManager.getLogger(LedgerJournal.class);
+
+    private final Path checkpointPath;
+    private final FileOutputStream out;
+    private final BufferedWriter writer;
+    private final boolean fsync;
+    private long flushedLength;
+    private boolean discarded;
+
+    /**
+     * Opens (or creates) the journal for appending.
+     *
+     * @param path  The journal file.
+     * @param fsync Whether every flush should also force the data to disk.
+     * @throws IOException If the file cannot be opened.
+     */
+    LedgerJournal(Path path, boolean fsync) throws IOException {
+        Path parent = path.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        this.checkpointPath = checkpointFor(path);
+        this.out = new FileOutputStream(path.toFile(), true);
+        this.writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), 1 << 16);
+        this.fsync = fsync;
+        this.flushedLength = out.getChannel().size();
+    }
+
+    /**
+     * Buffers one entry; it becomes durable on the next {@link #flush()}.
+     * @param entry The accepted entry.
+     * @throws IOException If the write fails.
+     */
+    void append(LedgerEntry entry) throws IOException {
+        writer.write(entry.toJournalLine());
+        writer.newLine();
+    }
+
+    /**
+     * Pushes buffered entries to the file (and to disk when fsync is enabled).
+     * @throws IOException If the write fails.
+     */
+    void flush() throws IOException {
+        writer.flush();
+        if (fsync) {
+            out.getFD().sync();
+        }
+        flushedLength = out.getChannel().size();
+    }
+
+    /**
+     * Drops the entries written since the last successful {@link #flush()} after that flush
+     * failed, so they are not replayed on the next start. The journal accepts no more writes.
+     */
+    void discardUnflushed() {
+        discarded = true;
+        try {
+            out.getChannel().truncate(flushedLength);
+        } catch (IOException e) {
+            logger.fatal("🔥 Could not drop unacknowledged ledger entries from the journal; "
+                    + "remove the lines after byte " + flushedLength + " before restarting", e);
+        }
+    }
+
+    /**
+     * Records that every entry up to {@code sequence} is committed in MySQL.
+     * @param sequence The last flushed sequence.
+     */
+    void checkpoint(long sequence) {
+        try {
+            Path tmp = checkpointPath.resolveSibling(checkpointPath.getFileName() + ".tmp");
+            Files.writeString(tmp, Long.toString(sequence), StandardCharsets.UTF_8);
+            Files.move(tmp, checkpointPath, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            // Not fatal: a stale checkpoint only means more entries are replayed after a crash
+            logger.warn("⚠️ Could not write ledger checkpoint " + sequence, e);
+        }
+    }
+
+    /**
+     * Closes the journal file.
+     * @throws IOException If the final flush fails.
+     */
+    @Override
+    public void close() throws IOException {
+        if (discarded) {
+            out.close(); // the buffered entries were never acknowledged
+        } else {
+            writer.close();
+        }
+    }
+
+    /**
+     * Reads the entries that were journaled but never checkpointed (i.e., possibly not in MySQL).
+     *
+     * @param path The journal file.
+     * @return The entries after the last checkpoint, in sequence order.
+     * @throws IOException If the files cannot be read.
+     */
+    static List<LedgerEntry> readUnflushed(Path path) throws IOException {
+        List<LedgerEntry> entries = new ArrayList<>();
+        if (!Files.exists(path)) {
+            return entries;
+        }
+        long checkpoint = -1;
+        Path checkpointPath = checkpointFor(path);
+        if (Files.exists(checkpointPath)) {
+            checkpoint = Long.parseLong(Files.readString(checkpointPath, StandardCharsets.UTF_8).trim());
+        }
+        for (String line : Files.readAllLines(path, StandardCharsets.UTF_8)) {
+            if (line.isBlank()) continue;
+            try {
+                LedgerEntry entry = LedgerEntry.fromJournalLine(line);
+                if (entry.getSequence() > checkpoint) entries.add(entry);
+            } catch (RuntimeException e) {
+                // A torn last line from a crash mid-write was never acknowledged to anyone
+                logger.warn("⚠️ Skipping unreadable ledger journal line: " + line);
+            }
+        }
+        return entries;
+    }
+
+    /**
+     * Deletes the journal and its checkpoint once everything in it is safely in MySQL.
+     *
+     * @param path The journal file.
+     * @throws IOException If the files cannot be deleted.
+     */
+    static void reset(Path path) throws IOException {
+        Files.deleteIfExists(path);
+        Files.deleteIfExists(checkpointFor(path));
+    }
+
+    private static Path checkpointFor(Path path) {
+        return path.resolveSibling(path.getFileName() + ".checkpoint");
+    }
+}
@@ -0,0 +1,21 @@
+package com.revpay.ledger;
+
+import java.util.List;
+
+/**
+ * Destination of the ledger's write-behind batches (normally MySQL via {@code LedgerDAO}).
+ *
+ * @author RevPay Dev Team
+ * @version 1.0
+ */
+@FunctionalInterface
+public interface LedgerSink {
+
+    /**
+     * Durably applies a batch of accepted entries, in order, as one unit.
+     *
+     * @param batch The entries to apply (never empty).
+     * @throws Exception If the batch could not be applied; it will be retried.
+     */
+    void write(List<LedgerEntry> batch) throws Exception;
+}
@@ -0,0 +1,127 @@
+package com.revpay.ledger;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Background thread that flushes accepted ledger entries to the {@link LedgerSink} in batches.
+ * <p>
+ * Entries wait in a bounded queue; when MySQL falls behind the queue fills up and the
+ * sequencer blocks, which in turn applies backpressure to callers. A failed batch is kept
+ * and retried until it succeeds, so entries are never dropped or reordered.
+ * </p>
+ *
+ * @author RevPay Dev Team
+ * @version 1.0
+ */
+final class WriteBehindWriter implements Runnable {
+
+    // Initialize Log4j Logger
+    private static final Logger logger = LogManager.getLogger(WriteBehindWriter.class);
+
+    private static final long RETRY_DELAY_MILLIS = 1_000;
+
+    private final BlockingQueue<LedgerEntry> queue;
+    private final LedgerSink sink;
+    private final LedgerJournal journal;
+    private final int maxBatch;
+    private final long flushIntervalMillis;
+    private volatile boolean stopping;
+    private volatile long flushedSequence = -1;
+
+    /**
+     * Creates the writer.
+     *
+     * @param sink                Where batches are written.
+     * @param journal             The journal to checkpoint after each batch.
+     * @param capacity            The maximum number of entries waiting to be flushed.
+     * @param maxBatch            The maximum entries per batch.
+     * @param flushIntervalMillis How long to wait for more entries before flushing a partial batch.
+     */
+    WriteBehindWriter(LedgerSink sink, LedgerJournal journal, int capacity, int maxBatch, long flushIntervalMillis) {
+        this.queue = new LinkedBlockingQueue<>(capacity);
+        this.sink = sink;
+        this.journal = journal;
+        this.maxBatch = maxBatch;
+        this.flushIntervalMillis = flushIntervalMillis;
+    }
+
+    /**
+     * Queues an entry, blocking while the queue is full.
+     * @param entry The accepted entry.
+     * @throws InterruptedException If interrupted while waiting for space.
+     */
+    void enqueue(LedgerEntry entry) throws InterruptedException {
+        queue.put(entry);
+    }
+
+    /**
+     * Asks the writer to exit once the queue is drained.
+     */
+    void stop() {
+        stopping = true;
+    }
+
+    /**
+     * Gets the sequence of the last entry committed by the sink.
+     * @return The last flushed sequence (-1 if none).
+     */
+    long getFlushedSequence() {
+        return flushedSequence;
+    }
+
+    /**
+     * Gets the number of entries waiting to be flushed.
+     * @return The backlog size.
+     */
+    int getBacklog() {
+        return queue.size();
+    }
+
+    @Override
+    public void run() {
+        List<LedgerEntry> batch = new ArrayList<>(maxBatch);
+        while (true) {
+            try {
+                LedgerEntry first = queue.poll(flushIntervalMillis, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    if (stopping && queue.isEmpty()) return;
+                    continue;
+                }
+                batch.add(first);
+                queue.drainTo(batch, maxBatch - 1);
+                writeWithRetry(batch);
+                batch.clear();
+            } catch (InterruptedException e) {
+                // Shutdown is driven by stop(); keep draining so nothing is lost
+                stopping = true;
+            }
+        }
+    }
+
+    private void writeWithRetry(List<LedgerEntry> batch) {
+        while (true) {
+            try {
+                sink.write(batch);
+                long last = batch.get(batch.size() - 1).getSequence();
+                flushedSequence = last;
+                journal.checkpoint(last);
+                return;
+            } catch (Exception e) {
+                logger.error("❌ Ledger write-behind failed for " + batch.size() + " entries, retrying in "
+                        + RETRY_DELAY_MILLIS + "ms", e);
+                try {
+                    Thread.sleep(RETRY_DELAY_MILLIS);
+                } catch (InterruptedException ie) {
+                    stopping = true;
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,111 @@
+package com.revpay.load;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Thread-safe, fixed-size latency histogram with about 1.5% relative precision.
+ * <p>
+ * Storing every sample of a long load run would cost memory proportional to the run; this
+ * histogram uses log-linear buckets instead (exact below 128ns, then 64 buckets per power
+ * of two), so recording is one atomic increment and percentiles such as p99.9 can be read
+ * at any time. Reported values are the upper bound of the bucket, so they never understate
+ * a latency.
+ * </p>
+ *
+ * @author RevPay Dev Team
+ * @version 1.0
+ */
+public class LatencyHistogram {
+
+    private static final int LINEAR = 128;
+    private static final int SUB_BUCKETS = 64;
+    private static final int BUCKETS = LINEAR + 57 * SUB_BUCKETS;
+
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+    private final LongAdder total = new LongAdder();
+    private final LongAdder sumNanos = new LongAdder();
+    private volatile long maxNanos;
+
+    /**
+     * Records one latency sample.
+     *
+     * @param nanos The latency in nanoseconds (negative values count as 0).
+     */
+    public void record(long nanos) {
+        long v = Math.max(0, nanos);
+        counts.incrementAndGet(indexOf(v));
+        total.increment();
+        sumNanos.add(v);
+        if (v > maxNanos) {
+            synchronized (this) {
+                if (v > maxNanos) maxNanos = v;
+            }
+        }
+    }
+
+    /**
+     * Gets the number of samples recorded.
+     * @return The sample count.
+     */
+    public long getCount() {
+        return total.sum();
+    }
+
+    /**
+     * Gets the mean latency.
+     * @return The mean in nanoseconds (0 when empty).
+     */
+    public double getMeanNanos() {
+        long n = total.sum();
+        return n == 0 ? 0 : sumNanos.sum() / (double) n;
+    }
+
+    /**
+     * Gets the largest latency recorded.
+     * @return The maximum in nanoseconds.
+     */
+    public long getMaxNanos() {
+        return maxNanos;
+    }
+
+    /**
+     * Gets the latency below which the given fraction of samples fall.
+     *
+     * @param percentile The percentile, e.g. 50, 99 or 99.9.
+     * @return The latency in nanoseconds (0 when empty).
+     */
+    public long getPercentileNanos(double percentile) {
+        long n = total.sum();
+        if (n == 0) {
+            return 0;
+        }
+        long rank = Math.max(1, (long) Math.ceil(n * percentile / 100.0));
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += counts.get(i);
+            if (seen >= rank) {
+                return Math.min(upperBound(i), maxNanos);
+            }
+        }
+        return maxNanos;
+    }
+
+    static int indexOf(long v) {
+        if (v < LINEAR) {
+            return (int) v;
+        }
+        int shift = 63 - Long.numberOfLeadingZeros(v) - 6; // keeps the top 7 bits: 64..127
+        long sub = v >>> shift;
+        return LINEAR + (shift - 1) * SUB_BUCKETS + (int) (sub - SUB_BUCKETS);
+    }
+
+    static long upperBound(int index) {
+        if (index < LINEAR) {
+            return index;
+        }
+        int shift = (index - LINEAR) / SUB_BUCKETS + 1;
+        long sub = (index - LINEAR) % SUB_BUCKETS + SUB_BUCKETS;
+        return ((sub + 1) << shift) - 1;
+    }
+}
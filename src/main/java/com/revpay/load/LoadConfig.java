@@ -0,0 +1,168 @@
+package com.revpay.load;
+
+import java.math.BigDecimal;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Settings for a {@link LoadGenerator} run.
+ * <p>
+ * Every value can be overridden with a JVM system property (for example
+ * {@code -Drevpay.load.users=10000} or {@code -Drevpay.load.mix=transfer=80,balance=20}).
+ * </p>
+ *
+ * @author RevPay Dev Team
+ * @version 1.0
+ */
+public class LoadConfig {
+
+    /** The operations a load run can issue. */
+    public enum Operation { TRANSFER, DEPOSIT, BALANCE, HISTORY }
+
+    private int users = 1_000;
+    private int threads = 64;
+    private boolean virtualThreads = true;
+    private long warmupSeconds = 5;
+    private long durationSeconds = 30;
+    private BigDecimal initialBalance = new BigDecimal("1000.00");
+    private Map<Operation, Integer> mix = parseMix("transfer=60,deposit=10,balance=20,history=10");
+
+    /**
+     * Default constructor with the built-in defaults.
+     */
+    public LoadConfig() {}
+
+    /**
+     * Builds a configuration from the built-in defaults overridden by any
+     * {@code revpay.load.*} system properties that are set.
+     *
+     * @return A new {@link LoadConfig}.
+     */
+    public static LoadConfig fromSystemProperties() {
+        LoadConfig c = new LoadConfig();
+        c.users = Integer.getInteger("revpay.load.users", c.users);
+        c.threads = Integer.getInteger("revpay.load.threads", c.threads);
+        c.virtualThreads = Boolean.parseBoolean(System.getProperty("revpay.load.virtualThreads", String.valueOf(c.virtualThreads)));
+        c.warmupSeconds = Long.getLong("revpay.load.warmupSeconds", c.warmupSeconds);
+        c.durationSeconds = Long.getLong("revpay.load.durationSeconds", c.durationSeconds);
+        c.initialBalance = new BigDecimal(System.getProperty("revpay.load.initialBalance", c.initialBalance.toPlainString()));
+        String mix = System.getProperty("revpay.load.mix");
+        if (mix != null) c.mix = parseMix(mix);
+        return c;
+    }
+
+    /**
+     * Parses an operation mix such as {@code "transfer=60,deposit=10,balance=20,history=10"}.
+     *
+     * @param text Comma-separated {@code operation=weight} pairs; missing operations get weight 0.
+     * @return The weights, in {@link Operation} order.
+     * @throws IllegalArgumentException If an operation is unknown, a weight is negative, or all weights are 0.
+     */
+    public static Map<Operation, Integer> parseMix(String text) {
+        Map<Operation, Integer> weights = new LinkedHashMap<>();
+        for (Operation op : Operation.values()) weights.put(op, 0);
+        int sum = 0;
+        for (String part : text.split(",")) {
+            String[] kv = part.trim().split("=");
+            if (kv.length != 2) {
+                throw new IllegalArgumentException("Invalid mix entry: " + part);
+            }
+            int weight = Integer.parseInt(kv[1].trim());
+            if (weight < 0) {
+                throw new IllegalArgumentException("Negative weight for " + kv[0]);
+            }
+            weights.put(Operation.valueOf(kv[0].trim().toUpperCase()), weight);
+            sum += weight;
+        }
+        if (sum == 0) {
+            throw new IllegalArgumentException("Operation mix has no weight");
+        }
+        return weights;
+    }
+
+    // --- Getters and Setters ---
+
+    /**
+     * Gets the number of synthetic users seeded before the run.
+     * @return The user count (at least 2 for transfers).
+     */
+    public int getUsers() { return users; }
+
+    /**
+     * Sets the number of synthetic users.
+     * @param users The user count.
+     */
+    public void setUsers(int users) { this.users = users; }
+
+    /**
+     * Gets the number of concurrent workers issuing operations.
+     * @return The worker count.
+     */
+    public int getThreads() { return threads; }
+
+    /**
+     * Sets the number of concurrent workers.
+     * @param threads The worker count.
+     */
+    public void setThreads(int threads) { this.threads = threads; }
+
+    /**
+     * Checks whether workers run on virtual threads (when the runtime supports them).
+     * @return {@code true} for virtual threads.
+     */
+    public boolean isVirtualThreads() { return virtualThreads; }
+
+    /**
+     * Sets whether workers run on virtual threads.
+     * @param virtualThreads {@code true} for virtual threads, {@code false} for platform threads.
+     */
+    public void setVirtualThreads(boolean virtualThreads) { this.virtualThreads = virtualThreads; }
+
+    /**
+     * Gets how long the load runs before measurement starts.
+     * @return The warm-up in seconds.
+     */
+    public long getWarmupSeconds() { return warmupSeconds; }
+
+    /**
+     * Sets the warm-up time.
+     * @param warmupSeconds The warm-up in seconds.
+     */
+    public void setWarmupSeconds(long warmupSeconds) { this.warmupSeconds = warmupSeconds; }
+
+    /**
+     * Gets how long the measured phase runs.
+     * @return The duration in seconds.
+     */
+    public long getDurationSeconds() { return durationSeconds; }
+
+    /**
+     * Sets the measured duration.
+     * @param durationSeconds The duration in seconds.
+     */
+    public void setDurationSeconds(long durationSeconds) { this.durationSeconds = durationSeconds; }
+
+    /**
+     * Gets the amount deposited into every synthetic wallet before the run.
+     * @return The opening balance.
+     */
+    public BigDecimal getInitialBalance() { return initialBalance; }
+
+    /**
+     * Sets the opening balance of every synthetic wallet.
+     * @param initialBalance The opening balance.
+     */
+    public void setInitialBalance(BigDecimal initialBalance) { this.initialBalance = initialBalance; }
+
+    /**
+     * Gets the relative weight of each operation.
+     * @return The operation mix.
+     */
+    public Map<Operation, Integer> getMix() { return mix; }
+
+    /**
+     * Sets the relative weight of each operation.
+     * @param mix The operation mix (see {@link #parseMix(String)}).
+     */
+    public void setMix(Map<Operation, Integer> mix) { this.mix = mix; }
+}
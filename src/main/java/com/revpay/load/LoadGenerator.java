@@ -0,0 +1,280 @@
+package com.revpay.load;
+
+import com.revpay.load.LoadConfig.Operation;
+import com.revpay.model.Role;
+import com.revpay.model.User;
+import com.revpay.service.TransactionService;
+import com.revpay.service.UserService;
+import com.revpay.util.SecurityUtil;
+import com.revpay.util.VirtualThreads;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.PrintStream;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Synthetic load generator for the real service stack.
+ * <p>
+ * A run seeds {@link LoadConfig#getUsers()} users with funded wallets, then drives a
+ * weighted mix of {@code processTransfer}, {@code processDeposit}, {@code getBalance} and
+ * {@code getHistory} calls from many concurrent workers. After a warm-up, every call is
+ * timed into a {@link LatencyHistogram}; the report shows throughput and p50/p99/p99.9
+ * latency per operation, plus how many calls were rejected (e.g., insufficient funds) or
+ * failed with an exception.
+ * </p>
+ * <p>
+ * Transfers only move money between the seeded users, so at the end the sum of their
+ * balances must equal the opening total plus every successful deposit; the run reports
+ * whether that conservation check held. Started by {@code Main --load}; seeded users are
+ * left in the database (emails {@code load-<run>-<n>@revpay.test}).
+ * </p>
+ *
+ * @author RevPay Dev Team
+ * @version 1.0
+ */
+public class LoadGenerator {
+
+    // Initialize Log4j Logger
+    private static final Logger logger = LogManager.getLogger(LoadGenerator.class);
+
+    private static final int HISTORY_PAGE_SIZE = 20;
+    private static final int MAX_AMOUNT_CENTS = 1_000;
+    private static final int SEED_COST = 4; // seeded passwords are never used to log in
+
+    private final LoadConfig config;
+    private final UserService userService = new UserService();
+    private final TransactionService transactionService = new TransactionService();
+
+    private final Operation[] ops = Operation.values();
+    private final LatencyHistogram[] latencies = new LatencyHistogram[ops.length];
+    private final LongAdder[] succeeded = new LongAdder[ops.length];
+    private final LongAdder[] rejected = new LongAdder[ops.length];
+    private final LongAdder[] errors = new LongAdder[ops.length];
+    private final LongAdder depositedCents = new LongAdder();
+    private final int[] cumulativeWeights;
+
+    private volatile boolean recording;
+    private volatile boolean stopped;
+
+    /**
+     * Creates a generator for one run.
+     *
+     * @param config The run settings.
+     * @throws IllegalArgumentException If fewer than two users are configured.
+     */
+    public LoadGenerator(LoadConfig config) {
+        if (config.getUsers() < 2) {
+            throw new IllegalArgumentException("At least 2 users are needed for transfers");
+        }
+        this.config = config;
+        this.cumulativeWeights = new int[ops.length];
+        int sum = 0;
+        for (int i = 0; i < ops.length; i++) {
+            sum += config.getMix().getOrDefault(ops[i], 0);
+            cumulativeWeights[i] = sum;
+            latencies[i] = new LatencyHistogram();
+            succeeded[i] = new LongAdder();
+            rejected[i] = new LongAdder();
+            errors[i] = new LongAdder();
+        }
+    }
+
+    /**
+     * Seeds the users, runs the load and prints the report.
+     *
+     * @param out Where the report is printed.
+     * @return {@code true} if the balance conservation check held.
+     * @throws InterruptedException If the run is interrupted.
+     */
+    public boolean run(PrintStream out) throws InterruptedException {
+        out.println("Seeding " + config.getUsers() + " users with " + config.getInitialBalance() + " each...");
+        int[] userIds = seed();
+        BigDecimal opening = totalBalance(userIds);
+        out.println("Seeded " + userIds.length + " wallets holding " + opening + " in total");
+
+        ExecutorService workers = config.isVirtualThreads()
+                ? VirtualThreads.newPerTaskExecutor("revpay-load-")
+                : Executors.newFixedThreadPool(config.getThreads());
+        for (int i = 0; i < config.getThreads(); i++) {
+            workers.execute(() -> work(userIds));
+        }
+
+        out.println("Warming up for " + config.getWarmupSeconds() + "s with " + config.getThreads() + " workers...");
+        TimeUnit.SECONDS.sleep(config.getWarmupSeconds());
+        recording = true;
+        long start = System.nanoTime();
+        out.println("Measuring for " + config.getDurationSeconds() + "s...");
+        TimeUnit.SECONDS.sleep(config.getDurationSeconds());
+        recording = false;
+        long elapsed = System.nanoTime() - start;
+        stopped = true;
+        workers.shutdown();
+        workers.awaitTermination(1, TimeUnit.MINUTES);
+
+        BigDecimal expected = opening.add(BigDecimal.valueOf(depositedCents.sum(), 2));
+        BigDecimal closing = totalBalance(userIds);
+        boolean conserved = closing.compareTo(expected) == 0;
+
+        printReport(out, elapsed);
+        out.println("Balance check: opening " + opening + " + deposits " + BigDecimal.valueOf(depositedCents.sum(), 2)
+                + " = " + expected + ", closing " + closing + (conserved ? "  ✅ conserved" : "  ❌ NOT CONSERVED"));
+        if (!conserved) {
+            logger.error("Load run broke balance conservation: expected " + expected + ", found " + closing);
+        }
+        return conserved;
+    }
+
+    // ==========================================
+    //           SEEDING
+    // ==========================================
+
+    private int[] seed() throws InterruptedException {
+        String run = Long.toString(System.currentTimeMillis(), 36);
+        List<User> users = new ArrayList<>(config.getUsers());
+        List<String> passwords = new ArrayList<>(config.getUsers());
+        for (int i = 0; i < config.getUsers(); i++) {
+            users.add(new User("load-" + run + "-" + i + "@revpay.test", "0000000000", null, "0000", "Load User " + i, Role.PERSONAL));
+            passwords.add("load-" + run);
+        }
+
+        int savedCost = SecurityUtil.getCost();
+        SecurityUtil.setCost(SEED_COST);
+        int[] ids;
+        try {
+            ids = Arrays.stream(userService.registerUsers(users, passwords)).filter(id -> id > 0).toArray();
+        } finally {
+            SecurityUtil.setCost(savedCost);
+        }
+        if (ids.length < 2) {
+            throw new IllegalStateException("Seeding failed: only " + ids.length + " users created");
+        }
+
+        ExecutorService pool = VirtualThreads.newPerTaskExecutor("revpay-load-seed-");
+        LongAdder failed = new LongAdder();
+        for (int id : ids) {
+            pool.execute(() -> {
+                if (!transactionService.processDeposit(id, config.getInitialBalance())) failed.increment();
+            });
+        }
+        pool.shutdown();
+        pool.awaitTermination(10, TimeUnit.MINUTES);
+        if (failed.sum() > 0) {
+            logger.warn("⚠️ " + failed.sum() + " opening deposits failed; those wallets start empty");
+        }
+        return ids;
+    }
+
+    private BigDecimal totalBalance(int[] userIds) {
+        BigDecimal total = BigDecimal.ZERO;
+        for (int id : userIds) {
+            total = total.add(userService.getBalance(id));
+        }
+        return total;
+    }
+
+    // ==========================================
+    //           WORKERS
+    // ==========================================
+
+    private void work(int[] userIds) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int totalWeight = cumulativeWeights[ops.length - 1];
+        while (!stopped) {
+            int pick = random.nextInt(totalWeight);
+            int op = 0;
+            while (cumulativeWeights[op] <= pick) op++;
+
+            boolean measured = recording;
+            long t0 = System.nanoTime();
+            try {
+                if (execute(ops[op], userIds, random)) succeeded[op].increment();
+                else rejected[op].increment();
+            } catch (RuntimeException e) {
+                errors[op].increment();
+                logger.debug("Load operation " + ops[op] + " failed", e);
+            }
+            if (measured && recording) {
+                latencies[op].record(System.nanoTime() - t0);
+            }
+        }
+    }
+
+    private boolean execute(Operation op, int[] userIds, ThreadLocalRandom random) {
+        int user = userIds[random.nextInt(userIds.length)];
+        switch (op) {
+            case TRANSFER: {
+                int receiver = userIds[random.nextInt(userIds.length - 1)];
+                if (receiver == user) receiver = userIds[userIds.length - 1];
+                BigDecimal amount = BigDecimal.valueOf(1 + random.nextInt(MAX_AMOUNT_CENTS), 2);
+                return transactionService.processTransfer(user, receiver, amount);
+            }
+            case DEPOSIT: {
+                long cents = 1 + random.nextInt(MAX_AMOUNT_CENTS);
+                boolean ok = transactionService.processDeposit(user, BigDecimal.valueOf(cents, 2));
+                if (ok) depositedCents.add(cents);
+                return ok;
+            }
+            case BALANCE:
+                return userService.getBalance(user) != null;
+            case HISTORY:
+                return transactionService.getHistory(user, HISTORY_PAGE_SIZE, null) != null;
+            default:
+                throw new IllegalStateException("Unknown operation " + op);
+        }
+    }
+
+    // ==========================================
+    //           REPORT
+    // ==========================================
+
+    private void printReport(PrintStream out, long elapsedNanos) {
+        double seconds = elapsedNanos / 1e9;
+        out.printf("%n%-9s %10s %10s %9s %9s %9s %9s %9s %8s %7s%n",
+                "operation", "calls", "ops/s", "mean ms", "p50 ms", "p99 ms", "p99.9 ms", "max ms", "rejected", "errors");
+        long totalCalls = 0;
+        for (int i = 0; i < ops.length; i++) {
+            LatencyHistogram h = latencies[i];
+            if (config.getMix().getOrDefault(ops[i], 0) == 0) continue;
+            totalCalls += h.getCount();
+            out.printf("%-9s %10d %10.1f %9.3f %9.3f %9.3f %9.3f %9.3f %8d %7d%n",
+                    ops[i].name().toLowerCase(), h.getCount(), h.getCount() / seconds, h.getMeanNanos() / 1e6,
+                    h.getPercentileNanos(50) / 1e6, h.getPercentileNanos(99) / 1e6, h.getPercentileNanos(99.9) / 1e6,
+                    h.getMaxNanos() / 1e6, rejected[i].sum(), errors[i].sum());
+        }
+        out.printf("%-9s %10d %10.1f%n%n", "total", totalCalls, totalCalls / seconds);
+    }
+
+    /**
+     * Gets the latency histogram of one operation (measured phase only).
+     *
+     * @param op The operation.
+     * @return Its histogram.
+     */
+    public LatencyHistogram getLatencies(Operation op) {
+        return latencies[op.ordinal()];
+    }
+
+    /**
+     * Describes the configured run.
+     * @return A summary of the settings.
+     */
+    @Override
+    public String toString() {
+        StringBuilder mix = new StringBuilder();
+        for (Map.Entry<Operation, Integer> e : config.getMix().entrySet()) {
+            if (mix.length() > 0) mix.append(',');
+            mix.append(e.getKey().name().toLowerCase()).append('=').append(e.getValue());
+        }
+        return "LoadGenerator [users=" + config.getUsers() + ", threads=" + config.getThreads() + ", mix=" + mix + "]";
+    }
+}
@@ -0,0 +1,194 @@
+package com.revpay.model;
+
+import java.math.BigDecimal;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * An immutable picture of what a logged-in user's dashboard shows.
+ * <p>
+ * Each {@link Section} remembers when it was loaded. Updating a section returns a new
+ * snapshot that shares every other section with this one, so a session can refresh only
+ * what an operation changed and hand the old snapshot to other threads safely.
+ * </p>
+ *
+ * @author RevPay Dev Team
+ * @version 1.0
+ */
+public final class DashboardSnapshot {
+
+    /**
+     * The independently loaded parts of the dashboard.
+     */
+    public enum Section {
+        /** The wallet balance. */
+        BALANCE,
+        /** Pending money requests the user was asked to pay. */
+        REQUESTS,
+        /** Pending invoices addressed to the user. */
+        INVOICES,
+        /** The newest page of transaction history. */
+        HISTORY,
+        /** Saved cards. */
+        CARDS
+    }
+
+    private final int userId;
+    private final String email;
+    private final BigDecimal balance;
+    private final List<PaymentRequest> incomingRequests;
+    private final List<Invoice> pendingInvoices;
+    private final TransactionPage recentHistory;
+    private final List<PaymentMethod> cards;
+    private final Map<Section, Long> loadedAt;
+
+    private DashboardSnapshot(int userId, String email, BigDecimal balance, List<PaymentRequest> incomingRequests,
+                              List<Invoice> pendingInvoices, TransactionPage recentHistory, List<PaymentMethod> cards,
+                              Map<Section, Long> loadedAt) {
+        this.userId = userId;
+        this.email = email;
+        this.balance = balance;
+        this.incomingRequests = incomingRequests;
+        this.pendingInvoices = pendingInvoices;
+        this.recentHistory = recentHistory;
+        this.cards = cards;
+        this.loadedAt = loadedAt;
+    }
+
+    /**
+     * Creates a snapshot with nothing loaded yet.
+     *
+     * @param user The logged-in user.
+     * @return An empty snapshot; every section is stale.
+     */
+    public static DashboardSnapshot empty(User user) {
+        return new DashboardSnapshot(user.getUserId(), user.getEmail(), BigDecimal.ZERO, List.of(), List.of(),
+                new TransactionPage(List.of(), null), List.of(), Collections.unmodifiableMap(new EnumMap<>(Section.class)));
+    }
+
+    /**
+     * Returns a copy with a new balance.
+     * @param newBalance The balance.
+     * @return The updated snapshot.
+     */
+    public DashboardSnapshot withBalance(BigDecimal newBalance) {
+        return new DashboardSnapshot(userId, email, newBalance, incomingRequests, pendingInvoices, recentHistory, cards,
+                loaded(Section.BALANCE));
+    }
+
+    /**
+     * Returns a copy with new incoming requests.
+     * @param requests The pending requests.
+     * @return The updated snapshot.
+     */
+    public DashboardSnapshot withIncomingRequests(List<PaymentRequest> requests) {
+        return new DashboardSnapshot(userId, email, balance, List.copyOf(requests), pendingInvoices, recentHistory, cards,
+                loaded(Section.REQUESTS));
+    }
+
+    /**
+     * Returns a copy with new pending invoices.
+     * @param invoices The pending invoices.
+     * @return The updated snapshot.
+     */
+    public DashboardSnapshot withPendingInvoices(List<Invoice> invoices) {
+        return new DashboardSnapshot(userId, email, balance, incomingRequests, List.copyOf(invoices), recentHistory, cards,
+                loaded(Section.INVOICES));
+    }
+
+    /**
+     * Returns a copy with a new first history page.
+     * @param page The newest page of history.
+     * @return The updated snapshot.
+     */
+    public DashboardSnapshot withRecentHistory(TransactionPage page) {
+        TransactionPage copy = new TransactionPage(List.copyOf(page.getTransactions()), page.getNextCursor());
+        return new DashboardSnapshot(userId, email, balance, incomingRequests, pendingInvoices, copy, cards,
+                loaded(Section.HISTORY));
+    }
+
+    /**
+     * Returns a copy with new saved cards.
+     * @param methods The saved cards.
+     * @return The updated snapshot.
+     */
+    public DashboardSnapshot withCards(List<PaymentMethod> methods) {
+        return new DashboardSnapshot(userId, email, balance, incomingRequests, pendingInvoices, recentHistory,
+                List.copyOf(methods), loaded(Section.CARDS));
+    }
+
+    private Map<Section, Long> loaded(Section section) {
+        Map<Section, Long> times = new EnumMap<>(Section.class);
+        times.putAll(loadedAt);
+        times.put(section, System.currentTimeMillis());
+        return Collections.unmodifiableMap(times);
+    }
+
+    /**
+     * Checks whether a section was loaded within the given age.
+     *
+     * @param section      The section.
+     * @param maxAgeMillis The maximum age.
+     * @return {@code true} if the section is loaded and young enough.
+     */
+    public boolean isFresh(Section section, long maxAgeMillis) {
+        Long at = loadedAt.get(section);
+        return at != null && System.currentTimeMillis() - at <= maxAgeMillis;
+    }
+
+    // --- Getters ---
+
+    /**
+     * Gets the user this snapshot belongs to.
+     * @return The User ID.
+     */
+    public int getUserId() { return userId; }
+
+    /**
+     * Gets the user's email (invoices are addressed by email).
+     * @return The email.
+     */
+    public String getEmail() { return email; }
+
+    /**
+     * Gets the wallet balance.
+     * @return The balance.
+     */
+    public BigDecimal getBalance() { return balance; }
+
+    /**
+     * Gets the pending money requests the user was asked to pay.
+     * @return An unmodifiable list.
+     */
+    public List<PaymentRequest> getIncomingRequests() { return incomingRequests; }
+
+    /**
+     * Gets the pending invoices addressed to the user.
+     * @return An unmodifiable list.
+     */
+    public List<Invoice> getPendingInvoices() { return pendingInvoices; }
+
+    /**
+     * Gets the newest page of transaction history.
+     * @return The page; its transaction list is unmodifiable.
+     */
+    public TransactionPage getRecentHistory() { return recentHistory; }
+
+    /**
+     * Gets the saved cards.
+     * @return An unmodifiable list.
+     */
+    public List<PaymentMethod> getCards() { return cards; }
+
+    /**
+     * Returns a string representation of the snapshot.
+     * @return A formatted string.
+     */
+    @Override
+    public String toString() {
+        return "DashboardSnapshot [User ID=" + userId + ", Balance=$" + balance + ", Requests=" + incomingRequests.size()
+                + ", Invoices=" + pendingInvoices.size() + ", Cards=" + cards.size() + "]";
+    }
+}
@@ -0,0 +1,96 @@
+package com.revpay.model;
+
+import java.sql.Timestamp;
+import java.time.DateTimeException;
+import java.time.Instant;
+
+/**
+ * Position in a user's transaction history, used to fetch the next page.
+ * <p>
+ * The cursor is the {@code (timestamp, transaction_id)} of the last transaction shown.
+ * History is ordered newest first by that pair, so the next page is simply "everything
+ * older than the cursor", which the database answers with an index seek instead of
+ * skipping over all earlier pages with {@code OFFSET}.
+ * </p>
+ *
+ * @author RevPay Dev Team
+ * @version 1.0
+ */
+public class HistoryCursor {
+    private final Timestamp timestamp;
+    private final int transactionId;
+
+    /**
+     * Creates a cursor.
+     *
+     * @param timestamp     The timestamp of the last transaction seen.
+     * @param transactionId The ID of the last transaction seen (breaks timestamp ties).
+     */
+    public HistoryCursor(Timestamp timestamp, int transactionId) {
+        this.timestamp = timestamp;
+        this.transactionId = transactionId;
+    }
+
+    /**
+     * Creates a cursor positioned after the given transaction.
+     *
+     * @param last The last transaction of the current page.
+     * @return The cursor for the following page.
+     */
+    public static HistoryCursor after(Transaction last) {
+        return new HistoryCursor(last.getTimestamp(), last.getTransactionId());
+    }
+
+    /**
+     * Encodes the cursor as an opaque, URL-safe token for API clients.
+     *
+     * @return A token such as {@code "99-1705314600-0"}.
+     */
+    public String toToken() {
+        Instant at = timestamp.toInstant();
+        return transactionId + "-" + at.getEpochSecond() + "-" + at.getNano();
+    }
+
+    /**
+     * Decodes a token produced by {@link #toToken()}.
+     *
+     * @param token The token.
+     * @return The cursor.
+     * @throws IllegalArgumentException If the token is malformed.
+     */
+    public static HistoryCursor fromToken(String token) {
+        String[] parts = token == null ? new String[0] : token.split("-");
+        if (parts.length != 3) {
+            throw new IllegalArgumentException("Invalid history cursor: " + token);
+        }
+        try {
+            Instant at = Instant.ofEpochSecond(Long.parseLong(parts[1]), Integer.parseInt(parts[2]));
+            return new HistoryCursor(Timestamp.from(at), Integer.parseInt(parts[0]));
+        } catch (NumberFormatException | DateTimeException e) {
+            throw new IllegalArgumentException("Invalid history cursor: " + token, e);
+        }
+    }
+
+    // --- Getters ---
+
+    /**
+     * Gets the timestamp of the last transaction seen.
+     * @return The timestamp.
+     */
+    public Timestamp getTimestamp() { return timestamp; }
+
+    /**
+     * Gets the ID of the last transaction seen.
+     * @return The transaction ID.
+     */
+    public int getTransactionId() { return transactionId; }
+
+    /**
+     * Returns a string representation of the cursor.
+     * @return A formatted string.
+     */
+    @Override
+    public String toString() {
+        return "HistoryCursor [" + timestamp + " #" + transactionId + "]";
+    }
+}
@@ -0,0 +1,94 @@
+package com.revpay.model;
+
+import java.math.BigDecimal;
+
+/**
+ * Model class representing one line of a bulk payout (payroll or marketplace settlement).
+ * <p>
+ * A line names its receiver either by email address or directly by User ID.
+ * When both are set, the User ID wins.
+ * </p>
+ *
+ * @author RevPay Dev Team
+ * @version 1.0
+ */
+public class Payout {
+    private String receiverEmail;
+    private int receiverId;
+    private BigDecimal amount;
+
+    /**
+     * Default constructor.
+     */
+    public Payout() {}
+
+    /**
+     * Creates a payout line addressed by email.
+     *
+     * @param receiverEmail The email address of the recipient.
+     * @param amount        The amount to pay.
+     */
+    public Payout(String receiverEmail, BigDecimal amount) {
+        this.receiverEmail = receiverEmail;
+        this.amount = amount;
+    }
+
+    /**
+     * Creates a payout line addressed by User ID.
+     *
+     * @param receiverId The ID of the recipient.
+     * @param amount     The amount to pay.
+     */
+    public Payout(int receiverId, BigDecimal amount) {
+        this.receiverId = receiverId;
+        this.amount = amount;
+    }
+
+    // --- Getters and Setters ---
+
+    /**
+     * Gets the recipient's email address.
+     * @return The email, or {@code null} if the line is addressed by ID.
+     */
+    public String getReceiverEmail() { return receiverEmail; }
+
+    /**
+     * Sets the recipient's email address.
+     * @param receiverEmail The email address.
+     */
+    public void setReceiverEmail(String receiverEmail) { this.receiverEmail = receiverEmail; }
+
+    /**
+     * Gets the recipient's User ID.
+     * @return The receiver ID, or 0 if not yet resolved.
+     */
+    public int getReceiverId() { return receiverId; }
+
+    /**
+     * Sets the recipient's User ID.
+     * @param receiverId The receiver ID.
+     */
+    public void setReceiverId(int receiverId) { this.receiverId = receiverId; }
+
+    /**
+     * Gets the amount to pay.
+     * @return The amount.
+     */
+    public BigDecimal getAmount() { return amount; }
+
+    /**
+     * Sets the amount to pay.
+     * @param amount The amount.
+     */
+    public void setAmount(BigDecimal amount) { this.amount = amount; }
+
+    /**
+     * Returns a string representation of the Payout line.
+     * @return A formatted string with receiver and amount.
+     */
+    @Override
+    public String toString() {
+        String to = receiverId > 0 ? "ID " + receiverId : receiverEmail;
+        return "Payout [To=" + to + ", Amount=$" + amount + "]";
+    }
+}
@@ -0,0 +1,121 @@
+package com.revpay.model;
+
+import java.math.BigDecimal;
+
+/**
+ * Model class representing the outcome of one line of a bulk payout.
+ * <p>
+ * Results are returned in the same order as the submitted lines, so callers can
+ * report exactly which receivers were paid and why the others were rejected.
+ * </p>
+ *
+ * @author RevPay Dev Team
+ * @version 1.0
+ */
+public class PayoutResult {
+    private int lineNumber;
+    private int receiverId;
+    private BigDecimal amount;
+    private TransactionStatus status; // SUCCESS or FAILED
+    private String message;
+
+    /**
+     * Default constructor.
+     */
+    public PayoutResult() {}
+
+    /**
+     * Parameterized constructor.
+     *
+     * @param lineNumber The 1-based position of the line in the submitted payout.
+     * @param receiverId The resolved receiver ID (0 if it could not be resolved).
+     * @param amount     The line amount.
+     * @param status     {@link TransactionStatus#SUCCESS} or {@link TransactionStatus#FAILED}.
+     * @param message    A short explanation, mainly for failed lines.
+     */
+    public PayoutResult(int lineNumber, int receiverId, BigDecimal amount, TransactionStatus status, String message) {
+        this.lineNumber = lineNumber;
+        this.receiverId = receiverId;
+        this.amount = amount;
+        this.status = status;
+        this.message = message;
+    }
+
+    // --- Getters and Setters ---
+
+    /**
+     * Gets the 1-based line number.
+     * @return The line number.
+     */
+    public int getLineNumber() { return lineNumber; }
+
+    /**
+     * Sets the 1-based line number.
+     * @param lineNumber The line number.
+     */
+    public void setLineNumber(int lineNumber) { this.lineNumber = lineNumber; }
+
+    /**
+     * Gets the resolved receiver ID.
+     * @return The receiver ID.
+     */
+    public int getReceiverId() { return receiverId; }
+
+    /**
+     * Sets the resolved receiver ID.
+     * @param receiverId The receiver ID.
+     */
+    public void setReceiverId(int receiverId) { this.receiverId = receiverId; }
+
+    /**
+     * Gets the line amount.
+     * @return The amount.
+     */
+    public BigDecimal getAmount() { return amount; }
+
+    /**
+     * Sets the line amount.
+     * @param amount The amount.
+     */
+    public void setAmount(BigDecimal amount) { this.amount = amount; }
+
+    /**
+     * Gets the outcome of the line.
+     * @return The {@link TransactionStatus}.
+     */
+    public TransactionStatus getStatus() { return status; }
+
+    /**
+     * Sets the outcome of the line.
+     * @param status The {@link TransactionStatus}.
+     */
+    public void setStatus(TransactionStatus status) { this.status = status; }
+
+    /**
+     * Gets the explanation for the outcome.
+     * @return The message.
+     */
+    public String getMessage() { return message; }
+
+    /**
+     * Sets the explanation for the outcome.
+     * @param message The message.
+     */
+    public void setMessage(String message) { this.message = message; }
+
+    /**
+     * Checks whether the line was paid.
+     * @return {@code true} if the status is SUCCESS.
+     */
+    public boolean isSuccess() { return status == TransactionStatus.SUCCESS; }
+
+    /**
+     * Returns a string representation of the result.
+     * @return A formatted string with line, receiver, amount and status.
+     */
+    @Override
+    public String toString() {
+        return "Line " + lineNumber + " | To ID " + receiverId + " | $" + amount + " | " + status
+                + (message != null ? " (" + message + ")" : "");
+    }
+}
@@ -0,0 +1,54 @@
+package com.revpay.model;
+
+import java.util.List;
+
+/**
+ * One page of a user's transaction history (newest first).
+ *
+ * @author RevPay Dev Team
+ * @version 1.0
+ */
+public class TransactionPage {
+    private final List<Transaction> transactions;
+    private final HistoryCursor nextCursor;
+
+    /**
+     * Creates a page.
+     *
+     * @param transactions The transactions on this page.
+     * @param nextCursor   The cursor for the following page, or {@code null} if this is the last page.
+     */
+    public TransactionPage(List<Transaction> transactions, HistoryCursor nextCursor) {
+        this.transactions = transactions;
+        this.nextCursor = nextCursor;
+    }
+
+    // --- Getters ---
+
+    /**
+     * Gets the transactions on this page.
+     * @return The transactions, newest first.
+     */
+    public List<Transaction> getTransactions() { return transactions; }
+
+    /**
+     * Gets the cursor to pass when requesting the following page.
+     * @return The next cursor, or {@code null} on the last page.
+     */
+    public HistoryCursor getNextCursor() { return nextCursor; }
+
+    /**
+     * Checks whether older transactions exist beyond this page.
+     * @return {@code true} if there is a next page.
+     */
+    public boolean hasMore() { return nextCursor != null; }
+
+    /**
+     * Returns a string representation of the page.
+     * @return A formatted string.
+     */
+    @Override
+    public String toString() {
+        return "TransactionPage [" + transactions.size() + " transactions" + (hasMore() ? ", more" : "") + "]";
+    }
+}
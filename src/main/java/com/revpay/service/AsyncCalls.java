@@ -0,0 +1,126 @@
+package com.revpay.service;
+
+import com.revpay.config.QueryCancellation;
+import com.revpay.util.VirtualThreads;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Runs blocking service calls asynchronously for the {@code *Async} service methods.
+ * <p>
+ * Each call runs on the shared executor (by default one virtual thread per call, see
+ * {@link VirtualThreads}) inside its own {@link QueryCancellation} scope. When the returned
+ * future is cancelled or times out ({@code revpay.async.timeoutMillis}, default 0 = no
+ * timeout), the scope is cancelled: the statement that is running is stopped with
+ * {@code Statement.cancel()} and the call's remaining statements fail, so its transaction
+ * rolls back and the connection goes back to the pool.
+ * </p>
+ * <p>
+ * Cancellation is best-effort. A payment cancelled just after its commit still happened,
+ * so retry payments with the same idempotency key rather than assuming they failed.
+ * Cancelling a dependent stage ({@code thenApply} etc.) does not reach the call; cancel
+ * the future returned here.
+ * </p>
+ *
+ * @author RevPay Dev Team
+ * @version 1.0
+ */
+public final class AsyncCalls {
+
+    // Initialize Log4j Logger
+    private static final Logger logger = LogManager.getLogger(AsyncCalls.class);
+
+    private static final long DEFAULT_TIMEOUT_MILLIS = Long.getLong("revpay.async.timeoutMillis", 0L);
+
+    private static volatile Executor executor;
+
+    private AsyncCalls() {}
+
+    /**
+     * Gets the executor the async calls run on, creating the default one on first use.
+     *
+     * @return The executor.
+     */
+    public static Executor getExecutor() {
+        Executor e = executor;
+        if (e == null) {
+            synchronized (AsyncCalls.class) {
+                e = executor;
+                if (e == null) {
+                    e = VirtualThreads.newPerTaskExecutor("revpay-async-");
+                    executor = e;
+                }
+            }
+        }
+        return e;
+    }
+
+    /**
+     * Replaces the executor (e.g., a bounded pool to cap database concurrency).
+     * <p>
+     * The previous executor is not shut down; its running calls finish normally.
+     * </p>
+     *
+     * @param newExecutor The executor to use, or {@code null} for the default.
+     */
+    public static synchronized void setExecutor(Executor newExecutor) {
+        executor = newExecutor;
+    }
+
+    /**
+     * Runs a call asynchronously with the default timeout.
+     *
+     * @param work The blocking call.
+     * @param <T>  The result type.
+     * @return A future for the result; cancelling it cancels the call's SQL.
+     */
+    public static <T> CompletableFuture<T> supply(Supplier<T> work) {
+        return supply(work, DEFAULT_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Runs a call asynchronously, cancelling it if it has not finished in time.
+     *
+     * @param work    The blocking call.
+     * @param timeout The timeout, or 0 for none.
+     * @param unit    The timeout unit.
+     * @param <T>     The result type.
+     * @return A future for the result; it fails with a {@link java.util.concurrent.TimeoutException} on timeout.
+     */
+    public static <T> CompletableFuture<T> supply(Supplier<T> work, long timeout, TimeUnit unit) {
+        CompletableFuture<T> future = new CompletableFuture<>();
+        QueryCancellation scope = new QueryCancellation();
+
+        // Completed by anyone but the call itself (cancel, timeout): stop its SQL
+        future.whenComplete((result, error) -> {
+            if (error != null) {
+                scope.cancel();
+            }
+        });
+        try {
+            getExecutor().execute(() -> {
+                if (future.isDone()) {
+                    return; // cancelled before it started
+                }
+                try {
+                    future.complete(scope.call(work));
+                } catch (Throwable t) {
+                    future.completeExceptionally(t);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            logger.error("❌ Async call rejected by the executor", e);
+            future.completeExceptionally(e);
+        }
+        if (timeout > 0) {
+            future.orTimeout(timeout, unit);
+        }
+        return future;
+    }
+}
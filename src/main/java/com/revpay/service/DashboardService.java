@@ -0,0 +1,134 @@
+package com.revpay.service;
+
+import com.revpay.dao.PaymentMethodRepository;
+import com.revpay.dao.Repositories;
+import com.revpay.model.DashboardSnapshot;
+import com.revpay.model.DashboardSnapshot.Section;
+import com.revpay.model.User;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.UnaryOperator;
+
+/**
+ * Loads and refreshes {@link DashboardSnapshot}s.
+ * <p>
+ * All requested sections are fetched at once with the services' async calls, so loading
+ * a dashboard takes as long as its slowest query instead of the sum of them all. After
+ * one of the user's own operations commits, the session refreshes just the sections that
+ * operation changed (e.g., balance and history after a transfer).
+ * </p>
+ * <p>
+ * Changes made by other users (an incoming transfer, a new request) are not pushed; a
+ * section older than {@code revpay.dashboard.maxAgeMillis} (default 30000) is reloaded
+ * the next time a screen asks for it through {@link #refreshStale(DashboardSnapshot, Section...)}.
+ * </p>
+ *
+ * @author RevPay Dev Team
+ * @version 1.0
+ */
+public class DashboardService {
+
+    // Initialize Log4j Logger
+    private static final Logger logger = LogManager.getLogger(DashboardService.class);
+
+    private static final long MAX_AGE_MILLIS = Long.getLong("revpay.dashboard.maxAgeMillis", 30_000L);
+
+    private final UserService userService = new UserService();
+    private final TransactionService transactionService = new TransactionService();
+    private final PaymentMethodRepository paymentMethodDAO = Repositories.get().paymentMethods();
+    private final int historyPageSize;
+
+    /**
+     * Creates a dashboard service.
+     *
+     * @param historyPageSize The number of transactions in the snapshot's history page.
+     */
+    public DashboardService(int historyPageSize) {
+        this.historyPageSize = historyPageSize;
+    }
+
+    /**
+     * Loads every section of a user's dashboard concurrently.
+     *
+     * @param user The logged-in user.
+     * @return A future for the complete snapshot.
+     */
+    public CompletableFuture<DashboardSnapshot> load(User user) {
+        long start = System.nanoTime();
+        return refresh(DashboardSnapshot.empty(user), Section.values())
+                .whenComplete((snapshot, error) -> {
+                    if (error == null) {
+                        logger.debug("Dashboard for User ID " + user.getUserId() + " loaded in "
+                                + (System.nanoTime() - start) / 1_000_000 + "ms");
+                    }
+                });
+    }
+
+    /**
+     * Reloads the given sections concurrently and keeps the rest of the snapshot.
+     *
+     * @param snapshot The current snapshot.
+     * @param sections The sections to reload.
+     * @return A future for the updated snapshot.
+     */
+    public CompletableFuture<DashboardSnapshot> refresh(DashboardSnapshot snapshot, Section... sections) {
+        Set<Section> wanted = EnumSet.noneOf(Section.class);
+        for (Section s : sections) wanted.add(s);
+        if (wanted.isEmpty()) {
+            return CompletableFuture.completedFuture(snapshot);
+        }
+
+        List<CompletableFuture<UnaryOperator<DashboardSnapshot>>> updates = new ArrayList<>(wanted.size());
+        for (Section section : wanted) {
+            updates.add(fetch(snapshot, section));
+        }
+        return CompletableFuture.allOf(updates.toArray(new CompletableFuture<?>[0]))
+                .thenApply(done -> {
+                    DashboardSnapshot updated = snapshot;
+                    for (CompletableFuture<UnaryOperator<DashboardSnapshot>> update : updates) {
+                        updated = update.join().apply(updated);
+                    }
+                    return updated;
+                });
+    }
+
+    /**
+     * Reloads those of the given sections that are older than the maximum age.
+     *
+     * @param snapshot The current snapshot.
+     * @param sections The sections a screen is about to show.
+     * @return A future for the snapshot; already complete when everything is fresh.
+     */
+    public CompletableFuture<DashboardSnapshot> refreshStale(DashboardSnapshot snapshot, Section... sections) {
+        List<Section> stale = new ArrayList<>();
+        for (Section s : sections) {
+            if (!snapshot.isFresh(s, MAX_AGE_MILLIS)) stale.add(s);
+        }
+        return refresh(snapshot, stale.toArray(new Section[0]));
+    }
+
+    // Starts one section's query; the result is applied to the snapshot once all queries are back
+    private CompletableFuture<UnaryOperator<DashboardSnapshot>> fetch(DashboardSnapshot snapshot, Section section) {
+        int userId = snapshot.getUserId();
+        switch (section) {
+            case BALANCE:
+                return userService.getBalanceAsync(userId).thenApply(b -> s -> s.withBalance(b));
+            case REQUESTS:
+                return transactionService.getIncomingRequestsAsync(userId).thenApply(r -> s -> s.withIncomingRequests(r));
+            case INVOICES:
+                return transactionService.getPendingInvoicesAsync(snapshot.getEmail()).thenApply(i -> s -> s.withPendingInvoices(i));
+            case HISTORY:
+                return transactionService.getHistoryAsync(userId, historyPageSize, null).thenApply(p -> s -> s.withRecentHistory(p));
+            case CARDS:
+                return AsyncCalls.supply(() -> paymentMethodDAO.getMethodsByUserId(userId)).thenApply(c -> s -> s.withCards(c));
+            default:
+                throw new IllegalArgumentException("Unknown dashboard section " + section);
+        }
+    }
+}
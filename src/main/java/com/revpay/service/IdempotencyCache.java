@@ -0,0 +1,84 @@
+package com.revpay.service;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Bounded in-memory record of recent idempotency keys.
+ * <p>
+ * A gateway that retries after a timeout usually does so within seconds, often while the
+ * original request is still running. The first caller with a key claims it; a retry either
+ * waits for that in-flight call or, once it succeeded, gets its result straight from memory.
+ * A failed request is forgotten, because it changed nothing and may safely be re-run.
+ * Keys are scoped to the sender by the caller. Older keys fall out of the cache (least
+ * recently used first) and are then caught by the unique index on
+ * {@code transactions (sender_id, idempotency_key)}.
+ * </p>
+ *
+ * @author RevPay Dev Team
+ * @version 1.0
+ */
+final class IdempotencyCache {
+
+    /**
+     * The request that first used a key, and its (possibly pending) outcome.
+     */
+    static final class Claim {
+        final String fingerprint;
+        final CompletableFuture<Boolean> result = new CompletableFuture<>();
+
+        Claim(String fingerprint) {
+            this.fingerprint = fingerprint;
+        }
+    }
+
+    private final Map<String, Claim> claims;
+
+    /**
+     * Creates an empty cache.
+     *
+     * @param maxSize The maximum number of keys remembered.
+     */
+    IdempotencyCache(int maxSize) {
+        this.claims = new LinkedHashMap<String, Claim>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Claim> eldest) {
+                return size() > maxSize;
+            }
+        };
+    }
+
+    /**
+     * Claims a key for a new request.
+     *
+     * @param key         The idempotency key.
+     * @param fingerprint A description of the request (operation, parties, amount).
+     * @return {@code null} if the caller now owns the key and must run the request and then call
+     *         {@link #complete}; otherwise the earlier claim to wait on.
+     */
+    synchronized Claim claim(String key, String fingerprint) {
+        Claim existing = claims.get(key);
+        if (existing != null) {
+            return existing;
+        }
+        claims.put(key, new Claim(fingerprint));
+        return null;
+    }
+
+    /**
+     * Records the outcome of a claimed request and releases anyone waiting on it.
+     *
+     * @param key     The idempotency key.
+     * @param success Whether the request succeeded (failed keys are forgotten).
+     */
+    void complete(String key, boolean success) {
+        Claim claim;
+        synchronized (this) {
+            claim = success ? claims.get(key) : claims.remove(key);
+        }
+        if (claim != null) {
+            claim.result.complete(success);
+        }
+    }
+}
@@ -1,12 +1,33 @@
 package com.revpay.service;
 
-import com.revpay.dao.TransactionDAO;
+import com.revpay.dao.InvoiceRepository;
+import com.revpay.dao.Repositories;
+import com.revpay.dao.RequestRepository;
+import com.revpay.dao.TransactionRepository;
+import com.revpay.dao.UserIdCache;
+import com.revpay.ledger.LedgerEngine;
+import com.revpay.ledger.LedgerEntry;
+import com.revpay.model.HistoryCursor;
+import com.revpay.model.Invoice;
+import com.revpay.model.PaymentRequest;
+import com.revpay.model.Payout;
+import com.revpay.model.PayoutResult;
 import com.revpay.model.Transaction;
+import com.revpay.model.TransactionPage;
+import com.revpay.model.TransactionStatus;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
 import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.Stream;
 
 /**
  * Service class for handling Financial Business Logic.
@@ -28,7 +49,16 @@ public class TransactionService {
     // Initialize Log4j Logger
     private static final Logger logger = LogManager.getLogger(TransactionService.class);
 
-    private TransactionDAO transactionDAO = new TransactionDAO();
+    /** Largest history page a caller may request. */
+    public static final int MAX_PAGE_SIZE = 500;
+
+    // Shared by every service instance so retries are recognised whichever instance handles them
+    private static final IdempotencyCache idempotencyCache =
+            new IdempotencyCache(Integer.getInteger("revpay.idempotency.cacheSize", 10_000));
+
+    private TransactionRepository transactionDAO = Repositories.get().transactions();
+    private InvoiceRepository invoiceDAO = Repositories.get().invoices();
+    private RequestRepository requestDAO = Repositories.get().requests();
     private UserService userService = new UserService();
 
     /**
@@ -68,6 +98,23 @@ public class TransactionService {
      * @return {@code true} if successful, {@code false} if validation or DB operation fails.
      */
     public boolean processTransfer(int senderId, int receiverId, BigDecimal amount) {
+        return processTransfer(senderId, receiverId, amount, null);
+    }
+
+    /**
+     * Processes a money transfer at most once per idempotency key.
+     * <p>
+     * A retry carrying the key of a transfer that already succeeded returns {@code true}
+     * without moving money again. Reusing a key for a different transfer is rejected.
+     * </p>
+     *
+     * @param senderId       The ID of the user sending money.
+     * @param receiverId     The ID of the user receiving money.
+     * @param amount         The amount to transfer.
+     * @param idempotencyKey The client's request identity (e.g., a UUID), or {@code null} for none.
+     * @return {@code true} if the transfer succeeded now or earlier, {@code false} otherwise.
+     */
+    public boolean processTransfer(int senderId, int receiverId, BigDecimal amount, String idempotencyKey) {
         // 1. Validation: Positive Amount
         if (amount.compareTo(BigDecimal.ZERO) <= 0) {
             logger.warn("Invalid Transfer: User " + senderId + " attempted to send non-positive amount: " + amount);
@@ -82,9 +129,198 @@ public class TransactionService {
             return false;
         }
 
-        // 3. Execute Transaction via DAO
+        // 3. Idempotency: a retry gets the original outcome instead of a second transfer
+        String fingerprint = "TRANSFER:" + senderId + ">" + receiverId + ":" + amount.stripTrailingZeros().toPlainString();
+        String cacheKey = senderId + ":" + idempotencyKey; // keys are scoped to the sender
+        IdempotencyCache.Claim earlier = idempotencyKey == null ? null : idempotencyCache.claim(cacheKey, fingerprint);
+        if (earlier != null) {
+            return replay(idempotencyKey, fingerprint, earlier);
+        }
+
+        // 4. Execute Transaction via the in-memory ledger (if running) or the DAO
         logger.info("Initiating Transfer: " + senderId + " -> " + receiverId + " ($" + amount + ")");
-        return transactionDAO.transferMoney(senderId, receiverId, amount);
+        LedgerEngine ledger = LedgerEngine.getActive();
+        boolean success = false;
+        try {
+            success = ledger != null
+                    ? ledgerMovement(ledger, senderId, receiverId, amount, idempotencyKey)
+                    : transactionDAO.transferMoney(senderId, receiverId, amount, idempotencyKey);
+            return success;
+        } finally {
+            if (idempotencyKey != null) idempotencyCache.complete(cacheKey, success);
+        }
+    }
+
+    /**
+     * Pays many receivers from one sender in a single transaction (payroll, marketplace payouts).
+     * <p>
+     * Each line is validated with the same rules as {@link #processTransfer(int, int, BigDecimal)}
+     * (positive amount, no self-payment, receiver must exist). Invalid lines are reported and
+     * skipped; the remaining lines are paid together, debiting the sender once for their total.
+     * If the sender cannot cover the total, none of them is paid.
+     * </p>
+     *
+     * @param senderId The ID of the user paying out.
+     * @param payouts  The payout lines, addressed by receiver email or receiver ID.
+     * @return One {@link PayoutResult} per input line, in the same order.
+     */
+    public List<PayoutResult> processBulkTransfer(int senderId, List<Payout> payouts) {
+        PayoutResult[] results = new PayoutResult[payouts.size()];
+
+        // 1. Resolve all email-addressed receivers in bulk, keyed by normalized email on both
+        //    sides: the database matches case-insensitively and returns the address as stored
+        Set<String> emails = new HashSet<>();
+        for (Payout p : payouts) {
+            if (p.getReceiverId() <= 0 && p.getReceiverEmail() != null) emails.add(UserIdCache.normalize(p.getReceiverEmail()));
+        }
+        Map<String, Integer> emailIds = new HashMap<>();
+        if (!emails.isEmpty()) {
+            userService.getUserIdsByEmails(emails).forEach((email, id) -> emailIds.put(UserIdCache.normalize(email), id));
+        }
+
+        // 2. Validate each line
+        List<Payout> valid = new ArrayList<>();
+        List<Integer> validLines = new ArrayList<>();
+        for (int i = 0; i < payouts.size(); i++) {
+            Payout p = payouts.get(i);
+            int receiverId = p.getReceiverId() > 0 ? p.getReceiverId() : emailIds.getOrDefault(UserIdCache.normalize(p.getReceiverEmail()), -1);
+            String error = null;
+
+            if (p.getAmount() == null || p.getAmount().compareTo(BigDecimal.ZERO) <= 0) {
+                error = "Amount must be greater than 0";
+            } else if (receiverId <= 0) {
+                error = "Receiver not found";
+            } else if (receiverId == senderId) {
+                error = "Cannot pay yourself";
+            }
+
+            if (error != null) {
+                results[i] = new PayoutResult(i + 1, Math.max(receiverId, 0), p.getAmount(), TransactionStatus.FAILED, error);
+            } else {
+                valid.add(new Payout(receiverId, p.getAmount()));
+                validLines.add(i);
+            }
+        }
+
+        // 3. Pay the valid lines in one DB transaction
+        logger.info("Initiating Bulk Payout: " + senderId + " -> " + valid.size() + " receivers ("
+                + (payouts.size() - valid.size()) + " lines rejected)");
+        LedgerEngine ledger = LedgerEngine.getActive();
+        List<PayoutResult> paid = ledger != null ? ledgerBulkTransfer(ledger, senderId, valid)
+                : transactionDAO.bulkTransfer(senderId, valid);
+        for (int j = 0; j < paid.size(); j++) {
+            PayoutResult r = paid.get(j);
+            int line = validLines.get(j);
+            r.setLineNumber(line + 1);
+            results[line] = r;
+        }
+        return new ArrayList<>(Arrays.asList(results));
+    }
+
+    // Ledger mode: lines are sequenced individually, so a payout run is no longer all-or-nothing
+    private List<PayoutResult> ledgerBulkTransfer(LedgerEngine ledger, int senderId, List<Payout> payouts) {
+        List<CompletableFuture<Boolean>> acks = new ArrayList<>(payouts.size());
+        for (Payout p : payouts) {
+            acks.add(ledger.submitTransfer(senderId, p.getReceiverId(), p.getAmount()));
+        }
+        List<PayoutResult> results = new ArrayList<>(payouts.size());
+        for (int i = 0; i < payouts.size(); i++) {
+            Payout p = payouts.get(i);
+            boolean ok = Boolean.TRUE.equals(acks.get(i).exceptionally(e -> false).join());
+            results.add(new PayoutResult(i + 1, p.getReceiverId(), p.getAmount(),
+                    ok ? TransactionStatus.SUCCESS : TransactionStatus.FAILED, ok ? null : "Insufficient funds or invalid receiver"));
+        }
+        return results;
+    }
+
+    /**
+     * Pays a pending invoice from the customer's wallet to the issuing business.
+     * <p>
+     * The status change and the money movement happen in one database transaction, so an
+     * invoice can never be paid twice, even if the customer submits it from two sessions at
+     * once: exactly one attempt succeeds and the others return {@code false}.
+     * </p>
+     * <p>
+     * In ledger mode the payment carries the invoice ID: the ledger pays each invoice at most
+     * once and marks it PAID in the same database transaction that moves the money, so a crash
+     * or a rejected transfer never leaves a paid invoice behind without its payment.
+     * </p>
+     *
+     * @param invoiceId The invoice to pay.
+     * @param payerId   The ID of the paying customer.
+     * @return {@code true} if this call paid the invoice.
+     */
+    public boolean payInvoice(int invoiceId, int payerId) {
+        LedgerEngine ledger = LedgerEngine.getActive();
+        if (ledger == null) {
+            return transactionDAO.payInvoice(invoiceId, payerId);
+        }
+
+        Invoice inv = invoiceDAO.getInvoiceById(invoiceId);
+        if (inv == null || userService.getUserIdByEmail(inv.getCustomerEmail()) != payerId) {
+            logger.warn("Invoice payment rejected: Invoice #" + invoiceId + " is not addressed to User ID " + payerId);
+            return false;
+        }
+        if (!"PENDING".equals(inv.getStatus())) {
+            logger.warn("Invoice payment rejected: Invoice #" + invoiceId + " is no longer pending");
+            return false;
+        }
+        return ledger.settle(LedgerEntry.Settles.INVOICE, invoiceId, payerId, inv.getBusinessId(), inv.getAmount());
+    }
+
+    /**
+     * Accepts a pending money request, paying the requester from the payer's wallet.
+     * <p>
+     * The status change and the transfer happen in one database transaction, and only the
+     * request's payer can accept it, so concurrent accepts pay exactly once. In ledger mode
+     * the payment carries the request ID, like {@link #payInvoice}: the ledger pays it at most
+     * once and marks it ACCEPTED in the same database transaction that moves the money.
+     * </p>
+     *
+     * @param requestId The request to accept.
+     * @param payerId   The ID of the user asked to pay.
+     * @return {@code true} if this call accepted and paid the request.
+     */
+    public boolean acceptRequest(int requestId, int payerId) {
+        LedgerEngine ledger = LedgerEngine.getActive();
+        if (ledger == null) {
+            return transactionDAO.acceptRequest(requestId, payerId);
+        }
+
+        PaymentRequest req = requestDAO.getRequestById(requestId);
+        if (req == null || req.getPayerId() != payerId || !"PENDING".equals(req.getStatus())) {
+            logger.warn("Request acceptance rejected: Request #" + requestId + " is not pending for User ID " + payerId);
+            return false;
+        }
+        return ledger.settle(LedgerEntry.Settles.REQUEST, requestId, payerId, req.getRequesterId(), req.getAmount());
+    }
+
+    /**
+     * Declines a pending money request. Only the request's payer can decline it, and only while it is pending.
+     * <p>
+     * In ledger mode the request is first reserved in the ledger, so an accepted payment that is
+     * not yet flushed cannot be declined underneath it.
+     * </p>
+     *
+     * @param requestId The request to decline.
+     * @param payerId   The ID of the user asked to pay.
+     * @return {@code true} if this call declined the request.
+     */
+    public boolean declineRequest(int requestId, int payerId) {
+        LedgerEngine ledger = LedgerEngine.getActive();
+        if (ledger == null) {
+            return requestDAO.compareAndSetStatus(requestId, payerId, "PENDING", "DECLINED");
+        }
+
+        if (!ledger.claimSettlement(LedgerEntry.Settles.REQUEST, requestId)) {
+            logger.warn("Request decline rejected: Request #" + requestId + " is already being paid");
+            return false;
+        }
+        if (requestDAO.compareAndSetStatus(requestId, payerId, "PENDING", "DECLINED")) {
+            return true;
+        }
+        ledger.releaseSettlement(LedgerEntry.Settles.REQUEST, requestId);
+        return false;
     }
 
     /**
@@ -95,12 +331,72 @@ public class TransactionService {
      * @return {@code true} if successful.
      */
     public boolean processDeposit(int userId, BigDecimal amount) {
+        return processDeposit(userId, amount, null);
+    }
+
+    /**
+     * Processes a deposit at most once per idempotency key
+     * (see {@link #processTransfer(int, int, BigDecimal, String)}).
+     *
+     * @param userId         The ID of the user.
+     * @param amount         The amount to deposit (must be positive).
+     * @param idempotencyKey The client's request identity, or {@code null} for none.
+     * @return {@code true} if the deposit succeeded now or earlier.
+     */
+    public boolean processDeposit(int userId, BigDecimal amount, String idempotencyKey) {
         if (amount.compareTo(BigDecimal.ZERO) <= 0) {
             logger.warn("Invalid Deposit: User " + userId + " attempted to deposit non-positive amount: " + amount);
             System.out.println("❌ Deposit amount must be positive.");
             return false;
         }
-        return transactionDAO.depositMoney(userId, amount);
+        String fingerprint = "DEPOSIT:" + userId + ":" + amount.stripTrailingZeros().toPlainString();
+        String cacheKey = userId + ":" + idempotencyKey;
+        IdempotencyCache.Claim earlier = idempotencyKey == null ? null : idempotencyCache.claim(cacheKey, fingerprint);
+        if (earlier != null) {
+            return replay(idempotencyKey, fingerprint, earlier);
+        }
+
+        LedgerEngine ledger = LedgerEngine.getActive();
+        boolean success = false;
+        try {
+            success = ledger != null
+                    ? ledgerMovement(ledger, userId, userId, amount, idempotencyKey)
+                    : transactionDAO.depositMoney(userId, amount, idempotencyKey);
+            return success;
+        } finally {
+            if (idempotencyKey != null) idempotencyCache.complete(cacheKey, success);
+        }
+    }
+
+    // Ledger mode: the key travels with the entry into MySQL. A key already used, whether still in the
+    // ledger or already flushed, is answered like the DAO answers it instead of moving money again.
+    private boolean ledgerMovement(LedgerEngine ledger, int senderId, int receiverId, BigDecimal amount,
+                                   String idempotencyKey) {
+        if (idempotencyKey != null) {
+            // Ledger first: its entries leave the unflushed view only once they are in MySQL
+            Boolean earlier = ledger.checkIdempotencyKey(senderId, receiverId, amount, idempotencyKey);
+            if (earlier == null) {
+                earlier = transactionDAO.checkIdempotencyKey(senderId, receiverId, amount, idempotencyKey);
+            }
+            if (earlier != null) {
+                logger.info("🔁 Idempotency key " + idempotencyKey + " already used (same payment: " + earlier + ")");
+                return earlier;
+            }
+        }
+        return senderId == receiverId
+                ? ledger.deposit(senderId, amount, idempotencyKey)
+                : ledger.transfer(senderId, receiverId, amount, idempotencyKey);
+    }
+
+    // Answers a request whose key was already claimed: same request -> original outcome, different one -> rejected
+    private boolean replay(String idempotencyKey, String fingerprint, IdempotencyCache.Claim earlier) {
+        if (!earlier.fingerprint.equals(fingerprint)) {
+            logger.warn("Idempotency key " + idempotencyKey + " reused for a different request (" + fingerprint + ")");
+            System.out.println("❌ This request ID was already used for a different payment.");
+            return false;
+        }
+        logger.info("🔁 Replayed request answered with the original result (idempotency key " + idempotencyKey + ")");
+        return earlier.result.join();
     }
 
     /**
@@ -112,4 +408,158 @@ public class TransactionService {
     public List<Transaction> getHistory(int userId) {
         return transactionDAO.getTransactionHistory(userId);
     }
-}
\ No newline at end of file
+
+    /**
+     * Streams a user's whole transaction history (newest first) for exports and analytics.
+     * <p>
+     * Memory use does not depend on the history length. The stream holds a database
+     * connection until it is closed, so consume it in a try-with-resources block.
+     * </p>
+     *
+     * @param userId The ID of the user.
+     * @return A stream of transactions that must be closed after use.
+     */
+    public Stream<Transaction> streamHistory(int userId) {
+        return transactionDAO.streamTransactionHistory(userId);
+    }
+
+    /**
+     * Retrieves one page of a user's transaction history (newest first).
+     * <p>
+     * Pass {@code null} for the first page, then the previous page's
+     * {@link TransactionPage#getNextCursor()} for each following page.
+     * </p>
+     *
+     * @param userId   The ID of the user.
+     * @param pageSize The number of transactions per page (clamped to 1..{@value #MAX_PAGE_SIZE}).
+     * @param cursor   The cursor from the previous page, or {@code null}.
+     * @return The requested page.
+     */
+    public TransactionPage getHistory(int userId, int pageSize, HistoryCursor cursor) {
+        int size = Math.max(1, Math.min(pageSize, MAX_PAGE_SIZE));
+        return transactionDAO.getTransactionHistoryPage(userId, size, cursor);
+    }
+
+    /**
+     * Retrieves the pending money requests a user has been asked to pay.
+     *
+     * @param userId The ID of the payer.
+     * @return The pending requests.
+     */
+    public List<PaymentRequest> getIncomingRequests(int userId) {
+        return requestDAO.getIncomingRequests(userId);
+    }
+
+    /**
+     * Retrieves the pending invoices addressed to a customer.
+     *
+     * @param email The customer's email address.
+     * @return The pending invoices.
+     */
+    public List<Invoice> getPendingInvoices(String email) {
+        return invoiceDAO.getInvoicesForCustomer(email);
+    }
+
+    // --- Async variants (run on AsyncCalls' executor; cancelling the future cancels the SQL) ---
+
+    /**
+     * Async {@link #processTransfer(int, String, BigDecimal)}.
+     *
+     * @param senderId      The ID of the user sending money.
+     * @param receiverEmail The email address of the recipient.
+     * @param amount        The amount to transfer.
+     * @return A future for the outcome.
+     */
+    public CompletableFuture<Boolean> processTransferAsync(int senderId, String receiverEmail, BigDecimal amount) {
+        return AsyncCalls.supply(() -> processTransfer(senderId, receiverEmail, amount));
+    }
+
+    /**
+     * Async {@link #processTransfer(int, int, BigDecimal, String)}.
+     *
+     * @param senderId       The ID of the user sending money.
+     * @param receiverId     The ID of the user receiving money.
+     * @param amount         The amount to transfer.
+     * @param idempotencyKey The client's request identity, or {@code null} for none.
+     * @return A future for the outcome.
+     */
+    public CompletableFuture<Boolean> processTransferAsync(int senderId, int receiverId, BigDecimal amount, String idempotencyKey) {
+        return AsyncCalls.supply(() -> processTransfer(senderId, receiverId, amount, idempotencyKey));
+    }
+
+    /**
+     * Async {@link #processDeposit(int, BigDecimal, String)}.
+     *
+     * @param userId         The ID of the user.
+     * @param amount         The amount to deposit.
+     * @param idempotencyKey The client's request identity, or {@code null} for none.
+     * @return A future for the outcome.
+     */
+    public CompletableFuture<Boolean> processDepositAsync(int userId, BigDecimal amount, String idempotencyKey) {
+        return AsyncCalls.supply(() -> processDeposit(userId, amount, idempotencyKey));
+    }
+
+    /**
+     * Async {@link #payInvoice(int, int)}.
+     *
+     * @param invoiceId The invoice to pay.
+     * @param payerId   The ID of the paying customer.
+     * @return A future for the outcome.
+     */
+    public CompletableFuture<Boolean> payInvoiceAsync(int invoiceId, int payerId) {
+        return AsyncCalls.supply(() -> payInvoice(invoiceId, payerId));
+    }
+
+    /**
+     * Async {@link #acceptRequest(int, int)}.
+     *
+     * @param requestId The request to accept.
+     * @param payerId   The ID of the user asked to pay.
+     * @return A future for the outcome.
+     */
+    public CompletableFuture<Boolean> acceptRequestAsync(int requestId, int payerId) {
+        return AsyncCalls.supply(() -> acceptRequest(requestId, payerId));
+    }
+
+    /**
+     * Async {@link #getHistory(int)}.
+     *
+     * @param userId The ID of the user.
+     * @return A future for the full history.
+     */
+    public CompletableFuture<List<Transaction>> getHistoryAsync(int userId) {
+        return AsyncCalls.supply(() -> getHistory(userId));
+    }
+
+    /**
+     * Async {@link #getHistory(int, int, HistoryCursor)}.
+     *
+     * @param userId   The ID of the user.
+     * @param pageSize The number of transactions per page.
+     * @param cursor   The cursor from the previous page, or {@code null}.
+     * @return A future for the page.
+     */
+    public CompletableFuture<TransactionPage> getHistoryAsync(int userId, int pageSize, HistoryCursor cursor) {
+        return AsyncCalls.supply(() -> getHistory(userId, pageSize, cursor));
+    }
+
+    /**
+     * Async {@link #getIncomingRequests(int)}.
+     *
+     * @param userId The ID of the payer.
+     * @return A future for the pending requests.
+     */
+    public CompletableFuture<List<PaymentRequest>> getIncomingRequestsAsync(int userId) {
+        return AsyncCalls.supply(() -> getIncomingRequests(userId));
+    }
+
+    /**
+     * Async {@link #getPendingInvoices(String)}.
+     *
+     * @param email The customer's email address.
+     * @return A future for the pending invoices.
+     */
+    public CompletableFuture<List<Invoice>> getPendingInvoicesAsync(String email) {
+        return AsyncCalls.supply(() -> getPendingInvoices(email));
+    }
+}
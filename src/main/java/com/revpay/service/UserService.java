@@ -1,13 +1,19 @@
 package com.revpay.service;
 
-import com.revpay.dao.UserDAO;
-import com.revpay.dao.WalletDAO;
+import com.revpay.dao.Repositories;
+import com.revpay.dao.UserRepository;
+import com.revpay.dao.WalletRepository;
+import com.revpay.ledger.LedgerEngine;
 import com.revpay.model.User;
 import com.revpay.util.SecurityUtil;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
 import java.math.BigDecimal;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * Service class for managing User Accounts.
@@ -24,8 +30,8 @@ public class UserService {
     // Initialize Log4j Logger
     private static final Logger logger = LogManager.getLogger(UserService.class);
 
-    private UserDAO userDAO = new UserDAO();
-    private WalletDAO walletDAO = new WalletDAO();
+    private UserRepository userDAO = Repositories.get().users();
+    private WalletRepository walletDAO = Repositories.get().wallets();
 
     /**
      * Authenticates a user based on email and password.
@@ -48,6 +54,7 @@ public class UserService {
         // 3. Verify the password using SecurityUtil (BCrypt)
         if (SecurityUtil.verifyPassword(password, user.getPasswordHash())) {
             logger.info("✅ User Logged In: " + email);
+            rehashIfNeeded(user, password);
             return user;
         } else {
             logger.warn("Login Failed: Invalid password for email " + email);
@@ -56,48 +63,109 @@ public class UserService {
         }
     }
 
+    /**
+     * Upgrades a stored hash made with an outdated BCrypt cost, while the raw password is at hand.
+     * A failure here is logged but does not affect the login.
+     */
+    private void rehashIfNeeded(User user, String password) {
+        if (!SecurityUtil.needsRehash(user.getPasswordHash())) {
+            return;
+        }
+        try {
+            String newHash = SecurityUtil.hashPassword(password);
+            if (userDAO.updatePasswordHash(user.getUserId(), newHash)) {
+                user.setPasswordHash(newHash);
+                logger.info("🔁 Password hash upgraded to cost " + SecurityUtil.getCost() + " for " + user.getEmail());
+            }
+        } catch (IllegalStateException e) {
+            logger.warn("⚠️ Password rehash skipped for " + user.getEmail() + ": " + e.getMessage());
+        }
+    }
+
     /**
      * Registers a new user and automatically creates their Digital Wallet.
+     * <p>
+     * The user and wallet rows are inserted in one transaction, so either both exist or neither does.
+     * </p>
      *
      * @param user The {@link User} object containing registration details.
      * @return {@code true} if registration and wallet creation are successful.
      */
     public boolean registerUser(User user) {
-        // 1. Register the User in the DB
-        boolean isRegistered = userDAO.registerUser(user);
-
-        // 2. If successful, find their new ID and create a Wallet
-        if (isRegistered) {
-            User savedUser = userDAO.getUserByEmail(user.getEmail());
-            if (savedUser != null) {
-                walletDAO.createWallet(savedUser.getUserId());
-                logger.info("✅ Registration Complete: Wallet created for " + user.getEmail());
-            } else {
-                logger.error("❌ Registration Error: Could not fetch new user ID for wallet creation.");
-                return false;
+        int userId = userDAO.registerUserWithWallet(user);
+        if (userId < 0) {
+            return false;
+        }
+        LedgerEngine ledger = LedgerEngine.getActive();
+        if (ledger != null) {
+            ledger.openAccount(userId);
+        }
+        logger.info("✅ Registration Complete: Wallet created for " + user.getEmail());
+        return true;
+    }
+
+    /**
+     * Registers many users at once for onboarding imports.
+     * <p>
+     * Passwords are hashed in parallel across the hashing pool, then users and wallets are
+     * inserted in batches. Emails that already have an account are skipped.
+     * </p>
+     *
+     * @param users          The users to register; their password hash is set here.
+     * @param plainPasswords The raw password of each user, in the same order.
+     * @return The new User ID for each user, in the same order; -1 for skipped or failed users.
+     * @throws IllegalArgumentException If the two lists differ in size.
+     */
+    public int[] registerUsers(List<User> users, List<String> plainPasswords) {
+        if (users.size() != plainPasswords.size()) {
+            throw new IllegalArgumentException("Expected one password per user");
+        }
+        List<String> hashes = SecurityUtil.hashPasswords(plainPasswords);
+        for (int i = 0; i < users.size(); i++) {
+            users.get(i).setPasswordHash(hashes.get(i));
+        }
+
+        int[] ids = userDAO.registerUsersWithWallets(users);
+        LedgerEngine ledger = LedgerEngine.getActive();
+        if (ledger != null) {
+            for (int id : ids) {
+                if (id > 0) ledger.openAccount(id);
             }
         }
-        return isRegistered;
+        return ids;
     }
 
     /**
      * Retrieves the wallet balance for a specific user.
      *
      * @param userId The unique User ID.
-     * @return The current balance.
+     * @return The current balance (from the in-memory ledger when ledger mode is on).
      */
     public BigDecimal getBalance(int userId) {
+        LedgerEngine ledger = LedgerEngine.getActive();
+        if (ledger != null) {
+            return ledger.getBalance(userId);
+        }
         return walletDAO.getBalance(userId);
     }
 
     /**
      * Deletes a user account and all associated data.
+     * <p>
+     * In ledger mode the wallet is closed in the ledger first, so no transfer can credit it
+     * after its row is gone.
+     * </p>
      *
      * @param userId The unique User ID.
      * @return {@code true} if deletion was successful.
      */
     public boolean deleteAccount(int userId) {
         logger.info("🗑️ Deleting account for User ID: " + userId);
+        LedgerEngine ledger = LedgerEngine.getActive();
+        if (ledger != null && !ledger.closeAccount(userId)) {
+            logger.error("❌ Account deletion aborted: the ledger could not close User ID " + userId);
+            return false;
+        }
         return userDAO.deleteUser(userId);
     }
 
@@ -108,11 +176,53 @@ public class UserService {
      * @return The User ID if found, or -1 if not found.
      */
     public int getUserIdByEmail(String email) {
-        User user = userDAO.getUserByEmail(email);
-        if (user != null) {
-            return user.getUserId();
+        int userId = userDAO.getUserIdByEmail(email);
+        if (userId < 0) {
+            logger.warn("User lookup failed: " + email);
         }
-        logger.warn("User lookup failed: " + email);
-        return -1;
+        return userId;
+    }
+
+    /**
+     * Resolves many email addresses to User IDs in bulk.
+     *
+     * @param emails The emails to search for.
+     * @return A map of email to User ID; unknown emails are absent.
+     */
+    public Map<String, Integer> getUserIdsByEmails(Collection<String> emails) {
+        return userDAO.getUserIdsByEmails(emails);
+    }
+
+    // --- Async variants (run on AsyncCalls' executor; cancelling the future cancels the SQL) ---
+
+    /**
+     * Async {@link #login(String, String)}.
+     *
+     * @param email    The user's email address.
+     * @param password The raw password.
+     * @return A future for the user, or {@code null} if authentication failed.
+     */
+    public CompletableFuture<User> loginAsync(String email, String password) {
+        return AsyncCalls.supply(() -> login(email, password));
+    }
+
+    /**
+     * Async {@link #getBalance(int)}.
+     *
+     * @param userId The unique User ID.
+     * @return A future for the balance.
+     */
+    public CompletableFuture<BigDecimal> getBalanceAsync(int userId) {
+        return AsyncCalls.supply(() -> getBalance(userId));
+    }
+
+    /**
+     * Async {@link #getUserIdByEmail(String)}.
+     *
+     * @param email The email to search for.
+     * @return A future for the User ID, or -1 if not found.
+     */
+    public CompletableFuture<Integer> getUserIdByEmailAsync(String email) {
+        return AsyncCalls.supply(() -> getUserIdByEmail(email));
     }
-}
\ No newline at end of file
+}
@@ -1,6 +1,20 @@
 package com.revpay.util;
 
 import at.favre.lib.crypto.bcrypt.BCrypt;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * Utility class for handling Security and Encryption.
@@ -9,12 +23,48 @@ import at.favre.lib.crypto.bcrypt.BCrypt;
  * BCrypt is an industry-standard function that incorporates "salting" and "key stretching"
  * to protect against rainbow table attacks and brute force attempts.
  * </p>
+ * <p>
+ * BCrypt is deliberately slow, so hashing and verification run on a small dedicated thread
+ * pool instead of the caller's thread. At most {@code revpay.security.hashThreads} hashes run
+ * at once (default: one per CPU) and at most {@code revpay.security.hashQueue} more may wait;
+ * further callers block for up to {@code revpay.security.hashTimeoutMillis} and then fail,
+ * so a burst of logins cannot starve the rest of the application of CPU.
+ * </p>
+ * <p>
+ * The cost factor is chosen by {@link #calibrate()} so that one hash takes about
+ * {@code revpay.security.hashTargetMillis} (default 250ms) on this machine, or fixed with
+ * {@code -Drevpay.security.bcryptCost}. Calibration never goes below the long-standing
+ * default of 12, and hashes made with a lower cost are reported by {@link #needsRehash(String)}
+ * so they can be upgraded at the next login. Stronger hashes are kept, so hosts that calibrate
+ * differently never rewrite the same accounts back and forth.
+ * </p>
  *
  * @author RevPay Dev Team
  * @version 1.0
  */
 public class SecurityUtil {
 
+    // Initialize Log4j Logger
+    private static final Logger logger = LogManager.getLogger(SecurityUtil.class);
+
+    private static final int DEFAULT_COST = 12;
+    /** Lowest cost {@link #calibrate()} will pick, however slow the machine is (the default, 12). */
+    public static final int MIN_COST = DEFAULT_COST;
+    /** Highest cost {@link #calibrate()} will pick, however fast the machine is. */
+    public static final int MAX_COST = 16;
+    private static final int PROBE_COST = 8;
+
+    private static final int THREADS = Integer.getInteger("revpay.security.hashThreads",
+            Runtime.getRuntime().availableProcessors());
+    private static final int QUEUE = Integer.getInteger("revpay.security.hashQueue", 64);
+    private static final long TIMEOUT_MILLIS = Long.getLong("revpay.security.hashTimeoutMillis", 10_000L);
+
+    private static final ThreadPoolExecutor EXECUTOR = createExecutor();
+    // Bounds running + queued work; callers wait here rather than piling up in the queue
+    private static final Semaphore PERMITS = new Semaphore(THREADS + QUEUE, true);
+
+    private static volatile int cost = Integer.getInteger("revpay.security.bcryptCost", DEFAULT_COST);
+
     /**
      * Hashes a plain-text password using BCrypt.
      * <p>
@@ -24,10 +74,39 @@ public class SecurityUtil {
      *
      * @param plainPassword The raw password entered by the user.
      * @return A secure BCrypt hash string (e.g., "$2a$12$...").
+     * @throws IllegalStateException If the hashing pool stayed saturated for the whole timeout.
      */
     public static String hashPassword(String plainPassword) {
-        // Cost factor 12 is a good balance between security and performance (takes ~200-300ms)
-        return BCrypt.withDefaults().hashToString(12, plainPassword.toCharArray());
+        int c = cost;
+        char[] chars = plainPassword.toCharArray();
+        return run(() -> BCrypt.withDefaults().hashToString(c, chars));
+    }
+
+    /**
+     * Hashes many passwords in parallel on the hashing pool (bulk onboarding).
+     * <p>
+     * Work is submitted in waves no larger than the pool, so logins queued meanwhile wait
+     * for at most one wave instead of the whole import.
+     * </p>
+     *
+     * @param plainPasswords The raw passwords.
+     * @return The BCrypt hashes, in the same order.
+     * @throws IllegalStateException If the hashing pool stayed saturated for the whole timeout.
+     */
+    public static List<String> hashPasswords(List<String> plainPasswords) {
+        int c = cost;
+        List<String> hashes = new ArrayList<>(plainPasswords.size());
+        for (int from = 0; from < plainPasswords.size(); from += THREADS) {
+            List<Future<String>> wave = new ArrayList<>();
+            for (String plain : plainPasswords.subList(from, Math.min(from + THREADS, plainPasswords.size()))) {
+                char[] chars = plain.toCharArray();
+                wave.add(submit(() -> BCrypt.withDefaults().hashToString(c, chars)));
+            }
+            for (Future<String> f : wave) {
+                hashes.add(await(f));
+            }
+        }
+        return hashes;
     }
 
     /**
@@ -35,13 +114,168 @@ public class SecurityUtil {
      *
      * @param plainPassword  The raw password entered during login.
      * @param hashedPassword The hash stored in the database.
-     * @return {@code true} if the password matches the hash, {@code false} otherwise.
+     * @return {@code true} if the password matches the hash, {@code false} otherwise
+     *         (including when the hashing pool stayed saturated for the whole timeout).
      */
     public static boolean verifyPassword(String plainPassword, String hashedPassword) {
         if (hashedPassword == null || plainPassword == null) {
             return false;
         }
-        BCrypt.Result result = BCrypt.verifyer().verify(plainPassword.toCharArray(), hashedPassword);
-        return result.verified;
+        char[] chars = plainPassword.toCharArray();
+        try {
+            return run(() -> BCrypt.verifyer().verify(chars, hashedPassword).verified);
+        } catch (IllegalStateException e) {
+            logger.warn("⚠️ Password check refused: " + e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * Checks whether a stored hash was made with a lower cost than the current one.
+     *
+     * @param hashedPassword The hash stored in the database.
+     * @return {@code true} if the hash should be replaced at the next successful login;
+     *         never for a hash at or above the current cost.
+     */
+    public static boolean needsRehash(String hashedPassword) {
+        int stored = costOf(hashedPassword);
+        return stored > 0 && stored < cost;
+    }
+
+    /**
+     * Measures this machine and sets the cost so one hash takes about
+     * {@code revpay.security.hashTargetMillis}. Does nothing if the cost was fixed with
+     * {@code -Drevpay.security.bcryptCost}. Call once at startup.
+     *
+     * @return The cost now in use.
+     */
+    public static int calibrate() {
+        if (Integer.getInteger("revpay.security.bcryptCost") != null) {
+            return cost;
+        }
+        cost = calibrateCost(Long.getLong("revpay.security.hashTargetMillis", 250L));
+        logger.info("🔐 BCrypt cost calibrated to " + cost);
+        return cost;
+    }
+
+    /**
+     * Estimates the highest cost whose hash takes no longer than the target on this machine.
+     * <p>
+     * Each cost step doubles the work, so the cost is extrapolated from the best of a few
+     * timings at a cheap probe cost and clamped to [{@link #MIN_COST}, {@link #MAX_COST}].
+     * </p>
+     *
+     * @param targetMillis The desired time for one hash.
+     * @return The estimated cost.
+     */
+    public static int calibrateCost(long targetMillis) {
+        char[] probe = "calibration-probe".toCharArray();
+        long best = Long.MAX_VALUE;
+        for (int i = 0; i < 5; i++) {
+            long start = System.nanoTime();
+            BCrypt.withDefaults().hash(PROBE_COST, probe);
+            best = Math.min(best, System.nanoTime() - start);
+        }
+        double ratio = TimeUnit.MILLISECONDS.toNanos(targetMillis) / (double) Math.max(1, best);
+        int extra = ratio < 1 ? 0 : (int) Math.floor(Math.log(ratio) / Math.log(2));
+        return Math.max(MIN_COST, Math.min(MAX_COST, PROBE_COST + extra));
+    }
+
+    /**
+     * Gets the cost used for new hashes.
+     * @return The BCrypt cost factor.
+     */
+    public static int getCost() {
+        return cost;
+    }
+
+    /**
+     * Sets the cost used for new hashes (tests and benchmarks).
+     * @param newCost The BCrypt cost factor (4-31).
+     */
+    public static void setCost(int newCost) {
+        if (newCost < 4 || newCost > 31) {
+            throw new IllegalArgumentException("BCrypt cost must be between 4 and 31");
+        }
+        cost = newCost;
+    }
+
+    /**
+     * Reads the cost factor from a hash such as {@code $2a$12$...}.
+     */
+    private static int costOf(String hash) {
+        if (hash == null || hash.length() < 7 || hash.charAt(0) != '$' || hash.charAt(3) != '$') {
+            return -1;
+        }
+        try {
+            return Integer.parseInt(hash.substring(4, 6));
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    /**
+     * Runs one hash on the pool and waits for it.
+     */
+    private static <T> T run(Callable<T> task) {
+        return await(submit(task));
+    }
+
+    /**
+     * Queues one hash, waiting up to the timeout for room. The permit is released when the hash finishes.
+     */
+    private static <T> Future<T> submit(Callable<T> task) {
+        try {
+            if (!PERMITS.tryAcquire(TIMEOUT_MILLIS, TimeUnit.MILLISECONDS)) {
+                throw new IllegalStateException("password hashing is overloaded");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("interrupted while waiting to hash", e);
+        }
+        try {
+            return EXECUTOR.submit(() -> {
+                try {
+                    return task.call();
+                } finally {
+                    PERMITS.release();
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            PERMITS.release();
+            throw new IllegalStateException("password hashing is unavailable", e);
+        }
+    }
+
+    private static <T> T await(Future<T> future) {
+        boolean interrupted = false;
+        try {
+            while (true) {
+                try {
+                    return future.get();
+                } catch (InterruptedException e) {
+                    // The hash is already queued; finish it and restore the flag afterwards
+                    interrupted = true;
+                }
+            }
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) throw (RuntimeException) cause;
+            throw new IllegalStateException(cause);
+        } finally {
+            if (interrupted) Thread.currentThread().interrupt();
+        }
+    }
+
+    private static ThreadPoolExecutor createExecutor() {
+        AtomicInteger count = new AtomicInteger();
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(THREADS, THREADS, 30, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(QUEUE), r -> {
+                    Thread t = new Thread(r, "revpay-hash-" + count.incrementAndGet());
+                    t.setDaemon(true);
+                    return t;
+                });
+        executor.allowCoreThreadTimeOut(true);
+        return executor;
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,133 @@
+package com.revpay.util;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Utility class for running blocking work (JDBC calls, socket reads) on cheap threads.
+ * <p>
+ * On Java 21 and later every task gets its own <b>virtual thread</b>, so a request that
+ * blocks on MySQL parks without holding an OS thread and one JVM can serve thousands of
+ * concurrent clients. The build still targets Java 17, so the virtual-thread API is
+ * looked up reflectively; on older runtimes the executors fall back to a bounded pool of
+ * {@code revpay.threads.maxPlatform} platform threads (default 200) with an unbounded queue.
+ * </p>
+ *
+ * @author RevPay Dev Team
+ * @version 1.0
+ */
+public class VirtualThreads {
+
+    // Initialize Log4j Logger
+    private static final Logger logger = LogManager.getLogger(VirtualThreads.class);
+
+    private static final int MAX_PLATFORM_THREADS = Integer.getInteger("revpay.threads.maxPlatform", 200);
+
+    // Thread.ofVirtual(), Thread.Builder.name(String, long), Thread.Builder.factory() - null before Java 21
+    private static final Method OF_VIRTUAL;
+    private static final Method BUILDER_NAME;
+    private static final Method BUILDER_FACTORY;
+
+    static {
+        Method ofVirtual = null, name = null, factory = null;
+        try {
+            Class<?> builder = Class.forName("java.lang.Thread$Builder");
+            ofVirtual = Thread.class.getMethod("ofVirtual");
+            name = builder.getMethod("name", String.class, long.class);
+            factory = builder.getMethod("factory");
+        } catch (ReflectiveOperationException e) {
+            logger.info("Virtual threads unavailable on Java " + Runtime.version().feature()
+                    + "; using up to " + MAX_PLATFORM_THREADS + " platform threads per executor");
+        }
+        OF_VIRTUAL = ofVirtual;
+        BUILDER_NAME = name;
+        BUILDER_FACTORY = factory;
+    }
+
+    private VirtualThreads() {}
+
+    /**
+     * Checks whether this runtime supports virtual threads.
+     * @return {@code true} on Java 21 and later.
+     */
+    public static boolean isSupported() {
+        return OF_VIRTUAL != null;
+    }
+
+    /**
+     * Creates a thread factory for threads named {@code <prefix><n>}.
+     * <p>
+     * The threads are virtual when supported, otherwise daemon platform threads.
+     * </p>
+     *
+     * @param prefix The thread name prefix (e.g., "revpay-http-").
+     * @return A new thread factory.
+     */
+    public static ThreadFactory factory(String prefix) {
+        if (isSupported()) {
+            try {
+                Object builder = BUILDER_NAME.invoke(OF_VIRTUAL.invoke(null), prefix, 1L);
+                return (ThreadFactory) BUILDER_FACTORY.invoke(builder);
+            } catch (ReflectiveOperationException e) {
+                logger.warn("⚠️ Could not create virtual thread factory, using platform threads", e);
+            }
+        }
+        return platformFactory(prefix);
+    }
+
+    /**
+     * Creates an executor that runs each task on its own virtual thread,
+     * or on a bounded platform pool when virtual threads are unavailable.
+     *
+     * @param prefix The thread name prefix.
+     * @return A new executor; shut it down when no longer needed.
+     */
+    public static ExecutorService newPerTaskExecutor(String prefix) {
+        ThreadFactory factory = factory(prefix);
+        if (isSupported()) {
+            try {
+                Method perTask = Executors.class.getMethod("newThreadPerTaskExecutor", ThreadFactory.class);
+                return (ExecutorService) perTask.invoke(null, factory);
+            } catch (ReflectiveOperationException e) {
+                logger.warn("⚠️ Could not create virtual thread executor, using platform threads", e);
+                factory = platformFactory(prefix);
+            }
+        }
+        ThreadPoolExecutor pool = new ThreadPoolExecutor(MAX_PLATFORM_THREADS, MAX_PLATFORM_THREADS,
+                60, TimeUnit.SECONDS, new LinkedBlockingQueue<>(), factory);
+        pool.allowCoreThreadTimeOut(true);
+        return pool;
+    }
+
+    /**
+     * Starts a task on a new (virtual when supported) thread.
+     *
+     * @param name The thread name.
+     * @param task The task to run.
+     * @return The started thread.
+     */
+    public static Thread start(String name, Runnable task) {
+        Thread t = factory(name).newThread(task);
+        t.setName(name);
+        t.start();
+        return t;
+    }
+
+    private static ThreadFactory platformFactory(String prefix) {
+        AtomicInteger count = new AtomicInteger();
+        return r -> {
+            Thread t = new Thread(r, prefix + count.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        };
+    }
+}
@@ -0,0 +1,75 @@
+-- =====================================================================
+-- RevPay schema, version 1: the tables the application was written for.
+-- Apply the V*.sql files in order to an empty `revpay_db` database.
+-- Written in portable SQL (MySQL 8 and H2 in MySQL mode).
+-- =====================================================================
+
+CREATE TABLE users (
+    user_id         INT AUTO_INCREMENT PRIMARY KEY,
+    email           VARCHAR(255) NOT NULL,
+    phone_number    VARCHAR(20),
+    password_hash   VARCHAR(255) NOT NULL,
+    transaction_pin VARCHAR(255),
+    full_name       VARCHAR(100),
+    role            VARCHAR(20)  NOT NULL DEFAULT 'PERSONAL',
+    CONSTRAINT uk_users_email UNIQUE (email)
+);
+
+CREATE TABLE business_profiles (
+    user_id       INT PRIMARY KEY,
+    business_name VARCHAR(100),
+    CONSTRAINT fk_business_profiles_user FOREIGN KEY (user_id) REFERENCES users (user_id)
+);
+
+CREATE TABLE wallets (
+    wallet_id INT AUTO_INCREMENT PRIMARY KEY,
+    user_id   INT            NOT NULL,
+    balance   DECIMAL(15, 2) NOT NULL DEFAULT 0.00,
+    CONSTRAINT uk_wallets_user UNIQUE (user_id),
+    CONSTRAINT fk_wallets_user FOREIGN KEY (user_id) REFERENCES users (user_id)
+);
+
+CREATE TABLE transactions (
+    transaction_id   INT AUTO_INCREMENT PRIMARY KEY,
+    sender_id        INT            NOT NULL,
+    receiver_id      INT            NOT NULL,
+    amount           DECIMAL(15, 2) NOT NULL,
+    transaction_type VARCHAR(20)    NOT NULL,
+    status           VARCHAR(20)    NOT NULL,
+    timestamp        TIMESTAMP      NOT NULL DEFAULT CURRENT_TIMESTAMP
+);
+
+CREATE TABLE payment_requests (
+    request_id   INT AUTO_INCREMENT PRIMARY KEY,
+    requester_id INT            NOT NULL,
+    payer_id     INT            NOT NULL,
+    amount       DECIMAL(15, 2) NOT NULL,
+    status       VARCHAR(20)    NOT NULL DEFAULT 'PENDING'
+);
+
+CREATE TABLE invoices (
+    invoice_id     INT AUTO_INCREMENT PRIMARY KEY,
+    business_id    INT            NOT NULL,
+    customer_email VARCHAR(255)   NOT NULL,
+    amount         DECIMAL(15, 2) NOT NULL,
+    description    VARCHAR(255),
+    status         VARCHAR(20)    NOT NULL DEFAULT 'PENDING',
+    created_at     TIMESTAMP      NOT NULL DEFAULT CURRENT_TIMESTAMP
+);
+
+CREATE TABLE loans (
+    loan_id    INT AUTO_INCREMENT PRIMARY KEY,
+    user_id    INT            NOT NULL,
+    amount     DECIMAL(15, 2) NOT NULL,
+    reason     VARCHAR(255),
+    status     VARCHAR(20)    NOT NULL DEFAULT 'PENDING',
+    applied_at TIMESTAMP      NOT NULL DEFAULT CURRENT_TIMESTAMP
+);
+
+CREATE TABLE payment_methods (
+    method_id             INT AUTO_INCREMENT PRIMARY KEY,
+    user_id               INT          NOT NULL,
+    card_number_encrypted VARCHAR(255) NOT NULL,
+    card_type             VARCHAR(20),
+    expiry_date           DATE
+);
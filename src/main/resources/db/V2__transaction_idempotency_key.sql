@@ -0,0 +1,9 @@
+-- =====================================================================
+-- RevPay schema, version 2: request identity for retried transfers and deposits.
+-- TransactionDAO stores the client's idempotency key on the ledger row; the unique
+-- index turns a duplicate retry into a constraint violation instead of a second payment.
+-- =====================================================================
+
+ALTER TABLE transactions ADD COLUMN idempotency_key VARCHAR(64) NULL;
+
+CREATE UNIQUE INDEX uk_transactions_idempotency_key ON transactions (idempotency_key);
@@ -0,0 +1,24 @@
+-- =====================================================================
+-- RevPay schema, version 3: composite indexes for the hot queries in every DAO.
+-- InnoDB appends the primary key to each secondary index, so (sender_id, timestamp)
+-- is really (sender_id, timestamp, transaction_id): exactly the keyset order used by
+-- the history pages, which can then be read straight off the index without a sort.
+-- =====================================================================
+
+-- TransactionDAO history (one range scan per UNION ALL branch) and UserDAO.deleteUser
+CREATE INDEX idx_transactions_sender_time   ON transactions (sender_id, timestamp);
+CREATE INDEX idx_transactions_receiver_time ON transactions (receiver_id, timestamp);
+
+-- RequestDAO.getIncomingRequests: WHERE payer_id = ? AND status = 'PENDING'
+CREATE INDEX idx_requests_payer_status ON payment_requests (payer_id, status);
+-- UserDAO.deleteUser: WHERE requester_id = ? OR payer_id = ?
+CREATE INDEX idx_requests_requester    ON payment_requests (requester_id);
+
+-- InvoiceDAO.getInvoicesForCustomer: WHERE customer_email = ? AND status = 'PENDING'
+CREATE INDEX idx_invoices_customer_status ON invoices (customer_email, status);
+-- InvoiceDAO.getInvoicesByBusiness and UserDAO.deleteUser
+CREATE INDEX idx_invoices_business        ON invoices (business_id);
+
+-- LoanDAO.getLoansByUserId and PaymentMethodDAO.getMethodsByUserId
+CREATE INDEX idx_loans_user           ON loans (user_id);
+CREATE INDEX idx_payment_methods_user ON payment_methods (user_id);
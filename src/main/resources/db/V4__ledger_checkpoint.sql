@@ -0,0 +1,13 @@
+-- =====================================================================
+-- RevPay schema, version 4: the ledger's flush checkpoint.
+-- LedgerDAO.flushBatch updates last_sequence in the same transaction as the wallet
+-- and transactions rows, so a journal entry at or below it is known to be in the
+-- database and is skipped when the journal is replayed after a crash.
+-- =====================================================================
+
+CREATE TABLE ledger_checkpoint (
+    id            INT PRIMARY KEY,
+    last_sequence BIGINT NOT NULL
+);
+
+INSERT INTO ledger_checkpoint (id, last_sequence) VALUES (1, -1);
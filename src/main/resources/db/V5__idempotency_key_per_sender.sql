@@ -0,0 +1,10 @@
+-- =====================================================================
+-- RevPay schema, version 5: idempotency keys are scoped to the sender.
+-- Two clients that happen to pick the same key no longer block each other's payments;
+-- a retry is recognised by (sender_id, idempotency_key), and TransactionDAO compares the
+-- stored row's receiver and amount before treating it as the same request.
+-- =====================================================================
+
+DROP INDEX uk_transactions_idempotency_key ON transactions;
+
+CREATE UNIQUE INDEX uk_transactions_sender_idempotency ON transactions (sender_id, idempotency_key);
@@ -0,0 +1,104 @@
+package com.revpay.dao;
+
+import com.revpay.config.DatabaseConnection;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.*;
+import static org.junit.Assume.assumeTrue;
+
+/**
+ * Index-usage check for the hot queries of every DAO.
+ * <p>
+ * Runs {@code EXPLAIN} on each query against the local MySQL database (schema from
+ * {@code src/main/resources/db}) and fails if any table is read with a full scan
+ * ({@code type = ALL}). Skipped when the configured database is not MySQL.
+ * </p>
+ * <p>
+ * Lives in {@code com.revpay.dao} so it can read the DAOs' package-visible SQL constants;
+ * a query edited in a DAO is checked as edited, never as a stale copy.
+ * </p>
+ */
+public class QueryPlanTest {
+
+    private Connection conn;
+
+    /**
+     * Setup: Connect, or skip the test when MySQL is not available.
+     */
+    @Before
+    public void setUp() throws SQLException {
+        conn = DatabaseConnection.getConnection();
+        assumeTrue("MySQL is not available", conn != null
+                && "MySQL".equalsIgnoreCase(conn.getMetaData().getDatabaseProductName()));
+    }
+
+    /**
+     * Teardown: Return the connection.
+     */
+    @After
+    public void tearDown() throws SQLException {
+        if (conn != null) conn.close();
+    }
+
+    /**
+     * Test: No hot query performs a full table scan.
+     */
+    @Test
+    public void testHotQueriesUseIndexes() throws SQLException {
+        Timestamp now = new Timestamp(System.currentTimeMillis());
+        List<String> fullScans = new ArrayList<>();
+
+        // TransactionDAO: history page (UNION ALL of two range scans), the seek variant, and the money paths
+        check(fullScans, TransactionDAO.historySql(false, true), 1, 11, 1, 1, 11, 11);
+        check(fullScans, TransactionDAO.historySql(true, true), 1, now, now, 100, 11, 1, 1, now, now, 100, 11, 11);
+        check(fullScans, TransactionDAO.FIND_BY_IDEMPOTENCY_KEY_SQL, 1, "key");
+        check(fullScans, TransactionDAO.LOCK_WALLETS_SQL, 1, 2);
+        check(fullScans, TransactionDAO.CLAIM_INVOICE_SQL, 1, 1);
+        check(fullScans, TransactionDAO.READ_INVOICE_SQL, 1);
+        check(fullScans, TransactionDAO.CLAIM_REQUEST_SQL, 1, 1);
+        check(fullScans, TransactionDAO.READ_REQUEST_SQL, 1);
+
+        // WalletDAO / UserDAO
+        check(fullScans, WalletDAO.SELECT_BALANCE_SQL, 1);
+        check(fullScans, UserDAO.SELECT_BY_EMAIL_SQL, "a@b.com");
+        check(fullScans, UserDAO.SELECT_ID_BY_EMAIL_SQL, "a@b.com");
+
+        // RequestDAO / InvoiceDAO / LoanDAO / PaymentMethodDAO
+        check(fullScans, RequestDAO.SELECT_INCOMING_SQL, 1);
+        check(fullScans, InvoiceDAO.SELECT_FOR_CUSTOMER_SQL, "a@b.com");
+        check(fullScans, InvoiceDAO.SELECT_BY_BUSINESS_SQL, 1);
+        check(fullScans, LoanDAO.SELECT_BY_USER_SQL, 1);
+        check(fullScans, PaymentMethodDAO.SELECT_BY_USER_SQL, 1);
+
+        assertTrue("Full table scans found:\n" + String.join("\n", fullScans), fullScans.isEmpty());
+        System.out.println("✅ Query Plan Test Passed");
+    }
+
+    /**
+     * Helper: EXPLAINs one query and records it if any real table is read with type ALL.
+     */
+    private void check(List<String> fullScans, String sql, Object... params) throws SQLException {
+        try (PreparedStatement stmt = conn.prepareStatement("EXPLAIN " + sql)) {
+            for (int i = 0; i < params.length; i++) stmt.setObject(i + 1, params[i]);
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    String table = rs.getString("table");
+                    // "<union1,2>" is the temporary result of the UNION itself, not a base table
+                    if (table != null && !table.startsWith("<") && "ALL".equalsIgnoreCase(rs.getString("type"))) {
+                        fullScans.add(table + ": " + sql);
+                    }
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,135 @@
+package com.revpay.test.api;
+
+import com.revpay.api.ApiServer;
+import com.revpay.dao.UserDAO;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests for the {@link ApiServer} request handling: authentication, routing and input
+ * validation. Only the logged-in validation case touches the database.
+ */
+public class ApiServerTest {
+
+    private ApiServer server;
+
+    @Before
+    public void setUp() throws IOException {
+        server = new ApiServer(0);
+        server.start();
+    }
+
+    @After
+    public void tearDown() {
+        server.stop(0);
+    }
+
+    private HttpURLConnection call(String method, String path, String body) throws IOException {
+        HttpURLConnection conn = (HttpURLConnection) new URL("http://localhost:" + server.getPort() + path).openConnection();
+        conn.setRequestMethod(method);
+        if (body != null) {
+            conn.setDoOutput(true);
+            try (OutputStream out = conn.getOutputStream()) {
+                out.write(body.getBytes(StandardCharsets.UTF_8));
+            }
+        }
+        return conn;
+    }
+
+    private static String error(HttpURLConnection conn) throws IOException {
+        try (InputStream in = conn.getErrorStream()) {
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+
+    /**
+     * Test: Session-scoped endpoints refuse requests without a valid bearer token.
+     */
+    @Test
+    public void testRequiresLogin() throws IOException {
+        HttpURLConnection conn = call("GET", "/api/balance", null);
+        assertEquals(401, conn.getResponseCode());
+        assertTrue(error(conn).contains("\"success\":false"));
+
+        conn = call("GET", "/api/history", null);
+        conn.setRequestProperty("Authorization", "Bearer forged-token");
+        assertEquals(401, conn.getResponseCode());
+    }
+
+    /**
+     * Test: Malformed JSON and missing fields are rejected before touching the services.
+     */
+    @Test
+    public void testRejectsBadInput() throws IOException {
+        HttpURLConnection conn = call("POST", "/api/login", "{not json");
+        assertEquals(400, conn.getResponseCode());
+
+        conn = call("POST", "/api/login", "{\"email\":\"a@b.com\"}");
+        assertEquals(400, conn.getResponseCode());
+        assertTrue(error(conn).contains("password"));
+    }
+
+    /**
+     * Test: Wrong HTTP methods are refused.
+     */
+    @Test
+    public void testMethodNotAllowed() throws IOException {
+        assertEquals(405, call("GET", "/api/login", null).getResponseCode());
+    }
+
+    /**
+     * Test: Logged-in calls reject over-long idempotency keys and non-positive loan amounts.
+     */
+    @Test
+    public void testRejectsBadKeysAndLoanAmounts() throws IOException {
+        String email = "api_business_" + System.currentTimeMillis() + "@test.com";
+        HttpURLConnection conn = call("POST", "/api/register", "{\"email\":\"" + email
+                + "\",\"password\":\"secret\",\"fullName\":\"Api Business\",\"role\":\"BUSINESS\"}");
+        assertEquals(200, conn.getResponseCode());
+        try {
+            conn = call("POST", "/api/login", "{\"email\":\"" + email + "\",\"password\":\"secret\"}");
+            assertEquals(200, conn.getResponseCode());
+            String token;
+            try (InputStream in = conn.getInputStream()) {
+                Matcher m = Pattern.compile("\"token\":\"([^\"]+)\"").matcher(new String(in.readAllBytes(), StandardCharsets.UTF_8));
+                assertTrue(m.find());
+                token = m.group(1);
+            }
+
+            conn = authorized("POST", "/api/deposit", token, "{\"amount\":\"5.00\",\"idempotencyKey\":\"" + "k".repeat(65) + "\"}");
+            assertEquals(400, conn.getResponseCode());
+            assertTrue(error(conn).contains("Idempotency key"));
+
+            conn = authorized("POST", "/api/loans", token, "{\"amount\":\"-100\",\"reason\":\"Negative\"}");
+            assertEquals(400, conn.getResponseCode());
+            conn = authorized("POST", "/api/loans", token, "{\"amount\":\"0\",\"reason\":\"Zero\"}");
+            assertEquals(400, conn.getResponseCode());
+        } finally {
+            UserDAO userDAO = new UserDAO();
+            userDAO.deleteUser(userDAO.getUserIdByEmail(email));
+        }
+    }
+
+    private HttpURLConnection authorized(String method, String path, String token, String body) throws IOException {
+        HttpURLConnection conn = (HttpURLConnection) new URL("http://localhost:" + server.getPort() + path).openConnection();
+        conn.setRequestMethod(method);
+        conn.setRequestProperty("Authorization", "Bearer " + token);
+        conn.setDoOutput(true);
+        try (OutputStream out = conn.getOutputStream()) {
+            out.write(body.getBytes(StandardCharsets.UTF_8));
+        }
+        return conn;
+    }
+}
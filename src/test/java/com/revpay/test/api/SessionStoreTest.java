@@ -0,0 +1,56 @@
+package com.revpay.test.api;
+
+import com.revpay.api.SessionStore;
+import com.revpay.model.Role;
+import com.revpay.model.User;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * Unit tests for {@link SessionStore}.
+ */
+public class SessionStoreTest {
+
+    private static User user(int id) {
+        User u = new User("user" + id + "@revpay.com", "555", "hash", "1234", "User " + id, Role.PERSONAL);
+        u.setUserId(id);
+        return u;
+    }
+
+    /**
+     * Test: Each login gets its own token, and tokens resolve to their own user.
+     */
+    @Test
+    public void testSessionsAreIndependent() {
+        SessionStore store = new SessionStore(60_000);
+        String a = store.create(user(1));
+        String b = store.create(user(2));
+
+        assertNotEquals(a, b);
+        assertEquals(1, store.get(a).getUserId());
+        assertEquals(2, store.get(b).getUserId());
+        assertNull(store.get("unknown"));
+        assertNull(store.get(null));
+
+        assertTrue(store.remove(a));
+        assertNull(store.get(a));
+        assertEquals(1, store.size());
+    }
+
+    /**
+     * Test: Idle sessions expire.
+     */
+    @Test
+    public void testIdleSessionsExpire() throws InterruptedException {
+        SessionStore store = new SessionStore(20);
+        String token = store.create(user(1));
+        store.create(user(2));
+
+        Thread.sleep(40);
+
+        assertNull(store.get(token));
+        assertEquals(1, store.evictExpired());
+        assertEquals(0, store.size());
+    }
+}
@@ -0,0 +1,212 @@
+package com.revpay.test.config;
+
+import com.revpay.config.ConnectionPool;
+import com.revpay.config.PoolConfig;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.SQLTimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.*;
+
+/**
+ * Unit tests for {@link ConnectionPool}.
+ * <p>
+ * Uses stub connections instead of MySQL, so the pooling rules (reuse, bounds,
+ * validation, lifetime and statement caching) can be verified without a running database.
+ * </p>
+ */
+public class ConnectionPoolTest {
+
+    private final AtomicInteger opened = new AtomicInteger();
+    private final AtomicInteger physicallyClosed = new AtomicInteger();
+    private final AtomicBoolean valid = new AtomicBoolean(true);
+    private final AtomicInteger prepared = new AtomicInteger();
+    private final AtomicInteger statementsClosed = new AtomicInteger();
+    private PoolConfig config;
+    private ConnectionPool pool;
+
+    /**
+     * Setup: A small pool with validation on every borrow.
+     */
+    @Before
+    public void setUp() {
+        config = new PoolConfig();
+        config.setMaxSize(2);
+        config.setMinIdle(0);
+        config.setBorrowTimeoutMillis(200);
+        config.setAliveBypassMillis(0);
+        config.setLeakDetectionThresholdMillis(0);
+        pool = new ConnectionPool(this::stubConnection, config);
+    }
+
+    /**
+     * Teardown: Shut the pool down.
+     */
+    @After
+    public void tearDown() {
+        pool.close();
+    }
+
+    /**
+     * Test: Closing a borrowed connection returns the same physical connection to the pool.
+     */
+    @Test
+    public void testConnectionIsReused() throws SQLException {
+        Connection first = pool.borrow();
+        first.close();
+        assertTrue("Logical connection should report closed", first.isClosed());
+
+        Connection second = pool.borrow();
+        assertEquals("Only one physical connection should have been opened", 1, opened.get());
+        assertEquals("Physical connection should stay open", 0, physicallyClosed.get());
+        second.close();
+        assertEquals(1, pool.getIdleConnections());
+    }
+
+    /**
+     * Test: Borrowing beyond maxSize times out instead of opening more connections.
+     */
+    @Test
+    public void testPoolIsBounded() throws SQLException {
+        Connection a = pool.borrow();
+        Connection b = pool.borrow();
+        try {
+            pool.borrow();
+            fail("Third borrow should time out");
+        } catch (SQLTimeoutException expected) {
+            assertEquals("Pool must not exceed maxSize", 2, pool.getTotalConnections());
+        } finally {
+            a.close();
+            b.close();
+        }
+    }
+
+    /**
+     * Test: A connection that fails validation is discarded and replaced.
+     */
+    @Test
+    public void testInvalidConnectionIsReplaced() throws SQLException {
+        pool.borrow().close();
+        valid.set(false);
+        Connection conn = pool.borrow();
+        valid.set(true);
+        conn.close();
+
+        assertEquals("A replacement connection should have been opened", 2, opened.get());
+        assertEquals("The invalid connection should be closed", 1, physicallyClosed.get());
+    }
+
+    /**
+     * Test: Connections past their max lifetime are retired on return.
+     */
+    @Test
+    public void testMaxLifetimeRetiresConnection() throws Exception {
+        pool.close();
+        config.setMaxLifetimeMillis(1);
+        pool = new ConnectionPool(this::stubConnection, config);
+
+        Connection conn = pool.borrow();
+        Thread.sleep(5);
+        conn.close();
+
+        assertEquals("Expired connection should not go back to the pool", 0, pool.getIdleConnections());
+        assertEquals(1, physicallyClosed.get());
+    }
+
+    /**
+     * Test: Preparing the same SQL twice on a pooled connection reuses the cached statement.
+     */
+    @Test
+    public void testPreparedStatementIsCached() throws SQLException {
+        String sql = "SELECT balance FROM wallets WHERE user_id = ?";
+        try (Connection conn = pool.borrow(); PreparedStatement stmt = conn.prepareStatement(sql)) {
+            stmt.setInt(1, 1);
+        }
+        try (Connection conn = pool.borrow(); PreparedStatement stmt = conn.prepareStatement(sql)) {
+            stmt.setInt(1, 2);
+        }
+
+        assertEquals("Statement should be prepared only once", 1, prepared.get());
+        assertEquals(1, pool.getStatementCacheHits());
+        assertEquals(1, pool.getStatementCacheMisses());
+        assertEquals("Cached statement should stay open", 0, statementsClosed.get());
+    }
+
+    /**
+     * Test: A statement left open when its connection is closed goes back to the cache, not to the driver.
+     */
+    @Test
+    public void testForgottenStatementIsCachedOnConnectionClose() throws SQLException {
+        String sql = "SELECT balance FROM wallets WHERE user_id = ?";
+        Connection first = pool.borrow();
+        PreparedStatement forgotten = first.prepareStatement(sql);
+        first.close();
+
+        assertTrue(forgotten.isClosed());
+        assertEquals("Forgotten statement should stay open in the cache", 0, statementsClosed.get());
+        try (Connection conn = pool.borrow(); PreparedStatement stmt = conn.prepareStatement(sql)) {
+            stmt.setInt(1, 1);
+        }
+        assertEquals("Statement should be prepared only once", 1, prepared.get());
+        assertEquals(1, pool.getStatementCacheHits());
+    }
+
+    /**
+     * Test: A full statement cache closes its least recently used statement.
+     */
+    @Test
+    public void testStatementCacheEvictsLeastRecentlyUsed() throws SQLException {
+        pool.close();
+        config.setStatementCacheSize(1);
+        pool = new ConnectionPool(this::stubConnection, config);
+
+        try (Connection conn = pool.borrow()) {
+            conn.prepareStatement("SELECT 1").close();
+            conn.prepareStatement("SELECT 2").close();
+        }
+
+        assertEquals(1, pool.getStatementCacheEvictions());
+        assertEquals("Evicted statement should be closed", 1, statementsClosed.get());
+    }
+
+    /**
+     * Helper: Builds a stub connection that only tracks open/closed state and validity.
+     */
+    private Connection stubConnection() {
+        opened.incrementAndGet();
+        AtomicBoolean closed = new AtomicBoolean(false);
+        return (Connection) Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[]{Connection.class},
+                (proxy, method, args) -> {
+                    switch (method.getName()) {
+                        case "close":
+                            if (closed.compareAndSet(false, true)) physicallyClosed.incrementAndGet();
+                            return null;
+                        case "isClosed": return closed.get();
+                        case "isValid": return valid.get();
+                        case "getAutoCommit": return true;
+                        case "prepareStatement": return stubStatement();
+                        default: return null;
+                    }
+                });
+    }
+
+    /**
+     * Helper: Builds a stub prepared statement that only tracks being closed.
+     */
+    private PreparedStatement stubStatement() {
+        prepared.incrementAndGet();
+        return (PreparedStatement) Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[]{PreparedStatement.class},
+                (proxy, method, args) -> {
+                    if ("close".equals(method.getName())) statementsClosed.incrementAndGet();
+                    return null;
+                });
+    }
+}
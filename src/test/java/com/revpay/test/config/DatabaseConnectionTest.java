@@ -26,7 +26,7 @@ public class DatabaseConnectionTest {
      * </p>
      */
     @Test
-    public void testGetConnection() {
+    public void testGetConnection() throws SQLException {
         // 1. Attempt to get connection
         Connection conn = DatabaseConnection.getConnection();
 
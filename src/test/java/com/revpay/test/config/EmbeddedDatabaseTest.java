@@ -0,0 +1,81 @@
+package com.revpay.test.config;
+
+import com.revpay.config.EmbeddedDatabase;
+import org.junit.Test;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests for {@link com.revpay.config.EmbeddedDatabase}.
+ * <p>
+ * Each test creates its own named in-memory database, so they do not touch the
+ * database used by the rest of the suite.
+ * </p>
+ */
+public class EmbeddedDatabaseTest {
+
+    /**
+     * Test Scenario: A new embedded database has every table from the schema scripts.
+     */
+    @Test
+    public void testCreateAppliesSchema() throws SQLException {
+        DataSource ds = EmbeddedDatabase.create("schema_test_" + System.nanoTime());
+
+        try (Connection conn = ds.getConnection(); Statement st = conn.createStatement()) {
+            for (String table : new String[]{"users", "wallets", "transactions", "payment_requests", "invoices", "loans", "payment_methods"}) {
+                try (ResultSet rs = st.executeQuery("SELECT COUNT(*) FROM " + table)) {
+                    assertTrue(rs.next());
+                    assertEquals("New table " + table + " should be empty", 0, rs.getInt(1));
+                }
+            }
+        }
+    }
+
+    /**
+     * Test Scenario: Databases with different names are independent.
+     */
+    @Test
+    public void testNamedDatabasesAreIsolated() throws SQLException {
+        DataSource first = EmbeddedDatabase.create("isolation_a_" + System.nanoTime());
+        DataSource second = EmbeddedDatabase.create("isolation_b_" + System.nanoTime());
+
+        try (Connection conn = first.getConnection(); Statement st = conn.createStatement()) {
+            st.executeUpdate("INSERT INTO users (email, phone_number, password_hash, transaction_pin, full_name, role) "
+                    + "VALUES ('iso@revpay.test', '0000000000', 'x', '0000', 'Iso', 'PERSONAL')");
+        }
+        try (Connection conn = second.getConnection(); Statement st = conn.createStatement();
+             ResultSet rs = st.executeQuery("SELECT COUNT(*) FROM users")) {
+            rs.next();
+            assertEquals(0, rs.getInt(1));
+        }
+    }
+
+    /**
+     * Test Scenario: Emails compare case-insensitively, as with MySQL's default collation.
+     */
+    @Test
+    public void testEmailLookupIgnoresCase() throws SQLException {
+        DataSource ds = EmbeddedDatabase.create("ignorecase_" + System.nanoTime());
+        String insert = "INSERT INTO users (email, phone_number, password_hash, transaction_pin, full_name, role) "
+                + "VALUES ('%s', '0000000000', 'x', '0000', 'Case', 'PERSONAL')";
+
+        try (Connection conn = ds.getConnection(); Statement st = conn.createStatement()) {
+            st.executeUpdate(String.format(insert, "Mixed.Case@RevPay.test"));
+            try (ResultSet rs = st.executeQuery("SELECT user_id FROM users WHERE email = 'mixed.case@revpay.test'")) {
+                assertTrue("Lower-case lookup finds the mixed-case email", rs.next());
+            }
+            try {
+                st.executeUpdate(String.format(insert, "MIXED.CASE@revpay.test"));
+                fail("The unique email constraint should ignore case");
+            } catch (SQLException expected) {
+                // duplicate email
+            }
+        }
+    }
+}
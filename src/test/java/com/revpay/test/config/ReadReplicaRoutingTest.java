@@ -0,0 +1,95 @@
+package com.revpay.test.config;
+
+import com.revpay.config.DatabaseConnection;
+import com.revpay.config.EmbeddedDatabase;
+import com.revpay.config.ReadYourWrites;
+import com.revpay.dao.BalanceCache;
+import com.revpay.dao.TransactionDAO;
+import com.revpay.dao.UserDAO;
+import com.revpay.dao.WalletDAO;
+import com.revpay.model.Role;
+import com.revpay.model.User;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.math.BigDecimal;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests for read/write splitting in {@link DatabaseConnection} with {@link ReadYourWrites}.
+ * <p>
+ * The "replica" is a second, empty embedded database that never receives the primary's
+ * writes, so a read that reaches it is easy to tell apart from a read of the primary.
+ * </p>
+ */
+public class ReadReplicaRoutingTest {
+
+    private final UserDAO userDAO = new UserDAO();
+    private final TransactionDAO transactionDAO = new TransactionDAO();
+
+    private int userId;
+
+    /**
+     * Setup: A user with one deposit on the primary, and an empty replica.
+     */
+    @Before
+    public void setUp() throws Exception {
+        DatabaseConnection.setReadDataSource(null);
+        String email = "replica_" + System.nanoTime() + "@revpay.test";
+        userId = userDAO.registerUserWithWallet(new User(email, "000", "hash", "0000", "Replica", Role.PERSONAL));
+        assertTrue(transactionDAO.depositMoney(userId, new BigDecimal("10.00")));
+
+        DatabaseConnection.setReadDataSource(EmbeddedDatabase.create("replica_" + System.nanoTime()));
+    }
+
+    /**
+     * Teardown: Back to reading from the primary.
+     */
+    @After
+    public void tearDown() {
+        DatabaseConnection.setReadDataSource(null);
+        ReadYourWrites.getInstance().clear();
+        userDAO.deleteUser(userId);
+    }
+
+    /**
+     * Test Scenario: Right after their own deposit a user reads from the primary; once the window has passed, from the replica.
+     */
+    @Test
+    public void testRecentWriterReadsFromPrimary() {
+        assertTrue(DatabaseConnection.hasReadReplica());
+        assertEquals("Own write is visible", 1, transactionDAO.getTransactionHistory(userId).size());
+
+        ReadYourWrites.getInstance().clear(); // the window has passed
+        assertTrue("The (lagging) replica serves the read", transactionDAO.getTransactionHistory(userId).isEmpty());
+    }
+
+    /**
+     * Test Scenario: A balance cache miss reads the primary even outside the window, so a lagging replica is never cached.
+     */
+    @Test
+    public void testBalanceLoadsFromPrimary() {
+        ReadYourWrites.getInstance().clear();
+        BalanceCache.getInstance().invalidate(userId);
+        assertEquals(0, new BigDecimal("10.00").compareTo(new WalletDAO().getBalance(userId)));
+    }
+
+    /**
+     * Test Scenario: The window expires on its own, and a zero window never pins reads to the primary.
+     */
+    @Test
+    public void testWindowExpires() throws InterruptedException {
+        ReadYourWrites shortWindow = new ReadYourWrites(20);
+        shortWindow.record(7);
+        assertTrue(shortWindow.isRecent(7));
+        assertFalse(shortWindow.isRecent(8));
+        Thread.sleep(40);
+        assertFalse(shortWindow.isRecent(7));
+
+        ReadYourWrites disabled = new ReadYourWrites(0);
+        disabled.record(7);
+        assertFalse(disabled.isRecent(7));
+    }
+}
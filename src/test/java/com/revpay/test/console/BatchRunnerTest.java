@@ -0,0 +1,62 @@
+package com.revpay.test.console;
+
+import com.revpay.console.BatchRunner;
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests for {@link BatchRunner} script parsing and result reporting (no MySQL needed).
+ */
+public class BatchRunnerTest {
+
+    /**
+     * Test: Quoted arguments keep their spaces.
+     */
+    @Test
+    public void testTokenize() {
+        assertEquals(List.of("register", "a@b.com", "pw", "Jane Q Doe", "BUSINESS"),
+                BatchRunner.tokenize("register a@b.com  pw \"Jane Q Doe\" BUSINESS"));
+        assertEquals(List.of("x", ""), BatchRunner.tokenize("x \"\""));
+    }
+
+    /**
+     * Test: An unterminated quote is rejected.
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void testTokenizeUnterminatedQuote() {
+        BatchRunner.tokenize("login \"a@b.com pw");
+    }
+
+    /**
+     * Test: Each command yields one JSON line, failures do not stop the script,
+     * and comments and blank lines are skipped.
+     */
+    @Test
+    public void testResultLines() throws Exception {
+        String script = "# nightly job\n"
+                + "\n"
+                + "deposit 100\n"
+                + "frobnicate\n"
+                + "login only-one-arg\n"
+                + "logout\n";
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+        int failed = new BatchRunner(new PrintStream(buffer, true, StandardCharsets.UTF_8)).run(new StringReader(script));
+
+        String[] lines = buffer.toString(StandardCharsets.UTF_8).trim().split("\n");
+        assertEquals(3, failed);
+        assertEquals(5, lines.length);
+        assertTrue(lines[0].startsWith("{\"line\":3,\"command\":\"deposit\",\"ok\":false"));
+        assertTrue(lines[0].contains("\"error\":\"Login required\""));
+        assertTrue(lines[1].contains("Unknown command: frobnicate"));
+        assertTrue(lines[2].contains("Usage: login"));
+        assertTrue(lines[3].startsWith("{\"line\":6,\"command\":\"logout\",\"ok\":true,\"micros\":"));
+        assertTrue(lines[4].startsWith("{\"summary\":true,\"commands\":4,\"failed\":3"));
+    }
+}
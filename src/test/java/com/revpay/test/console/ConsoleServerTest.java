@@ -0,0 +1,91 @@
+package com.revpay.test.console;
+
+import com.revpay.console.ConsoleServer;
+import org.junit.Test;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests for {@link ConsoleServer} that drive the main menu (no login, so no MySQL needed).
+ */
+public class ConsoleServerTest {
+
+    private static Socket connect(ConsoleServer server) throws IOException {
+        Socket s = new Socket(InetAddress.getLoopbackAddress(), server.getPort());
+        s.setSoTimeout(5_000);
+        return s;
+    }
+
+    private static void send(Socket s, String line) throws IOException {
+        OutputStream out = s.getOutputStream();
+        out.write((line + "\n").getBytes(StandardCharsets.UTF_8));
+        out.flush();
+    }
+
+    private static String readUntil(BufferedReader in, String marker) throws IOException {
+        StringBuilder sb = new StringBuilder();
+        String line;
+        while ((line = in.readLine()) != null) {
+            sb.append(line).append('\n');
+            if (line.contains(marker)) break;
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Test: Concurrent connections each get their own menu and can exit independently.
+     */
+    @Test
+    public void testIndependentSessions() throws Exception {
+        try (ConsoleServer server = new ConsoleServer(0, 10)) {
+            server.start();
+            List<Socket> sockets = new ArrayList<>();
+            List<BufferedReader> readers = new ArrayList<>();
+            for (int i = 0; i < 5; i++) {
+                Socket s = connect(server);
+                sockets.add(s);
+                readers.add(new BufferedReader(new InputStreamReader(s.getInputStream(), StandardCharsets.UTF_8)));
+            }
+
+            for (int i = 0; i < 5; i++) {
+                send(sockets.get(i), "9");
+                assertTrue(readUntil(readers.get(i), "Invalid option").contains("Invalid option"));
+            }
+            for (int i = 0; i < 5; i++) {
+                send(sockets.get(i), "3");
+                assertTrue(readUntil(readers.get(i), "Goodbye").contains("Goodbye"));
+                assertNull(readers.get(i).readLine()); // server closed the session
+                sockets.get(i).close();
+            }
+        }
+    }
+
+    /**
+     * Test: Connections beyond the session limit are refused with a message.
+     */
+    @Test
+    public void testSessionLimit() throws Exception {
+        try (ConsoleServer server = new ConsoleServer(0, 1)) {
+            server.start();
+            try (Socket first = connect(server)) {
+                BufferedReader in1 = new BufferedReader(new InputStreamReader(first.getInputStream(), StandardCharsets.UTF_8));
+                readUntil(in1, "MAIN MENU");
+
+                try (Socket second = connect(server)) {
+                    BufferedReader in2 = new BufferedReader(new InputStreamReader(second.getInputStream(), StandardCharsets.UTF_8));
+                    assertTrue(readUntil(in2, "try again").contains("All console sessions are in use"));
+                }
+            }
+        }
+    }
+}
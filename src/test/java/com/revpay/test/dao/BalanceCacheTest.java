@@ -0,0 +1,130 @@
+package com.revpay.test.dao;
+
+import com.revpay.dao.BalanceCache;
+import org.junit.Test;
+
+import java.math.BigDecimal;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.*;
+
+/**
+ * Unit tests for {@link BalanceCache}.
+ * <p>
+ * Uses counting loaders instead of MySQL, so hits, invalidation, eviction and miss
+ * coalescing can be verified without a running database.
+ * </p>
+ */
+public class BalanceCacheTest {
+
+    private final AtomicInteger loads = new AtomicInteger();
+
+    /**
+     * Test: The second read is a hit; after invalidation the balance is reloaded.
+     */
+    @Test
+    public void testHitAndInvalidate() throws SQLException {
+        BalanceCache cache = new BalanceCache(100);
+        BalanceCache.Loader loader = id -> {
+            loads.incrementAndGet();
+            return BigDecimal.valueOf(id);
+        };
+
+        assertEquals(BigDecimal.valueOf(7), cache.get(7, loader));
+        assertEquals(BigDecimal.valueOf(7), cache.get(7, loader));
+        assertEquals(1, loads.get());
+        assertEquals(1, cache.getHitCount());
+        assertEquals(0.5, cache.getHitRatio(), 0.0001);
+
+        cache.invalidate(7);
+        cache.get(7, loader);
+        assertEquals("Invalidated balance must be reloaded", 2, loads.get());
+    }
+
+    /**
+     * Test: The cache never grows past its bound and counts evictions.
+     */
+    @Test
+    public void testBoundedWithEviction() throws SQLException {
+        BalanceCache cache = new BalanceCache(64);
+        for (int id = 1; id <= 1000; id++) {
+            cache.get(id, BigDecimal::valueOf);
+        }
+        assertTrue("Size must respect the bound", cache.size() <= 64);
+        assertTrue("Evictions should be counted", cache.getEvictionCount() >= 1000 - 64);
+
+        assertEquals("Every entry is either cached or evicted", 1000, cache.size() + cache.getEvictionCount());
+
+        // The most recent entry survived and is still reachable after all the deletions
+        long hits = cache.getHitCount();
+        assertEquals(BigDecimal.valueOf(1000), cache.get(1000, id -> { throw new SQLException("should be cached"); }));
+        assertEquals(hits + 1, cache.getHitCount());
+    }
+
+    /**
+     * Test: Missing wallets and failed loads are not cached.
+     */
+    @Test
+    public void testNullAndFailureNotCached() throws SQLException {
+        BalanceCache cache = new BalanceCache(10);
+        assertNull(cache.get(1, id -> null));
+        try {
+            cache.get(1, id -> { throw new SQLException("down"); });
+            fail("Load failure should propagate");
+        } catch (SQLException expected) {
+            assertEquals(0, cache.size());
+        }
+        assertEquals(BigDecimal.ONE, cache.get(1, id -> BigDecimal.ONE));
+    }
+
+    /**
+     * Test: Concurrent misses for one user run a single query.
+     */
+    @Test
+    public void testConcurrentMissesAreCoalesced() throws Exception {
+        BalanceCache cache = new BalanceCache(10);
+        CountDownLatch release = new CountDownLatch(1);
+        BalanceCache.Loader slowLoader = id -> {
+            loads.incrementAndGet();
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return BigDecimal.TEN;
+        };
+
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        List<Future<BigDecimal>> results = new ArrayList<>();
+        for (int i = 0; i < 8; i++) results.add(pool.submit(() -> cache.get(42, slowLoader)));
+        while (cache.getMissCount() + cache.getCoalescedCount() < 8) Thread.sleep(1);
+        release.countDown();
+
+        for (Future<BigDecimal> f : results) assertEquals(BigDecimal.TEN, f.get());
+        pool.shutdown();
+        assertEquals("Only one query should run", 1, loads.get());
+        assertEquals(7, cache.getCoalescedCount());
+    }
+
+    /**
+     * Test: A load that overlaps a write is not cached (the next read goes back to the database).
+     */
+    @Test
+    public void testLoadRacingInvalidationIsNotCached() throws SQLException {
+        BalanceCache cache = new BalanceCache(10);
+        BigDecimal stale = cache.get(5, id -> {
+            cache.invalidate(5); // a transfer commits while the old balance is being read
+            return new BigDecimal("100.00");
+        });
+        assertEquals(new BigDecimal("100.00"), stale);
+        assertEquals(new BigDecimal("60.00"), cache.get(5, id -> new BigDecimal("60.00")));
+    }
+}
@@ -0,0 +1,154 @@
+package com.revpay.test.dao;
+
+import com.revpay.config.DatabaseConnection;
+import com.revpay.dao.InvoiceDAO;
+import com.revpay.dao.TransactionDAO;
+import com.revpay.dao.UserDAO;
+import com.revpay.dao.WalletDAO;
+import com.revpay.model.Invoice;
+import com.revpay.model.Role;
+import com.revpay.model.User;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.*;
+
+/**
+ * Concurrency test for {@link com.revpay.dao.TransactionDAO#payInvoice}.
+ * <p>
+ * Fifty threads try to pay the same invoice at the same moment. Exactly one may succeed:
+ * the customer is charged once, the business is credited once, one ledger row is written,
+ * and the invoice ends up PAID.
+ * </p>
+ */
+public class InvoicePaymentConcurrencyTest {
+
+    private static final int THREADS = 50;
+    private static final BigDecimal OPENING_BALANCE = new BigDecimal("1000.00");
+    private static final BigDecimal INVOICE_AMOUNT = new BigDecimal("100.00");
+
+    private TransactionDAO transactionDAO = new TransactionDAO();
+    private InvoiceDAO invoiceDAO = new InvoiceDAO();
+    private UserDAO userDAO = new UserDAO();
+    private WalletDAO walletDAO = new WalletDAO();
+
+    private int businessId;
+    private int customerId;
+    private int invoiceId;
+    private String customerEmail;
+
+    /**
+     * Setup: Create a business, a funded customer, and one invoice between them.
+     */
+    @Before
+    public void setUp() {
+        long now = System.currentTimeMillis();
+        customerEmail = "inv_customer_" + now + "@revpay.com";
+        businessId = userDAO.registerUserWithWallet(new User("inv_biz_" + now + "@revpay.com", "000", "pass", "0000", "Race Biz", Role.BUSINESS));
+        customerId = userDAO.registerUserWithWallet(new User(customerEmail, "000", "pass", "0000", "Race Customer", Role.PERSONAL));
+        walletDAO.updateBalance(customerId, OPENING_BALANCE);
+
+        assertTrue(invoiceDAO.createInvoice(new Invoice(businessId, customerEmail, INVOICE_AMOUNT, "Race Invoice")));
+        invoiceId = invoiceDAO.getInvoicesByBusiness(businessId).get(0).getInvoiceId();
+    }
+
+    /**
+     * Teardown: Delete both users (and their wallets, invoices and transactions).
+     */
+    @After
+    public void tearDown() {
+        if (customerId > 0) userDAO.deleteUser(customerId);
+        if (businessId > 0) userDAO.deleteUser(businessId);
+    }
+
+    /**
+     * Test Scenario: 50 simultaneous payments of one invoice charge the customer exactly once.
+     */
+    @Test
+    public void testInvoicePaidExactlyOnce() throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicInteger succeeded = new AtomicInteger();
+        List<Future<?>> futures = new ArrayList<>();
+
+        for (int i = 0; i < THREADS; i++) {
+            futures.add(pool.submit(() -> {
+                start.await();
+                if (transactionDAO.payInvoice(invoiceId, customerId)) succeeded.incrementAndGet();
+                return null;
+            }));
+        }
+        start.countDown();
+        for (Future<?> f : futures) f.get();
+        pool.shutdown();
+        assertTrue(pool.awaitTermination(1, TimeUnit.MINUTES));
+
+        assertEquals("Exactly one payment should succeed", 1, succeeded.get());
+        assertEquals("Invoice should be PAID", "PAID", invoiceDAO.getInvoiceById(invoiceId).getStatus());
+        assertEquals("Customer charged once", 0, OPENING_BALANCE.subtract(INVOICE_AMOUNT).compareTo(walletDAO.getBalance(customerId)));
+        assertEquals("Business credited once", 0, INVOICE_AMOUNT.compareTo(walletDAO.getBalance(businessId)));
+        assertEquals("One ledger row", 1, transactionDAO.getTransactionHistory(customerId).size());
+
+        System.out.println("✅ Invoice Payment Concurrency Test Passed");
+    }
+
+    /**
+     * Test Scenario: Only the invoice's customer can pay it, and only with enough funds.
+     */
+    @Test
+    public void testPaymentRules() {
+        assertFalse("Business cannot pay its own invoice", transactionDAO.payInvoice(invoiceId, businessId));
+
+        walletDAO.updateBalance(customerId, new BigDecimal("10.00"));
+        assertFalse("Insufficient funds should fail", transactionDAO.payInvoice(invoiceId, customerId));
+        assertEquals("Failed payment leaves invoice pending", "PENDING", invoiceDAO.getInvoiceById(invoiceId).getStatus());
+
+        System.out.println("✅ Invoice Payment Rules Test Passed");
+    }
+
+    /**
+     * Test Scenario: A negative-amount invoice can neither be created nor paid (paying it would credit the customer).
+     */
+    @Test
+    public void testNegativeInvoiceRefused() throws Exception {
+        assertFalse("Negative invoice cannot be created",
+                invoiceDAO.createInvoice(new Invoice(businessId, customerEmail, new BigDecimal("-50.00"), "Refund?")));
+
+        // A row written before the create-time check existed
+        int negativeId;
+        String sql = "INSERT INTO invoices (business_id, customer_email, amount, description, status) VALUES (?, ?, ?, ?, 'PENDING')";
+        try (Connection conn = DatabaseConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
+            stmt.setInt(1, businessId);
+            stmt.setString(2, customerEmail);
+            stmt.setBigDecimal(3, new BigDecimal("-50.00"));
+            stmt.setString(4, "Legacy negative");
+            stmt.executeUpdate();
+            try (ResultSet keys = stmt.getGeneratedKeys()) {
+                assertTrue(keys.next());
+                negativeId = keys.getInt(1);
+            }
+        }
+
+        assertFalse("Negative invoice must be refused", transactionDAO.payInvoice(negativeId, customerId));
+        assertEquals("PENDING", invoiceDAO.getInvoiceById(negativeId).getStatus());
+        assertEquals("Customer balance unchanged", 0, OPENING_BALANCE.compareTo(walletDAO.getBalance(customerId)));
+        assertEquals("Business balance unchanged", 0, BigDecimal.ZERO.compareTo(walletDAO.getBalance(businessId)));
+        assertTrue("No ledger row", transactionDAO.getTransactionHistory(customerId).isEmpty());
+    }
+}
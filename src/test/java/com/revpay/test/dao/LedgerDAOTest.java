@@ -0,0 +1,100 @@
+package com.revpay.test.dao;
+
+import com.revpay.dao.LedgerDAO;
+import com.revpay.dao.TransactionDAO;
+import com.revpay.dao.UserDAO;
+import com.revpay.dao.WalletDAO;
+import com.revpay.ledger.LedgerEntry;
+import com.revpay.model.Role;
+import com.revpay.model.TransactionType;
+import com.revpay.model.User;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.math.BigDecimal;
+import java.sql.SQLException;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * Integration tests for {@link com.revpay.dao.LedgerDAO}.
+ * <p>
+ * Verifies that the flush checkpoint makes a replayed ledger batch a no-op.
+ * </p>
+ */
+public class LedgerDAOTest {
+
+    private final LedgerDAO ledgerDAO = new LedgerDAO();
+    private final UserDAO userDAO = new UserDAO();
+    private final WalletDAO walletDAO = new WalletDAO();
+
+    private int senderId;
+    private int receiverId;
+
+    /**
+     * Setup: Two users, the sender with $100.
+     */
+    @Before
+    public void setUp() {
+        long n = System.nanoTime();
+        senderId = userDAO.registerUserWithWallet(new User("ledger_s_" + n + "@revpay.test", "000", "hash", "0000", "Sender", Role.PERSONAL));
+        receiverId = userDAO.registerUserWithWallet(new User("ledger_r_" + n + "@revpay.test", "000", "hash", "0000", "Receiver", Role.PERSONAL));
+        walletDAO.updateBalance(senderId, new BigDecimal("100.00"));
+    }
+
+    /**
+     * Teardown: Cleanup both users.
+     */
+    @After
+    public void tearDown() {
+        userDAO.deleteUser(senderId);
+        userDAO.deleteUser(receiverId);
+    }
+
+    /**
+     * Test Scenario: A batch flushed again (crash before the journal checkpoint) is not applied twice.
+     */
+    @Test
+    public void testReplayedBatchIsAppliedOnce() throws Exception {
+        long next = ledgerDAO.getLastFlushedSequence() + 1;
+        long now = System.currentTimeMillis();
+        List<LedgerEntry> batch = List.of(
+                new LedgerEntry(next, TransactionType.TRANSFER, senderId, receiverId, 2_500, now),
+                new LedgerEntry(next + 1, TransactionType.DEPOSIT, receiverId, receiverId, 1_000, now));
+
+        ledgerDAO.flushBatch(batch);
+        ledgerDAO.flushBatch(batch);
+
+        assertEquals(next + 1, ledgerDAO.getLastFlushedSequence());
+        assertEquals(0, walletDAO.getBalance(senderId).compareTo(new BigDecimal("75.00")));
+        assertEquals(0, walletDAO.getBalance(receiverId).compareTo(new BigDecimal("35.00")));
+        assertEquals(2, new TransactionDAO().getTransactionHistory(receiverId).size());
+
+        // A replay overlapping the checkpoint applies only the new entry
+        ledgerDAO.flushBatch(List.of(batch.get(1),
+                new LedgerEntry(next + 2, TransactionType.DEPOSIT, senderId, senderId, 500, now)));
+        assertEquals(0, walletDAO.getBalance(senderId).compareTo(new BigDecimal("80.00")));
+        assertEquals(0, walletDAO.getBalance(receiverId).compareTo(new BigDecimal("35.00")));
+    }
+
+    /**
+     * Test Scenario: A batch crediting a deleted wallet fails as a whole instead of losing the credit.
+     */
+    @Test
+    public void testMissingWalletFailsBatch() throws Exception {
+        long next = ledgerDAO.getLastFlushedSequence() + 1;
+        userDAO.deleteUser(receiverId);
+
+        try {
+            ledgerDAO.flushBatch(List.of(new LedgerEntry(next, TransactionType.TRANSFER, senderId, receiverId, 2_500,
+                    System.currentTimeMillis())));
+            fail("The batch should fail");
+        } catch (SQLException expected) {
+            // nothing applied
+        }
+        assertEquals(next - 1, ledgerDAO.getLastFlushedSequence());
+        assertEquals(0, walletDAO.getBalance(senderId).compareTo(new BigDecimal("100.00")));
+    }
+}
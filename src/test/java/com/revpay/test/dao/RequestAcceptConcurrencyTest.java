@@ -0,0 +1,180 @@
+package com.revpay.test.dao;
+
+import com.revpay.config.DatabaseConnection;
+import com.revpay.dao.RequestDAO;
+import com.revpay.dao.TransactionDAO;
+import com.revpay.dao.UserDAO;
+import com.revpay.dao.WalletDAO;
+import com.revpay.model.PaymentRequest;
+import com.revpay.model.Role;
+import com.revpay.model.User;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.*;
+
+/**
+ * Concurrency tests for {@link com.revpay.dao.TransactionDAO#acceptRequest} and
+ * {@link com.revpay.dao.RequestDAO#compareAndSetStatus}.
+ * <p>
+ * Many threads accept (or race accept against decline on) the same money request.
+ * The payer must be charged at most once and the request must end in exactly one
+ * final status.
+ * </p>
+ */
+public class RequestAcceptConcurrencyTest {
+
+    private static final int THREADS = 50;
+    private static final BigDecimal OPENING_BALANCE = new BigDecimal("1000.00");
+    private static final BigDecimal REQUEST_AMOUNT = new BigDecimal("40.00");
+
+    private TransactionDAO transactionDAO = new TransactionDAO();
+    private RequestDAO requestDAO = new RequestDAO();
+    private UserDAO userDAO = new UserDAO();
+    private WalletDAO walletDAO = new WalletDAO();
+
+    private int requesterId;
+    private int payerId;
+    private int requestId;
+
+    /**
+     * Setup: Create a requester, a funded payer, and one pending request between them.
+     */
+    @Before
+    public void setUp() {
+        long now = System.currentTimeMillis();
+        requesterId = userDAO.registerUserWithWallet(new User("req_requester_" + now + "@revpay.com", "000", "pass", "0000", "Requester", Role.PERSONAL));
+        payerId = userDAO.registerUserWithWallet(new User("req_payer_" + now + "@revpay.com", "000", "pass", "0000", "Payer", Role.PERSONAL));
+        walletDAO.updateBalance(payerId, OPENING_BALANCE);
+
+        assertTrue(requestDAO.createRequest(new PaymentRequest(requesterId, payerId, REQUEST_AMOUNT)));
+        requestId = requestDAO.getIncomingRequests(payerId).get(0).getRequestId();
+    }
+
+    /**
+     * Teardown: Delete both users (and their requests and transactions).
+     */
+    @After
+    public void tearDown() {
+        if (payerId > 0) userDAO.deleteUser(payerId);
+        if (requesterId > 0) userDAO.deleteUser(requesterId);
+    }
+
+    /**
+     * Test Scenario: 50 simultaneous accepts of one request pay the requester exactly once.
+     */
+    @Test
+    public void testRequestAcceptedExactlyOnce() throws Exception {
+        AtomicInteger accepted = new AtomicInteger();
+        race(i -> {
+            if (transactionDAO.acceptRequest(requestId, payerId)) accepted.incrementAndGet();
+        });
+
+        assertEquals("Exactly one accept should succeed", 1, accepted.get());
+        assertEquals("ACCEPTED", requestDAO.getRequestById(requestId).getStatus());
+        assertEquals("Payer charged once", 0, OPENING_BALANCE.subtract(REQUEST_AMOUNT).compareTo(walletDAO.getBalance(payerId)));
+        assertEquals("Requester credited once", 0, REQUEST_AMOUNT.compareTo(walletDAO.getBalance(requesterId)));
+
+        System.out.println("✅ Request Accept Concurrency Test Passed");
+    }
+
+    /**
+     * Test Scenario: Accepts racing declines end in exactly one final state, with money moved only if accepted.
+     */
+    @Test
+    public void testAcceptRacingDecline() throws Exception {
+        AtomicInteger accepted = new AtomicInteger();
+        AtomicInteger declined = new AtomicInteger();
+        race(i -> {
+            if (i % 2 == 0) {
+                if (transactionDAO.acceptRequest(requestId, payerId)) accepted.incrementAndGet();
+            } else {
+                if (requestDAO.compareAndSetStatus(requestId, payerId, "PENDING", "DECLINED")) declined.incrementAndGet();
+            }
+        });
+
+        assertEquals("Exactly one transition should win", 1, accepted.get() + declined.get());
+        String status = requestDAO.getRequestById(requestId).getStatus();
+        BigDecimal expectedPayer = accepted.get() == 1 ? OPENING_BALANCE.subtract(REQUEST_AMOUNT) : OPENING_BALANCE;
+        assertEquals(accepted.get() == 1 ? "ACCEPTED" : "DECLINED", status);
+        assertEquals("Payer balance must match the outcome", 0, expectedPayer.compareTo(walletDAO.getBalance(payerId)));
+
+        System.out.println("✅ Accept vs Decline Race Test Passed (" + status + ")");
+    }
+
+    /**
+     * Test Scenario: Only the payer can accept or decline.
+     */
+    @Test
+    public void testOnlyPayerCanSettle() {
+        assertFalse("Requester cannot accept their own request", transactionDAO.acceptRequest(requestId, requesterId));
+        assertFalse("Requester cannot decline it either", requestDAO.compareAndSetStatus(requestId, requesterId, "PENDING", "DECLINED"));
+        assertEquals("PENDING", requestDAO.getRequestById(requestId).getStatus());
+    }
+
+    /**
+     * Test Scenario: A negative-amount request can neither be created nor accepted (accepting it would pay the payer).
+     */
+    @Test
+    public void testNegativeRequestRefused() throws Exception {
+        assertFalse("Negative request cannot be created",
+                requestDAO.createRequest(new PaymentRequest(requesterId, payerId, new BigDecimal("-40.00"))));
+
+        // A row written before the create-time check existed
+        int negativeId;
+        String sql = "INSERT INTO payment_requests (requester_id, payer_id, amount, status) VALUES (?, ?, ?, 'PENDING')";
+        try (Connection conn = DatabaseConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
+            stmt.setInt(1, requesterId);
+            stmt.setInt(2, payerId);
+            stmt.setBigDecimal(3, new BigDecimal("-40.00"));
+            stmt.executeUpdate();
+            try (ResultSet keys = stmt.getGeneratedKeys()) {
+                assertTrue(keys.next());
+                negativeId = keys.getInt(1);
+            }
+        }
+
+        assertFalse("Negative request must be refused", transactionDAO.acceptRequest(negativeId, payerId));
+        assertEquals("PENDING", requestDAO.getRequestById(negativeId).getStatus());
+        assertEquals("Payer balance unchanged", 0, OPENING_BALANCE.compareTo(walletDAO.getBalance(payerId)));
+        assertEquals("Requester balance unchanged", 0, BigDecimal.ZERO.compareTo(walletDAO.getBalance(requesterId)));
+    }
+
+    private interface Attempt {
+        void run(int index);
+    }
+
+    private void race(Attempt attempt) throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int i = 0; i < THREADS; i++) {
+            int index = i;
+            futures.add(pool.submit(() -> {
+                start.await();
+                attempt.run(index);
+                return null;
+            }));
+        }
+        start.countDown();
+        for (Future<?> f : futures) f.get();
+        pool.shutdown();
+        assertTrue(pool.awaitTermination(1, TimeUnit.MINUTES));
+    }
+}
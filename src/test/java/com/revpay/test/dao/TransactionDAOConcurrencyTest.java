@@ -0,0 +1,112 @@
+package com.revpay.test.dao;
+
+import com.revpay.dao.TransactionDAO;
+import com.revpay.dao.UserDAO;
+import com.revpay.dao.WalletDAO;
+import com.revpay.model.Role;
+import com.revpay.model.User;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.*;
+
+/**
+ * Concurrency stress test for {@link com.revpay.dao.TransactionDAO#transferMoney}.
+ * <p>
+ * Two pairs of users pay each other thousands of times in parallel, which used to make
+ * MySQL abort transfers as deadlocks. Afterwards the total money in the system must be
+ * unchanged, no wallet may be negative, and every successful transfer must have exactly
+ * one ledger row.
+ * </p>
+ */
+public class TransactionDAOConcurrencyTest {
+
+    private static final int TRANSFERS = 4000;
+    private static final int THREADS = 16;
+    private static final BigDecimal OPENING_BALANCE = new BigDecimal("1000.00");
+
+    private TransactionDAO transactionDAO = new TransactionDAO();
+    private UserDAO userDAO = new UserDAO();
+    private WalletDAO walletDAO = new WalletDAO();
+
+    private int[] userIds = new int[4];
+
+    /**
+     * Setup: Create four funded users (two opposing pairs).
+     */
+    @Before
+    public void setUp() {
+        for (int i = 0; i < userIds.length; i++) {
+            String email = "stress_" + i + "_" + System.currentTimeMillis() + "@revpay.com";
+            userDAO.registerUser(new User(email, "000", "pass", "0000", "Stress " + i, Role.PERSONAL));
+            userIds[i] = userDAO.getUserByEmail(email).getUserId();
+            walletDAO.createWallet(userIds[i]);
+            walletDAO.updateBalance(userIds[i], OPENING_BALANCE);
+        }
+    }
+
+    /**
+     * Teardown: Delete the users (and their wallets and transactions).
+     */
+    @After
+    public void tearDown() {
+        for (int id : userIds) {
+            if (id > 0) userDAO.deleteUser(id);
+        }
+    }
+
+    /**
+     * Test Scenario: Opposing transfers in parallel neither create nor destroy money.
+     */
+    @Test
+    public void testOpposingTransfersConserveMoney() throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+        AtomicInteger succeeded = new AtomicInteger();
+        List<Future<?>> futures = new ArrayList<>();
+
+        for (int i = 0; i < TRANSFERS; i++) {
+            // A <-> B and C <-> D, alternating direction so locks are requested in opposite orders
+            int pair = (i % 4) / 2;
+            boolean forward = i % 2 == 0;
+            int from = userIds[pair * 2 + (forward ? 0 : 1)];
+            int to = userIds[pair * 2 + (forward ? 1 : 0)];
+            BigDecimal amount = BigDecimal.valueOf(ThreadLocalRandom.current().nextInt(1, 5000), 2);
+
+            futures.add(pool.submit(() -> {
+                if (transactionDAO.transferMoney(from, to, amount)) succeeded.incrementAndGet();
+            }));
+        }
+        for (Future<?> f : futures) f.get();
+        pool.shutdown();
+        assertTrue(pool.awaitTermination(1, TimeUnit.MINUTES));
+
+        // 1. Money is conserved and no wallet is overdrawn
+        BigDecimal total = BigDecimal.ZERO;
+        for (int id : userIds) {
+            BigDecimal balance = walletDAO.getBalance(id);
+            assertTrue("Wallet " + id + " must not be negative", balance.signum() >= 0);
+            total = total.add(balance);
+        }
+        assertEquals("Total money must be conserved", 0,
+                OPENING_BALANCE.multiply(BigDecimal.valueOf(userIds.length)).compareTo(total));
+
+        // 2. Every successful transfer has exactly one ledger row (A's and C's histories cover both pairs)
+        int ledgerRows = transactionDAO.getTransactionHistory(userIds[0]).size()
+                + transactionDAO.getTransactionHistory(userIds[2]).size();
+        assertEquals("Ledger rows must match successful transfers", succeeded.get(), ledgerRows);
+        assertTrue("Most transfers should succeed", succeeded.get() > 0);
+
+        System.out.println("✅ Concurrency Stress Test Passed (" + succeeded.get() + "/" + TRANSFERS + " transfers)");
+    }
+}
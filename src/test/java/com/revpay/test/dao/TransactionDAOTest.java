@@ -3,9 +3,12 @@ package com.revpay.test.dao;
 import com.revpay.config.DatabaseConnection;
 import com.revpay.dao.TransactionDAO;
 import com.revpay.dao.UserDAO;
+import com.revpay.dao.WalletDAO;
+import com.revpay.model.HistoryCursor;
 import com.revpay.model.Role;
 import com.revpay.model.User;
 import com.revpay.model.Transaction;
+import com.revpay.model.TransactionPage;
 import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
@@ -13,7 +16,10 @@ import org.junit.Test;
 import java.math.BigDecimal;
 import java.sql.Connection;
 import java.sql.PreparedStatement;
+import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
+import java.util.stream.Stream;
 
 import static org.junit.Assert.*;
 
@@ -27,6 +33,7 @@ public class TransactionDAOTest {
 
     private TransactionDAO transactionDAO = new TransactionDAO();
     private UserDAO userDAO = new UserDAO();
+    private WalletDAO walletDAO = new WalletDAO();
     
     private int senderId;
     private int receiverId;
@@ -104,4 +111,89 @@ public class TransactionDAOTest {
 
         System.out.println("✅ Transaction Logic Test Passed");
     }
-}
\ No newline at end of file
+
+    /**
+     * Test Scenario: Retrying a transfer with the same idempotency key moves the money only once.
+     */
+    @Test
+    public void testIdempotentTransfer() {
+        transactionDAO.depositMoney(senderId, new BigDecimal("100.00"));
+        String key = "transfer-" + senderId + "-" + System.nanoTime();
+
+        assertTrue(transactionDAO.transferMoney(senderId, receiverId, new BigDecimal("30.00"), key));
+        assertTrue("Retry should report the original success", transactionDAO.transferMoney(senderId, receiverId, new BigDecimal("30.00"), key));
+
+        List<Transaction> receiverHistory = transactionDAO.getTransactionHistory(receiverId);
+        assertEquals("Only one transfer should be recorded", 1, receiverHistory.size());
+
+        System.out.println("✅ Idempotent Transfer Test Passed");
+    }
+
+    /**
+     * Test Scenario: Keys are scoped to the sender, and a key reused for a different payment moves nothing.
+     */
+    @Test
+    public void testIdempotencyKeyScopedToSender() {
+        transactionDAO.depositMoney(senderId, new BigDecimal("100.00"));
+        String key = "shared-" + System.nanoTime();
+
+        assertTrue(transactionDAO.transferMoney(senderId, receiverId, new BigDecimal("30.00"), key));
+        assertTrue("Another sender may use the same key", transactionDAO.depositMoney(receiverId, new BigDecimal("5.00"), key));
+        assertFalse("Same key, different amount", transactionDAO.transferMoney(senderId, receiverId, new BigDecimal("31.00"), key));
+        assertNull(transactionDAO.checkIdempotencyKey(receiverId, senderId, new BigDecimal("30.00"), "unused-" + key));
+
+        assertEquals(0, new BigDecimal("70.00").compareTo(walletDAO.getBalance(senderId)));
+        assertEquals(0, new BigDecimal("35.00").compareTo(walletDAO.getBalance(receiverId)));
+    }
+
+    /**
+     * Test Scenario: Paging through history returns every transaction exactly once, newest first.
+     */
+    @Test
+    public void testHistoryPagination() {
+        transactionDAO.depositMoney(senderId, new BigDecimal("100.00"));
+        for (int i = 1; i <= 4; i++) {
+            transactionDAO.transferMoney(senderId, receiverId, new BigDecimal(i + ".00"));
+        }
+
+        List<Integer> seen = new ArrayList<>();
+        HistoryCursor cursor = null;
+        int pages = 0;
+        do {
+            TransactionPage page = transactionDAO.getTransactionHistoryPage(senderId, 2, cursor);
+            assertTrue("Page must not exceed the page size", page.getTransactions().size() <= 2);
+            for (Transaction t : page.getTransactions()) seen.add(t.getTransactionId());
+            cursor = page.getNextCursor();
+            pages++;
+        } while (cursor != null);
+
+        assertEquals("All 5 transactions should be returned", 5, seen.size());
+        assertEquals("No transaction may repeat", 5, new HashSet<>(seen).size());
+        assertEquals(3, pages);
+
+        System.out.println("✅ History Pagination Test Passed");
+    }
+
+    /**
+     * Test Scenario: Streaming history yields every transaction and returns the connection on close.
+     */
+    @Test
+    public void testStreamTransactionHistory() {
+        transactionDAO.depositMoney(senderId, new BigDecimal("100.00"));
+        transactionDAO.transferMoney(senderId, receiverId, new BigDecimal("10.00"));
+
+        // More iterations than the pool has connections: a leaked stream would exhaust it
+        for (int i = 0; i < 15; i++) {
+            try (Stream<Transaction> history = transactionDAO.streamTransactionHistory(senderId)) {
+                assertEquals("Stream should contain both transactions", 2, history.count());
+            }
+        }
+
+        // Closing a partially consumed stream must also release it
+        try (Stream<Transaction> history = transactionDAO.streamTransactionHistory(senderId)) {
+            assertTrue(history.findFirst().isPresent());
+        }
+
+        System.out.println("✅ History Streaming Test Passed");
+    }
+}
@@ -1,11 +1,14 @@
 package com.revpay.test.dao;
 
 import com.revpay.dao.UserDAO;
+import com.revpay.dao.WalletDAO;
 import com.revpay.model.Role;
 import com.revpay.model.User;
 import org.junit.After;
 import org.junit.Test;
 
+import java.math.BigDecimal;
+
 import static org.junit.Assert.*;
 
 /**
@@ -65,4 +68,57 @@ public class UserDAOTest {
         
         System.out.println("✅ User Lifecycle Test Passed");
     }
-}
\ No newline at end of file
+
+    /**
+     * Test Scenario: The ID lookup sees a registration despite a cached miss, and forgets a deleted user.
+     */
+    @Test
+    public void testUserIdLookupFollowsRegistrationAndDeletion() {
+        String email = "lookup_test_" + System.currentTimeMillis() + "@revpay.com";
+        assertEquals("Unknown email should not resolve", -1, userDAO.getUserIdByEmail(email));
+
+        assertTrue(userDAO.registerUser(new User(email, "9876543210", "hashed_secret", "9999", "Lookup Subject", Role.PERSONAL)));
+        testUserId = userDAO.getUserIdByEmail(email);
+        assertTrue("Registered email should resolve", testUserId > 0);
+        assertEquals("Lookup should ignore case and spaces", testUserId, userDAO.getUserIdByEmail("  " + email.toUpperCase() + " "));
+
+        assertTrue(userDAO.deleteUser(testUserId));
+        assertEquals("Deleted user should not resolve", -1, userDAO.getUserIdByEmail(email));
+        testUserId = 0;
+
+        System.out.println("✅ User ID Lookup Test Passed");
+    }
+
+    /**
+     * Test Scenario: An email registered in mixed case is found by a lower-case lookup.
+     */
+    @Test
+    public void testMixedCaseEmailLookup() {
+        String email = "Mixed.Case_" + System.currentTimeMillis() + "@RevPay.com";
+        testUserId = userDAO.registerUserWithWallet(new User(email, "9876543210", "hashed_secret", "9999", "Mixed Case", Role.PERSONAL));
+        assertTrue(testUserId > 0);
+
+        assertEquals(testUserId, userDAO.getUserIdByEmail(email.toLowerCase()));
+        assertNotNull(userDAO.getUserByEmail(email.toLowerCase()));
+    }
+
+    /**
+     * Test Scenario: Registration returns the generated ID and opens the wallet in the same transaction.
+     */
+    @Test
+    public void testRegisterUserWithWallet() {
+        String email = "atomic_test_" + System.currentTimeMillis() + "@revpay.com";
+        User user = new User(email, "9876543210", "hashed_secret", "9999", "Atomic Subject", Role.PERSONAL);
+
+        testUserId = userDAO.registerUserWithWallet(user);
+        assertTrue("Registration should return the new ID", testUserId > 0);
+        assertEquals("ID should be set on the user", testUserId, user.getUserId());
+        assertEquals("ID should match a lookup", testUserId, userDAO.getUserIdByEmail(email));
+        assertEquals("Wallet should exist with zero balance", 0, new WalletDAO().getBalance(testUserId).compareTo(BigDecimal.ZERO));
+
+        // A second registration with the same email fails without side effects
+        assertEquals(-1, userDAO.registerUserWithWallet(new User(email, "1", "x", "1111", "Dup", Role.PERSONAL)));
+
+        System.out.println("✅ Atomic Registration Test Passed");
+    }
+}
@@ -0,0 +1,92 @@
+package com.revpay.test.dao;
+
+import com.revpay.dao.UserIdCache;
+import org.junit.Test;
+
+import java.sql.SQLException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.*;
+
+/**
+ * Unit tests for {@link UserIdCache}.
+ * <p>
+ * Uses counting loaders instead of MySQL, so normalization, negative entries, LRU
+ * eviction and invalidation can be verified without a running database.
+ * </p>
+ */
+public class UserIdCacheTest {
+
+    private final AtomicInteger loads = new AtomicInteger();
+
+    private int load(String email) {
+        loads.incrementAndGet();
+        return email.startsWith("user") ? Integer.parseInt(email.substring(4, email.indexOf('@'))) : UserIdCache.NOT_FOUND;
+    }
+
+    /**
+     * Test: Emails that differ only in case or surrounding spaces share one entry.
+     */
+    @Test
+    public void testNormalizedHits() throws SQLException {
+        UserIdCache cache = new UserIdCache(100, 5_000);
+
+        assertEquals(7, cache.get("user7@revpay.com", this::load));
+        assertEquals(7, cache.get(" USER7@RevPay.com ", this::load));
+        assertEquals(1, loads.get());
+        assertEquals(1, cache.getHitCount());
+    }
+
+    /**
+     * Test: Unknown emails are cached only until their TTL expires.
+     */
+    @Test
+    public void testNegativeEntryExpires() throws Exception {
+        UserIdCache cache = new UserIdCache(100, 50);
+
+        assertEquals(UserIdCache.NOT_FOUND, cache.get("ghost@revpay.com", this::load));
+        assertEquals(UserIdCache.NOT_FOUND, cache.get("ghost@revpay.com", this::load));
+        assertEquals("Negative entry should be served from cache", 1, loads.get());
+
+        Thread.sleep(80);
+        cache.get("ghost@revpay.com", this::load);
+        assertEquals("Expired negative entry should be reloaded", 2, loads.get());
+    }
+
+    /**
+     * Test: The least recently used email is evicted first.
+     */
+    @Test
+    public void testLruEviction() throws SQLException {
+        UserIdCache cache = new UserIdCache(2, 5_000);
+        cache.get("user1@revpay.com", this::load);
+        cache.get("user2@revpay.com", this::load);
+        cache.get("user1@revpay.com", this::load); // user1 is now the most recent
+        cache.get("user3@revpay.com", this::load); // evicts user2
+
+        assertEquals(2, cache.size());
+        loads.set(0);
+        cache.get("user1@revpay.com", this::load);
+        assertEquals("Recently used entry should survive", 0, loads.get());
+        cache.get("user2@revpay.com", this::load);
+        assertEquals("Least recently used entry should be evicted", 1, loads.get());
+    }
+
+    /**
+     * Test: Invalidating by email and by User ID both force a reload.
+     */
+    @Test
+    public void testInvalidate() throws SQLException {
+        UserIdCache cache = new UserIdCache(100, 5_000);
+        cache.get("user5@revpay.com", this::load);
+        cache.get("ghost@revpay.com", this::load);
+
+        cache.invalidate("GHOST@revpay.com");
+        cache.invalidateUser(5);
+        assertEquals(0, cache.size());
+
+        cache.get("user5@revpay.com", this::load);
+        cache.get("ghost@revpay.com", this::load);
+        assertEquals(4, loads.get());
+    }
+}
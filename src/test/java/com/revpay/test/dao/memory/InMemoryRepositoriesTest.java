@@ -0,0 +1,182 @@
+package com.revpay.test.dao.memory;
+
+import com.revpay.dao.Repositories;
+import com.revpay.dao.TransactionRepository;
+import com.revpay.dao.UserRepository;
+import com.revpay.dao.WalletRepository;
+import com.revpay.model.Invoice;
+import com.revpay.model.Role;
+import com.revpay.model.TransactionPage;
+import com.revpay.model.User;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests for the in-memory repositories ({@link Repositories#inMemory()}).
+ * <p>
+ * Each test gets a fresh, empty store, and checks the same guarantees the SQL DAO tests
+ * check: money is conserved under contention, a bill is paid once, and idempotency keys
+ * are honoured.
+ * </p>
+ */
+public class InMemoryRepositoriesTest {
+
+    private Repositories repos;
+    private UserRepository users;
+    private WalletRepository wallets;
+    private TransactionRepository transactions;
+
+    /**
+     * Setup: A new in-memory store per test.
+     */
+    @Before
+    public void setUp() {
+        repos = Repositories.inMemory();
+        users = repos.users();
+        wallets = repos.wallets();
+        transactions = repos.transactions();
+    }
+
+    private int newUser(String email, String balance) {
+        int id = users.registerUserWithWallet(new User(email, "000", "hash", "0000", "Test", Role.PERSONAL));
+        wallets.updateBalance(id, new BigDecimal(balance));
+        return id;
+    }
+
+    /**
+     * Test Scenario: Emails are unique regardless of case, and registration opens a wallet.
+     */
+    @Test
+    public void testRegistrationRejectsDuplicateEmail() {
+        int id = newUser("dup@revpay.test", "0.00");
+
+        assertTrue(id > 0);
+        assertEquals(-1, users.registerUserWithWallet(new User("DUP@revpay.test", "000", "h", "0000", "Twin", Role.PERSONAL)));
+        assertEquals(id, users.getUserIdByEmail("Dup@RevPay.test"));
+        assertEquals(0, wallets.getBalance(id).compareTo(BigDecimal.ZERO));
+    }
+
+    /**
+     * Test Scenario: Opposing transfers in parallel neither create nor destroy money.
+     */
+    @Test
+    public void testConcurrentTransfersConserveMoney() throws Exception {
+        int a = newUser("a@revpay.test", "100.00");
+        int b = newUser("b@revpay.test", "100.00");
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        AtomicInteger succeeded = new AtomicInteger();
+        List<Future<?>> futures = new ArrayList<>();
+
+        for (int i = 0; i < 10_000; i++) {
+            boolean forward = i % 2 == 0;
+            futures.add(pool.submit(() -> {
+                if (transactions.transferMoney(forward ? a : b, forward ? b : a, new BigDecimal("7.00"))) {
+                    succeeded.incrementAndGet();
+                }
+            }));
+        }
+        for (Future<?> f : futures) f.get();
+        pool.shutdown();
+
+        BigDecimal balanceA = wallets.getBalance(a);
+        BigDecimal balanceB = wallets.getBalance(b);
+        assertEquals(0, balanceA.add(balanceB).compareTo(new BigDecimal("200.00")));
+        assertTrue(balanceA.signum() >= 0 && balanceB.signum() >= 0);
+        assertEquals(succeeded.get(), transactions.getTransactionHistory(a).size());
+    }
+
+    /**
+     * Test Scenario: An invoice paid from many threads at once is paid exactly once.
+     */
+    @Test
+    public void testInvoicePaidOnce() throws Exception {
+        int business = newUser("shop@revpay.test", "0.00");
+        int customer = newUser("customer@revpay.test", "500.00");
+        repos.invoices().createInvoice(new Invoice(business, "customer@revpay.test", new BigDecimal("40.00"), "Order"));
+        int invoiceId = repos.invoices().getInvoicesByBusiness(business).get(0).getInvoiceId();
+
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        List<Future<Boolean>> attempts = new ArrayList<>();
+        for (int i = 0; i < 50; i++) {
+            attempts.add(pool.submit(() -> transactions.payInvoice(invoiceId, customer)));
+        }
+        int paid = 0;
+        for (Future<Boolean> f : attempts) if (f.get()) paid++;
+        pool.shutdown();
+
+        assertEquals(1, paid);
+        assertEquals("PAID", repos.invoices().getInvoiceById(invoiceId).getStatus());
+        assertEquals(0, wallets.getBalance(customer).compareTo(new BigDecimal("460.00")));
+        assertEquals(0, wallets.getBalance(business).compareTo(new BigDecimal("40.00")));
+    }
+
+    /**
+     * Test Scenario: A retried deposit with the same key is applied once; a failed transfer frees its key.
+     */
+    @Test
+    public void testIdempotencyKeys() {
+        int a = newUser("idem-a@revpay.test", "0.00");
+        int b = newUser("idem-b@revpay.test", "0.00");
+
+        assertTrue(transactions.depositMoney(a, new BigDecimal("10.00"), "dep-1"));
+        assertTrue(transactions.depositMoney(a, new BigDecimal("10.00"), "dep-1"));
+        assertEquals(0, wallets.getBalance(a).compareTo(new BigDecimal("10.00")));
+
+        assertFalse("Insufficient funds", transactions.transferMoney(a, b, new BigDecimal("25.00"), "tx-1"));
+        assertTrue(transactions.depositMoney(a, new BigDecimal("20.00")));
+        assertTrue("The key is free again after the failure", transactions.transferMoney(a, b, new BigDecimal("25.00"), "tx-1"));
+        assertEquals(0, wallets.getBalance(b).compareTo(new BigDecimal("25.00")));
+    }
+
+    /**
+     * Test Scenario: A keyed movement that throws frees its key instead of blocking every later retry.
+     */
+    @Test(timeout = 10_000)
+    public void testKeyReleasedWhenMovementThrows() {
+        int a = newUser("idem-throw-a@revpay.test", "50.00");
+        int b = newUser("idem-throw-b@revpay.test", "0.00");
+
+        try {
+            transactions.transferMoney(a, b, new BigDecimal("1E+20"), "tx-big");
+            fail("An amount beyond the cents range should throw");
+        } catch (ArithmeticException expected) {
+            // too many cents for a long
+        }
+        assertTrue("The key is free again", transactions.transferMoney(a, b, new BigDecimal("5.00"), "tx-big"));
+        assertEquals(0, wallets.getBalance(b).compareTo(new BigDecimal("5.00")));
+    }
+
+    /**
+     * Test Scenario: Keyset pages cover the history newest first without gaps or repeats.
+     */
+    @Test
+    public void testHistoryPages() {
+        int a = newUser("page@revpay.test", "0.00");
+        for (int i = 1; i <= 25; i++) {
+            transactions.depositMoney(a, new BigDecimal(i));
+        }
+
+        List<Integer> seen = new ArrayList<>();
+        TransactionPage page = transactions.getTransactionHistoryPage(a, 10, null);
+        while (true) {
+            page.getTransactions().forEach(t -> seen.add(t.getTransactionId()));
+            if (page.getNextCursor() == null) break;
+            page = transactions.getTransactionHistoryPage(a, 10, page.getNextCursor());
+        }
+
+        assertEquals(25, seen.size());
+        for (int i = 1; i < seen.size(); i++) {
+            assertTrue("Newest first", seen.get(i - 1) > seen.get(i));
+        }
+    }
+}
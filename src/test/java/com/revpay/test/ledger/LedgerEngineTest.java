@@ -0,0 +1,205 @@
+package com.revpay.test.ledger;
+
+import com.revpay.ledger.LedgerEngine;
+import com.revpay.ledger.LedgerEntry;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+
+/**
+ * Unit tests for {@link LedgerEngine}.
+ * <p>
+ * The engine is seeded with in-memory balances and writes behind into a list instead of
+ * MySQL, so the sequencing rules can be verified without a running database.
+ * </p>
+ */
+public class LedgerEngineTest {
+
+    private static final BigDecimal OPENING_BALANCE = new BigDecimal("1000.00");
+
+    private final List<LedgerEntry> flushed = Collections.synchronizedList(new ArrayList<>());
+    private Path journal;
+    private LedgerEngine engine;
+
+    /**
+     * Setup: Four funded wallets (IDs 1-4) and a fresh journal.
+     */
+    @Before
+    public void setUp() throws Exception {
+        Map<Integer, BigDecimal> balances = new HashMap<>();
+        for (int id = 1; id <= 4; id++) balances.put(id, OPENING_BALANCE);
+        journal = Files.createTempFile("ledger", ".journal");
+        engine = new LedgerEngine(balances, flushed::addAll, journal, 1024, 256);
+        engine.start();
+    }
+
+    /**
+     * Teardown: Stop the engine and delete the journal.
+     */
+    @After
+    public void tearDown() throws Exception {
+        engine.close();
+        Files.deleteIfExists(journal);
+        Files.deleteIfExists(journal.resolveSibling(journal.getFileName() + ".checkpoint"));
+    }
+
+    /**
+     * Test: A transfer moves money and is rejected when funds are insufficient.
+     */
+    @Test
+    public void testTransferAndInsufficientFunds() {
+        assertTrue(engine.transfer(1, 2, new BigDecimal("250.50")));
+        assertEquals(0, new BigDecimal("749.50").compareTo(engine.getBalance(1)));
+        assertEquals(0, new BigDecimal("1250.50").compareTo(engine.getBalance(2)));
+
+        assertFalse("Overdraft must be rejected", engine.transfer(1, 2, new BigDecimal("749.51")));
+        assertEquals(0, new BigDecimal("749.50").compareTo(engine.getBalance(1)));
+    }
+
+    /**
+     * Test: A closed wallet is flushed before close returns and refuses every later movement.
+     */
+    @Test
+    public void testClosedAccountRejectsMovements() {
+        assertTrue(engine.transfer(1, 2, new BigDecimal("10.00")));
+        assertTrue(engine.closeAccount(2));
+        assertEquals("Entries before the close are flushed", 1, flushed.size());
+
+        assertFalse(engine.transfer(1, 2, BigDecimal.ONE));
+        assertFalse(engine.deposit(2, BigDecimal.ONE));
+        assertEquals(0, BigDecimal.ZERO.compareTo(engine.getBalance(2)));
+        assertEquals("Other wallets are untouched", 0, new BigDecimal("990.00").compareTo(engine.getBalance(1)));
+        assertTrue(engine.transfer(3, 4, BigDecimal.ONE));
+    }
+
+    /**
+     * Test: A document is settled at most once, a rejected payment leaves it open, and the
+     * settlement reaches the sink with its entry.
+     */
+    @Test
+    public void testSettlementPaidOnce() {
+        assertFalse("Overdraft must not settle", engine.settle(LedgerEntry.Settles.INVOICE, 7, 1, 2, new BigDecimal("1000.01")));
+        assertTrue(engine.settle(LedgerEntry.Settles.INVOICE, 7, 1, 2, new BigDecimal("100.00")));
+        assertFalse("Second payment must be rejected", engine.settle(LedgerEntry.Settles.INVOICE, 7, 3, 2, new BigDecimal("100.00")));
+        assertEquals(0, new BigDecimal("900.00").compareTo(engine.getBalance(1)));
+        assertEquals(0, OPENING_BALANCE.compareTo(engine.getBalance(3)));
+
+        engine.close();
+        assertEquals(1, flushed.size());
+        assertEquals("The entry carries the document to the sink", LedgerEntry.Settles.INVOICE, flushed.get(0).getSettles());
+        assertEquals(7, flushed.get(0).getSettlesId());
+    }
+
+    /**
+     * Test: Unknown wallets, non-positive and sub-cent amounts are rejected.
+     */
+    @Test
+    public void testInvalidOperationsRejected() {
+        assertFalse(engine.transfer(1, 99, BigDecimal.ONE));
+        assertFalse(engine.deposit(99, BigDecimal.ONE));
+        assertFalse(engine.transfer(1, 2, BigDecimal.ZERO));
+        assertFalse(engine.transfer(1, 2, new BigDecimal("0.001")));
+
+        engine.openAccount(99);
+        assertTrue("Opened wallet should accept deposits", engine.deposit(99, BigDecimal.TEN));
+        assertEquals(0, BigDecimal.TEN.compareTo(engine.getBalance(99)));
+    }
+
+    /**
+     * Test: Concurrent opposing transfers conserve money and every accepted entry is written behind.
+     */
+    @Test
+    public void testConcurrentTransfersConserveMoney() throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        List<Future<Boolean>> results = new ArrayList<>();
+        for (int i = 0; i < 20_000; i++) {
+            int from = 1 + ThreadLocalRandom.current().nextInt(4);
+            int to = 1 + (from % 4);
+            BigDecimal amount = BigDecimal.valueOf(ThreadLocalRandom.current().nextInt(1, 50_000), 2);
+            results.add(pool.submit(() -> engine.transfer(from, to, amount)));
+        }
+        int succeeded = 0;
+        for (Future<Boolean> f : results) if (f.get()) succeeded++;
+        pool.shutdown();
+        assertTrue(pool.awaitTermination(1, TimeUnit.MINUTES));
+
+        BigDecimal total = BigDecimal.ZERO;
+        for (int id = 1; id <= 4; id++) {
+            BigDecimal balance = engine.getBalance(id);
+            assertTrue("Wallet " + id + " must not be negative", balance.signum() >= 0);
+            total = total.add(balance);
+        }
+        assertEquals("Total money must be conserved", 0, new BigDecimal("4000.00").compareTo(total));
+        assertEquals(succeeded, engine.getAcceptedCount());
+
+        engine.close();
+        assertEquals("Every accepted transfer must reach the sink", succeeded, flushed.size());
+        for (int i = 0; i < flushed.size(); i++) {
+            assertEquals("Entries must be written in sequence order", i, flushed.get(i).getSequence());
+        }
+    }
+
+    /**
+     * Test: Asynchronous submissions complete once their batch is journaled.
+     */
+    @Test
+    public void testSubmitTransferCompletes() {
+        List<CompletableFuture<Boolean>> acks = new ArrayList<>();
+        for (int i = 0; i < 100; i++) acks.add(engine.submitTransfer(3, 4, BigDecimal.ONE));
+        for (CompletableFuture<Boolean> ack : acks) assertTrue(ack.join());
+        assertEquals(0, new BigDecimal("900.00").compareTo(engine.getBalance(3)));
+    }
+
+    /**
+     * Test: While a keyed entry is unflushed, a retry is answered without a second entry, a different
+     * payment under the key is refused, and the key reaches the sink.
+     */
+    @Test
+    public void testIdempotencyKeys() throws Exception {
+        CountDownLatch gate = new CountDownLatch(1);
+        List<LedgerEntry> written = Collections.synchronizedList(new ArrayList<>());
+        Path keyedJournal = Files.createTempFile("ledger-keys", ".journal");
+        Map<Integer, BigDecimal> balances = Map.of(1, OPENING_BALANCE, 2, OPENING_BALANCE);
+        LedgerEngine keyed = new LedgerEngine(balances, batch -> {
+            gate.await(); // hold every entry in the unflushed window
+            written.addAll(batch);
+        }, keyedJournal, 64, 16);
+        keyed.start();
+        try {
+            assertTrue(keyed.transfer(1, 2, BigDecimal.TEN, "k-1"));
+            assertTrue("Retry of a pending entry", keyed.transfer(1, 2, BigDecimal.TEN, "k-1"));
+            assertEquals(Boolean.TRUE, keyed.checkIdempotencyKey(1, 2, BigDecimal.TEN, "k-1"));
+            assertFalse("Same key, different amount", keyed.transfer(1, 2, BigDecimal.ONE, "k-1"));
+            assertTrue("Keys are scoped to the sender", keyed.transfer(2, 1, BigDecimal.TEN, "k-1"));
+            assertFalse("A key the database cannot store", keyed.transfer(1, 2, BigDecimal.ONE, "x".repeat(65)));
+            assertEquals("Wallet 1 sent 10 and received 10", 0, OPENING_BALANCE.compareTo(keyed.getBalance(1)));
+        } finally {
+            gate.countDown();
+            keyed.close();
+            Files.deleteIfExists(keyedJournal);
+            Files.deleteIfExists(keyedJournal.resolveSibling(keyedJournal.getFileName() + ".checkpoint"));
+        }
+
+        assertEquals(2, written.size());
+        assertEquals("k-1", written.get(0).getIdempotencyKey());
+        assertNull("Forgotten once written", keyed.checkIdempotencyKey(1, 2, BigDecimal.TEN, "k-1"));
+    }
+}
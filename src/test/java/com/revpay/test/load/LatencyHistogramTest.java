@@ -0,0 +1,72 @@
+package com.revpay.test.load;
+
+import com.revpay.load.LatencyHistogram;
+import org.junit.Test;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+
+/**
+ * Unit tests for {@link LatencyHistogram}.
+ */
+public class LatencyHistogramTest {
+
+    /**
+     * Test: Percentiles of a uniform 1..100,000ns distribution are within the bucket precision.
+     */
+    @Test
+    public void testPercentiles() {
+        LatencyHistogram h = new LatencyHistogram();
+        for (long v = 1; v <= 100_000; v++) h.record(v);
+
+        assertEquals(100_000, h.getCount());
+        assertEquals(100_000, h.getMaxNanos());
+        assertEquals(50_000.5, h.getMeanNanos(), 0.001);
+        assertWithin(50_000, h.getPercentileNanos(50));
+        assertWithin(99_000, h.getPercentileNanos(99));
+        assertWithin(99_900, h.getPercentileNanos(99.9));
+        assertEquals(100_000, h.getPercentileNanos(100));
+    }
+
+    /**
+     * Test: Small values are exact, and reported values never understate the sample.
+     */
+    @Test
+    public void testSmallAndLargeValues() {
+        LatencyHistogram h = new LatencyHistogram();
+        assertEquals(0, h.getPercentileNanos(99));
+
+        h.record(-5);
+        h.record(7);
+        h.record(Long.MAX_VALUE / 2);
+
+        assertEquals(0, h.getPercentileNanos(1));
+        assertEquals(7, h.getPercentileNanos(50));
+        assertEquals(Long.MAX_VALUE / 2, h.getPercentileNanos(100));
+    }
+
+    /**
+     * Test: Concurrent recording loses no samples.
+     */
+    @Test
+    public void testConcurrentRecording() throws InterruptedException {
+        LatencyHistogram h = new LatencyHistogram();
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        for (int t = 0; t < 8; t++) {
+            pool.execute(() -> {
+                for (int i = 0; i < 10_000; i++) h.record(1_000 + i);
+            });
+        }
+        pool.shutdown();
+        assertTrue(pool.awaitTermination(10, TimeUnit.SECONDS));
+        assertEquals(80_000, h.getCount());
+    }
+
+    private static void assertWithin(long expected, long actual) {
+        assertTrue("expected ~" + expected + " but was " + actual,
+                actual >= expected && actual <= expected * 1.02);
+    }
+}
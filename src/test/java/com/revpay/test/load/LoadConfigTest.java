@@ -0,0 +1,43 @@
+package com.revpay.test.load;
+
+import com.revpay.load.LoadConfig;
+import com.revpay.load.LoadConfig.Operation;
+import org.junit.Test;
+
+import java.util.Map;
+
+import static org.junit.Assert.*;
+
+/**
+ * Unit tests for {@link LoadConfig}.
+ */
+public class LoadConfigTest {
+
+    /**
+     * Test: Listed operations get their weight, the others 0.
+     */
+    @Test
+    public void testParseMix() {
+        Map<Operation, Integer> mix = LoadConfig.parseMix("Transfer=80, balance=20");
+
+        assertEquals(Integer.valueOf(80), mix.get(Operation.TRANSFER));
+        assertEquals(Integer.valueOf(20), mix.get(Operation.BALANCE));
+        assertEquals(Integer.valueOf(0), mix.get(Operation.DEPOSIT));
+        assertEquals(Integer.valueOf(0), mix.get(Operation.HISTORY));
+    }
+
+    /**
+     * Test: Unknown operations and empty mixes are rejected.
+     */
+    @Test
+    public void testInvalidMix() {
+        for (String text : new String[]{"withdraw=10", "transfer=0", "transfer", "balance=-1"}) {
+            try {
+                LoadConfig.parseMix(text);
+                fail("Expected rejection of " + text);
+            } catch (IllegalArgumentException expected) {
+                // ok
+            }
+        }
+    }
+}
@@ -0,0 +1,52 @@
+package com.revpay.test.model;
+
+import com.revpay.model.HistoryCursor;
+import com.revpay.model.Transaction;
+import org.junit.Test;
+import java.sql.Timestamp;
+import static org.junit.Assert.*;
+
+/**
+ * Unit tests for the {@link HistoryCursor} model class.
+ */
+public class HistoryCursorTest {
+
+    /**
+     * Test that a cursor built from a transaction captures its sort key.
+     */
+    @Test
+    public void testAfterTransaction() {
+        Timestamp ts = Timestamp.valueOf("2024-01-15 10:30:00");
+        Transaction t = new Transaction();
+        t.setTransactionId(99);
+        t.setTimestamp(ts);
+
+        HistoryCursor cursor = HistoryCursor.after(t);
+
+        assertEquals(ts, cursor.getTimestamp());
+        assertEquals(99, cursor.getTransactionId());
+        assertTrue(cursor.toString().contains("#99"));
+    }
+
+    /**
+     * Test that a cursor survives a round trip through its API token, nanoseconds included.
+     */
+    @Test
+    public void testTokenRoundTrip() {
+        Timestamp ts = Timestamp.valueOf("2024-01-15 10:30:00.123456");
+        HistoryCursor cursor = new HistoryCursor(ts, 42);
+
+        HistoryCursor decoded = HistoryCursor.fromToken(cursor.toToken());
+
+        assertEquals(ts, decoded.getTimestamp());
+        assertEquals(42, decoded.getTransactionId());
+    }
+
+    /**
+     * Test that malformed tokens are rejected.
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void testInvalidToken() {
+        HistoryCursor.fromToken("not-a-cursor");
+    }
+}
@@ -0,0 +1,39 @@
+package com.revpay.test.model;
+
+import com.revpay.model.PayoutResult;
+import com.revpay.model.TransactionStatus;
+import org.junit.Test;
+import java.math.BigDecimal;
+import static org.junit.Assert.*;
+
+/**
+ * Unit tests for the {@link PayoutResult} model class.
+ */
+public class PayoutResultTest {
+
+    /**
+     * Test the parameterized constructor and the success flag.
+     */
+    @Test
+    public void testConstructor() {
+        PayoutResult ok = new PayoutResult(1, 10, new BigDecimal("5.00"), TransactionStatus.SUCCESS, null);
+        PayoutResult failed = new PayoutResult(2, 0, new BigDecimal("5.00"), TransactionStatus.FAILED, "Receiver not found");
+
+        assertTrue("SUCCESS line should report success", ok.isSuccess());
+        assertFalse("FAILED line should not report success", failed.isSuccess());
+        assertEquals(2, failed.getLineNumber());
+        assertEquals("Receiver not found", failed.getMessage());
+    }
+
+    /**
+     * Test toString includes the failure reason.
+     */
+    @Test
+    public void testToString() {
+        PayoutResult r = new PayoutResult(3, 0, new BigDecimal("9.99"), TransactionStatus.FAILED, "Invalid receiver");
+        String output = r.toString();
+
+        assertTrue(output.contains("Line 3"));
+        assertTrue(output.contains("Invalid receiver"));
+    }
+}
@@ -0,0 +1,47 @@
+package com.revpay.test.model;
+
+import com.revpay.model.Payout;
+import org.junit.Test;
+import java.math.BigDecimal;
+import static org.junit.Assert.*;
+
+/**
+ * Unit tests for the {@link Payout} model class.
+ * <p>
+ * Verifies both ways of addressing a payout line (email and User ID).
+ * </p>
+ */
+public class PayoutTest {
+
+    /**
+     * Test the email-addressed constructor.
+     */
+    @Test
+    public void testEmailConstructor() {
+        Payout p = new Payout("staff@revpay.com", new BigDecimal("1200.00"));
+
+        assertEquals("staff@revpay.com", p.getReceiverEmail());
+        assertEquals("Receiver ID should be unresolved", 0, p.getReceiverId());
+        assertEquals(new BigDecimal("1200.00"), p.getAmount());
+    }
+
+    /**
+     * Test the ID-addressed constructor.
+     */
+    @Test
+    public void testIdConstructor() {
+        Payout p = new Payout(42, new BigDecimal("15.50"));
+
+        assertEquals(42, p.getReceiverId());
+        assertNull(p.getReceiverEmail());
+    }
+
+    /**
+     * Test toString prefers the User ID when present.
+     */
+    @Test
+    public void testToString() {
+        assertTrue(new Payout(7, new BigDecimal("1.00")).toString().contains("ID 7"));
+        assertTrue(new Payout("a@b.com", new BigDecimal("1.00")).toString().contains("a@b.com"));
+    }
+}
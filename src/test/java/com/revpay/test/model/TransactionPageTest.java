@@ -0,0 +1,30 @@
+package com.revpay.test.model;
+
+import com.revpay.model.HistoryCursor;
+import com.revpay.model.Transaction;
+import com.revpay.model.TransactionPage;
+import org.junit.Test;
+import java.sql.Timestamp;
+import java.util.Collections;
+import static org.junit.Assert.*;
+
+/**
+ * Unit tests for the {@link TransactionPage} model class.
+ */
+public class TransactionPageTest {
+
+    /**
+     * Test that only a page with a next cursor reports more results.
+     */
+    @Test
+    public void testHasMore() {
+        TransactionPage last = new TransactionPage(Collections.singletonList(new Transaction()), null);
+        assertFalse(last.hasMore());
+        assertEquals(1, last.getTransactions().size());
+
+        HistoryCursor cursor = new HistoryCursor(new Timestamp(0), 1);
+        TransactionPage middle = new TransactionPage(Collections.emptyList(), cursor);
+        assertTrue(middle.hasMore());
+        assertSame(cursor, middle.getNextCursor());
+    }
+}
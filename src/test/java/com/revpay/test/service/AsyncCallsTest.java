@@ -0,0 +1,132 @@
+package com.revpay.test.service;
+
+import com.revpay.config.DatabaseConnection;
+import com.revpay.config.QueryCancellation;
+import com.revpay.dao.UserDAO;
+import com.revpay.dao.WalletDAO;
+import com.revpay.model.Role;
+import com.revpay.model.User;
+import com.revpay.service.AsyncCalls;
+import com.revpay.service.TransactionService;
+import com.revpay.service.UserService;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests for the async service methods and {@link AsyncCalls}.
+ */
+public class AsyncCallsTest {
+
+    // Tens of billions of rows: runs until it is cancelled
+    private static final String ENDLESS_QUERY =
+            "SELECT COUNT(*) FROM SYSTEM_RANGE(1, 200000) a, SYSTEM_RANGE(1, 200000) b";
+
+    private final UserService userService = new UserService();
+    private final TransactionService transactionService = new TransactionService();
+    private final UserDAO userDAO = new UserDAO();
+
+    private int userId;
+
+    /**
+     * Setup: One user with $50.
+     */
+    @Before
+    public void setUp() {
+        String email = "async_" + System.nanoTime() + "@revpay.test";
+        userId = userDAO.registerUserWithWallet(new User(email, "000", "hash", "0000", "Async", Role.PERSONAL));
+        new WalletDAO().updateBalance(userId, new BigDecimal("50.00"));
+    }
+
+    /**
+     * Teardown: Cleanup the user.
+     */
+    @After
+    public void tearDown() {
+        userDAO.deleteUser(userId);
+    }
+
+    /**
+     * Test Scenario: Independent reads run at once and each future yields the blocking call's result.
+     */
+    @Test
+    public void testAsyncReads() throws Exception {
+        assertTrue(transactionService.processDepositAsync(userId, new BigDecimal("5.00"), null).get(5, TimeUnit.SECONDS));
+
+        CompletableFuture<BigDecimal> balance = userService.getBalanceAsync(userId);
+        CompletableFuture<Integer> history = transactionService.getHistoryAsync(userId, 10, null)
+                .thenApply(page -> page.getTransactions().size());
+
+        assertEquals(0, balance.get(5, TimeUnit.SECONDS).compareTo(new BigDecimal("55.00")));
+        assertEquals(Integer.valueOf(1), history.get(5, TimeUnit.SECONDS));
+    }
+
+    /**
+     * Test Scenario: A timeout cancels the JDBC statement that is running, not just the future.
+     */
+    @Test
+    public void testTimeoutCancelsRunningStatement() throws Exception {
+        AtomicReference<String> sqlState = new AtomicReference<>();
+        CountDownLatch finished = new CountDownLatch(1);
+
+        CompletableFuture<Long> future = AsyncCalls.supply(() -> {
+            try (Connection conn = DatabaseConnection.getConnection();
+                 PreparedStatement stmt = conn.prepareStatement(ENDLESS_QUERY);
+                 ResultSet rs = stmt.executeQuery()) {
+                rs.next();
+                return rs.getLong(1);
+            } catch (SQLException e) {
+                sqlState.set(e.getSQLState());
+                return -1L;
+            } finally {
+                finished.countDown();
+            }
+        }, 200, TimeUnit.MILLISECONDS);
+
+        try {
+            future.get();
+            fail("The query should have timed out");
+        } catch (ExecutionException e) {
+            assertTrue(e.getCause() instanceof TimeoutException);
+        }
+        assertTrue("Statement.cancel() should stop the query", finished.await(10, TimeUnit.SECONDS));
+        assertEquals(QueryCancellation.SQLSTATE_CANCELLED, sqlState.get());
+    }
+
+    /**
+     * Test Scenario: After cancel(), a call's next statement is refused and its connection is still usable.
+     */
+    @Test
+    public void testCancelledScopeRefusesNewStatements() {
+        QueryCancellation scope = new QueryCancellation();
+        scope.cancel();
+
+        String state = scope.call(() -> {
+            try (Connection conn = DatabaseConnection.getConnection();
+                 PreparedStatement stmt = conn.prepareStatement("SELECT 1");
+                 ResultSet rs = stmt.executeQuery()) {
+                return "ran";
+            } catch (SQLException e) {
+                return e.getSQLState();
+            }
+        });
+
+        assertEquals(QueryCancellation.SQLSTATE_CANCELLED, state);
+        assertNull("The scope is unbound afterwards", QueryCancellation.current());
+        assertEquals(0, userService.getBalance(userId).compareTo(new BigDecimal("50.00")));
+    }
+}
@@ -0,0 +1,109 @@
+package com.revpay.test.service;
+
+import com.revpay.dao.InvoiceDAO;
+import com.revpay.dao.PaymentMethodDAO;
+import com.revpay.dao.RequestDAO;
+import com.revpay.dao.UserDAO;
+import com.revpay.dao.WalletDAO;
+import com.revpay.model.DashboardSnapshot;
+import com.revpay.model.DashboardSnapshot.Section;
+import com.revpay.model.Invoice;
+import com.revpay.model.PaymentMethod;
+import com.revpay.model.PaymentRequest;
+import com.revpay.model.Role;
+import com.revpay.model.User;
+import com.revpay.service.DashboardService;
+import com.revpay.service.TransactionService;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.math.BigDecimal;
+import java.sql.Date;
+
+import static org.junit.Assert.*;
+
+/**
+ * Integration tests for {@link DashboardService}.
+ */
+public class DashboardServiceTest {
+
+    private final DashboardService dashboardService = new DashboardService(10);
+    private final TransactionService transactionService = new TransactionService();
+    private final UserDAO userDAO = new UserDAO();
+
+    private User user;
+    private int otherId;
+
+    /**
+     * Setup: A user with $100, one card, and a pending request and invoice from another user.
+     */
+    @Before
+    public void setUp() {
+        long n = System.nanoTime();
+        user = new User("dash_" + n + "@revpay.test", "000", "hash", "0000", "Dash", Role.PERSONAL);
+        userDAO.registerUserWithWallet(user);
+        otherId = userDAO.registerUserWithWallet(new User("dash_other_" + n + "@revpay.test", "000", "hash", "0000", "Other", Role.BUSINESS));
+        new WalletDAO().updateBalance(user.getUserId(), new BigDecimal("100.00"));
+
+        new PaymentMethodDAO().addPaymentMethod(new PaymentMethod(user.getUserId(), "4111111111111111", "DEBIT", Date.valueOf("2030-01-01")));
+        new RequestDAO().createRequest(new PaymentRequest(otherId, user.getUserId(), new BigDecimal("5.00")));
+        new InvoiceDAO().createInvoice(new Invoice(otherId, user.getEmail(), new BigDecimal("7.00"), "Coffee"));
+    }
+
+    /**
+     * Teardown: Cleanup both users.
+     */
+    @After
+    public void tearDown() {
+        userDAO.deleteUser(user.getUserId());
+        userDAO.deleteUser(otherId);
+    }
+
+    /**
+     * Test Scenario: Login preload fills every section, and the snapshot cannot be modified.
+     */
+    @Test
+    public void testLoadFillsEverySection() {
+        DashboardSnapshot snapshot = dashboardService.load(user).join();
+
+        assertEquals(0, snapshot.getBalance().compareTo(new BigDecimal("100.00")));
+        assertEquals(1, snapshot.getIncomingRequests().size());
+        assertEquals(1, snapshot.getPendingInvoices().size());
+        assertEquals(1, snapshot.getCards().size());
+        assertTrue(snapshot.getRecentHistory().getTransactions().isEmpty());
+        for (Section s : Section.values()) {
+            assertTrue(s + " should be fresh", snapshot.isFresh(s, 60_000));
+        }
+
+        try {
+            snapshot.getCards().clear();
+            fail("Snapshot lists must be unmodifiable");
+        } catch (UnsupportedOperationException expected) {
+            // immutable
+        }
+    }
+
+    /**
+     * Test Scenario: After paying an invoice only the changed sections are reloaded; the old snapshot is untouched.
+     */
+    @Test
+    public void testRefreshReloadsOnlyRequestedSections() {
+        DashboardSnapshot before = dashboardService.load(user).join();
+        int invoiceId = before.getPendingInvoices().get(0).getInvoiceId();
+        assertTrue(transactionService.payInvoice(invoiceId, user.getUserId()));
+        new RequestDAO().createRequest(new PaymentRequest(otherId, user.getUserId(), new BigDecimal("1.00")));
+
+        DashboardSnapshot after = dashboardService.refresh(before, Section.BALANCE, Section.HISTORY, Section.INVOICES).join();
+
+        assertEquals(0, after.getBalance().compareTo(new BigDecimal("93.00")));
+        assertTrue(after.getPendingInvoices().isEmpty());
+        assertEquals(1, after.getRecentHistory().getTransactions().size());
+        assertEquals("Requests were not reloaded", 1, after.getIncomingRequests().size());
+        assertSame(before.getCards(), after.getCards());
+        assertEquals("The old snapshot is unchanged", 1, before.getPendingInvoices().size());
+
+        assertSame("Nothing is stale, so nothing is reloaded", after,
+                dashboardService.refreshStale(after, Section.values()).join());
+    }
+}
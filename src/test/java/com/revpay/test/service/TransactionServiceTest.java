@@ -1,7 +1,15 @@
 package com.revpay.test.service;
 
+import com.revpay.dao.InvoiceDAO;
+import com.revpay.dao.RequestDAO;
+import com.revpay.dao.TransactionDAO;
 import com.revpay.dao.UserDAO;
 import com.revpay.dao.WalletDAO;
+import com.revpay.ledger.LedgerEngine;
+import com.revpay.model.Invoice;
+import com.revpay.model.PaymentRequest;
+import com.revpay.model.Payout;
+import com.revpay.model.PayoutResult;
 import com.revpay.model.Role;
 import com.revpay.model.User;
 import com.revpay.service.TransactionService;
@@ -10,6 +18,10 @@ import org.junit.Before;
 import org.junit.Test;
 
 import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
 
 import static org.junit.Assert.*;
 
@@ -28,6 +40,8 @@ public class TransactionServiceTest {
 
     private int senderId;
     private int receiverId;
+    private String senderEmail;
+    private String receiverEmail;
 
     /**
      * Setup: Create two users and fund the sender's wallet.
@@ -35,7 +49,7 @@ public class TransactionServiceTest {
     @Before
     public void setUp() {
         // 1. Create Sender
-        String senderEmail = "service_sender_" + System.currentTimeMillis() + "@test.com";
+        senderEmail = "service_sender_" + System.currentTimeMillis() + "@test.com";
         User sender = new User(senderEmail, "111", "hash", "0000", "Service Sender", Role.PERSONAL);
         userDAO.registerUser(sender);
         senderId = userDAO.getUserByEmail(senderEmail).getUserId();
@@ -45,7 +59,7 @@ public class TransactionServiceTest {
         walletDAO.updateBalance(senderId, new BigDecimal("1000.00"));
 
         // 2. Create Receiver
-        String receiverEmail = "service_receiver_" + System.currentTimeMillis() + "@test.com";
+        receiverEmail = "service_receiver_" + System.currentTimeMillis() + "@test.com";
         User receiver = new User(receiverEmail, "222", "hash", "0000", "Service Receiver", Role.PERSONAL);
         userDAO.registerUser(receiver);
         receiverId = userDAO.getUserByEmail(receiverEmail).getUserId();
@@ -103,4 +117,167 @@ public class TransactionServiceTest {
         
         assertTrue("Valid transfer should succeed", result);
     }
-}
\ No newline at end of file
+
+    /**
+     * Test: Bulk payout pays valid lines once and reports invalid ones per line.
+     */
+    @Test
+    public void testBulkTransfer() {
+        List<Payout> payouts = Arrays.asList(
+                new Payout(receiverId, new BigDecimal("100.00")),
+                new Payout("nobody_" + System.currentTimeMillis() + "@test.com", new BigDecimal("10.00")),
+                new Payout(receiverId, new BigDecimal("-5.00")),
+                new Payout(senderId, new BigDecimal("1.00")),
+                new Payout(receiverId, new BigDecimal("50.00")));
+
+        List<PayoutResult> results = transactionService.processBulkTransfer(senderId, payouts);
+
+        assertEquals("One result per line", payouts.size(), results.size());
+        assertTrue("Line 1 should be paid", results.get(0).isSuccess());
+        assertFalse("Unknown email should fail", results.get(1).isSuccess());
+        assertFalse("Negative amount should fail", results.get(2).isSuccess());
+        assertFalse("Self payout should fail", results.get(3).isSuccess());
+        assertTrue("Line 5 should be paid", results.get(4).isSuccess());
+        assertEquals(5, results.get(4).getLineNumber());
+
+        assertEquals(0, new BigDecimal("850.00").compareTo(walletDAO.getBalance(senderId)));
+        assertEquals(0, new BigDecimal("150.00").compareTo(walletDAO.getBalance(receiverId)));
+    }
+
+    /**
+     * Test: A payout line addressed by email is paid however the email is capitalized or padded.
+     */
+    @Test
+    public void testBulkTransferEmailCase() {
+        List<Payout> payouts = Arrays.asList(
+                new Payout(" " + receiverEmail.toUpperCase() + " ", new BigDecimal("20.00")),
+                new Payout(receiverEmail, new BigDecimal("5.00")));
+
+        List<PayoutResult> results = transactionService.processBulkTransfer(senderId, payouts);
+
+        assertTrue("Upper-case email should resolve", results.get(0).isSuccess());
+        assertTrue(results.get(1).isSuccess());
+        assertEquals(0, new BigDecimal("25.00").compareTo(walletDAO.getBalance(receiverId)));
+    }
+
+    /**
+     * Test: A retried deposit/transfer with the same key is applied once; reusing the key for another payment fails.
+     */
+    @Test
+    public void testIdempotencyKey() {
+        String key = "svc-" + senderId + "-" + System.nanoTime();
+        BigDecimal amount = new BigDecimal("25.00");
+
+        assertTrue(transactionService.processTransfer(senderId, receiverId, amount, key));
+        assertTrue("Retry should return the original result", transactionService.processTransfer(senderId, receiverId, amount, key));
+        assertFalse("Key reuse for a different amount should fail",
+                transactionService.processTransfer(senderId, receiverId, new BigDecimal("26.00"), key));
+
+        assertEquals(0, new BigDecimal("975.00").compareTo(walletDAO.getBalance(senderId)));
+        assertEquals(0, new BigDecimal("25.00").compareTo(walletDAO.getBalance(receiverId)));
+    }
+
+    /**
+     * Test: In ledger mode a keyed transfer is applied once and its key reaches the database row.
+     */
+    @Test
+    public void testIdempotencyKeyInLedgerMode() throws Exception {
+        Path journal = Files.createTempFile("service-ledger", ".journal");
+        System.setProperty("revpay.ledger.journal", journal.toString());
+        String key = "ledger-" + senderId + "-" + System.nanoTime();
+        BigDecimal amount = new BigDecimal("40.00");
+        try {
+            LedgerEngine.startFromDatabase();
+            assertTrue(transactionService.processTransfer(senderId, receiverId, amount, key));
+            assertTrue("Retry should return the original result", transactionService.processTransfer(senderId, receiverId, amount, key));
+            assertFalse("Key reuse for a different amount should fail",
+                    transactionService.processTransfer(senderId, receiverId, new BigDecimal("41.00"), key));
+        } finally {
+            LedgerEngine.stopActive();
+            System.clearProperty("revpay.ledger.journal");
+            Files.deleteIfExists(journal);
+            Files.deleteIfExists(journal.resolveSibling(journal.getFileName() + ".checkpoint"));
+        }
+
+        assertEquals(0, new BigDecimal("960.00").compareTo(walletDAO.getBalance(senderId)));
+        assertEquals(0, new BigDecimal("40.00").compareTo(walletDAO.getBalance(receiverId)));
+        assertEquals("The flushed row carries the key", Boolean.TRUE,
+                new TransactionDAO().checkIdempotencyKey(senderId, receiverId, amount, key));
+    }
+
+    /**
+     * Test: In ledger mode an invoice is paid once, and its PAID status is flushed with the money.
+     */
+    @Test
+    public void testInvoicePaidOnceInLedgerMode() throws Exception {
+        InvoiceDAO invoiceDAO = new InvoiceDAO();
+        assertTrue(invoiceDAO.createInvoice(new Invoice(receiverId, senderEmail, new BigDecimal("300.00"), "Ledger Invoice")));
+        assertTrue(invoiceDAO.createInvoice(new Invoice(receiverId, senderEmail, new BigDecimal("5000.00"), "Too Large")));
+        int paidId = -1;
+        int tooLargeId = -1;
+        for (Invoice inv : invoiceDAO.getInvoicesByBusiness(receiverId)) {
+            if (inv.getAmount().compareTo(new BigDecimal("300.00")) == 0) paidId = inv.getInvoiceId();
+            else tooLargeId = inv.getInvoiceId();
+        }
+
+        Path journal = Files.createTempFile("service-ledger", ".journal");
+        System.setProperty("revpay.ledger.journal", journal.toString());
+        try {
+            LedgerEngine.startFromDatabase();
+            assertTrue(transactionService.payInvoice(paidId, senderId));
+            assertFalse("A second payment must be refused", transactionService.payInvoice(paidId, senderId));
+            assertFalse("Insufficient funds should fail", transactionService.payInvoice(tooLargeId, senderId));
+        } finally {
+            LedgerEngine.stopActive();
+            System.clearProperty("revpay.ledger.journal");
+            Files.deleteIfExists(journal);
+            Files.deleteIfExists(journal.resolveSibling(journal.getFileName() + ".checkpoint"));
+        }
+
+        assertEquals("PAID", invoiceDAO.getInvoiceById(paidId).getStatus());
+        assertEquals("A rejected payment leaves the invoice pending", "PENDING", invoiceDAO.getInvoiceById(tooLargeId).getStatus());
+        assertEquals(0, new BigDecimal("700.00").compareTo(walletDAO.getBalance(senderId)));
+        assertEquals(0, new BigDecimal("300.00").compareTo(walletDAO.getBalance(receiverId)));
+    }
+
+    /**
+     * Test: In ledger mode a request is accepted once with its status flushed with the money,
+     * and a request being paid cannot be declined.
+     */
+    @Test
+    public void testRequestAcceptedOnceInLedgerMode() throws Exception {
+        RequestDAO requestDAO = new RequestDAO();
+        assertTrue(requestDAO.createRequest(new PaymentRequest(receiverId, senderId, new BigDecimal("120.00"))));
+        assertTrue(requestDAO.createRequest(new PaymentRequest(receiverId, senderId, new BigDecimal("80.00"))));
+        int acceptedId = -1;
+        int declinedId = -1;
+        for (PaymentRequest req : requestDAO.getIncomingRequests(senderId)) {
+            if (req.getAmount().compareTo(new BigDecimal("120.00")) == 0) acceptedId = req.getRequestId();
+            else declinedId = req.getRequestId();
+        }
+
+        Path journal = Files.createTempFile("service-ledger", ".journal");
+        System.setProperty("revpay.ledger.journal", journal.toString());
+        try {
+            LedgerEngine.startFromDatabase();
+            assertFalse("Only the payer can accept", transactionService.acceptRequest(acceptedId, receiverId));
+            assertTrue(transactionService.acceptRequest(acceptedId, senderId));
+            assertFalse("A second acceptance must be refused", transactionService.acceptRequest(acceptedId, senderId));
+            assertFalse("A paid request cannot be declined", transactionService.declineRequest(acceptedId, senderId));
+
+            assertFalse("Only the payer can decline", transactionService.declineRequest(declinedId, receiverId));
+            assertTrue(transactionService.declineRequest(declinedId, senderId));
+            assertFalse("A declined request cannot be accepted", transactionService.acceptRequest(declinedId, senderId));
+        } finally {
+            LedgerEngine.stopActive();
+            System.clearProperty("revpay.ledger.journal");
+            Files.deleteIfExists(journal);
+            Files.deleteIfExists(journal.resolveSibling(journal.getFileName() + ".checkpoint"));
+        }
+
+        assertEquals("ACCEPTED", requestDAO.getRequestById(acceptedId).getStatus());
+        assertEquals("DECLINED", requestDAO.getRequestById(declinedId).getStatus());
+        assertEquals(0, new BigDecimal("880.00").compareTo(walletDAO.getBalance(senderId)));
+        assertEquals(0, new BigDecimal("120.00").compareTo(walletDAO.getBalance(receiverId)));
+    }
+}
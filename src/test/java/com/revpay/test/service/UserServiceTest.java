@@ -8,7 +8,12 @@ import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
 
+import at.favre.lib.crypto.bcrypt.BCrypt;
+
 import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
 
 import static org.junit.Assert.*;
 
@@ -80,4 +85,57 @@ public class UserServiceTest {
 
         System.out.println("✅ User Service Flow Test Passed");
     }
-}
\ No newline at end of file
+
+    /**
+     * Test Scenario: A hash made with an outdated cost is replaced at the next successful login.
+     */
+    @Test
+    public void testLoginUpgradesOutdatedHash() {
+        String email = "rehash_" + System.currentTimeMillis() + "@revpay.com";
+        int outdatedCost = SecurityUtil.getCost() - 1;
+        String oldHash = BCrypt.withDefaults().hashToString(outdatedCost, TEST_PASS.toCharArray());
+        assertTrue(userService.registerUser(new User(email, "555-0198", oldHash, "1234", "Rehash Tester", Role.PERSONAL)));
+        testUserId = userService.getUserIdByEmail(email);
+
+        User user = userService.login(email, TEST_PASS);
+        assertNotNull("Login should succeed with the old hash", user);
+        assertNotEquals("Hash should have been replaced", oldHash, user.getPasswordHash());
+        assertFalse("New hash should use the current cost", SecurityUtil.needsRehash(user.getPasswordHash()));
+
+        // The upgraded hash is persisted and still accepts the password
+        assertNotNull("Login should succeed with the new hash", userService.login(email, TEST_PASS));
+
+        System.out.println("✅ Rehash-on-Login Test Passed");
+    }
+
+    /**
+     * Test Scenario: Bulk registration creates every new user with a wallet and skips taken emails.
+     */
+    @Test
+    public void testBulkRegistration() {
+        String prefix = "bulk_" + System.currentTimeMillis() + "_";
+        List<User> users = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            users.add(new User(prefix + i + "@revpay.com", "555-010" + i, null, "1234", "Bulk " + i, Role.PERSONAL));
+        }
+        users.add(new User(prefix + "0@revpay.com", "555-0109", null, "1234", "Bulk Dup", Role.PERSONAL));
+        List<String> passwords = Arrays.asList("pw0", "pw1", "pw2", "pw3");
+
+        int[] ids = userService.registerUsers(users, passwords);
+        try {
+            assertEquals(4, ids.length);
+            assertEquals("Repeated email should be skipped", -1, ids[3]);
+            for (int i = 0; i < 3; i++) {
+                assertTrue("User " + i + " should be created", ids[i] > 0);
+                assertEquals(0, userService.getBalance(ids[i]).compareTo(BigDecimal.ZERO));
+            }
+            assertNotNull("Bulk user should be able to log in", userService.login(prefix + "1@revpay.com", "pw1"));
+        } finally {
+            for (int id : ids) {
+                if (id > 0) userService.deleteAccount(id);
+            }
+        }
+
+        System.out.println("✅ Bulk Registration Test Passed");
+    }
+}
@@ -0,0 +1,61 @@
+package com.revpay.test.util;
+
+import com.revpay.util.Json;
+import org.junit.Test;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.*;
+
+/**
+ * Unit tests for the {@link Json} helper.
+ */
+public class JsonTest {
+
+    /**
+     * Test: Nested maps and lists are written in order, with strings escaped and decimals kept exact.
+     */
+    @Test
+    public void testWrite() {
+        Map<String, Object> doc = Json.object("name", "Al \"the\" Pal\n", "amount", new BigDecimal("10.50"),
+                "ok", true, "missing", null, "items", List.of(1, Json.object("a", "b")));
+
+        assertEquals("{\"name\":\"Al \\\"the\\\" Pal\\n\",\"amount\":10.50,\"ok\":true,\"missing\":null,"
+                + "\"items\":[1,{\"a\":\"b\"}]}", Json.write(doc));
+    }
+
+    /**
+     * Test: A flat object is parsed into literal strings; null values are dropped.
+     */
+    @Test
+    public void testParseObject() {
+        Map<String, String> fields = Json.parseObject(
+                " { \"email\" : \"a@b.com\", \"amount\": 12.50, \"flag\": false, \"note\": null, \"esc\": \"x\\u0041\\\"\" } ");
+
+        assertEquals("a@b.com", fields.get("email"));
+        assertEquals("12.50", fields.get("amount"));
+        assertEquals("false", fields.get("flag"));
+        assertFalse(fields.containsKey("note"));
+        assertEquals("xA\"", fields.get("esc"));
+        assertTrue(Json.parseObject("").isEmpty());
+        assertTrue(Json.parseObject("{}").isEmpty());
+    }
+
+    /**
+     * Test: Malformed or nested input is rejected.
+     */
+    @Test
+    public void testParseRejectsInvalid() {
+        String[] invalid = {"[1]", "{\"a\":1", "{\"a\":{}}", "{\"a\":abc}", "{\"a\":1} x", "{\"a\":\"open}"};
+        for (String text : invalid) {
+            try {
+                Json.parseObject(text);
+                fail("Expected rejection of " + text);
+            } catch (IllegalArgumentException expected) {
+                // ok
+            }
+        }
+    }
+}
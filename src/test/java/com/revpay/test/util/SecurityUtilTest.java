@@ -50,4 +50,34 @@ public class SecurityUtilTest {
         boolean result = SecurityUtil.verifyPassword("wrongPassword", hash);
         assertFalse("Wrong password should fail verification", result);
     }
-}
\ No newline at end of file
+
+    /**
+     * Test Rehash Detection.
+     * Only hashes made with a lower cost than the current one need replacing.
+     */
+    @Test
+    public void testNeedsRehash() {
+        String current = SecurityUtil.hashPassword("password123");
+        assertFalse("Hash with the current cost is up to date", SecurityUtil.needsRehash(current));
+
+        int cost = SecurityUtil.getCost();
+        String weaker = current.substring(0, 4) + String.format("%02d", cost - 1) + current.substring(6);
+        String stronger = current.substring(0, 4) + String.format("%02d", cost + 1) + current.substring(6);
+        assertTrue("Hash with a lower cost needs rehashing", SecurityUtil.needsRehash(weaker));
+        assertFalse("Hash with a higher cost is never downgraded", SecurityUtil.needsRehash(stronger));
+        assertFalse("Malformed hashes are left alone", SecurityUtil.needsRehash("not-a-hash"));
+    }
+
+    /**
+     * Test Cost Calibration.
+     * The calibrated cost grows with the latency target and stays within bounds.
+     */
+    @Test
+    public void testCalibrateCost() {
+        int fast = SecurityUtil.calibrateCost(1);
+        int slow = SecurityUtil.calibrateCost(60_000);
+
+        assertEquals("Tiny targets are clamped to the minimum", SecurityUtil.MIN_COST, fast);
+        assertEquals("Huge targets are clamped to the maximum", SecurityUtil.MAX_COST, slow);
+    }
+}